@@ -0,0 +1,121 @@
+package com.example.stock_portfolio.benchmark; // Package declaration for the JMH benchmarks
+
+import com.example.stock_portfolio.dto.Quote; // Importing Quote record for the stub quote service
+import com.example.stock_portfolio.dto.StockDto; // Importing StockDto class for generated holdings
+import com.example.stock_portfolio.dto.TimestampedQuote; // Importing TimestampedQuote record for the stub quote service
+import com.example.stock_portfolio.repository.StockRepository; // Importing the repository that is stubbed
+import com.example.stock_portfolio.service.QuoteService; // Importing QuoteService interface that is stubbed
+
+import org.springframework.data.domain.PageImpl; // Importing PageImpl to answer paged repository queries
+
+import java.lang.reflect.Proxy; // Importing Proxy to stub the repository interface
+import java.time.Duration; // Importing Duration for the stub quote service
+import java.util.ArrayList; // Importing ArrayList to hold generated data
+import java.util.Collection; // Importing Collection for the stub quote service
+import java.util.List; // Importing List for generated data
+import java.util.Map; // Importing Map for quote batches
+import java.util.Optional; // Importing Optional for skipped quote batches
+
+// Fixtures shared by the benchmarks: generated holdings, an in-memory repository stub and canned payloads
+final class BenchmarkSupport {
+
+    private BenchmarkSupport() {
+    }
+
+    // Holdings spread over the given number of distinct tickers, as a multi-portfolio table would look
+    static List<StockDto> holdings(int count, int distinctTickers) {
+        List<StockDto> holdings = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            String ticker = ticker(i % distinctTickers);
+            holdings.add(new StockDto((long) i + 1, "Company " + ticker + " Inc", ticker,
+                    1L + i % 100, 100.0 + i % 50, 101.5 + i % 60, 1L + i % 200,
+                    (1L + i % 100) * (100.0 + i % 50), 0.0));
+        }
+        return holdings;
+    }
+
+    static List<String> tickers(int count) {
+        List<String> tickers = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            tickers.add(ticker(i));
+        }
+        return tickers;
+    }
+
+    static String ticker(int index) {
+        return "T" + index;
+    }
+
+    // Repository stub serving the given holdings; only the methods the benchmarked paths call are supported
+    static StockRepository stockRepository(List<StockDto> holdings, List<String> tickers) {
+        return (StockRepository) Proxy.newProxyInstance(StockRepository.class.getClassLoader(),
+                new Class<?>[] {StockRepository.class}, (proxy, method, args) -> switch (method.getName()) {
+                    case "findAllStockDtos" -> new PageImpl<>(holdings);
+                    case "findDistinctTickers" -> tickers;
+                    case "updateCurrentPrices" -> ((Map<?, ?>) args[0]).size();
+                    case "toString" -> "BenchmarkStockRepository";
+                    case "hashCode" -> System.identityHashCode(proxy);
+                    case "equals" -> proxy == args[0];
+                    default -> throw new UnsupportedOperationException(method.getName());
+                });
+    }
+
+    // Quote service stub returning a fixed quote without going upstream
+    static QuoteService quoteService(Quote quote) {
+        return new QuoteService() {
+            @Override
+            public Quote getQuote(String ticker) {
+                return quote;
+            }
+
+            @Override
+            public Map<String, Quote> fetchQuotes(List<String> tickers) {
+                throw new UnsupportedOperationException("fetchQuotes");
+            }
+
+            @Override
+            public Optional<Map<String, Quote>> tryFetchQuotes(List<String> tickers) {
+                throw new UnsupportedOperationException("tryFetchQuotes");
+            }
+
+            @Override
+            public Quote getCachedQuote(String ticker) {
+                return quote;
+            }
+
+            @Override
+            public void remember(Quote remembered) {
+            }
+
+            @Override
+            public void evict(String ticker) {
+            }
+
+            @Override
+            public TimestampedQuote getLastKnownQuote(String ticker) {
+                return null;
+            }
+
+            @Override
+            public Collection<TimestampedQuote> getLastKnownQuotes() {
+                return List.of();
+            }
+
+            @Override
+            public void restore(TimestampedQuote quote, Duration servedFor) {
+            }
+        };
+    }
+
+    // A quote object with the full field set Twelve Data returns, including the nested fifty_two_week block
+    static String quoteJson(String symbol, String close) {
+        return "{\"symbol\":\"" + symbol + "\",\"name\":\"Apple Inc\",\"exchange\":\"NASDAQ\",\"mic_code\":\"XNGS\","
+                + "\"currency\":\"USD\",\"datetime\":\"2024-06-14\",\"timestamp\":1718371800,\"open\":\"213.85001\","
+                + "\"high\":\"215.17000\",\"low\":\"211.30000\",\"close\":\"" + close + "\",\"volume\":\"70122748\","
+                + "\"previous_close\":\"214.24001\",\"change\":\"-1.75000\",\"percent_change\":\"-0.81684\","
+                + "\"average_volume\":\"89476125\",\"is_market_open\":false,\"fifty_two_week\":{\"low\":\"164.08000\","
+                + "\"high\":\"220.20000\",\"low_change\":\"48.41000\",\"high_change\":\"-7.70999\","
+                + "\"low_change_percent\":\"29.50390\",\"high_change_percent\":\"-3.50136\","
+                + "\"range\":\"164.080002 - 220.199997\"},\"country\":\"United States\"}";
+    }
+}
@@ -0,0 +1,104 @@
+package com.example.stock_portfolio.benchmark; // Package declaration for the JMH benchmarks
+
+import com.example.stock_portfolio.dto.Quote; // Importing Quote record for the stub quote service
+import com.example.stock_portfolio.mapper.CandleSeriesWriter; // Importing the streaming candle writer
+import com.example.stock_portfolio.service.StockService; // Importing StockService interface
+import com.example.stock_portfolio.service.impl.StockServiceImpl; // Importing the service under test
+import com.example.stock_portfolio.store.CandleStore; // Importing CandleStore to seed local candles
+
+import com.fasterxml.jackson.databind.ObjectMapper; // Importing ObjectMapper to serialize results like the controller does
+
+import org.openjdk.jmh.annotations.Benchmark; // JMH benchmark method marker
+import org.openjdk.jmh.annotations.BenchmarkMode; // JMH measurement mode
+import org.openjdk.jmh.annotations.Fork; // JMH fork count
+import org.openjdk.jmh.annotations.Measurement; // JMH measurement iterations
+import org.openjdk.jmh.annotations.Mode; // JMH measurement modes
+import org.openjdk.jmh.annotations.OutputTimeUnit; // JMH output time unit
+import org.openjdk.jmh.annotations.Scope; // JMH state scope
+import org.openjdk.jmh.annotations.Setup; // JMH state setup
+import org.openjdk.jmh.annotations.State; // JMH state marker
+import org.openjdk.jmh.annotations.TearDown; // JMH state teardown
+import org.openjdk.jmh.annotations.Warmup; // JMH warmup iterations
+
+import java.io.IOException; // Importing IOException for serialization errors
+import java.io.OutputStream; // Importing OutputStream to discard serialized bytes
+import java.nio.file.Files; // Importing Files for the temporary candle directory
+import java.nio.file.Path; // Importing Path for the temporary candle directory
+import java.time.Duration; // Importing Duration for the service's candle staleness
+import java.util.Comparator; // Importing Comparator to delete the candle directory depth first
+import java.util.concurrent.TimeUnit; // Importing TimeUnit for the output unit
+import java.util.stream.Stream; // Importing Stream to walk the candle directory
+
+// The chart and ticker info endpoints: processHistoricalData and processTickerInfo through the public
+// service methods, serialized with the ObjectMapper, next to the streaming CandleSeriesWriter path.
+// Candles come from a seeded local CandleStore that is marked fresh, so no upstream call is made.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class HistoricalDataBenchmark {
+
+    private static final String TICKER = "AAPL";
+    private static final String INTERVAL = "1h"; // The interval served by getStockHistoricalData
+    private static final int CANDLES = 5000; // Stored candles; the chart endpoint serves the latest 100
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final CandleSeriesWriter candleSeriesWriter = new CandleSeriesWriter(objectMapper);
+    private Path directory;
+    private StockService stockService;
+
+    @Setup
+    public void setUp() throws IOException {
+        directory = Files.createTempDirectory("candles-benchmark");
+        CandleStore candleStore = new CandleStore(directory);
+        long[] times = new long[CANDLES];
+        double[] closes = new double[CANDLES];
+        for (int i = 0; i < CANDLES; i++) {
+            times[i] = 1_700_000_000L + i * 3600L;
+            closes[i] = 180 + i % 20 + 0.25;
+        }
+        candleStore.append(TICKER, INTERVAL, times, closes, CANDLES);
+        candleStore.markFetched(TICKER, INTERVAL);
+
+        Quote quote = new Quote(TICKER, "Apple Inc", 212.49, "USD", "NASDAQ", "United States");
+        stockService = new StockServiceImpl(null, null, null, null, BenchmarkSupport.quoteService(quote), null, event -> { },
+                candleStore, Duration.ofDays(365)); // Never stale during the run
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        try (Stream<Path> files = Files.walk(directory)) {
+            files.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+        }
+    }
+
+    @Benchmark
+    public OutputStream historicalDataMaps() throws IOException {
+        OutputStream out = OutputStream.nullOutputStream();
+        objectMapper.writeValue(out, stockService.getStockHistoricalData(TICKER));
+        return out;
+    }
+
+    @Benchmark
+    public OutputStream historicalDataStreaming() throws IOException {
+        OutputStream out = OutputStream.nullOutputStream();
+        candleSeriesWriter.writeJson(stockService.getHistoricalCandles(TICKER, INTERVAL, 100, null, null), INTERVAL, out);
+        return out;
+    }
+
+    @Benchmark
+    public OutputStream historicalDataColumnar() throws IOException {
+        OutputStream out = OutputStream.nullOutputStream();
+        candleSeriesWriter.writeColumnarJson(TICKER, INTERVAL, stockService.getHistoricalCandles(TICKER, INTERVAL, 100, null, null), out);
+        return out;
+    }
+
+    @Benchmark
+    public OutputStream tickerInfo() throws IOException {
+        OutputStream out = OutputStream.nullOutputStream();
+        objectMapper.writeValue(out, stockService.getTickerInfo(TICKER));
+        return out;
+    }
+}
@@ -0,0 +1,54 @@
+package com.example.stock_portfolio.benchmark; // Package declaration for the JMH benchmarks
+
+import com.example.stock_portfolio.service.StockService; // Importing StockService interface
+import com.example.stock_portfolio.service.impl.StockServiceImpl; // Importing the service under test
+
+import com.fasterxml.jackson.databind.ObjectMapper; // Importing ObjectMapper to serialize the listing like the controller does
+
+import org.openjdk.jmh.annotations.Benchmark; // JMH benchmark method marker
+import org.openjdk.jmh.annotations.BenchmarkMode; // JMH measurement mode
+import org.openjdk.jmh.annotations.Fork; // JMH fork count
+import org.openjdk.jmh.annotations.Measurement; // JMH measurement iterations
+import org.openjdk.jmh.annotations.Mode; // JMH measurement modes
+import org.openjdk.jmh.annotations.OutputTimeUnit; // JMH output time unit
+import org.openjdk.jmh.annotations.Param; // JMH benchmark parameters
+import org.openjdk.jmh.annotations.Scope; // JMH state scope
+import org.openjdk.jmh.annotations.Setup; // JMH state setup
+import org.openjdk.jmh.annotations.State; // JMH state marker
+import org.openjdk.jmh.annotations.Warmup; // JMH warmup iterations
+
+import java.io.IOException; // Importing IOException for serialization errors
+import java.io.OutputStream; // Importing OutputStream to discard serialized bytes
+import java.time.Duration; // Importing Duration for the service's candle staleness
+import java.util.concurrent.TimeUnit; // Importing TimeUnit for the output unit
+
+// GET /api/stocks without paging: getAllStocks plus JSON serialization of the whole listing.
+// The repository is an in-memory stub, so this measures the service and serialization cost only.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class HoldingsSerializationBenchmark {
+
+    @Param({"1000", "10000", "100000"})
+    public int holdings; // Number of holdings in the listing
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private StockService stockService;
+
+    @Setup
+    public void setUp() {
+        stockService = new StockServiceImpl(
+                BenchmarkSupport.stockRepository(BenchmarkSupport.holdings(holdings, 500), BenchmarkSupport.tickers(500)),
+                null, null, null, null, null, event -> { }, null, Duration.ofMinutes(15));
+    }
+
+    @Benchmark
+    public OutputStream getAllStocksAsJson() throws IOException {
+        OutputStream out = OutputStream.nullOutputStream();
+        objectMapper.writeValue(out, stockService.getAllStocks());
+        return out;
+    }
+}
@@ -0,0 +1,145 @@
+package com.example.stock_portfolio.benchmark; // Package declaration for the JMH benchmarks
+
+import com.example.stock_portfolio.client.TwelveDataClient; // Importing the Twelve Data client
+import com.example.stock_portfolio.config.AppConfig; // Importing AppConfig to build the production HTTP stack
+import com.example.stock_portfolio.dto.RefreshReport; // Importing RefreshReport returned by a refresh cycle
+import com.example.stock_portfolio.service.impl.PriceRefreshServiceImpl; // Importing the service under test
+import com.example.stock_portfolio.service.impl.QuoteServiceImpl; // Importing the quote service used by the refresher
+import com.example.stock_portfolio.util.CircuitBreaker; // Importing the circuit breaker of the client
+import com.example.stock_portfolio.util.TokenBucketRateLimiter; // Importing the rate limiter of the client
+
+import com.fasterxml.jackson.databind.ObjectMapper; // Importing ObjectMapper for the client
+
+import com.sun.net.httpserver.HttpExchange; // Importing HttpExchange for the stub server handler
+import com.sun.net.httpserver.HttpServer; // Importing the JDK HTTP server standing in for Twelve Data
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry; // Importing SimpleMeterRegistry for the instrumented beans
+
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient; // Importing the pooled HTTP client
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager; // Importing the pooling connection manager
+
+import org.openjdk.jmh.annotations.Benchmark; // JMH benchmark method marker
+import org.openjdk.jmh.annotations.BenchmarkMode; // JMH measurement mode
+import org.openjdk.jmh.annotations.Fork; // JMH fork count
+import org.openjdk.jmh.annotations.Measurement; // JMH measurement iterations
+import org.openjdk.jmh.annotations.Mode; // JMH measurement modes
+import org.openjdk.jmh.annotations.OutputTimeUnit; // JMH output time unit
+import org.openjdk.jmh.annotations.Param; // JMH benchmark parameters
+import org.openjdk.jmh.annotations.Scope; // JMH state scope
+import org.openjdk.jmh.annotations.Setup; // JMH state setup
+import org.openjdk.jmh.annotations.State; // JMH state marker
+import org.openjdk.jmh.annotations.TearDown; // JMH state teardown
+import org.openjdk.jmh.annotations.Warmup; // JMH warmup iterations
+
+import org.springframework.boot.web.client.RestTemplateBuilder; // Importing RestTemplateBuilder used by AppConfig
+
+import java.io.IOException; // Importing IOException for server errors
+import java.io.OutputStream; // Importing OutputStream to write stub responses
+import java.net.InetSocketAddress; // Importing InetSocketAddress to bind the stub server
+import java.net.URLDecoder; // Importing URLDecoder to read the requested symbols
+import java.nio.charset.StandardCharsets; // Importing StandardCharsets to encode stub responses
+import java.time.Duration; // Importing Duration for timeouts and backoff
+import java.util.Locale; // Importing Locale to format stub prices
+import java.util.concurrent.ExecutorService; // Importing ExecutorService for the refresh and server threads
+import java.util.concurrent.Executors; // Importing Executors to create virtual thread executors
+import java.util.concurrent.TimeUnit; // Importing TimeUnit for the output unit
+import java.util.concurrent.atomic.AtomicLong; // Importing AtomicLong to move stub prices between requests
+
+// One full refresh cycle (distinct tickers, batched multi-symbol quotes on virtual threads, streaming parse,
+// dirty check and batch write) against a local HTTP server standing in for Twelve Data. The HTTP stack is
+// the production one from AppConfig; the repository is an in-memory stub. Stub prices move on every
+// request, so every symbol is written on every cycle.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PriceRefreshBenchmark {
+
+    @Param({"500", "5000"})
+    public int symbols; // Distinct tickers held across all portfolios
+
+    private final AtomicLong requests = new AtomicLong(); // Requests served, used to move prices
+    private HttpServer server;
+    private ExecutorService serverExecutor;
+    private ExecutorService refreshExecutor;
+    private PoolingHttpClientConnectionManager connectionManager;
+    private CloseableHttpClient httpClient;
+    private PriceRefreshServiceImpl priceRefreshService;
+
+    @Setup
+    public void setUp() throws IOException {
+        serverExecutor = Executors.newVirtualThreadPerTaskExecutor();
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/quote", this::handleQuote);
+        server.setExecutor(serverExecutor);
+        server.start();
+
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        AppConfig appConfig = new AppConfig();
+        connectionManager = appConfig.twelveDataConnectionManager(meterRegistry, 20, 50, Duration.ofSeconds(5), Duration.ofSeconds(10));
+        httpClient = appConfig.twelveDataHttpClient(connectionManager, Duration.ofSeconds(30), Duration.ofSeconds(2), Duration.ofSeconds(10));
+        TokenBucketRateLimiter rateLimiter = new TokenBucketRateLimiter(1_000_000, Duration.ofSeconds(1)); // Effectively unlimited
+        TwelveDataClient client = new TwelveDataClient(
+                appConfig.restTemplate(new RestTemplateBuilder(), httpClient),
+                new ObjectMapper(),
+                rateLimiter,
+                new CircuitBreaker(5, Duration.ofSeconds(30)),
+                meterRegistry,
+                "http://127.0.0.1:" + server.getAddress().getPort(),
+                "benchmark");
+        QuoteServiceImpl quoteService = new QuoteServiceImpl(client, meterRegistry, Duration.ofMinutes(1), 10_000);
+
+        refreshExecutor = Executors.newVirtualThreadPerTaskExecutor();
+        priceRefreshService = new PriceRefreshServiceImpl(
+                BenchmarkSupport.stockRepository(BenchmarkSupport.holdings(symbols, symbols), BenchmarkSupport.tickers(symbols)),
+                quoteService, refreshExecutor, event -> { }, meterRegistry, rateLimiter, 50, 3, Duration.ofMillis(50));
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        refreshExecutor.close();
+        httpClient.close();
+        connectionManager.close();
+        server.stop(0);
+        serverExecutor.close();
+    }
+
+    @Benchmark
+    public RefreshReport refreshCycle() {
+        return priceRefreshService.refreshPrices();
+    }
+
+    // Answer /quote?symbol=A,B,C with a keyed batch response, or a plain quote object for a single symbol
+    private void handleQuote(HttpExchange exchange) throws IOException {
+        String query = exchange.getRequestURI().getRawQuery();
+        String symbolParam = "";
+        for (String parameter : query.split("&")) {
+            if (parameter.startsWith("symbol=")) {
+                symbolParam = URLDecoder.decode(parameter.substring("symbol=".length()), StandardCharsets.UTF_8);
+            }
+        }
+        String[] requested = symbolParam.split(",");
+        String close = String.format(Locale.ROOT, "%.5f", 100 + requests.incrementAndGet() % 1000 / 100.0);
+
+        StringBuilder body = new StringBuilder();
+        if (requested.length == 1) {
+            body.append(BenchmarkSupport.quoteJson(requested[0], close));
+        } else {
+            body.append('{');
+            for (int i = 0; i < requested.length; i++) {
+                body.append(i == 0 ? "" : ",").append('"').append(requested[i]).append("\":")
+                        .append(BenchmarkSupport.quoteJson(requested[i], close));
+            }
+            body.append('}');
+        }
+
+        byte[] bytes = body.toString().getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(200, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+}
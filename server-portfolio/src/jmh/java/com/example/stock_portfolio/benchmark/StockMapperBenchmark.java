@@ -0,0 +1,61 @@
+package com.example.stock_portfolio.benchmark; // Package declaration for the JMH benchmarks
+
+import com.example.stock_portfolio.dto.StockDto; // Importing StockDto class
+import com.example.stock_portfolio.entity.Stocks; // Importing Stocks entity class
+import com.example.stock_portfolio.mapper.StockMapper; // Importing the mapper under test
+
+import org.openjdk.jmh.annotations.Benchmark; // JMH benchmark method marker
+import org.openjdk.jmh.annotations.BenchmarkMode; // JMH measurement mode
+import org.openjdk.jmh.annotations.Fork; // JMH fork count
+import org.openjdk.jmh.annotations.Measurement; // JMH measurement iterations
+import org.openjdk.jmh.annotations.Mode; // JMH measurement modes
+import org.openjdk.jmh.annotations.OutputTimeUnit; // JMH output time unit
+import org.openjdk.jmh.annotations.Param; // JMH benchmark parameters
+import org.openjdk.jmh.annotations.Scope; // JMH state scope
+import org.openjdk.jmh.annotations.Setup; // JMH state setup
+import org.openjdk.jmh.annotations.State; // JMH state marker
+import org.openjdk.jmh.annotations.Warmup; // JMH warmup iterations
+
+import java.util.ArrayList; // Importing ArrayList for mapped lists
+import java.util.List; // Importing List for mapped lists
+import java.util.concurrent.TimeUnit; // Importing TimeUnit for the output unit
+
+// Entity <-> DTO mapping over whole holding lists, as done for listings and bulk writes
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class StockMapperBenchmark {
+
+    @Param({"1000", "10000", "100000"})
+    public int holdings; // Number of holdings mapped per operation
+
+    private List<StockDto> dtos;
+    private List<Stocks> entities;
+
+    @Setup
+    public void setUp() {
+        dtos = BenchmarkSupport.holdings(holdings, 500);
+        entities = dtos.stream().map(StockMapper::mapToStock).toList();
+    }
+
+    @Benchmark
+    public List<StockDto> entitiesToDtos() {
+        List<StockDto> mapped = new ArrayList<>(entities.size());
+        for (Stocks stock : entities) {
+            mapped.add(StockMapper.mapToStockDto(stock));
+        }
+        return mapped;
+    }
+
+    @Benchmark
+    public List<Stocks> dtosToEntities() {
+        List<Stocks> mapped = new ArrayList<>(dtos.size());
+        for (StockDto stockDto : dtos) {
+            mapped.add(StockMapper.mapToStock(stockDto));
+        }
+        return mapped;
+    }
+}
@@ -0,0 +1,139 @@
+package com.example.stock_portfolio.benchmark; // Package declaration for the JMH benchmarks
+
+import com.example.stock_portfolio.client.TwelveDataClient; // Importing the client whose parsers are measured
+import com.example.stock_portfolio.store.CandleStore; // Importing CandleStore to parse candle times in the tree path
+
+import com.fasterxml.jackson.databind.JsonNode; // Importing JsonNode for the tree-based baseline
+import com.fasterxml.jackson.databind.ObjectMapper; // Importing ObjectMapper for both paths
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry; // Importing SimpleMeterRegistry for the client under test
+
+import org.openjdk.jmh.annotations.Benchmark; // JMH benchmark method marker
+import org.openjdk.jmh.annotations.BenchmarkMode; // JMH measurement mode
+import org.openjdk.jmh.annotations.Fork; // JMH fork count
+import org.openjdk.jmh.annotations.Measurement; // JMH measurement iterations
+import org.openjdk.jmh.annotations.Mode; // JMH measurement modes
+import org.openjdk.jmh.annotations.OutputTimeUnit; // JMH output time unit
+import org.openjdk.jmh.annotations.Param; // JMH benchmark parameters
+import org.openjdk.jmh.annotations.Scope; // JMH state scope
+import org.openjdk.jmh.annotations.Setup; // JMH state setup
+import org.openjdk.jmh.annotations.State; // JMH state marker
+import org.openjdk.jmh.annotations.Warmup; // JMH warmup iterations
+
+import java.io.ByteArrayInputStream; // Importing ByteArrayInputStream to stand in for the response stream
+import java.io.IOException; // Importing IOException for parse errors
+import java.nio.charset.StandardCharsets; // Importing StandardCharsets to encode payloads
+import java.util.HashMap; // Importing HashMap for parsed quotes
+import java.util.Iterator; // Importing Iterator to walk the quote batch
+import java.util.Map; // Importing Map for parsed quotes
+import java.util.concurrent.TimeUnit; // Importing TimeUnit for the output unit
+
+// Compares the streaming parsers of TwelveDataClient with the JsonNode tree path they replaced,
+// on payloads shaped like real quote, batch quote and time_series responses.
+// The tree path reads the body into a String first, as RestTemplate.getForObject(url, String.class) did.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TwelveDataParsingBenchmark {
+
+    @Param({"50"})
+    public int batchSymbols; // Symbols per batch quote response, the default refresh batch size
+
+    @Param({"100", "5000"})
+    public int candles; // Values per time_series response: default chart window and largest tail fetch
+
+    private final ObjectMapper sharedMapper = new ObjectMapper();
+    private TwelveDataClient client;
+    private byte[] quotePayload;
+    private byte[] batchPayload;
+    private byte[] timeSeriesPayload;
+
+    @Setup
+    public void setUp() {
+        client = new TwelveDataClient(null, sharedMapper, null, null, new SimpleMeterRegistry(), null, "benchmark"); // Only the parsers are exercised
+        quotePayload = BenchmarkSupport.quoteJson("AAPL", "212.49001").getBytes(StandardCharsets.UTF_8);
+
+        StringBuilder batch = new StringBuilder("{");
+        for (int i = 0; i < batchSymbols; i++) {
+            String symbol = "SYM" + i;
+            batch.append(i == 0 ? "" : ",").append('"').append(symbol).append("\":").append(BenchmarkSupport.quoteJson(symbol, "212.49001"));
+        }
+        batchPayload = batch.append('}').toString().getBytes(StandardCharsets.UTF_8);
+
+        StringBuilder series = new StringBuilder("{\"meta\":{\"symbol\":\"AAPL\",\"interval\":\"1h\",\"currency\":\"USD\","
+                + "\"exchange_timezone\":\"America/New_York\",\"exchange\":\"NASDAQ\",\"mic_code\":\"XNGS\",\"type\":\"Common Stock\"},"
+                + "\"values\":[");
+        long time = 1_700_000_000L;
+        for (int i = 0; i < candles; i++) {
+            String datetime = CandleStore.formatTime(time - i * 3600L, "1h");
+            series.append(i == 0 ? "" : ",")
+                    .append("{\"datetime\":\"").append(datetime)
+                    .append("\",\"open\":\"189.12000\",\"high\":\"190.05000\",\"low\":\"188.47000\",\"close\":\"")
+                    .append(180 + i % 20).append(".25000\",\"volume\":\"1843275\"}");
+        }
+        timeSeriesPayload = series.append("],\"status\":\"ok\"}").toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Benchmark
+    public Object quoteTreeNewMapper() throws IOException {
+        return new ObjectMapper().readTree(new String(quotePayload, StandardCharsets.UTF_8)).path("close").asDouble();
+    }
+
+    @Benchmark
+    public Object quoteTreeSharedMapper() throws IOException {
+        return sharedMapper.readTree(new String(quotePayload, StandardCharsets.UTF_8)).path("close").asDouble();
+    }
+
+    @Benchmark
+    public Object quoteStreaming() throws IOException {
+        return client.readQuote(new ByteArrayInputStream(quotePayload));
+    }
+
+    @Benchmark
+    public Object batchTree() throws IOException {
+        JsonNode root = sharedMapper.readTree(new String(batchPayload, StandardCharsets.UTF_8));
+        Map<String, Double> closes = new HashMap<>();
+        for (Iterator<Map.Entry<String, JsonNode>> it = root.fields(); it.hasNext(); ) {
+            Map.Entry<String, JsonNode> entry = it.next();
+            closes.put(entry.getKey(), entry.getValue().path("close").asDouble());
+        }
+        return closes;
+    }
+
+    @Benchmark
+    public Object batchStreaming() throws IOException {
+        return client.readQuotes(new ByteArrayInputStream(batchPayload));
+    }
+
+    @Benchmark
+    public Object timeSeriesTreeNewMapper() throws IOException {
+        return timeSeriesTree(new ObjectMapper());
+    }
+
+    @Benchmark
+    public Object timeSeriesTreeSharedMapper() throws IOException {
+        return timeSeriesTree(sharedMapper);
+    }
+
+    @Benchmark
+    public Object timeSeriesStreaming() throws IOException {
+        return client.readTimeSeries(new ByteArrayInputStream(timeSeriesPayload));
+    }
+
+    // The tree-based time series path: read the body into a String, build a JsonNode tree, then copy the columns out
+    private Object timeSeriesTree(ObjectMapper mapper) throws IOException {
+        JsonNode values = mapper.readTree(new String(timeSeriesPayload, StandardCharsets.UTF_8)).path("values");
+        int size = values.size();
+        long[] times = new long[size];
+        double[] closes = new double[size];
+        for (int i = 0; i < size; i++) {
+            JsonNode value = values.get(size - 1 - i);
+            times[i] = CandleStore.parseTime(value.path("datetime").asText());
+            closes[i] = value.path("close").asDouble();
+        }
+        return closes;
+    }
+}
@@ -0,0 +1,325 @@
+package com.example.stock_portfolio.loadtest; // Package declaration for the load-test harness
+
+import com.example.stock_portfolio.StockPortfolioApplication; // Importing the application under test
+
+import com.fasterxml.jackson.databind.JsonNode; // Importing JsonNode to read seeded holdings
+import com.fasterxml.jackson.databind.ObjectMapper; // Importing ObjectMapper for request bodies and the report
+import com.fasterxml.jackson.databind.SerializationFeature; // Importing SerializationFeature to indent the report
+
+import org.springframework.boot.builder.SpringApplicationBuilder; // Importing SpringApplicationBuilder to boot the application
+import org.springframework.boot.web.context.WebServerApplicationContext; // Importing the context to read the server port
+import org.springframework.context.ConfigurableApplicationContext; // Importing the context to stop the application
+
+import java.io.IOException; // Importing IOException for report and seeding errors
+import java.net.URI; // Importing URI for request targets
+import java.net.http.HttpClient; // Importing HttpClient to drive the endpoints
+import java.net.http.HttpRequest; // Importing HttpRequest for scenario requests
+import java.net.http.HttpResponse; // Importing HttpResponse for status codes
+import java.nio.file.Files; // Importing Files for the data directory and the report
+import java.nio.file.Path; // Importing Path for the data directory and the report
+import java.time.Duration; // Importing Duration for phases and thresholds
+import java.util.ArrayList; // Importing ArrayList for holdings, results and violations
+import java.util.Arrays; // Importing Arrays to sort latencies
+import java.util.LinkedHashMap; // Importing LinkedHashMap for ordered arguments
+import java.util.List; // Importing List for scenarios and results
+import java.util.Locale; // Importing Locale to format the report table
+import java.util.Map; // Importing Map for arguments
+import java.util.SplittableRandom; // Importing SplittableRandom for the seeded request mix
+import java.util.concurrent.ExecutorService; // Importing ExecutorService for in-flight requests
+import java.util.concurrent.Executors; // Importing Executors to create a virtual thread executor
+import java.util.concurrent.locks.LockSupport; // Importing LockSupport to pace requests
+
+// Offline load test of the REST API: boots the application on an in-memory H2 database (profile loadtest)
+// against a local TwelveDataSimulator, seeds holdings through the batch endpoint, then drives a fixed,
+// seeded mix of StockController requests at a target rate and reports throughput and latency percentiles
+// per endpoint. Requests are sent open-loop on a fixed schedule and their latency is measured from the
+// scheduled send time, so a stalled server shows up as latency rather than as a lower request rate.
+// The report goes to the console and as JSON to the report file; with thresholds given the run fails
+// (exit code 1) when they are not met, so it can gate a release.
+// Run with: ./mvnw -Ploadtest -DskipTests verify -Dloadtest.args="rps=200 duration=PT60S max-p99=PT0.25S"
+public final class LoadTest {
+
+    // One kind of request in the mix
+    private record Scenario(String name, int weight, RequestFactory factory) {
+    }
+
+    private interface RequestFactory {
+        HttpRequest create(SplittableRandom random);
+    }
+
+    // Held position the write and per-ticker scenarios pick from
+    private record Holding(long id, String ticker) {
+    }
+
+    // Latency summary of one scenario or of all requests, in milliseconds
+    public record Result(String scenario, long requests, long errors, double throughput,
+                         double p50, double p90, double p99, double p999, double max) {
+    }
+
+    public record Report(Map<String, String> settings, List<Result> results, long upstreamRequests,
+                         long upstreamErrors, long upstreamRateLimited, List<String> violations) {
+    }
+
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(10); // Counted as an error with this latency
+
+    private final Map<String, String> arguments;
+    private final ObjectMapper objectMapper = new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT);
+    private final HttpClient httpClient = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(5))
+            .executor(Executors.newVirtualThreadPerTaskExecutor()).build();
+    private String baseUrl; // Base URL of the application under test
+    private final List<Holding> holdings = new ArrayList<>();
+
+    private LoadTest(Map<String, String> arguments) {
+        this.arguments = arguments;
+    }
+
+    public static void main(String[] args) throws Exception {
+        System.exit(new LoadTest(arguments(args)).run() ? 0 : 1);
+    }
+
+    // Parse key=value arguments, also accepting a single argument holding all of them
+    static Map<String, String> arguments(String[] args) {
+        Map<String, String> arguments = new LinkedHashMap<>();
+        for (String arg : args) {
+            for (String token : arg.trim().split("\\s+")) {
+                int separator = token.indexOf('=');
+                if (separator > 0) {
+                    arguments.put(token.substring(0, separator), token.substring(separator + 1));
+                } else if (!token.isEmpty()) {
+                    throw new IllegalArgumentException("Expected key=value, got '" + token + "'");
+                }
+            }
+        }
+        return arguments;
+    }
+
+    private boolean run() throws Exception {
+        int rps = Integer.parseInt(arguments.getOrDefault("rps", "100"));
+        Duration warmup = Duration.parse(arguments.getOrDefault("warmup", "PT10S"));
+        Duration duration = Duration.parse(arguments.getOrDefault("duration", "PT30S"));
+        int holdingCount = Integer.parseInt(arguments.getOrDefault("holdings", "200"));
+        long seed = Long.parseLong(arguments.getOrDefault("seed", "42"));
+        Path report = Path.of(arguments.getOrDefault("report", "target/loadtest-result.json"));
+        Path dataDirectory = Files.createTempDirectory("portfolio-loadtest");
+
+        TwelveDataSimulator.Settings simulatorSettings = TwelveDataSimulator.Settings.from(arguments);
+        try (TwelveDataSimulator simulator = new TwelveDataSimulator(simulatorSettings, 0);
+             ConfigurableApplicationContext context = new SpringApplicationBuilder(StockPortfolioApplication.class)
+                     .profiles("loadtest")
+                     .run("--twelvedata.base-url=" + simulator.baseUrl(),
+                             "--portfolio.quote-snapshot.file=" + dataDirectory.resolve("quote-snapshot.bin"),
+                             "--portfolio.symbols.file=" + dataDirectory.resolve("symbols.csv"),
+                             "--portfolio.candles.dir=" + dataDirectory.resolve("candles"),
+                             "--portfolio.history.dir=" + dataDirectory.resolve("valuation"))) {
+            baseUrl = "http://127.0.0.1:" + ((WebServerApplicationContext) context).getWebServer().getPort();
+            seed(simulator, Math.min(holdingCount, simulatorSettings.symbols()));
+
+            List<Scenario> scenarios = scenarios();
+            Map<String, LatencyRecorder> recorders = new LinkedHashMap<>();
+            scenarios.forEach(scenario -> recorders.put(scenario.name(), new LatencyRecorder()));
+            System.out.printf(Locale.ROOT, "Driving %d requests/s for %s after a %s warmup against %d holdings%n",
+                    rps, duration, warmup, holdings.size());
+            double measuredSeconds = drive(scenarios, recorders, rps, warmup, duration, new SplittableRandom(seed));
+
+            List<Result> results = new ArrayList<>();
+            LatencyRecorder total = new LatencyRecorder();
+            recorders.forEach((name, recorder) -> {
+                results.add(recorder.result(name, measuredSeconds));
+                total.addAll(recorder);
+            });
+            Result overall = total.result("total", measuredSeconds);
+            results.add(overall);
+
+            List<String> violations = violations(overall, rps);
+            Map<String, String> settings = new LinkedHashMap<>(arguments);
+            settings.putIfAbsent("rps", String.valueOf(rps));
+            settings.putIfAbsent("duration", duration.toString());
+            Report summary = new Report(settings, results, simulator.requests(), simulator.injectedErrors(),
+                    simulator.rateLimited(), violations);
+            print(summary);
+            if (report.getParent() != null) {
+                Files.createDirectories(report.getParent());
+            }
+            objectMapper.writeValue(report.toFile(), summary);
+            System.out.println("Report written to " + report.toAbsolutePath());
+            return violations.isEmpty();
+        }
+    }
+
+    // Create the holdings in one batch request and read back their IDs
+    private void seed(TwelveDataSimulator simulator, int count) throws IOException, InterruptedException {
+        List<Map<String, Object>> rows = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            rows.add(Map.of("ticker", simulator.symbol(i), "quantity", 1 + i % 50));
+        }
+        HttpResponse<String> created = httpClient.send(HttpRequest.newBuilder(URI.create(baseUrl + "/api/stocks/batch"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(objectMapper.writeValueAsString(rows))).build(),
+                HttpResponse.BodyHandlers.ofString());
+        if (created.statusCode() / 100 != 2) {
+            throw new IllegalStateException("Seeding failed with HTTP " + created.statusCode() + ": " + created.body());
+        }
+        HttpResponse<String> listed = httpClient.send(HttpRequest.newBuilder(URI.create(baseUrl + "/api/stocks")).build(),
+                HttpResponse.BodyHandlers.ofString());
+        for (JsonNode stock : objectMapper.readTree(listed.body())) {
+            holdings.add(new Holding(stock.get("id").asLong(), stock.get("ticker").asText()));
+        }
+        if (holdings.isEmpty()) {
+            throw new IllegalStateException("Seeding created no holdings: " + created.body());
+        }
+    }
+
+    // The request mix: mostly reads of the holdings and the summary, ticker lookups, charts and some edits
+    private List<Scenario> scenarios() {
+        return List.of(
+                new Scenario("list", 25, random -> get("/api/stocks")),
+                new Scenario("page", 15, random -> get("/api/stocks?page=0&size=50&sort=currentPrice,desc")),
+                new Scenario("summary", 15, random -> get("/api/stocks/summary")),
+                new Scenario("ticker-info", 20, random -> get("/api/stocks/" + pick(random).ticker() + "/info")),
+                new Scenario("chart", 15, random -> get("/api/stocks/" + pick(random).ticker()
+                        + "/data?interval=1day&outputsize=250&format=columnar")),
+                new Scenario("update", 10, random -> {
+                    Holding holding = pick(random);
+                    String body = "{\"ticker\":\"" + holding.ticker() + "\",\"quantity\":" + (1 + random.nextInt(100)) + "}";
+                    return HttpRequest.newBuilder(URI.create(baseUrl + "/api/stocks/" + holding.id()))
+                            .timeout(REQUEST_TIMEOUT).header("Content-Type", "application/json")
+                            .PUT(HttpRequest.BodyPublishers.ofString(body)).build();
+                }));
+    }
+
+    // Send requests on a fixed schedule and record those scheduled after the warmup; returns the measured seconds
+    private double drive(List<Scenario> scenarios, Map<String, LatencyRecorder> recorders, int rps,
+                         Duration warmup, Duration duration, SplittableRandom random) {
+        int totalWeight = scenarios.stream().mapToInt(Scenario::weight).sum();
+        long intervalNanos = 1_000_000_000L / rps;
+        long warmupNanos = warmup.toNanos();
+        long endNanos = warmupNanos + duration.toNanos();
+        long start = System.nanoTime();
+        long[] lastCompletion = {start + warmupNanos};
+        try (ExecutorService inFlight = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (long i = 0; i * intervalNanos < endNanos; i++) {
+                long scheduled = start + i * intervalNanos;
+                long wait = scheduled - System.nanoTime();
+                if (wait > 0) {
+                    LockSupport.parkNanos(wait);
+                }
+                Scenario scenario = choose(scenarios, random.nextInt(totalWeight));
+                HttpRequest request = scenario.factory().create(random);
+                LatencyRecorder recorder = scheduled - start >= warmupNanos ? recorders.get(scenario.name()) : null;
+                inFlight.submit(() -> {
+                    boolean ok;
+                    try {
+                        int status = httpClient.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+                        ok = status / 100 == 2 || status == 304;
+                    } catch (IOException e) {
+                        ok = false;
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        return;
+                    }
+                    long completed = System.nanoTime();
+                    if (recorder != null) {
+                        recorder.record(completed - scheduled, ok);
+                        synchronized (lastCompletion) {
+                            lastCompletion[0] = Math.max(lastCompletion[0], completed);
+                        }
+                    }
+                });
+            }
+        }
+        return Math.max(lastCompletion[0] - (start + warmupNanos), 1) / 1e9;
+    }
+
+    private List<String> violations(Result overall, int rps) {
+        List<String> violations = new ArrayList<>();
+        String maxP99 = arguments.get("max-p99");
+        if (maxP99 != null && overall.p99() > Duration.parse(maxP99).toNanos() / 1e6) {
+            violations.add(String.format(Locale.ROOT, "p99 %.1f ms is above %s", overall.p99(), maxP99));
+        }
+        String maxErrorRate = arguments.get("max-error-rate");
+        double errorRate = overall.requests() == 0 ? 0 : (double) overall.errors() / overall.requests();
+        if (maxErrorRate != null && errorRate > Double.parseDouble(maxErrorRate)) {
+            violations.add(String.format(Locale.ROOT, "error rate %.4f is above %s", errorRate, maxErrorRate));
+        }
+        String minThroughput = arguments.get("min-throughput-ratio");
+        if (minThroughput != null && overall.throughput() < rps * Double.parseDouble(minThroughput)) {
+            violations.add(String.format(Locale.ROOT, "throughput %.1f/s is below %s of the %d/s target",
+                    overall.throughput(), minThroughput, rps));
+        }
+        return violations;
+    }
+
+    private void print(Report report) {
+        System.out.printf(Locale.ROOT, "%n%-12s %9s %7s %9s %9s %9s %9s %9s %9s%n",
+                "scenario", "requests", "errors", "req/s", "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms");
+        for (Result result : report.results()) {
+            System.out.printf(Locale.ROOT, "%-12s %9d %7d %9.1f %9.2f %9.2f %9.2f %9.2f %9.2f%n",
+                    result.scenario(), result.requests(), result.errors(), result.throughput(),
+                    result.p50(), result.p90(), result.p99(), result.p999(), result.max());
+        }
+        System.out.printf(Locale.ROOT, "Upstream: %d requests, %d injected errors, %d rate limited%n",
+                report.upstreamRequests(), report.upstreamErrors(), report.upstreamRateLimited());
+        report.violations().forEach(violation -> System.out.println("FAILED: " + violation));
+    }
+
+    private static Scenario choose(List<Scenario> scenarios, int draw) {
+        for (Scenario scenario : scenarios) {
+            draw -= scenario.weight();
+            if (draw < 0) {
+                return scenario;
+            }
+        }
+        return scenarios.get(scenarios.size() - 1);
+    }
+
+    private Holding pick(SplittableRandom random) {
+        return holdings.get(random.nextInt(holdings.size()));
+    }
+
+    private HttpRequest get(String path) {
+        return HttpRequest.newBuilder(URI.create(baseUrl + path)).timeout(REQUEST_TIMEOUT).GET().build();
+    }
+
+    // Latencies of one scenario in nanoseconds, kept whole so that percentiles are exact
+    private static final class LatencyRecorder {
+        private long[] latencies = new long[1024];
+        private int size;
+        private long errors;
+
+        synchronized void record(long latencyNanos, boolean ok) {
+            if (size == latencies.length) {
+                latencies = Arrays.copyOf(latencies, size * 2);
+            }
+            latencies[size++] = latencyNanos;
+            if (!ok) {
+                errors++;
+            }
+        }
+
+        synchronized void addAll(LatencyRecorder other) {
+            synchronized (other) {
+                for (int i = 0; i < other.size; i++) {
+                    record(other.latencies[i], true);
+                }
+                errors += other.errors;
+            }
+        }
+
+        synchronized Result result(String scenario, double seconds) {
+            long[] sorted = Arrays.copyOf(latencies, size);
+            Arrays.sort(sorted);
+            return new Result(scenario, size, errors, size / seconds,
+                    percentile(sorted, 0.50), percentile(sorted, 0.90), percentile(sorted, 0.99),
+                    percentile(sorted, 0.999), size == 0 ? 0 : sorted[size - 1] / 1e6);
+        }
+
+        // Nearest-rank percentile in milliseconds
+        private static double percentile(long[] sorted, double quantile) {
+            if (sorted.length == 0) {
+                return 0;
+            }
+            int rank = (int) Math.ceil(quantile * sorted.length);
+            return sorted[Math.max(rank, 1) - 1] / 1e6;
+        }
+    }
+}
@@ -0,0 +1,278 @@
+package com.example.stock_portfolio.loadtest; // Package declaration for the load-test harness
+
+import com.example.stock_portfolio.store.CandleStore; // Importing CandleStore for the interval lengths and datetime format
+
+import com.sun.net.httpserver.HttpExchange; // Importing HttpExchange for the request handlers
+import com.sun.net.httpserver.HttpServer; // Importing the JDK HTTP server standing in for Twelve Data
+
+import java.io.IOException; // Importing IOException for server errors
+import java.io.OutputStream; // Importing OutputStream to write responses
+import java.net.InetSocketAddress; // Importing InetSocketAddress to bind the server
+import java.net.URLDecoder; // Importing URLDecoder to read query parameters
+import java.nio.charset.StandardCharsets; // Importing StandardCharsets to encode responses
+import java.time.Duration; // Importing Duration for latency settings
+import java.time.Instant; // Importing Instant for the end of generated series
+import java.util.HashMap; // Importing HashMap for query parameters
+import java.util.Locale; // Importing Locale to format prices
+import java.util.Map; // Importing Map for query parameters and settings
+import java.util.concurrent.CountDownLatch; // Importing CountDownLatch to keep a standalone simulator running
+import java.util.concurrent.ExecutorService; // Importing ExecutorService for the server threads
+import java.util.concurrent.Executors; // Importing Executors to create a virtual thread executor
+import java.util.concurrent.atomic.AtomicLong; // Importing AtomicLong for request counters
+
+// Local stand-in for the Twelve Data REST API serving /quote (one symbol or a comma-separated batch keyed by
+// symbol), /time_series, /stocks and /etf in the response layout the client parses. Prices are a deterministic
+// function of the symbol and the time, so runs with the same settings see the same market. Every response
+// waits the configured latency plus a uniform jitter; a configured share of requests answers with an error
+// body (code 500) and requests over the per-minute credit budget with code 429, both with HTTP 200 like the
+// real API. Whether a request fails is decided by a hash of the seed and the request number, not by timing.
+// Runs standalone with: java ... TwelveDataSimulator port=8099 latency=PT0.05S error-rate=0.02
+public class TwelveDataSimulator implements AutoCloseable {
+
+    // Behaviour of the simulated upstream
+    public record Settings(
+            Duration latency, // Base response time
+            Duration jitter, // Upper bound of the uniform extra response time
+            double errorRate, // Share of requests answered with an error code
+            int creditsPerMinute, // Credit budget per minute, one credit per symbol; 0 for unlimited
+            int symbols, // Size of the listed universe, SIM0 ... SIM(n-1)
+            long seed // Seed of the error and jitter draws
+    ) {
+
+        // Read settings from key=value arguments, falling back to the defaults
+        public static Settings from(Map<String, String> arguments) {
+            return new Settings(
+                    Duration.parse(arguments.getOrDefault("latency", "PT0.02S")),
+                    Duration.parse(arguments.getOrDefault("jitter", "PT0.01S")),
+                    Double.parseDouble(arguments.getOrDefault("error-rate", "0")),
+                    Integer.parseInt(arguments.getOrDefault("credits-per-minute", "0")),
+                    Integer.parseInt(arguments.getOrDefault("symbols", "500")),
+                    Long.parseLong(arguments.getOrDefault("seed", "42")));
+        }
+    }
+
+    private final Settings settings;
+    private final HttpServer server;
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private final AtomicLong requests = new AtomicLong(); // Requests received
+    private final AtomicLong injectedErrors = new AtomicLong(); // Requests answered with code 500
+    private final AtomicLong rateLimited = new AtomicLong(); // Requests answered with code 429
+    private final Object creditLock = new Object();
+    private long creditMinute; // Epoch minute of the current credit window, guarded by creditLock
+    private int creditsUsed; // Credits spent in the current window, guarded by creditLock
+
+    public TwelveDataSimulator(Settings settings, int port) throws IOException {
+        this.settings = settings;
+        this.server = HttpServer.create(new InetSocketAddress("127.0.0.1", port), 0);
+        server.createContext("/quote", exchange -> handle(exchange, this::quote));
+        server.createContext("/time_series", exchange -> handle(exchange, this::timeSeries));
+        server.createContext("/stocks", exchange -> handle(exchange, this::stocks));
+        server.createContext("/etf", exchange -> handle(exchange, this::etfs));
+        server.setExecutor(executor);
+        server.start();
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> arguments = LoadTest.arguments(args);
+        try (TwelveDataSimulator simulator = new TwelveDataSimulator(Settings.from(arguments),
+                Integer.parseInt(arguments.getOrDefault("port", "8099")))) {
+            System.out.println("Twelve Data simulator listening on " + simulator.baseUrl() + " with " + simulator.settings);
+            new CountDownLatch(1).await(); // Until the process is stopped
+        }
+    }
+
+    public String baseUrl() {
+        return "http://127.0.0.1:" + server.getAddress().getPort();
+    }
+
+    public String symbol(int index) {
+        return "SIM" + index;
+    }
+
+    public long requests() {
+        return requests.get();
+    }
+
+    public long injectedErrors() {
+        return injectedErrors.get();
+    }
+
+    public long rateLimited() {
+        return rateLimited.get();
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.close();
+    }
+
+    private interface Endpoint {
+        String respond(Map<String, String> query);
+    }
+
+    // Wait the simulated latency, apply the error and credit rules, then answer with the endpoint's body
+    private void handle(HttpExchange exchange, Endpoint endpoint) throws IOException {
+        long request = requests.incrementAndGet();
+        Map<String, String> query = query(exchange.getRequestURI().getRawQuery());
+        String body;
+        try {
+            long jitterNanos = settings.jitter().toNanos();
+            long delayNanos = settings.latency().toNanos() + (jitterNanos == 0 ? 0 : Math.floorMod(mix(request, 1), jitterNanos));
+            Thread.sleep(Duration.ofNanos(delayNanos));
+
+            int credits = exchange.getRequestURI().getPath().equals("/quote")
+                    ? query.getOrDefault("symbol", "").split(",").length : 1;
+            if (!spend(credits)) {
+                rateLimited.incrementAndGet();
+                body = error(429, "You have run out of API credits for the current minute.");
+            } else if (settings.errorRate() > 0 && (mix(request, 2) >>> 11) * 0x1.0p-53 < settings.errorRate()) {
+                injectedErrors.incrementAndGet();
+                body = error(500, "Simulated upstream failure.");
+            } else {
+                body = endpoint.respond(query);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            body = error(500, "Simulator stopped.");
+        } catch (RuntimeException e) {
+            body = error(400, e.getMessage());
+        }
+
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(200, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    private boolean spend(int credits) {
+        if (settings.creditsPerMinute() <= 0) {
+            return true;
+        }
+        synchronized (creditLock) {
+            long minute = System.currentTimeMillis() / 60_000;
+            if (minute != creditMinute) {
+                creditMinute = minute;
+                creditsUsed = 0;
+            }
+            if (creditsUsed + credits > settings.creditsPerMinute()) {
+                return false;
+            }
+            creditsUsed += credits;
+            return true;
+        }
+    }
+
+    // /quote?symbol=A or /quote?symbol=A,B,C
+    private String quote(Map<String, String> query) {
+        String[] symbols = query.getOrDefault("symbol", "").split(",");
+        long now = Instant.now().getEpochSecond();
+        if (symbols.length == 1) {
+            return quoteJson(symbols[0], now);
+        }
+        StringBuilder body = new StringBuilder("{");
+        for (int i = 0; i < symbols.length; i++) {
+            body.append(i == 0 ? "" : ",").append('"').append(symbols[i]).append("\":").append(quoteJson(symbols[i], now));
+        }
+        return body.append('}').toString();
+    }
+
+    // /time_series?symbol=A&interval=1day&outputsize=N[&start_date=...][&end_date=...], newest first like the real API
+    private String timeSeries(Map<String, String> query) {
+        String symbol = query.getOrDefault("symbol", "");
+        String interval = query.getOrDefault("interval", "1day");
+        int outputsize = Math.min(Integer.parseInt(query.getOrDefault("outputsize", "30")), 5000);
+        long step = CandleStore.intervalDuration(interval).toSeconds();
+        long last = Math.floorDiv(query.containsKey("end_date")
+                ? Math.min(CandleStore.parseTime(query.get("end_date")), Instant.now().getEpochSecond())
+                : Instant.now().getEpochSecond(), step) * step;
+        long first = query.containsKey("start_date")
+                ? Math.max(CandleStore.parseTime(query.get("start_date")), last - (outputsize - 1) * step)
+                : last - (outputsize - 1) * step;
+
+        StringBuilder body = new StringBuilder(64 + outputsize * 120);
+        body.append("{\"meta\":{\"symbol\":\"").append(symbol).append("\",\"interval\":\"").append(interval)
+                .append("\",\"currency\":\"USD\",\"exchange\":\"NASDAQ\",\"type\":\"Common Stock\"},\"values\":[");
+        for (long time = last; time >= first; time -= step) {
+            double close = price(symbol, time);
+            body.append(time == last ? "" : ",")
+                    .append("{\"datetime\":\"").append(CandleStore.formatTime(time, interval))
+                    .append("\",\"open\":\"").append(format(price(symbol, time - step)))
+                    .append("\",\"high\":\"").append(format(close * 1.01))
+                    .append("\",\"low\":\"").append(format(close * 0.99))
+                    .append("\",\"close\":\"").append(format(close))
+                    .append("\",\"volume\":\"").append(1_000_000 + Math.floorMod(symbol.hashCode(), 1000) * 1000).append("\"}");
+        }
+        return body.append("],\"status\":\"ok\"}").toString();
+    }
+
+    // /stocks?exchange=X lists the whole simulated universe on the requested exchange
+    private String stocks(Map<String, String> query) {
+        String exchange = query.getOrDefault("exchange", "NASDAQ");
+        StringBuilder body = new StringBuilder("{\"data\":[");
+        for (int i = 0; i < settings.symbols(); i++) {
+            body.append(i == 0 ? "" : ",").append("{\"symbol\":\"").append(symbol(i)).append("\",\"name\":\"Simulated ")
+                    .append(i).append(" Inc\",\"currency\":\"USD\",\"exchange\":\"").append(exchange)
+                    .append("\",\"mic_code\":\"XSIM\",\"country\":\"United States\",\"type\":\"Common Stock\"}");
+        }
+        return body.append("],\"count\":").append(settings.symbols()).append(",\"status\":\"ok\"}").toString();
+    }
+
+    // /etf?exchange=X lists no funds; the simulated universe is all common stock
+    private String etfs(Map<String, String> query) {
+        return "{\"data\":[],\"count\":0,\"status\":\"ok\"}";
+    }
+
+    private String quoteJson(String symbol, long epochSeconds) {
+        double close = price(symbol, epochSeconds);
+        double previousClose = price(symbol, epochSeconds - 86_400);
+        return "{\"symbol\":\"" + symbol + "\",\"name\":\"Simulated " + symbol + " Inc\",\"exchange\":\"NASDAQ\","
+                + "\"mic_code\":\"XSIM\",\"currency\":\"USD\",\"datetime\":\"" + CandleStore.formatTime(epochSeconds, "1day")
+                + "\",\"timestamp\":" + epochSeconds + ",\"open\":\"" + format(previousClose) + "\",\"high\":\"" + format(close * 1.01)
+                + "\",\"low\":\"" + format(close * 0.99) + "\",\"close\":\"" + format(close) + "\",\"volume\":\"1000000\","
+                + "\"previous_close\":\"" + format(previousClose) + "\",\"change\":\"" + format(close - previousClose)
+                + "\",\"percent_change\":\"" + format((close / previousClose - 1) * 100) + "\",\"is_market_open\":true,"
+                + "\"country\":\"United States\"}";
+    }
+
+    private static String error(int code, String message) {
+        return "{\"code\":" + code + ",\"message\":\"" + message.replace("\"", "'") + "\",\"status\":\"error\"}";
+    }
+
+    // Deterministic price: a per-symbol level with a daily and an hourly swing, moving every minute
+    static double price(String symbol, long epochSeconds) {
+        int hash = symbol.hashCode();
+        double level = 20 + Math.floorMod(hash, 480);
+        double phase = Math.floorMod(hash >>> 8, 628) / 100.0;
+        long minute = Math.floorDiv(epochSeconds, 60);
+        return level * (1 + 0.08 * Math.sin(minute / 1440.0 / 7 + phase) + 0.01 * Math.sin(minute / 60.0 + phase));
+    }
+
+    private static String format(double value) {
+        return String.format(Locale.ROOT, "%.5f", value);
+    }
+
+    // SplitMix64 of the seed, the request number and a stream number
+    private long mix(long request, long stream) {
+        long z = settings.seed() + request * 0x9E3779B97F4A7C15L + stream * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    private static Map<String, String> query(String rawQuery) {
+        Map<String, String> parameters = new HashMap<>();
+        if (rawQuery != null) {
+            for (String parameter : rawQuery.split("&")) {
+                int separator = parameter.indexOf('=');
+                if (separator > 0) {
+                    parameters.put(URLDecoder.decode(parameter.substring(0, separator), StandardCharsets.UTF_8),
+                            URLDecoder.decode(parameter.substring(separator + 1), StandardCharsets.UTF_8));
+                }
+            }
+        }
+        return parameters;
+    }
+}
@@ -0,0 +1,59 @@
+package com.example.stock_portfolio.client; // Package declaration for the InstrumentedConnectionManager class
+
+import io.micrometer.core.instrument.Gauge; // Importing Gauge for pool utilization
+import io.micrometer.core.instrument.MeterRegistry; // Importing MeterRegistry to register the pool meters
+import io.micrometer.core.instrument.Timer; // Importing Timer for connection acquire latency
+
+import org.apache.hc.client5.http.HttpRoute; // Importing HttpRoute identifying a pooled route
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager; // Importing the pooling connection manager
+import org.apache.hc.client5.http.io.ConnectionEndpoint; // Importing ConnectionEndpoint handed out by the pool
+import org.apache.hc.client5.http.io.LeaseRequest; // Importing LeaseRequest for pending connection leases
+import org.apache.hc.core5.util.Timeout; // Importing Timeout for lease timeouts
+
+import java.util.concurrent.ExecutionException; // Importing ExecutionException thrown by a failed lease
+import java.util.concurrent.TimeUnit; // Importing TimeUnit for recording lease waits
+import java.util.concurrent.TimeoutException; // Importing TimeoutException thrown when the pool stays exhausted
+
+// Pooling connection manager that reports pool utilization as gauges and times how long
+// callers wait to lease a connection, so pool exhaustion shows up before requests time out.
+public class InstrumentedConnectionManager extends PoolingHttpClientConnectionManager {
+
+    private final Timer acquireTimer; // Time spent waiting for a pooled connection
+
+    public InstrumentedConnectionManager(MeterRegistry meterRegistry) {
+        super(); // TLS through the JVM default SSLContext, whose session cache lets reconnects resume TLS sessions
+        this.acquireTimer = Timer.builder("twelvedata.http.pool.acquire")
+                .description("Time spent waiting to lease a Twelve Data connection from the pool")
+                .register(meterRegistry);
+        Gauge.builder("twelvedata.http.pool.leased", this, manager -> manager.getTotalStats().getLeased())
+                .description("Connections currently in use").register(meterRegistry);
+        Gauge.builder("twelvedata.http.pool.available", this, manager -> manager.getTotalStats().getAvailable())
+                .description("Idle connections kept alive in the pool").register(meterRegistry);
+        Gauge.builder("twelvedata.http.pool.pending", this, manager -> manager.getTotalStats().getPending())
+                .description("Requests waiting for a connection").register(meterRegistry);
+        Gauge.builder("twelvedata.http.pool.max", this, manager -> manager.getTotalStats().getMax())
+                .description("Maximum number of pooled connections").register(meterRegistry);
+    }
+
+    // Time the wait of every lease, including leases that time out
+    @Override
+    public LeaseRequest lease(String id, HttpRoute route, Timeout requestTimeout, Object state) {
+        LeaseRequest leaseRequest = super.lease(id, route, requestTimeout, state);
+        return new LeaseRequest() {
+            @Override
+            public ConnectionEndpoint get(Timeout timeout) throws InterruptedException, ExecutionException, TimeoutException {
+                long startNanos = System.nanoTime();
+                try {
+                    return leaseRequest.get(timeout);
+                } finally {
+                    acquireTimer.record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+                }
+            }
+
+            @Override
+            public boolean cancel() {
+                return leaseRequest.cancel();
+            }
+        };
+    }
+}
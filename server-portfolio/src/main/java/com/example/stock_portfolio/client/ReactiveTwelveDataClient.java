@@ -0,0 +1,180 @@
+package com.example.stock_portfolio.client; // Package declaration for the ReactiveTwelveDataClient class
+
+import com.example.stock_portfolio.dto.Quote; // Importing Quote record
+import com.example.stock_portfolio.exception.TwelveDataApiException; // Importing custom exception for Twelve Data API errors
+import com.example.stock_portfolio.store.CandleSeries; // Importing CandleSeries for parsed time series
+import com.example.stock_portfolio.util.CircuitBreaker; // Importing the circuit breaker guarding upstream calls
+import com.example.stock_portfolio.util.TokenBucketRateLimiter; // Importing the shared Twelve Data rate limiter
+
+import io.micrometer.core.instrument.MeterRegistry; // Importing MeterRegistry to record request metrics
+import io.micrometer.core.instrument.Timer; // Importing Timer for upstream request latency
+import io.netty.channel.ChannelOption; // Importing ChannelOption for the connect timeout
+
+import org.springframework.beans.factory.annotation.Value; // Importing annotation to inject values from properties
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty; // Importing condition to enable the reactive stack by configuration
+import org.springframework.http.client.reactive.ReactorClientHttpConnector; // Importing connector to plug in the configured Netty client
+import org.springframework.stereotype.Component; // Marking this class as a Spring component
+import org.springframework.web.reactive.function.client.WebClient; // Importing WebClient for non-blocking API calls
+import org.springframework.web.reactive.function.client.WebClientRequestException; // Importing exception for I/O errors and timeouts
+import org.springframework.web.reactive.function.client.WebClientResponseException; // Importing exception for non-2xx HTTP responses
+
+import reactor.core.publisher.Mono; // Importing Mono for single asynchronous results
+import reactor.core.publisher.SignalType; // Importing SignalType to tell cancellation from completion
+import reactor.netty.http.client.HttpClient; // Importing the Reactor Netty HTTP client
+
+import java.io.ByteArrayInputStream; // Importing ByteArrayInputStream to hand bodies to the streaming parsers
+import java.io.IOException; // Importing IOException for parse errors
+import java.io.InputStream; // Importing InputStream for the parser signature
+import java.time.Duration; // Importing Duration for timeouts and rate limiter waits
+import java.util.concurrent.TimeUnit; // Importing TimeUnit for recording rate limiter waits
+
+// Non-blocking counterpart of TwelveDataClient on WebClient. It draws from the same rate limiter and circuit
+// breaker, parses with the same streaming parsers and records the same twelvedata.requests timer, but waits
+// for API credits with a scheduled delay and for the response on the Netty event loop, so no thread is
+// held for the upstream round trip.
+@Component // Marking this class as a Spring component
+@ConditionalOnProperty(name = "portfolio.reactive.enabled", havingValue = "true") // Only built for the reactive endpoints
+public class ReactiveTwelveDataClient {
+
+    private final WebClient webClient; // WebClient bound to the Twelve Data base URL
+    private final TwelveDataClient parsers; // Blocking client, used for its streaming response parsers only
+    private final TokenBucketRateLimiter rateLimiter; // Injecting the rate limiter shared by all Twelve Data calls
+    private final CircuitBreaker circuitBreaker; // Injecting the circuit breaker guarding Twelve Data calls
+    private final MeterRegistry meterRegistry; // Injecting the registry for request metrics
+    private final Timer rateLimitWaitTimer; // Time spent waiting for API credits
+    private final String apiKey; // API key for accessing Twelve Data API
+
+    public ReactiveTwelveDataClient(WebClient.Builder webClientBuilder,
+                                    TwelveDataClient parsers,
+                                    TokenBucketRateLimiter rateLimiter,
+                                    CircuitBreaker circuitBreaker,
+                                    MeterRegistry meterRegistry,
+                                    @Value("${twelvedata.base-url:https://api.twelvedata.com}") String baseUrl,
+                                    @Value("${twelvedata.http.connect-timeout:PT5S}") Duration connectTimeout,
+                                    @Value("${twelvedata.http.read-timeout:PT10S}") Duration readTimeout,
+                                    @Value("${TWELVE_DATA_API_KEY}") String apiKey) {
+        HttpClient httpClient = HttpClient.create()
+                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, (int) connectTimeout.toMillis()) // Same limits as the pooled blocking client
+                .responseTimeout(readTimeout);
+        this.webClient = webClientBuilder // Boot's builder, so http.client.requests observations are recorded too
+                .baseUrl(baseUrl)
+                .clientConnector(new ReactorClientHttpConnector(httpClient))
+                .build();
+        this.parsers = parsers;
+        this.rateLimiter = rateLimiter;
+        this.circuitBreaker = circuitBreaker;
+        this.meterRegistry = meterRegistry;
+        this.rateLimitWaitTimer = Timer.builder("twelvedata.ratelimit.wait")
+                .description("Time spent waiting for Twelve Data API credits")
+                .register(meterRegistry);
+        this.apiKey = apiKey;
+    }
+
+    // Fetch the quote of a single symbol
+    public Mono<Quote> quote(String symbol) {
+        return call("quote", "/quote?symbol=" + symbol, 1, parsers::readQuote);
+    }
+
+    // Fetch candles of a symbol in ascending time order, optionally starting at startDate
+    public Mono<CandleSeries> timeSeries(String symbol, String interval, int outputsize, String startDate) {
+        return timeSeries(symbol, interval, outputsize, startDate, null);
+    }
+
+    // Fetch the latest outputsize candles of a symbol up to endDate in ascending time order, optionally starting at startDate
+    public Mono<CandleSeries> timeSeries(String symbol, String interval, int outputsize, String startDate, String endDate) {
+        String path = "/time_series?symbol=" + symbol + "&interval=" + interval + "&outputsize=" + outputsize
+                + (startDate == null ? "" : "&start_date=" + startDate)
+                + (endDate == null ? "" : "&end_date=" + endDate);
+        return call("time_series", path, 1, parsers::readTimeSeries);
+    }
+
+    // Perform a rate-limited GET and parse the body; nothing happens until the result is subscribed to
+    private <T> Mono<T> call(String endpoint, String path, int credits, ResponseParser<T> responseParser) {
+        return Mono.defer(() -> {
+            if (!circuitBreaker.tryAcquirePermission()) {
+                meterRegistry.counter("twelvedata.circuit.rejected", "endpoint", endpoint).increment();
+                return Mono.error(new TwelveDataApiException(503, "Twelve Data is unavailable, try again later"));
+            }
+            CallState state = new CallState(credits);
+            long waitNanos = rateLimiter.reserve(credits); // Twelve Data charges one credit per symbol
+            rateLimitWaitTimer.record(waitNanos, TimeUnit.NANOSECONDS);
+            return Mono.delay(Duration.ofNanos(waitNanos))
+                    .then(Mono.defer(() -> {
+                        state.sample = Timer.start(meterRegistry);
+                        return webClient.get().uri(path + "&apikey=" + apiKey).retrieve().bodyToMono(byte[].class);
+                    }))
+                    .switchIfEmpty(Mono.error(() -> new IOException("Empty Twelve Data response")))
+                    .<T>handle((body, sink) -> { // The body is read in full, so a parse error is always a malformed response
+                        try {
+                            sink.next(responseParser.parse(new ByteArrayInputStream(body)));
+                        } catch (IOException e) {
+                            sink.error(e);
+                        }
+                    })
+                    .onErrorMap(state::fail)
+                    .doFinally(signal -> state.finish(endpoint, signal));
+        });
+    }
+
+    // Outcome of one call, for the circuit breaker and the request timer
+    private final class CallState {
+
+        private final int credits; // Credits reserved for the call
+        private Timer.Sample sample; // Set once the request is sent
+        private boolean upstreamFailed; // Whether the upstream was unreachable or answered with a server error
+        private String outcome = "success";
+        private String status = "200";
+
+        private CallState(int credits) {
+            this.credits = credits;
+        }
+
+        // Map a failure to a TwelveDataApiException, as the blocking client does
+        private Throwable fail(Throwable e) {
+            if (e instanceof TwelveDataApiException apiError) {
+                outcome = "api_error"; // Error code in the response body (invalid symbol, exhausted credits, ...)
+                status = String.valueOf(apiError.getErrorResponse().getStatusCode());
+                return apiError;
+            }
+            if (e instanceof WebClientResponseException responseError) {
+                upstreamFailed = responseError.getStatusCode().is5xxServerError();
+                outcome = "http_error";
+                status = String.valueOf(responseError.getStatusCode().value());
+                return new TwelveDataApiException(responseError.getStatusCode().value(), "API Error: " + responseError.getStatusText());
+            }
+            status = "none";
+            if (e instanceof WebClientRequestException) {
+                upstreamFailed = true; // Connection refused, reset or timed out
+                outcome = "io_error";
+            } else {
+                outcome = "client_error"; // Malformed JSON and other local errors; not a breaker failure, as in the blocking client
+            }
+            return new TwelveDataApiException(500, "Failed to fetch data: " + e.getMessage());
+        }
+
+        private void finish(String endpoint, SignalType signal) {
+            if (sample == null || signal == SignalType.CANCEL) {
+                circuitBreaker.releasePermission(); // Never sent, or abandoned by the caller before an answer
+                if (sample == null) {
+                    rateLimiter.refund(credits); // Cancelled while waiting for its credits, which Twelve Data never charged
+                }
+                return;
+            }
+            if (upstreamFailed) {
+                circuitBreaker.onFailure();
+            } else {
+                circuitBreaker.onSuccess(); // Any answer from the upstream, including API errors, shows it is up
+            }
+            sample.stop(Timer.builder("twelvedata.requests")
+                    .description("Twelve Data API requests, including response parsing")
+                    .tags("endpoint", endpoint, "outcome", outcome, "status", status)
+                    .register(meterRegistry));
+        }
+    }
+
+    // Parses a response body into a typed result
+    @FunctionalInterface
+    private interface ResponseParser<T> {
+        T parse(InputStream body) throws IOException;
+    }
+}
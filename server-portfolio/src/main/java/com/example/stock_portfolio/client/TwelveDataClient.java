@@ -0,0 +1,401 @@
+package com.example.stock_portfolio.client; // Package declaration for the TwelveDataClient class
+
+import com.example.stock_portfolio.dto.Quote; // Importing Quote record
+import com.example.stock_portfolio.dto.SymbolInfo; // Importing SymbolInfo record for the symbol directory
+import com.example.stock_portfolio.exception.TwelveDataApiException; // Importing custom exception for Twelve Data API errors
+import com.example.stock_portfolio.store.CandleSeries; // Importing CandleSeries for parsed time series
+import com.example.stock_portfolio.store.CandleStore; // Importing CandleStore to parse candle times
+import com.example.stock_portfolio.util.CircuitBreaker; // Importing the circuit breaker guarding upstream calls
+import com.example.stock_portfolio.util.TokenBucketRateLimiter; // Importing the shared Twelve Data rate limiter
+
+import com.fasterxml.jackson.core.JsonFactory; // Importing JsonFactory to create streaming parsers
+import com.fasterxml.jackson.core.JsonParseException; // Importing JsonParseException for unexpected response structures
+import com.fasterxml.jackson.core.JsonParser; // Importing JsonParser to read responses token by token
+import com.fasterxml.jackson.core.JsonProcessingException; // Importing the base exception of malformed JSON
+import com.fasterxml.jackson.core.JsonToken; // Importing JsonToken to walk the response structure
+import com.fasterxml.jackson.databind.ObjectMapper; // Importing the Spring-managed ObjectMapper for its JsonFactory
+
+import io.micrometer.core.instrument.MeterRegistry; // Importing MeterRegistry to record request metrics
+import io.micrometer.core.instrument.Timer; // Importing Timer for upstream request latency
+
+import org.springframework.beans.factory.annotation.Value; // Importing annotation to inject values from properties
+import org.springframework.http.HttpMethod; // Importing HttpMethod for RestTemplate.execute
+import org.springframework.stereotype.Component; // Marking this class as a Spring component
+import org.springframework.web.client.ResourceAccessException; // Importing exception for I/O errors and timeouts
+import org.springframework.web.client.RestClientException; // Importing base exception for failed HTTP calls
+import org.springframework.web.client.RestClientResponseException; // Importing exception for non-2xx HTTP responses
+import org.springframework.web.client.RestTemplate; // Importing RestTemplate for making API calls
+
+import java.io.IOException; // Importing IOException for parse errors
+import java.io.InputStream; // Importing InputStream to parse response bodies without buffering them
+import java.net.URLEncoder; // Importing URLEncoder for exchange names in query strings
+import java.nio.charset.StandardCharsets; // Importing StandardCharsets for query string encoding
+import java.util.ArrayList; // Importing ArrayList to collect listings
+import java.util.Arrays; // Importing Arrays to grow the parsed columns
+import java.util.HashMap; // Importing HashMap for key-value pairs
+import java.util.List; // Importing List for collection of symbols
+import java.util.Map; // Importing Map for quotes keyed by symbol
+import java.util.Optional; // Importing Optional for background requests skipped for lack of credits
+import java.util.concurrent.TimeUnit; // Importing TimeUnit for recording rate limiter waits
+
+// The single place that talks to the Twelve Data REST API. Every call draws from the shared rate limiter,
+// and responses are parsed with a streaming JsonParser straight from the response stream into typed
+// records, without reading the body into a String or building a JsonNode tree. Background quote requests
+// only go out when the credits are spare right now and are skipped otherwise, so they never queue ahead
+// of interactive calls on the shared limiter. A circuit breaker makes
+// calls fail fast with a 503 while the upstream is unreachable or returning server errors.
+// Each request is timed by endpoint and outcome (twelvedata.requests), and API error codes are counted.
+@Component // Marking this class as a Spring component
+public class TwelveDataClient {
+
+    private final RestTemplate restTemplate; // Injecting RestTemplate for API calls
+    private final JsonFactory jsonFactory; // Factory of the Spring-managed ObjectMapper
+    private final TokenBucketRateLimiter rateLimiter; // Injecting the rate limiter shared by all Twelve Data calls
+    private final CircuitBreaker circuitBreaker; // Injecting the circuit breaker guarding Twelve Data calls
+    private final MeterRegistry meterRegistry; // Injecting the registry for request metrics
+    private final Timer rateLimitWaitTimer; // Time spent waiting for API credits
+    private final String baseUrl; // Twelve Data REST API base URL, pointed at a local stub in benchmarks
+    private final String apiKey; // API key for accessing Twelve Data API
+
+    public TwelveDataClient(RestTemplate restTemplate,
+                            ObjectMapper objectMapper,
+                            TokenBucketRateLimiter rateLimiter,
+                            CircuitBreaker circuitBreaker,
+                            MeterRegistry meterRegistry,
+                            @Value("${twelvedata.base-url:https://api.twelvedata.com}") String baseUrl,
+                            @Value("${TWELVE_DATA_API_KEY}") String apiKey) {
+        this.restTemplate = restTemplate;
+        this.jsonFactory = objectMapper.getFactory();
+        this.rateLimiter = rateLimiter;
+        this.circuitBreaker = circuitBreaker;
+        this.meterRegistry = meterRegistry;
+        this.rateLimitWaitTimer = Timer.builder("twelvedata.ratelimit.wait")
+                .description("Time spent waiting for Twelve Data API credits")
+                .register(meterRegistry);
+        this.baseUrl = baseUrl;
+        this.apiKey = apiKey;
+    }
+
+    // Fetch the quote of a single symbol
+    public Quote quote(String symbol) {
+        return call("quote", "/quote?symbol=" + symbol, 1, false, this::readQuote);
+    }
+
+    // Fetch the quotes of several symbols with one comma-separated request; unknown symbols are left out
+    public Map<String, Quote> quotes(List<String> symbols) {
+        return quotes(symbols, false);
+    }
+
+    // Fetch the quotes of several symbols like quotes, but only if the spare credits cover the whole request
+    // right now; empty without calling the upstream otherwise
+    public Optional<Map<String, Quote>> tryQuotes(List<String> symbols) {
+        return Optional.ofNullable(quotes(symbols, true));
+    }
+
+    private Map<String, Quote> quotes(List<String> symbols, boolean background) {
+        if (symbols.size() == 1) {
+            // A single symbol is answered with a plain quote object rather than a keyed one
+            Quote quote = call("quote", "/quote?symbol=" + symbols.get(0), 1, background, this::readQuote);
+            if (quote == null) {
+                return null;
+            }
+            Map<String, Quote> quotes = new HashMap<>();
+            quotes.put(symbols.get(0), quote);
+            return quotes;
+        }
+        return call("quote", "/quote?symbol=" + String.join(",", symbols), symbols.size(), background, this::readQuotes);
+    }
+
+    // Fetch candles of a symbol in ascending time order, optionally starting at startDate
+    public CandleSeries timeSeries(String symbol, String interval, int outputsize, String startDate) {
+        return timeSeries(symbol, interval, outputsize, startDate, null);
+    }
+
+    // Fetch the latest outputsize candles of a symbol up to endDate in ascending time order, optionally starting at startDate
+    public CandleSeries timeSeries(String symbol, String interval, int outputsize, String startDate, String endDate) {
+        String path = "/time_series?symbol=" + symbol + "&interval=" + interval + "&outputsize=" + outputsize
+                + (startDate == null ? "" : "&start_date=" + startDate)
+                + (endDate == null ? "" : "&end_date=" + endDate);
+        return call("time_series", path, 1, false, this::readTimeSeries);
+    }
+
+    // Fetch the directory of stocks listed on an exchange (one credit, however many listings)
+    public List<SymbolInfo> stocks(String exchange) {
+        return call("stocks", "/stocks?exchange=" + URLEncoder.encode(exchange, StandardCharsets.UTF_8), 1, false, this::readStocks);
+    }
+
+    // Fetch the directory of ETFs listed on an exchange (one credit), answered in the same layout as stocks
+    public List<SymbolInfo> etfs(String exchange) {
+        return call("etf", "/etf?exchange=" + URLEncoder.encode(exchange, StandardCharsets.UTF_8), 1, false, this::readStocks);
+    }
+
+    // Parse a single-symbol quote response
+    public Quote readQuote(InputStream body) throws IOException {
+        try (JsonParser parser = jsonFactory.createParser(body)) {
+            expect(parser, JsonToken.START_OBJECT);
+            return readQuoteObject(parser, null);
+        }
+    }
+
+    // Parse a multi-symbol quote response keyed by symbol
+    public Map<String, Quote> readQuotes(InputStream body) throws IOException {
+        try (JsonParser parser = jsonFactory.createParser(body)) {
+            expect(parser, JsonToken.START_OBJECT);
+            Map<String, Quote> quotes = new HashMap<>();
+            int code = 200;
+            String message = "";
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.currentName();
+                JsonToken value = parser.nextToken();
+                if (value == JsonToken.START_OBJECT) {
+                    try {
+                        quotes.put(field, readQuoteObject(parser, field));
+                    } catch (TwelveDataApiException e) {
+                        // Unknown symbols are reported per entry, skip them without failing the batch
+                    }
+                } else if (field.equals("code")) {
+                    code = parser.getValueAsInt(200);
+                } else if (field.equals("message")) {
+                    message = parser.getValueAsString("");
+                } else {
+                    parser.skipChildren();
+                }
+            }
+            checkApiError(code, message); // A top-level code means the whole request failed (e.g., out of credits)
+            return quotes;
+        }
+    }
+
+    // Parse a stocks or ETF reference response; its listings are in the "data" array
+    public List<SymbolInfo> readStocks(InputStream body) throws IOException {
+        try (JsonParser parser = jsonFactory.createParser(body)) {
+            expect(parser, JsonToken.START_OBJECT);
+            List<SymbolInfo> listings = new ArrayList<>();
+            int code = 200;
+            String message = "";
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.currentName();
+                JsonToken value = parser.nextToken();
+                if (field.equals("data") && value == JsonToken.START_ARRAY) {
+                    while (parser.nextToken() == JsonToken.START_OBJECT) {
+                        String symbol = null;
+                        String name = null;
+                        String exchange = null;
+                        String currency = null;
+                        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                            String listingField = parser.currentName();
+                            parser.nextToken();
+                            switch (listingField) {
+                                case "symbol" -> symbol = parser.getValueAsString();
+                                case "name" -> name = parser.getValueAsString();
+                                case "exchange" -> exchange = parser.getValueAsString();
+                                case "currency" -> currency = parser.getValueAsString();
+                                default -> parser.skipChildren(); // mic_code, country and type are not stored
+                            }
+                        }
+                        if (symbol != null) {
+                            listings.add(new SymbolInfo(symbol, name, exchange, currency));
+                        }
+                    }
+                } else if (field.equals("code")) {
+                    code = parser.getValueAsInt(200);
+                } else if (field.equals("message")) {
+                    message = parser.getValueAsString("");
+                } else {
+                    parser.skipChildren(); // "count" and "status"
+                }
+            }
+            checkApiError(code, message);
+            return listings;
+        }
+    }
+
+    // Parse a time series response into columns, turning the newest-first values into ascending order
+    public CandleSeries readTimeSeries(InputStream body) throws IOException {
+        try (JsonParser parser = jsonFactory.createParser(body)) {
+            expect(parser, JsonToken.START_OBJECT);
+            long[] times = new long[128];
+            double[] closes = new double[128];
+            int size = 0;
+            int code = 200;
+            String message = "";
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.currentName();
+                JsonToken value = parser.nextToken();
+                if (field.equals("values") && value == JsonToken.START_ARRAY) {
+                    while (parser.nextToken() == JsonToken.START_OBJECT) {
+                        long time = 0;
+                        double close = Double.NaN;
+                        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                            String valueField = parser.currentName();
+                            parser.nextToken();
+                            switch (valueField) {
+                                case "datetime" -> time = parseTime(parser); // Extract datetime
+                                case "close" -> close = parser.getValueAsDouble(); // Extract close price
+                                default -> parser.skipChildren(); // open, high, low and volume are not stored
+                            }
+                        }
+                        if (size == times.length) {
+                            times = Arrays.copyOf(times, size * 2);
+                            closes = Arrays.copyOf(closes, size * 2);
+                        }
+                        times[size] = time;
+                        closes[size] = close;
+                        size++;
+                    }
+                } else if (field.equals("code")) {
+                    code = parser.getValueAsInt(200);
+                } else if (field.equals("message")) {
+                    message = parser.getValueAsString("");
+                } else {
+                    parser.skipChildren(); // "meta" and "status"
+                }
+            }
+            checkApiError(code, message);
+
+            for (int i = 0, j = size - 1; i < j; i++, j--) { // Reverse in place into ascending time order
+                long time = times[i];
+                times[i] = times[j];
+                times[j] = time;
+                double close = closes[i];
+                closes[i] = closes[j];
+                closes[j] = close;
+            }
+            return new CandleSeries(times, closes, size);
+        }
+    }
+
+    // Read one quote object; the parser must be positioned on its START_OBJECT
+    private Quote readQuoteObject(JsonParser parser, String fallbackSymbol) throws IOException {
+        String symbol = fallbackSymbol;
+        String name = "";
+        double close = 0;
+        String currency = "";
+        String exchange = "";
+        String country = "";
+        int code = 200;
+        String message = "";
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.currentName();
+            parser.nextToken();
+            switch (field) {
+                case "symbol" -> symbol = parser.getValueAsString(fallbackSymbol); // Extract symbol
+                case "name" -> name = parser.getValueAsString(""); // Extract name
+                case "close" -> close = parser.getValueAsDouble(); // Extract close price
+                case "currency" -> currency = parser.getValueAsString(""); // Extract currency
+                case "exchange" -> exchange = parser.getValueAsString(""); // Extract exchange
+                case "country" -> country = parser.getValueAsString(""); // Extract country
+                case "code" -> code = parser.getValueAsInt(200);
+                case "message" -> message = parser.getValueAsString("");
+                default -> parser.skipChildren(); // Skip fields we do not use, including nested objects
+            }
+        }
+        checkApiError(code, message); // Check if the API response contains an error (invalid ticker, exhausted credits, ...)
+        return new Quote(symbol, name, close, currency, exchange, country);
+    }
+
+    // Perform a rate-limited GET and hand the response stream to the parser; a background call returns null
+    // instead of waiting when the credits are not spare right now
+    private <T> T call(String endpoint, String path, int credits, boolean background, ResponseParser<T> responseParser) {
+        if (!circuitBreaker.tryAcquirePermission()) {
+            meterRegistry.counter("twelvedata.circuit.rejected", "endpoint", endpoint).increment();
+            // Refuse before spending API credits or a pooled connection on an upstream that is down
+            throw new TwelveDataApiException(503, "Twelve Data is unavailable, try again later");
+        }
+        String apiUrl = baseUrl + path + "&apikey=" + apiKey; // Construct API URL
+        Boolean upstreamFailed = null; // Stays null when the call never reached the upstream
+        Timer.Sample sample = null;
+        String outcome = "success";
+        String status = "200";
+        try {
+            if (background) {
+                if (!rateLimiter.tryAcquire(credits)) { // Twelve Data charges one credit per symbol
+                    meterRegistry.counter("twelvedata.ratelimit.skipped", "endpoint", endpoint).increment();
+                    return null;
+                }
+            } else {
+                long waitStartNanos = System.nanoTime();
+                rateLimiter.acquire(credits); // Twelve Data charges one credit per symbol
+                rateLimitWaitTimer.record(System.nanoTime() - waitStartNanos, TimeUnit.NANOSECONDS);
+            }
+            upstreamFailed = false;
+            sample = Timer.start(meterRegistry);
+            return restTemplate.execute(apiUrl, HttpMethod.GET, null, response -> { // API call, parsed while streaming
+                try {
+                    return responseParser.parse(response.getBody());
+                } catch (JsonProcessingException e) {
+                    // RestTemplate would wrap it as an I/O error; a malformed body still shows the upstream is up
+                    throw new RestClientException("Malformed Twelve Data response: " + e.getOriginalMessage(), e);
+                }
+            });
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt(); // Preserve the interrupt for the caller (e.g., a cancelled refresh task)
+            throw new TwelveDataApiException(503, "Interrupted while waiting for API credits");
+        } catch (TwelveDataApiException e) {
+            outcome = "api_error"; // Error code in the response body (invalid symbol, exhausted credits, ...)
+            status = String.valueOf(e.getErrorResponse().getStatusCode());
+            throw e;
+        } catch (RestClientResponseException e) {
+            upstreamFailed = e.getStatusCode().is5xxServerError();
+            outcome = "http_error";
+            status = String.valueOf(e.getStatusCode().value());
+            // Upstream rejected the request (e.g., 400 for a malformed symbol)
+            throw new TwelveDataApiException(e.getStatusCode().value(), "API Error: " + e.getStatusText());
+        } catch (ResourceAccessException e) {
+            upstreamFailed = true; // Connection refused, reset or timed out
+            outcome = "io_error";
+            status = "none";
+            throw new TwelveDataApiException(500, "Failed to fetch data: " + e.getMessage());
+        } catch (RestClientException e) {
+            outcome = "client_error";
+            status = "none";
+            // Malformed JSON and other local errors; not a breaker failure
+            throw new TwelveDataApiException(500, "Failed to fetch data: " + e.getMessage());
+        } finally {
+            if (upstreamFailed == null) {
+                circuitBreaker.releasePermission();
+            } else if (upstreamFailed) {
+                circuitBreaker.onFailure();
+            } else {
+                circuitBreaker.onSuccess(); // Any answer from the upstream, including API errors, shows it is up
+            }
+            if (sample != null) {
+                sample.stop(Timer.builder("twelvedata.requests")
+                        .description("Twelve Data API requests, including response parsing")
+                        .tags("endpoint", endpoint, "outcome", outcome, "status", status)
+                        .register(meterRegistry));
+            }
+        }
+    }
+
+    // Throw a TwelveDataApiException for a non-200 error code
+    private void checkApiError(int code, String message) {
+        if (code != 200) {
+            meterRegistry.counter("twelvedata.api.errors", "code", String.valueOf(code)).increment();
+            throw new TwelveDataApiException(code, "API Error: " + message);
+        }
+    }
+
+    // Parse a candle datetime, reporting an unexpected format as a malformed response rather than a bad request
+    private static long parseTime(JsonParser parser) throws IOException {
+        try {
+            return CandleStore.parseTime(parser.getText());
+        } catch (IllegalArgumentException e) {
+            throw new JsonParseException(parser, e.getMessage(), e);
+        }
+    }
+
+    // Move to the next token, reporting an unexpected one as a malformed response like any other JSON error
+    private static void expect(JsonParser parser, JsonToken expected) throws IOException {
+        JsonToken actual = parser.nextToken();
+        if (actual != expected) {
+            throw new JsonParseException(parser, "Unexpected Twelve Data response, expected " + expected + " but got " + actual);
+        }
+    }
+
+    // Parses a response body into a typed result
+    @FunctionalInterface
+    private interface ResponseParser<T> {
+        T parse(InputStream body) throws IOException;
+    }
+}
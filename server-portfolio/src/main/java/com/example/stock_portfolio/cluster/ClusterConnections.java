@@ -0,0 +1,44 @@
+package com.example.stock_portfolio.cluster; // Package declaration for the ClusterConnections class
+
+import org.springframework.beans.factory.annotation.Value; // Importing annotation to inject values from properties
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties; // Importing the configured datasource settings
+import org.springframework.stereotype.Component; // Marking this class as a Spring component
+
+import java.sql.Connection; // Importing Connection for dedicated database sessions
+import java.sql.DriverManager; // Importing DriverManager to open sessions outside the pool
+import java.sql.SQLException; // Importing SQLException for connection failures
+import java.util.Properties; // Importing Properties for the driver settings
+
+// Opens the long-lived PostgreSQL sessions of the cluster components (the leader lock and the notification
+// listener) straight from the driver, so they neither hold a pool slot forever nor get recycled by the pool,
+// which would silently release the session-level advisory lock or drop the LISTEN registration.
+@Component // Marking this class as a Spring component
+public class ClusterConnections {
+
+    private final String url; // JDBC URL of the shared database
+    private final String username; // Database user, null to leave it to the driver
+    private final String password; // Database password, null to leave it to the driver
+    private final String applicationName; // Shown in pg_stat_activity to tell the cluster sessions apart
+
+    public ClusterConnections(DataSourceProperties dataSourceProperties,
+                              @Value("${spring.application.name:stock-portfolio}") String applicationName) {
+        this.url = dataSourceProperties.determineUrl();
+        this.username = dataSourceProperties.determineUsername();
+        this.password = dataSourceProperties.determinePassword();
+        this.applicationName = applicationName;
+    }
+
+    // Open a new session; the caller owns and closes it
+    public Connection open() throws SQLException {
+        Properties properties = new Properties();
+        if (username != null) {
+            properties.setProperty("user", username);
+        }
+        if (password != null) {
+            properties.setProperty("password", password);
+        }
+        properties.setProperty("ApplicationName", applicationName + " cluster");
+        properties.setProperty("tcpKeepAlive", "true"); // Notice a vanished server on an idle listener session
+        return DriverManager.getConnection(url, properties);
+    }
+}
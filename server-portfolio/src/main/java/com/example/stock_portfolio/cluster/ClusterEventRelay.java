@@ -0,0 +1,287 @@
+package com.example.stock_portfolio.cluster; // Package declaration for the ClusterEventRelay class
+
+import com.example.stock_portfolio.event.AlertChangedEvent; // Importing event published on alert changes
+import com.example.stock_portfolio.event.HoldingChangedEvent; // Importing event published on holding changes
+import com.example.stock_portfolio.event.PricesChangedEvent; // Importing event published on price changes
+import com.example.stock_portfolio.event.TickerViewedEvent; // Importing event published when a ticker is looked at
+
+import com.fasterxml.jackson.core.JsonProcessingException; // Importing exception for unreadable messages
+import com.fasterxml.jackson.databind.JsonNode; // Importing JsonNode for the message body
+import com.fasterxml.jackson.databind.ObjectMapper; // Importing the shared ObjectMapper
+
+import io.micrometer.core.instrument.Counter; // Importing Counter for sent and received messages
+import io.micrometer.core.instrument.MeterRegistry; // Importing MeterRegistry to register the counters
+
+import jakarta.annotation.PreDestroy; // Importing PreDestroy to stop the listener
+
+import lombok.extern.slf4j.Slf4j; // Lombok annotation to generate a logger
+
+import org.postgresql.PGConnection; // Importing the PostgreSQL connection to poll notifications
+import org.postgresql.PGNotification; // Importing the PostgreSQL notification
+import org.springframework.beans.factory.annotation.Value; // Importing annotation to inject values from properties
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty; // Importing annotation to build the relay only for clusters
+import org.springframework.boot.context.event.ApplicationReadyEvent; // Importing event fired once the application is ready
+import org.springframework.context.ApplicationEventPublisher; // Importing publisher to replay remote events locally
+import org.springframework.context.event.EventListener; // Importing annotation to listen for application events
+import org.springframework.dao.DataAccessException; // Importing exception for failed notifications
+import org.springframework.jdbc.core.JdbcTemplate; // Importing JdbcTemplate to send notifications
+import org.springframework.stereotype.Component; // Marking this class as a Spring component
+
+import java.nio.charset.StandardCharsets; // Importing charset to measure payload sizes
+import java.sql.Connection; // Importing Connection for the listener session
+import java.sql.SQLException; // Importing SQLException for listener failures
+import java.sql.Statement; // Importing Statement to register the listener
+import java.time.Duration; // Importing Duration for poll, reconnect and view relay intervals
+import java.util.HashMap; // Importing HashMap for price chunks
+import java.util.Map; // Importing Map for prices and relayed views
+import java.util.UUID; // Importing UUID for the node ID
+import java.util.concurrent.ConcurrentHashMap; // Importing ConcurrentHashMap for relayed views
+import java.util.regex.Pattern; // Importing Pattern to check the channel name
+
+// Relays the events that other nodes keep their caches and websocket subscribers up to date with over
+// PostgreSQL LISTEN/NOTIFY: written prices, holding changes, alert changes and ticker views (so the leader
+// keeps a ticker hot that is charted on another node). Notifications are sent with pg_notify on the
+// connection of the current transaction, so other nodes only hear about changes that were committed.
+// A dedicated session listens on the channel and replays every message of another node as the same local
+// event, which the price stream, the summary aggregates, the portfolio version, the analytics cache, the
+// refresh scheduler and the alert engine already listen to. Replayed events are not sent on again.
+// Notifications sent while this node's listener session is down are lost.
+@Slf4j // Lombok annotation to generate a logger for this class
+@Component // Marking this class as a Spring component
+@ConditionalOnProperty(name = "portfolio.cluster.enabled", havingValue = "true") // Only built when several nodes share the database
+public class ClusterEventRelay {
+
+    static final int MAX_PAYLOAD_BYTES = 7900; // PostgreSQL rejects payloads of 8000 bytes and more
+    private static final int PRICE_ENTRY_BYTES = 32; // Upper bound of a price entry without its ticker
+    private static final int MAX_RELAYED_VIEWS = 10_000; // Forget the view times once this many tickers were seen
+    private static final Pattern CHANNEL_NAME = Pattern.compile("[a-z_][a-z0-9_]*"); // LISTEN takes no bind parameter
+
+    // Envelope of one notification
+    record Message(
+            String node, // ID of the sending node
+            String type, // Kind of event in the body
+            JsonNode body // The event
+    ) {
+    }
+
+    private final JdbcTemplate jdbcTemplate; // Injecting JdbcTemplate to send notifications
+    private final ObjectMapper objectMapper; // Injecting the shared ObjectMapper for the messages
+    private final ApplicationEventPublisher eventPublisher; // Injecting publisher to replay remote events
+    private final ClusterConnections connections; // Injecting the factory of dedicated sessions
+    private final String channel; // Notification channel shared by the nodes
+    private final Duration viewRelayInterval; // Minimum spacing of relayed views of one ticker
+    private final Duration pollTimeout; // How long the listener waits for notifications before checking for shutdown
+    private final Duration reconnectDelay; // Pause before the listener opens a new session after a failure
+    private final String nodeId = UUID.randomUUID().toString(); // Tells this node's own notifications apart
+    private final Counter sentCounter; // Notifications sent
+    private final Counter receivedCounter; // Notifications of other nodes replayed
+
+    private final ThreadLocal<Boolean> replaying = ThreadLocal.withInitial(() -> false); // Set while a remote event is replayed
+    private final Map<String, Long> viewsRelayedAt = new ConcurrentHashMap<>(); // Last relayed view per ticker in epoch millis
+    private volatile boolean running; // Whether the listener should keep going
+    private volatile Thread listener; // Thread polling the listener session
+    private volatile Connection listenerConnection; // Session registered on the channel
+
+    public ClusterEventRelay(JdbcTemplate jdbcTemplate,
+                             ObjectMapper objectMapper,
+                             ApplicationEventPublisher eventPublisher,
+                             ClusterConnections connections,
+                             MeterRegistry meterRegistry,
+                             @Value("${portfolio.cluster.channel:portfolio_events}") String channel,
+                             @Value("${portfolio.cluster.view-relay-interval:PT1M}") Duration viewRelayInterval,
+                             @Value("${portfolio.cluster.poll-timeout:PT1S}") Duration pollTimeout,
+                             @Value("${portfolio.cluster.reconnect-delay:PT5S}") Duration reconnectDelay) {
+        if (!CHANNEL_NAME.matcher(channel).matches()) {
+            throw new IllegalArgumentException("Invalid cluster channel name '" + channel + "', expected lower-case letters, digits and underscores");
+        }
+        this.jdbcTemplate = jdbcTemplate;
+        this.objectMapper = objectMapper;
+        this.eventPublisher = eventPublisher;
+        this.connections = connections;
+        this.channel = channel;
+        this.viewRelayInterval = viewRelayInterval;
+        this.pollTimeout = pollTimeout;
+        this.reconnectDelay = reconnectDelay;
+        this.sentCounter = Counter.builder("portfolio.cluster.notifications").tag("direction", "sent")
+                .description("Cluster notifications sent to or replayed from other nodes").register(meterRegistry);
+        this.receivedCounter = Counter.builder("portfolio.cluster.notifications").tag("direction", "received")
+                .description("Cluster notifications sent to or replayed from other nodes").register(meterRegistry);
+    }
+
+    // Start listening once the application is ready
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void start() {
+        if (running) {
+            return;
+        }
+        running = true;
+        listener = Thread.ofPlatform().daemon().name("cluster-listener").start(this::listen);
+    }
+
+    // Stop listening and close the listener session
+    @PreDestroy
+    public void stop() {
+        running = false;
+        Thread thread = listener;
+        if (thread != null) {
+            thread.interrupt();
+            try {
+                thread.join(pollTimeout.multipliedBy(2).toMillis());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    // Prices go out in chunks small enough for one notification each
+    @EventListener
+    public void onPricesChanged(PricesChangedEvent event) {
+        if (replaying.get()) {
+            return;
+        }
+        Map<String, Double> chunk = new HashMap<>();
+        int chunkBytes = 0;
+        for (Map.Entry<String, Double> entry : event.pricesByTicker().entrySet()) {
+            int entryBytes = entry.getKey().length() + PRICE_ENTRY_BYTES;
+            if (!chunk.isEmpty() && chunkBytes + entryBytes > MAX_PAYLOAD_BYTES - 200) {
+                send("prices", new PricesChangedEvent(chunk, true));
+                chunk = new HashMap<>();
+                chunkBytes = 0;
+            }
+            chunk.put(entry.getKey(), entry.getValue());
+            chunkBytes += entryBytes;
+        }
+        if (!chunk.isEmpty()) {
+            send("prices", new PricesChangedEvent(chunk, true)); // Replayed as relayed by the other nodes
+        }
+    }
+
+    @EventListener
+    public void onHoldingChanged(HoldingChangedEvent event) {
+        if (!replaying.get()) {
+            send("holding", event);
+        }
+    }
+
+    @EventListener
+    public void onAlertChanged(AlertChangedEvent event) {
+        if (!replaying.get()) {
+            send("alert", event);
+        }
+    }
+
+    // Views only keep a ticker hot, so one per ticker and interval is enough
+    @EventListener
+    public void onTickerViewed(TickerViewedEvent event) {
+        if (replaying.get() || event.ticker() == null) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        Long relayedAt = viewsRelayedAt.get(event.ticker());
+        if (relayedAt != null && now - relayedAt < viewRelayInterval.toMillis()) {
+            return;
+        }
+        if (viewsRelayedAt.size() >= MAX_RELAYED_VIEWS) {
+            viewsRelayedAt.clear();
+        }
+        viewsRelayedAt.put(event.ticker(), now);
+        send("viewed", event);
+    }
+
+    // Send one event to the other nodes; a failure is logged and does not fail the change that caused it
+    private void send(String type, Object event) {
+        String payload;
+        try {
+            payload = objectMapper.writeValueAsString(new Message(nodeId, type, objectMapper.valueToTree(event)));
+        } catch (JsonProcessingException | IllegalArgumentException e) {
+            log.warn("Failed to encode a {} cluster notification: {}", type, e.getMessage());
+            return;
+        }
+        if (payload.getBytes(StandardCharsets.UTF_8).length > MAX_PAYLOAD_BYTES) {
+            log.warn("Dropped a {} cluster notification of {} characters, too large for NOTIFY", type, payload.length());
+            return;
+        }
+        try {
+            jdbcTemplate.queryForList("select pg_notify(?, ?)", channel, payload);
+            sentCounter.increment();
+        } catch (DataAccessException e) {
+            log.warn("Failed to send a {} cluster notification: {}", type, e.getMessage());
+        }
+    }
+
+    // Replay a notification of another node as a local event
+    void receive(String payload) {
+        Message message;
+        Object event;
+        try {
+            message = objectMapper.readValue(payload, Message.class);
+            if (nodeId.equals(message.node())) {
+                return; // PostgreSQL also delivers a node's own notifications to it
+            }
+            event = switch (message.type()) {
+                case "prices" -> objectMapper.treeToValue(message.body(), PricesChangedEvent.class);
+                case "holding" -> objectMapper.treeToValue(message.body(), HoldingChangedEvent.class);
+                case "alert" -> objectMapper.treeToValue(message.body(), AlertChangedEvent.class);
+                case "viewed" -> objectMapper.treeToValue(message.body(), TickerViewedEvent.class);
+                default -> null;
+            };
+        } catch (JsonProcessingException e) {
+            log.warn("Ignored an unreadable cluster notification: {}", e.getMessage());
+            return;
+        }
+        if (event == null) {
+            log.debug("Ignored a cluster notification of unknown type {}", message.type());
+            return;
+        }
+        replaying.set(true);
+        try {
+            eventPublisher.publishEvent(event);
+            receivedCounter.increment();
+        } catch (RuntimeException e) {
+            log.warn("Failed to replay a {} cluster notification: {}", message.type(), e.getMessage());
+        } finally {
+            replaying.remove();
+        }
+    }
+
+    // Listener loop: register on the channel and replay what arrives, opening a new session after failures
+    private void listen() {
+        while (running) {
+            try (Connection connection = connections.open()) {
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute("LISTEN " + channel);
+                }
+                listenerConnection = connection;
+                log.info("Listening for cluster notifications on channel {} as node {}", channel, nodeId);
+                PGConnection pgConnection = connection.unwrap(PGConnection.class);
+                while (running) {
+                    PGNotification[] notifications = pgConnection.getNotifications((int) pollTimeout.toMillis());
+                    if (notifications != null) {
+                        for (PGNotification notification : notifications) {
+                            receive(notification.getParameter());
+                        }
+                    }
+                }
+            } catch (SQLException e) {
+                if (running) {
+                    log.warn("Cluster listener session failed, reconnecting in {}: {}", reconnectDelay, e.getMessage());
+                    try {
+                        Thread.sleep(reconnectDelay.toMillis());
+                    } catch (InterruptedException interrupted) {
+                        Thread.currentThread().interrupt();
+                    }
+                }
+            } finally {
+                listenerConnection = null;
+            }
+        }
+    }
+
+    String nodeId() {
+        return nodeId;
+    }
+
+    boolean isListening() {
+        return listenerConnection != null;
+    }
+}
@@ -0,0 +1,114 @@
+package com.example.stock_portfolio.cluster; // Package declaration for the LeaderElection class
+
+import io.micrometer.core.instrument.Gauge; // Importing Gauge for the leadership state
+import io.micrometer.core.instrument.MeterRegistry; // Importing MeterRegistry to register the gauge
+
+import jakarta.annotation.PreDestroy; // Importing PreDestroy to hand leadership over on shutdown
+
+import lombok.extern.slf4j.Slf4j; // Lombok annotation to generate a logger
+
+import org.springframework.beans.factory.annotation.Value; // Importing annotation to inject values from properties
+import org.springframework.scheduling.annotation.Scheduled; // Importing annotation for scheduling tasks
+import org.springframework.stereotype.Component; // Marking this class as a Spring component
+
+import java.sql.Connection; // Importing Connection for the session holding the lock
+import java.sql.PreparedStatement; // Importing PreparedStatement to try the lock
+import java.sql.ResultSet; // Importing ResultSet to read the lock result
+import java.sql.SQLException; // Importing SQLException for database failures
+
+// Picks the one node of a cluster that refreshes prices, so the Twelve Data credits for quotes are spent once
+// however many nodes run. The symbol directory is not covered: every node keeps its own listing file and
+// syncs it, a few credits per node and day. The leader is the node holding a session-level PostgreSQL
+// advisory lock on its own connection; every heartbeat a follower tries to take the lock and the leader checks
+// that its session is still alive. When the leader dies, PostgreSQL releases the lock with its session and
+// the next follower heartbeat takes over. A leader cut off from the database notices at its next heartbeat,
+// so two nodes may both refresh for up to one heartbeat, which only costs a few duplicate credits.
+// With portfolio.cluster.enabled=false (a single node) this node is always the leader.
+@Slf4j // Lombok annotation to generate a logger for this class
+@Component // Marking this class as a Spring component
+public class LeaderElection {
+
+    private static final int VALIDATION_TIMEOUT_SECONDS = 2; // How long a heartbeat waits for the lock session to answer
+
+    private final ClusterConnections connections; // Injecting the factory of dedicated sessions
+    private final boolean enabled; // Whether several nodes share the database
+    private final long lockKey; // Advisory lock key shared by all nodes of the cluster
+
+    private Connection connection; // Session that holds or tries the lock, guarded by this
+    private volatile boolean leader; // Whether the lock is held
+
+    public LeaderElection(ClusterConnections connections,
+                          MeterRegistry meterRegistry,
+                          @Value("${portfolio.cluster.enabled:false}") boolean enabled,
+                          @Value("${portfolio.cluster.lock-key:7246013}") long lockKey) {
+        this.connections = connections;
+        this.enabled = enabled;
+        this.lockKey = lockKey;
+        Gauge.builder("portfolio.cluster.leader", this, election -> election.isLeader() ? 1 : 0)
+                .description("Whether this node refreshes prices for the cluster")
+                .register(meterRegistry);
+    }
+
+    // Whether this node should run the work done once per cluster
+    public boolean isLeader() {
+        return !enabled || leader;
+    }
+
+    // Take the lock if it is free, or check that the session holding it is still alive
+    @Scheduled(fixedDelayString = "${portfolio.cluster.heartbeat:PT5S}")
+    public synchronized void heartbeat() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            if (connection != null && !connection.isValid(VALIDATION_TIMEOUT_SECONDS)) {
+                throw new SQLException("Leader lock session is no longer valid");
+            }
+            if (connection == null) {
+                connection = connections.open();
+            }
+            if (!leader && tryLock()) {
+                leader = true;
+                log.info("Took over price refresh leadership (advisory lock {})", lockKey);
+            }
+        } catch (SQLException e) {
+            if (leader) {
+                log.warn("Lost price refresh leadership: {}", e.getMessage());
+            } else {
+                log.debug("Leader election heartbeat failed: {}", e.getMessage());
+            }
+            leader = false;
+            close(); // Retried with a new session at the next heartbeat
+        }
+    }
+
+    // Close the session, which releases the lock so that another node takes over without waiting for a timeout
+    @PreDestroy
+    public synchronized void release() {
+        if (leader) {
+            log.info("Handing over price refresh leadership");
+        }
+        leader = false;
+        close();
+    }
+
+    private boolean tryLock() throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement("select pg_try_advisory_lock(?)")) {
+            statement.setLong(1, lockKey);
+            try (ResultSet resultSet = statement.executeQuery()) {
+                return resultSet.next() && resultSet.getBoolean(1);
+            }
+        }
+    }
+
+    private void close() {
+        if (connection != null) {
+            try {
+                connection.close();
+            } catch (SQLException e) {
+                log.debug("Failed to close the leader lock session: {}", e.getMessage());
+            }
+            connection = null;
+        }
+    }
+}
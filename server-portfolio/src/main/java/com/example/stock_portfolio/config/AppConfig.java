@@ -1,17 +1,109 @@
 package com.example.stock_portfolio.config;
 
+import com.example.stock_portfolio.client.InstrumentedConnectionManager; // Importing the instrumented connection pool
+import com.example.stock_portfolio.util.CircuitBreaker; // Importing the circuit breaker guarding Twelve Data calls
+import com.example.stock_portfolio.util.ExchangeCalendar; // Importing the trading hours used by the refresh scheduler
+import com.example.stock_portfolio.util.TokenBucketRateLimiter; // Importing the token bucket used to respect the API plan
+import io.micrometer.core.instrument.Gauge; // Importing Gauge to expose the circuit breaker state
+import io.micrometer.core.instrument.MeterRegistry; // Importing MeterRegistry to register HTTP client meters
+import org.apache.hc.client5.http.config.ConnectionConfig; // Importing ConnectionConfig for connect and socket timeouts
+import org.apache.hc.client5.http.config.RequestConfig; // Importing RequestConfig for pool and response timeouts
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient; // Importing the pooled Apache HTTP client
+import org.apache.hc.client5.http.impl.classic.HttpClients; // Importing HttpClients to build the client
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager; // Importing the pooling connection manager
+import org.apache.hc.core5.util.TimeValue; // Importing TimeValue for keep-alive durations
+import org.apache.hc.core5.util.Timeout; // Importing Timeout for HTTP client timeouts
+import org.springframework.beans.factory.annotation.Value; // Importing annotation to inject values from properties
 import org.springframework.boot.web.client.RestTemplateBuilder; // Importing RestTemplateBuilder for building RestTemplate
 import org.springframework.context.annotation.Bean; // Importing Bean annotation to define a bean in the Spring context
 import org.springframework.context.annotation.Configuration; // Importing Configuration annotation to mark the class as a configuration class
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory; // Importing request factory backed by the Apache HTTP client
 import org.springframework.web.client.RestTemplate; // Importing RestTemplate class for making HTTP requests
 
+import java.time.Duration; // Importing Duration for timeouts, keep-alive and the rate limit period
+import java.util.concurrent.ExecutorService; // Importing ExecutorService for running refresh tasks
+import java.util.concurrent.Executors; // Importing Executors to create a virtual thread executor
+
 // This class is used to configure Spring beans for the application
 @Configuration
 public class AppConfig {
 
     // Defining a bean of type RestTemplate so that it can be injected wherever needed in the application
     @Bean
-    public RestTemplate restTemplate(RestTemplateBuilder builder) {
-        return builder.build(); // Returning a new RestTemplate instance built using RestTemplateBuilder
+    public RestTemplate restTemplate(RestTemplateBuilder builder, CloseableHttpClient twelveDataHttpClient) {
+        return builder
+                .requestFactory(() -> new HttpComponentsClientHttpRequestFactory(twelveDataHttpClient)) // Pooled keep-alive connections
+                .build(); // Returning a new RestTemplate instance built using RestTemplateBuilder
+    }
+
+    // Defining a connection pool so that Twelve Data calls reuse kept-alive TLS connections instead of opening one per call
+    @Bean(destroyMethod = "close")
+    public PoolingHttpClientConnectionManager twelveDataConnectionManager(
+            MeterRegistry meterRegistry,
+            @Value("${twelvedata.http.max-connections-per-route:20}") int maxPerRoute,
+            @Value("${twelvedata.http.max-connections-total:50}") int maxTotal,
+            @Value("${twelvedata.http.connect-timeout:PT5S}") Duration connectTimeout,
+            @Value("${twelvedata.http.read-timeout:PT10S}") Duration readTimeout) {
+        PoolingHttpClientConnectionManager connectionManager = new InstrumentedConnectionManager(meterRegistry);
+        connectionManager.setDefaultMaxPerRoute(maxPerRoute); // All calls go to one host, so this is the effective limit
+        connectionManager.setMaxTotal(maxTotal);
+        connectionManager.setDefaultConnectionConfig(ConnectionConfig.custom()
+                .setConnectTimeout(Timeout.of(connectTimeout)) // Fail fast when the upstream cannot be reached
+                .setSocketTimeout(Timeout.of(readTimeout)) // Bound every read so a hung upstream cannot pin a thread
+                .setValidateAfterInactivity(TimeValue.ofSeconds(2)) // Check connections that sat idle before reusing them
+                .build());
+        return connectionManager;
+    }
+
+    // Defining the HTTP client behind the RestTemplate
+    @Bean(destroyMethod = "close")
+    public CloseableHttpClient twelveDataHttpClient(
+            PoolingHttpClientConnectionManager twelveDataConnectionManager,
+            @Value("${twelvedata.http.keep-alive:PT30S}") Duration keepAlive,
+            @Value("${twelvedata.http.connection-request-timeout:PT2S}") Duration connectionRequestTimeout,
+            @Value("${twelvedata.http.read-timeout:PT10S}") Duration readTimeout) {
+        return HttpClients.custom()
+                .setConnectionManager(twelveDataConnectionManager)
+                .setDefaultRequestConfig(RequestConfig.custom()
+                        .setConnectionRequestTimeout(Timeout.of(connectionRequestTimeout)) // Bound the wait for a pooled connection
+                        .setResponseTimeout(Timeout.of(readTimeout))
+                        .build())
+                .setKeepAliveStrategy((response, context) -> TimeValue.of(keepAlive)) // Keep idle connections for reuse
+                .evictIdleConnections(TimeValue.of(keepAlive)) // Close connections the upstream has likely dropped
+                .evictExpiredConnections()
+                .build();
+    }
+
+    // Defining a circuit breaker so that calls fail fast while Twelve Data is down instead of waiting on timeouts
+    @Bean
+    public CircuitBreaker twelveDataCircuitBreaker(
+            MeterRegistry meterRegistry,
+            @Value("${twelvedata.circuit-breaker.failure-threshold:5}") int failureThreshold,
+            @Value("${twelvedata.circuit-breaker.open-duration:PT30S}") Duration openDuration) {
+        CircuitBreaker circuitBreaker = new CircuitBreaker(failureThreshold, openDuration);
+        Gauge.builder("twelvedata.circuit.state", circuitBreaker, breaker -> breaker.getState().ordinal())
+                .description("Twelve Data circuit breaker state (0 closed, 1 open, 2 half-open)")
+                .register(meterRegistry);
+        return circuitBreaker;
+    }
+
+    // Defining a rate limiter shared by every Twelve Data call so that all callers stay within the API plan
+    @Bean
+    public TokenBucketRateLimiter twelveDataRateLimiter(
+            @Value("${twelvedata.rate-limit.credits-per-minute:8}") int creditsPerMinute,
+            @Value("${twelvedata.rate-limit.interactive-reserve:2}") int interactiveReserve) {
+        return new TokenBucketRateLimiter(creditsPerMinute, Duration.ofMinutes(1), interactiveReserve);
+    }
+
+    // Defining an executor that runs each quote request of a refresh cycle on its own virtual thread
+    @Bean(destroyMethod = "close")
+    public ExecutorService refreshExecutor() {
+        return Executors.newVirtualThreadPerTaskExecutor();
+    }
+
+    // Defining the exchange calendar, extended with the holidays configured as EXCHANGE:yyyy-MM-dd entries
+    @Bean
+    public ExchangeCalendar exchangeCalendar(@Value("${portfolio.market.holidays:}") String holidays) {
+        return ExchangeCalendar.parse(holidays);
     }
 }
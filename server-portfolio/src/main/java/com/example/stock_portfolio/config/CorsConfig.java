@@ -23,6 +23,8 @@ public class CorsConfig {
                         .allowedMethods("GET", "POST", "PUT", "PATCH", "DELETE", "OPTIONS")
                         // Allowing all headers in the request
                         .allowedHeaders("*")
+                        // Exposing listing headers so the client can revalidate and page
+                        .exposedHeaders("ETag", "X-Total-Count")
                         // Allowing credentials (cookies, HTTP authentication, etc.)
                         .allowCredentials(true);
             }
@@ -0,0 +1,26 @@
+package com.example.stock_portfolio.config;
+
+import org.springframework.context.annotation.Configuration; // Importing Configuration annotation to mark the class as a configuration class
+import org.springframework.messaging.simp.config.MessageBrokerRegistry; // Importing MessageBrokerRegistry to configure the broker
+import org.springframework.web.socket.config.annotation.EnableWebSocketMessageBroker; // Importing annotation to enable STOMP messaging
+import org.springframework.web.socket.config.annotation.StompEndpointRegistry; // Importing StompEndpointRegistry to register endpoints
+import org.springframework.web.socket.config.annotation.WebSocketMessageBrokerConfigurer; // Importing configurer for STOMP over WebSocket
+
+// This class is used to configure the STOMP over WebSocket endpoint that pushes live prices
+@Configuration
+@EnableWebSocketMessageBroker
+public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
+
+    @Override
+    public void registerStompEndpoints(StompEndpointRegistry registry) {
+        // Clients connect to /ws and subscribe to /topic/prices (all tickers) or /topic/prices/{ticker}
+        registry.addEndpoint("/ws")
+                .setAllowedOriginPatterns("https://portfoliostock.netlify.app", "http://localhost:5173");
+    }
+
+    @Override
+    public void configureMessageBroker(MessageBrokerRegistry registry) {
+        registry.enableSimpleBroker("/topic"); // In-memory broker fanning each message out to all subscribers
+        registry.setApplicationDestinationPrefixes("/app"); // Prefix for messages sent from clients to the server
+    }
+}
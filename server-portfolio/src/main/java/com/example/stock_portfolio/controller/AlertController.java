@@ -0,0 +1,48 @@
+package com.example.stock_portfolio.controller; // Package declaration for the AlertController class
+
+import com.example.stock_portfolio.dto.PriceAlertDto; // Importing PriceAlertDto record for alert requests
+import com.example.stock_portfolio.service.PriceAlertService; // Importing PriceAlertService for the alert engine
+import lombok.AllArgsConstructor; // Lombok annotation to generate the constructor with all fields
+import org.springframework.http.HttpStatus; // Importing HttpStatus to define status codes in response
+import org.springframework.http.ResponseEntity; // Importing ResponseEntity to send HTTP responses
+import org.springframework.web.bind.annotation.DeleteMapping; // Importing DeleteMapping for deleting alerts
+import org.springframework.web.bind.annotation.GetMapping; // Importing GetMapping for retrieving data
+import org.springframework.web.bind.annotation.PathVariable; // Importing PathVariable to map URI path variables to method parameters
+import org.springframework.web.bind.annotation.PostMapping; // Importing PostMapping for creating and re-arming alerts
+import org.springframework.web.bind.annotation.RequestBody; // Importing RequestBody to bind HTTP request body to method argument
+import org.springframework.web.bind.annotation.RequestMapping; // Importing RequestMapping to define base URI for REST controller
+import org.springframework.web.bind.annotation.RestController; // Importing RestController to define a RESTful controller
+import java.util.List; // Importing List for representing collections of alerts
+
+@AllArgsConstructor // Lombok annotation to generate constructor with all arguments (dependency injection)
+@RestController // Marks this class as a RESTful controller
+@RequestMapping("/api") // Alerts hang off positions
+public class AlertController {
+
+    private final PriceAlertService priceAlertService; // Declaring the service handling price alerts
+
+    // Register a price alert on a position (POST request); fired alerts are pushed to /topic/alerts
+    @PostMapping("/stocks/{stockId}/alerts")
+    public ResponseEntity<PriceAlertDto> createAlert(@PathVariable("stockId") Long stockId, @RequestBody PriceAlertDto alert) {
+        return new ResponseEntity<>(priceAlertService.createAlert(stockId, alert), HttpStatus.CREATED);
+    }
+
+    // List the alerts of a position with their live state
+    @GetMapping("/stocks/{stockId}/alerts")
+    public ResponseEntity<List<PriceAlertDto>> getAlerts(@PathVariable("stockId") Long stockId) {
+        return ResponseEntity.ok(priceAlertService.getAlerts(stockId));
+    }
+
+    // Re-arm a fired alert (POST request)
+    @PostMapping("/alerts/{alertId}/rearm")
+    public ResponseEntity<PriceAlertDto> rearmAlert(@PathVariable("alertId") Long alertId) {
+        return ResponseEntity.ok(priceAlertService.rearmAlert(alertId));
+    }
+
+    // Delete an alert (DELETE request)
+    @DeleteMapping("/alerts/{alertId}")
+    public ResponseEntity<String> deleteAlert(@PathVariable("alertId") Long alertId) {
+        priceAlertService.deleteAlert(alertId);
+        return ResponseEntity.ok("Price alert with id " + alertId + " has been deleted");
+    }
+}
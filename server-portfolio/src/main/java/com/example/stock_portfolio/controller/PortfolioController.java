@@ -0,0 +1,73 @@
+package com.example.stock_portfolio.controller; // Package declaration for the PortfolioController class
+
+import com.example.stock_portfolio.dto.AppUserDto; // Importing AppUserDto record for user requests
+import com.example.stock_portfolio.dto.PortfolioDto; // Importing PortfolioDto record for portfolio requests
+import com.example.stock_portfolio.dto.StockDto; // Importing StockDto class to handle stock data transfer
+import com.example.stock_portfolio.service.PortfolioService; // Importing PortfolioService for users and portfolios
+import com.example.stock_portfolio.service.StockService; // Importing StockService for the positions of a portfolio
+import lombok.AllArgsConstructor; // Lombok annotation to generate the constructor with all fields
+import org.springframework.data.domain.Page; // Importing Page for paged results
+import org.springframework.data.domain.PageRequest; // Importing PageRequest to build a page from request parameters
+import org.springframework.data.domain.Sort; // Importing Sort to order positions by ticker
+import org.springframework.http.HttpStatus; // Importing HttpStatus to define status codes in response
+import org.springframework.http.ResponseEntity; // Importing ResponseEntity to send HTTP responses
+import org.springframework.web.bind.annotation.GetMapping; // Importing GetMapping for retrieving data
+import org.springframework.web.bind.annotation.PathVariable; // Importing PathVariable to map URI path variables to method parameters
+import org.springframework.web.bind.annotation.PostMapping; // Importing PostMapping for creating resources
+import org.springframework.web.bind.annotation.RequestBody; // Importing RequestBody to bind HTTP request body to method argument
+import org.springframework.web.bind.annotation.RequestMapping; // Importing RequestMapping to define base URI for REST controller
+import org.springframework.web.bind.annotation.RequestParam; // Importing RequestParam to bind query parameters
+import org.springframework.web.bind.annotation.RestController; // Importing RestController to define a RESTful controller
+import java.util.List; // Importing List for representing collections of PortfolioDto
+
+@AllArgsConstructor // Lombok annotation to generate constructor with all arguments (dependency injection)
+@RestController // Marks this class as a RESTful controller
+@RequestMapping("/api") // Users and portfolios live next to /api/stocks
+public class PortfolioController {
+
+    private static final int MAX_PAGE_SIZE = 1000; // Upper bound for ?size=
+
+    private final PortfolioService portfolioService; // Declaring the service handling users and portfolios
+    private final StockService stockService; // Declaring the service handling positions
+
+    // Create User endpoint (POST request)
+    @PostMapping("/users")
+    public ResponseEntity<AppUserDto> createUser(@RequestBody AppUserDto appUserDto) {
+        return new ResponseEntity<>(portfolioService.createUser(appUserDto), HttpStatus.CREATED);
+    }
+
+    // Create Portfolio endpoint (POST request)
+    @PostMapping("/users/{userId}/portfolios")
+    public ResponseEntity<PortfolioDto> createPortfolio(@PathVariable("userId") Long userId,
+                                                        @RequestBody PortfolioDto portfolioDto) {
+        return new ResponseEntity<>(portfolioService.createPortfolio(userId, portfolioDto), HttpStatus.CREATED);
+    }
+
+    // List Portfolios endpoint (GET request)
+    @GetMapping("/users/{userId}/portfolios")
+    public ResponseEntity<List<PortfolioDto>> getPortfolios(@PathVariable("userId") Long userId) {
+        return ResponseEntity.ok(portfolioService.getPortfolios(userId));
+    }
+
+    // List the positions of a portfolio, one page at a time ordered by ticker
+    @GetMapping("/portfolios/{portfolioId}/stocks")
+    public ResponseEntity<List<StockDto>> getPortfolioStocks(@PathVariable("portfolioId") Long portfolioId,
+                                                             @RequestParam(value = "page", defaultValue = "0") int page,
+                                                             @RequestParam(value = "size", defaultValue = "50") int size) {
+        if (page < 0 || size < 1 || size > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("page must be >= 0 and size between 1 and " + MAX_PAGE_SIZE);
+        }
+        Page<StockDto> stocks = stockService.getPortfolioStocks(portfolioId, PageRequest.of(page, size, Sort.by("ticker")));
+        return ResponseEntity.ok()
+                .header("X-Total-Count", String.valueOf(stocks.getTotalElements())) // Total number of positions across pages
+                .body(stocks.getContent());
+    }
+
+    // Add a position to a portfolio (POST request)
+    @PostMapping("/portfolios/{portfolioId}/stocks")
+    public ResponseEntity<StockDto> createPortfolioStock(@PathVariable("portfolioId") Long portfolioId,
+                                                         @RequestBody StockDto stockDto) {
+        stockDto.setPortfolioId(portfolioId); // The path decides the portfolio, not the body
+        return new ResponseEntity<>(stockService.createStock(stockDto), HttpStatus.CREATED);
+    }
+}
@@ -0,0 +1,73 @@
+package com.example.stock_portfolio.controller; // Package declaration for the ReactiveStockController class
+
+import com.example.stock_portfolio.mapper.CandleSeriesWriter; // Importing CandleSeriesWriter to encode historical data
+import com.example.stock_portfolio.service.ReactiveStockService; // Importing the non-blocking stock service
+import lombok.AllArgsConstructor; // Lombok annotation to generate the constructor with all fields
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty; // Importing condition to enable the reactive endpoints by configuration
+import org.springframework.http.HttpHeaders; // Importing HttpHeaders for the Accept header
+import org.springframework.http.MediaType; // Importing MediaType for the historical data formats
+import org.springframework.http.ResponseEntity; // Importing ResponseEntity to send HTTP responses
+import org.springframework.web.bind.annotation.GetMapping; // Importing GetMapping for retrieving data
+import org.springframework.web.bind.annotation.PathVariable; // Importing PathVariable to map URI path variables to method parameters
+import org.springframework.web.bind.annotation.RequestHeader; // Importing RequestHeader to bind the Accept header
+import org.springframework.web.bind.annotation.RequestMapping; // Importing RequestMapping to define base URI for REST controller
+import org.springframework.web.bind.annotation.RequestParam; // Importing RequestParam to bind query parameters
+import org.springframework.web.bind.annotation.RestController; // Importing RestController to define a RESTful controller
+import reactor.core.publisher.Mono; // Importing Mono for asynchronous responses
+
+import java.io.ByteArrayOutputStream; // Importing ByteArrayOutputStream to encode the response body
+import java.io.IOException; // Importing IOException for encoding errors
+import java.io.UncheckedIOException; // Importing UncheckedIOException to surface encoding errors from a lambda
+import java.util.Map; // Importing Map for representing key-value pairs of stock information
+
+// The upstream-facing endpoints of StockController on the reactive service. Returning a Mono releases the
+// servlet thread while the upstream call is in flight (async request processing), so both models can be
+// load-tested side by side: /api/stocks/... blocks a thread per request, /api/reactive/stocks/... does not.
+@AllArgsConstructor // Lombok annotation to generate constructor with all arguments (dependency injection)
+@RestController // Marks this class as a RESTful controller
+@RequestMapping("/api/reactive/stocks") // Mirrors the paths of StockController
+@ConditionalOnProperty(name = "portfolio.reactive.enabled", havingValue = "true") // Enabled with portfolio.reactive.enabled=true
+public class ReactiveStockController {
+
+    private final ReactiveStockService reactiveStockService; // Declaring the non-blocking stock service
+    private final CandleSeriesWriter candleSeriesWriter; // Declaring the writer for historical data formats
+
+    // Get Stock Historical Data endpoint (GET request), same parameters and formats as /api/stocks/{ticker}/data
+    @GetMapping("/{ticker}/data")
+    public Mono<ResponseEntity<byte[]>> getStockHistoricalData(
+            @PathVariable("ticker") String ticker,
+            @RequestParam(value = "interval", defaultValue = "1h") String interval,
+            @RequestParam(value = "outputsize", defaultValue = "100") int outputsize,
+            @RequestParam(value = "from", required = false) String from,
+            @RequestParam(value = "to", required = false) String to,
+            @RequestParam(value = "format", required = false) String format,
+            @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept) {
+        String symbol = ticker.trim().toUpperCase();
+        String selectedFormat = format != null ? format
+                : accept != null && accept.contains(MediaType.APPLICATION_OCTET_STREAM_VALUE) ? "binary" : "json";
+        if (!selectedFormat.equals("json") && !selectedFormat.equals("columnar") && !selectedFormat.equals("binary")) {
+            return Mono.error(new IllegalArgumentException("Unsupported format '" + selectedFormat + "', expected json, columnar or binary"));
+        }
+
+        return reactiveStockService.getHistoricalCandles(ticker, interval, outputsize, from, to).map(series -> {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            try {
+                switch (selectedFormat) {
+                    case "json" -> candleSeriesWriter.writeJson(series, interval, out);
+                    case "columnar" -> candleSeriesWriter.writeColumnarJson(symbol, interval, series, out);
+                    default -> candleSeriesWriter.writeBinary(series, out);
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            MediaType contentType = selectedFormat.equals("binary") ? MediaType.APPLICATION_OCTET_STREAM : MediaType.APPLICATION_JSON;
+            return ResponseEntity.ok().contentType(contentType).body(out.toByteArray());
+        });
+    }
+
+    // Get Stock Ticker Info endpoint (GET request)
+    @GetMapping("/{ticker}/info")
+    public Mono<Map<String, Object>> getTickerInfo(@PathVariable("ticker") String ticker) {
+        return reactiveStockService.getTickerInfo(ticker);
+    }
+}
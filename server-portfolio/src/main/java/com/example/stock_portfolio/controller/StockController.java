@@ -1,9 +1,27 @@
 package com.example.stock_portfolio.controller; // Package declaration for the StockController class
 
+import com.example.stock_portfolio.dto.BatchCreateReport; // Importing BatchCreateReport to return per-row import results
+import com.example.stock_portfolio.dto.PortfolioAnalytics; // Importing PortfolioAnalytics to return risk analytics
+import com.example.stock_portfolio.dto.PortfolioSummary; // Importing PortfolioSummary to return portfolio totals
 import com.example.stock_portfolio.dto.StockDto; // Importing StockDto class to handle stock data transfer
+import com.example.stock_portfolio.dto.ValuationHistory; // Importing ValuationHistory to return valuation history
+import com.example.stock_portfolio.mapper.CandleSeriesWriter; // Importing CandleSeriesWriter to stream historical data
+import com.example.stock_portfolio.mapper.StockCsvReader; // Importing StockCsvReader to parse CSV imports
+import com.example.stock_portfolio.service.AnalyticsService; // Importing AnalyticsService for risk analytics
+import com.example.stock_portfolio.service.PortfolioSummaryService; // Importing PortfolioSummaryService for running totals
+import com.example.stock_portfolio.service.StockBatchService; // Importing StockBatchService for bulk imports
 import com.example.stock_portfolio.service.StockService; // Importing StockService class to interact with the stock-related logic
+import com.example.stock_portfolio.service.ValuationHistoryService; // Importing ValuationHistoryService for valuation history
+import com.example.stock_portfolio.service.impl.PortfolioVersion; // Importing PortfolioVersion to derive ETags
+import com.example.stock_portfolio.store.CandleSeries; // Importing CandleSeries for columnar historical data
 import lombok.AllArgsConstructor; // Lombok annotation to generate the constructor with all fields
+import org.springframework.data.domain.Page; // Importing Page for paged results
+import org.springframework.data.domain.PageRequest; // Importing PageRequest to build a page from request parameters
+import org.springframework.data.domain.Sort; // Importing Sort for the sort parameter
+import org.springframework.http.CacheControl; // Importing CacheControl to make clients revalidate listings
+import org.springframework.http.HttpHeaders; // Importing HttpHeaders for the Accept header
 import org.springframework.http.HttpStatus; // Importing HttpStatus to define status codes in response
+import org.springframework.http.MediaType; // Importing MediaType for the historical data formats
 import org.springframework.http.ResponseEntity; // Importing ResponseEntity to send HTTP responses
 import org.springframework.web.bind.annotation.PostMapping; // Importing PostMapping for creating stock
 import org.springframework.web.bind.annotation.PutMapping; // Importing PutMapping for updating stock
@@ -13,15 +31,35 @@ import org.springframework.web.bind.annotation.RestController; // Importing Rest
 import org.springframework.web.bind.annotation.DeleteMapping; // Importing DeleteMapping for deleting stock
 import org.springframework.web.bind.annotation.GetMapping; // Importing GetMapping for retrieving data
 import org.springframework.web.bind.annotation.PathVariable; // Importing PathVariable to map URI path variables to method parameters
+import org.springframework.web.bind.annotation.RequestHeader; // Importing RequestHeader to bind the Accept header
+import org.springframework.web.bind.annotation.RequestParam; // Importing RequestParam to bind query parameters
+import org.springframework.web.context.request.WebRequest; // Importing WebRequest for conditional request handling
+import org.springframework.web.multipart.MultipartFile; // Importing MultipartFile for CSV uploads
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody; // Importing StreamingResponseBody to write to the response stream
+import java.io.IOException; // Importing IOException for reading uploads
+import java.io.InputStreamReader; // Importing InputStreamReader to decode uploads
+import java.io.StringReader; // Importing StringReader to parse CSV bodies
+import java.nio.charset.StandardCharsets; // Importing StandardCharsets to decode uploads
 import java.util.List; // Importing List for representing collections of StockDto
 import java.util.Map; // Importing Map for representing key-value pairs of stock information
+import java.util.Set; // Importing Set for the sortable properties
 
 @AllArgsConstructor // Lombok annotation to generate constructor with all arguments (dependency injection)
 @RestController // Marks this class as a RESTful controller
 @RequestMapping("/api/stocks") // Sets the base URI for all endpoints in this controller
 public class StockController {
 
+    private static final Set<String> SORTABLE_PROPERTIES =
+            Set.of("id", "stockName", "ticker", "quantity", "buyPrice", "currentPrice"); // Properties accepted by ?sort=
+    private static final int MAX_PAGE_SIZE = 1000; // Upper bound for ?size=
+
     private final StockService stockService; // Declaring a StockService object to handle business logic
+    private final PortfolioVersion portfolioVersion; // Declaring the portfolio version used as ETag
+    private final PortfolioSummaryService portfolioSummaryService; // Declaring the service holding the running totals
+    private final CandleSeriesWriter candleSeriesWriter; // Declaring the writer for historical data formats
+    private final StockBatchService stockBatchService; // Declaring the service handling bulk imports
+    private final AnalyticsService analyticsService; // Declaring the service computing risk analytics
+    private final ValuationHistoryService valuationHistoryService; // Declaring the service recording valuation history
 
     // Create Stock endpoint (POST request)
     @PostMapping // Endpoint to create a new stock
@@ -31,6 +69,26 @@ public class StockController {
         return new ResponseEntity<>(savedStock, HttpStatus.CREATED);
     }
 
+    // Bulk Create Stocks endpoint (POST request) with a JSON array; every row gets its own result
+    @PostMapping(value = "/batch", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<BatchCreateReport> createStocks(@RequestBody List<StockDto> stocks) {
+        return ResponseEntity.ok(stockBatchService.createStocks(stocks));
+    }
+
+    // Bulk Create Stocks endpoint (POST request) with a text/csv body of ticker[,quantity[,buyPrice[,portfolioId]]] lines
+    @PostMapping(value = "/batch", consumes = "text/csv")
+    public ResponseEntity<BatchCreateReport> createStocksFromCsv(@RequestBody String csv) throws IOException {
+        return ResponseEntity.ok(stockBatchService.createStocks(StockCsvReader.read(new StringReader(csv))));
+    }
+
+    // Bulk Create Stocks endpoint (POST request) with a CSV file uploaded as the "file" form field
+    @PostMapping(value = "/batch", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public ResponseEntity<BatchCreateReport> uploadStocks(@RequestParam("file") MultipartFile file) throws IOException {
+        try (InputStreamReader reader = new InputStreamReader(file.getInputStream(), StandardCharsets.UTF_8)) {
+            return ResponseEntity.ok(stockBatchService.createStocks(StockCsvReader.read(reader)));
+        }
+    }
+
     // Get Stock by ID endpoint (GET request)
     @GetMapping("{id}") // Endpoint to retrieve a stock by its ID
     public ResponseEntity<StockDto> getStockById(@PathVariable("id") Long stockId) {
@@ -39,12 +97,61 @@ public class StockController {
         return ResponseEntity.ok(stockDto); // Returning HTTP status 200 with stock data
     }
 
-    // Get All Stocks endpoint (GET request)
+    // Get All Stocks endpoint (GET request), optionally paged with ?page=&size=&sort=property,direction
     @GetMapping // Endpoint to retrieve a list of all stocks
-    public ResponseEntity<List<StockDto>> getAllStocks() {
-        // Retrieving all stocks from StockService and returning them in the response
-        List<StockDto> stock = stockService.getAllStocks();
-        return ResponseEntity.ok(stock); // Returning HTTP status 200 with a list of stocks
+    public ResponseEntity<List<StockDto>> getAllStocks(@RequestParam(value = "page", required = false) Integer page,
+                                                       @RequestParam(value = "size", defaultValue = "50") int size,
+                                                       @RequestParam(value = "sort", defaultValue = "id") String sort,
+                                                       WebRequest webRequest) {
+        // Answer 304 Not Modified without touching the database if nothing changed since the client's copy
+        if (webRequest.checkNotModified(portfolioVersion.etag())) {
+            return null;
+        }
+
+        if (page == null) {
+            // Retrieving all stocks from StockService and returning them in the response
+            List<StockDto> stock = stockService.getAllStocks();
+            return ResponseEntity.ok().cacheControl(CacheControl.noCache()).body(stock); // Returning HTTP status 200 with a list of stocks
+        }
+
+        if (page < 0 || size < 1 || size > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("page must be >= 0 and size between 1 and " + MAX_PAGE_SIZE);
+        }
+        Page<StockDto> stocks = stockService.getStocks(PageRequest.of(page, size, parseSort(sort)));
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.noCache()) // Clients revalidate with If-None-Match on every poll
+                .header("X-Total-Count", String.valueOf(stocks.getTotalElements())) // Total number of holdings across pages
+                .body(stocks.getContent()); // Returning HTTP status 200 with one page of stocks
+    }
+
+    // Get Portfolio Summary endpoint (GET request)
+    @GetMapping("/summary") // Endpoint to retrieve total value, invested amount, P&L, top movers and allocations
+    public ResponseEntity<PortfolioSummary> getPortfolioSummary(@RequestParam(value = "top", defaultValue = "5") int top) {
+        // Reading the summary from the incrementally maintained aggregates
+        PortfolioSummary summary = portfolioSummaryService.getSummary(Math.max(top, 0));
+        return ResponseEntity.ok(summary); // Returning HTTP status 200 with the summary
+    }
+
+    // Get Portfolio Analytics endpoint (GET request): returns, volatility, drawdown, beta, correlations and VaR
+    // computed from the stored candles of one portfolio (?portfolioId=) or of all holdings
+    @GetMapping("/analytics")
+    public ResponseEntity<PortfolioAnalytics> getPortfolioAnalytics(
+            @RequestParam(value = "portfolioId", required = false) Long portfolioId,
+            @RequestParam(value = "interval", defaultValue = "1day") String interval,
+            @RequestParam(value = "points", defaultValue = "250") int points) {
+        return ResponseEntity.ok(analyticsService.getAnalytics(portfolioId, interval, points));
+    }
+
+    // Get Valuation History endpoint (GET request): total value of one portfolio (?portfolioId=), of all holdings,
+    // or the price of one ticker (?ticker=) over ?range= (1d, 1w, 1m, 1y, 5y, max), from the coarsest retention tier
+    // that still yields about ?points= points
+    @GetMapping("/history")
+    public ResponseEntity<ValuationHistory> getValuationHistory(
+            @RequestParam(value = "portfolioId", required = false) Long portfolioId,
+            @RequestParam(value = "ticker", required = false) String ticker,
+            @RequestParam(value = "range", defaultValue = "1m") String range,
+            @RequestParam(value = "points", defaultValue = "500") int points) {
+        return ResponseEntity.ok(valuationHistoryService.getHistory(portfolioId, ticker, range, points));
     }
 
     // Update Stock endpoint (PUT request)
@@ -66,11 +173,32 @@ public class StockController {
     }
 
     // Get Stock Historical Data endpoint (GET request)
+    // format=json (default, datetime/close objects), columnar ({t: [...], c: [...]}) or binary (little-endian arrays);
+    // binary is also selected by Accept: application/octet-stream
     @GetMapping("/{ticker}/data") // Endpoint to retrieve historical data for a stock by its ticker symbol
-    public ResponseEntity<Map<String, Object>> getStockHistoricalData(@PathVariable("ticker") String ticker) {
-        // Retrieving historical data for the specified stock ticker and returning it in the response
-        Map<String, Object> historicalData = stockService.getStockHistoricalData(ticker);
-        return ResponseEntity.ok(historicalData); // Returning HTTP status 200 with the historical data
+    public ResponseEntity<StreamingResponseBody> getStockHistoricalData(
+            @PathVariable("ticker") String ticker,
+            @RequestParam(value = "interval", defaultValue = "1h") String interval,
+            @RequestParam(value = "outputsize", defaultValue = "100") int outputsize,
+            @RequestParam(value = "from", required = false) String from,
+            @RequestParam(value = "to", required = false) String to,
+            @RequestParam(value = "format", required = false) String format,
+            @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept) {
+        // Retrieving historical data for the specified stock ticker from the local candle store
+        CandleSeries series = stockService.getHistoricalCandles(ticker, interval, outputsize, from, to);
+        String symbol = ticker.trim().toUpperCase();
+
+        String selectedFormat = format != null ? format
+                : accept != null && accept.contains(MediaType.APPLICATION_OCTET_STREAM_VALUE) ? "binary" : "json";
+        return switch (selectedFormat) {
+            case "json" -> ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON)
+                    .body(out -> candleSeriesWriter.writeJson(series, interval, out));
+            case "columnar" -> ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON)
+                    .body(out -> candleSeriesWriter.writeColumnarJson(symbol, interval, series, out));
+            case "binary" -> ResponseEntity.ok().contentType(MediaType.APPLICATION_OCTET_STREAM)
+                    .body(out -> candleSeriesWriter.writeBinary(series, out));
+            default -> throw new IllegalArgumentException("Unsupported format '" + selectedFormat + "', expected json, columnar or binary");
+        };
     }
 
     // Get Stock Ticker Info endpoint (GET request)
@@ -80,4 +208,15 @@ public class StockController {
         Map<String, Object> tickerInfo = stockService.getTickerInfo(ticker);
         return ResponseEntity.ok(tickerInfo); // Returning HTTP status 200 with the ticker information
     }
+
+    // Parse a sort parameter such as "currentPrice,desc" into a Sort on a known property
+    private static Sort parseSort(String sort) {
+        String[] parts = sort.split(",");
+        String property = parts[0].trim();
+        if (!SORTABLE_PROPERTIES.contains(property)) {
+            throw new IllegalArgumentException("Cannot sort by '" + property + "', expected one of " + SORTABLE_PROPERTIES);
+        }
+        boolean descending = parts.length > 1 && parts[1].trim().equalsIgnoreCase("desc");
+        return descending ? Sort.by(property).descending() : Sort.by(property).ascending();
+    }
 }
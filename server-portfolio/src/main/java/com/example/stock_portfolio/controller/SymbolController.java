@@ -0,0 +1,31 @@
+package com.example.stock_portfolio.controller; // Package declaration for the SymbolController class
+
+import com.example.stock_portfolio.dto.SymbolInfo; // Importing SymbolInfo record for listings
+import com.example.stock_portfolio.service.SymbolService; // Importing SymbolService for the local symbol directory
+import lombok.AllArgsConstructor; // Lombok annotation to generate the constructor with all fields
+import org.springframework.http.ResponseEntity; // Importing ResponseEntity to send HTTP responses
+import org.springframework.web.bind.annotation.GetMapping; // Importing GetMapping for retrieving data
+import org.springframework.web.bind.annotation.RequestMapping; // Importing RequestMapping to define base URI for REST controller
+import org.springframework.web.bind.annotation.RequestParam; // Importing RequestParam to bind query parameters
+import org.springframework.web.bind.annotation.RestController; // Importing RestController to define a RESTful controller
+import java.util.List; // Importing List for representing collections of SymbolInfo
+
+@AllArgsConstructor // Lombok annotation to generate constructor with all arguments (dependency injection)
+@RestController // Marks this class as a RESTful controller
+@RequestMapping("/api/symbols") // Base URI for the symbol directory
+public class SymbolController {
+
+    private static final int MAX_LIMIT = 50; // Upper bound for ?limit=
+
+    private final SymbolService symbolService; // Declaring the service holding the symbol directory
+
+    // Autocomplete endpoint (GET request): listings whose ticker, then whose company name, starts with the prefix
+    @GetMapping
+    public ResponseEntity<List<SymbolInfo>> searchSymbols(@RequestParam("prefix") String prefix,
+                                                          @RequestParam(value = "limit", defaultValue = "10") int limit) {
+        if (limit < 1 || limit > MAX_LIMIT) {
+            throw new IllegalArgumentException("limit must be between 1 and " + MAX_LIMIT);
+        }
+        return ResponseEntity.ok(symbolService.search(prefix, limit)); // Served from memory, no upstream call
+    }
+}
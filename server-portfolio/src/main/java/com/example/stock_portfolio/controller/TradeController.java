@@ -0,0 +1,57 @@
+package com.example.stock_portfolio.controller; // Package declaration for the TradeController class
+
+import com.example.stock_portfolio.dto.StockDto; // Importing StockDto class for the updated positions
+import com.example.stock_portfolio.dto.TradeDto; // Importing TradeDto record for trade requests
+import com.example.stock_portfolio.dto.TradeImportReport; // Importing TradeImportReport record for bulk imports
+import com.example.stock_portfolio.service.TradeService; // Importing TradeService for the ledger
+import lombok.AllArgsConstructor; // Lombok annotation to generate the constructor with all fields
+import org.springframework.data.domain.Page; // Importing Page for paged results
+import org.springframework.data.domain.PageRequest; // Importing PageRequest to build a page from request parameters
+import org.springframework.data.domain.Sort; // Importing Sort to list the newest trades first
+import org.springframework.http.HttpStatus; // Importing HttpStatus to define status codes in response
+import org.springframework.http.ResponseEntity; // Importing ResponseEntity to send HTTP responses
+import org.springframework.web.bind.annotation.GetMapping; // Importing GetMapping for retrieving data
+import org.springframework.web.bind.annotation.PathVariable; // Importing PathVariable to map URI path variables to method parameters
+import org.springframework.web.bind.annotation.PostMapping; // Importing PostMapping for recording trades
+import org.springframework.web.bind.annotation.RequestBody; // Importing RequestBody to bind HTTP request body to method argument
+import org.springframework.web.bind.annotation.RequestMapping; // Importing RequestMapping to define base URI for REST controller
+import org.springframework.web.bind.annotation.RequestParam; // Importing RequestParam to bind query parameters
+import org.springframework.web.bind.annotation.RestController; // Importing RestController to define a RESTful controller
+import java.util.List; // Importing List for representing collections of trades
+
+@AllArgsConstructor // Lombok annotation to generate constructor with all arguments (dependency injection)
+@RestController // Marks this class as a RESTful controller
+@RequestMapping("/api") // Trades hang off positions and portfolios
+public class TradeController {
+
+    private static final int MAX_PAGE_SIZE = 1000; // Upper bound for ?size=
+
+    private final TradeService tradeService; // Declaring the service handling the trade ledger
+
+    // Record a trade on a position (POST request)
+    @PostMapping("/stocks/{stockId}/trades")
+    public ResponseEntity<StockDto> recordTrade(@PathVariable("stockId") Long stockId, @RequestBody TradeDto trade) {
+        return new ResponseEntity<>(tradeService.recordTrade(stockId, trade), HttpStatus.CREATED);
+    }
+
+    // List the trades of a position, newest first, one page at a time
+    @GetMapping("/stocks/{stockId}/trades")
+    public ResponseEntity<List<TradeDto>> getTrades(@PathVariable("stockId") Long stockId,
+                                                    @RequestParam(value = "page", defaultValue = "0") int page,
+                                                    @RequestParam(value = "size", defaultValue = "50") int size) {
+        if (page < 0 || size < 1 || size > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("page must be >= 0 and size between 1 and " + MAX_PAGE_SIZE);
+        }
+        Page<TradeDto> trades = tradeService.getTrades(stockId, PageRequest.of(page, size, Sort.by(Sort.Direction.DESC, "id")));
+        return ResponseEntity.ok()
+                .header("X-Total-Count", String.valueOf(trades.getTotalElements())) // Total number of trades across pages
+                .body(trades.getContent());
+    }
+
+    // Import a list of trades into a portfolio in one transaction (POST request)
+    @PostMapping("/portfolios/{portfolioId}/trades")
+    public ResponseEntity<TradeImportReport> importTrades(@PathVariable("portfolioId") Long portfolioId,
+                                                          @RequestBody List<TradeDto> trades) {
+        return new ResponseEntity<>(tradeService.importTrades(portfolioId, trades), HttpStatus.CREATED);
+    }
+}
@@ -0,0 +1,9 @@
+package com.example.stock_portfolio.dto; // Package declaration for the AppUserDto record
+
+// User as exposed by the API
+public record AppUserDto(
+        Long id, // Unique identifier of the user
+        String username, // Login name of the user
+        String displayName // Name shown in the UI
+) {
+}
@@ -0,0 +1,11 @@
+package com.example.stock_portfolio.dto; // Package declaration for the BatchCreateReport record
+
+import java.util.List; // Importing List for the per-row results
+
+// Result of a bulk holding import; rows fail independently of each other
+public record BatchCreateReport(
+        int created, // Number of holdings inserted
+        int failed, // Number of rows that were not inserted
+        List<BatchRowResult> rows // One result per request row, in request order
+) {
+}
@@ -0,0 +1,19 @@
+package com.example.stock_portfolio.dto; // Package declaration for the BatchRowResult record
+
+// Outcome of one row of a bulk holding import
+public record BatchRowResult(
+        int row, // Zero-based position of the row in the request
+        String ticker, // Ticker symbol of the row, normalized
+        Status status, // What happened to the row
+        StockDto stock, // The created holding, null unless the row was created
+        String message // Why the row was not created, null when it was
+) {
+
+    public enum Status {
+        CREATED, // Inserted together with its opening trade
+        INVALID, // Missing ticker or unknown portfolio
+        INVALID_TICKER, // Twelve Data does not know the ticker
+        DUPLICATE, // Already held in the same portfolio, or repeated in the request
+        ERROR // The quote lookup failed; the row can be retried
+    }
+}
@@ -0,0 +1,38 @@
+package com.example.stock_portfolio.dto; // Package declaration for the PortfolioAnalytics record
+
+import java.time.Instant; // Importing Instant for the computation time
+import java.util.List; // Importing List for holdings and tickers
+
+// Risk analytics of a portfolio served by GET /api/stocks/analytics. Fractions are not scaled to percent,
+// volatilities are annualized, and metrics that cannot be computed from the stored candles are null.
+public record PortfolioAnalytics(
+        Long portfolioId, // Portfolio the analytics cover, null for all holdings
+        String interval, // Candle interval the returns are computed on
+        int periods, // Number of aligned return periods
+        String benchmark, // Ticker the betas are measured against
+        double confidence, // Confidence level of the value at risk
+        Instant computedAt, // When the analytics were computed from the candles
+        double value, // Market value of the holdings with candles, at their latest close
+        Risk risk, // Metrics of the portfolio as a whole, with holdings weighted by value
+        List<Holding> holdings, // Metrics of each ticker, largest value first
+        List<String> tickers, // Row and column order of the correlation matrix
+        double[][] correlation, // Pairwise correlation of the ticker returns
+        List<String> missingHistory // Held tickers without enough stored candles, left out of everything above
+) {
+
+    // Metrics of one return series
+    public record Risk(
+            Double totalReturn, // Price change over the whole window
+            Double volatility, // Annualized standard deviation of the returns
+            Double rollingVolatility, // Annualized standard deviation over the latest rolling window
+            Double maxDrawdown, // Largest peak-to-trough decline
+            Double beta, // Sensitivity to the benchmark returns
+            Double valueAtRisk, // Historical one-period loss not exceeded at the confidence level
+            Double valueAtRiskAmount // Value at risk in currency
+    ) {
+    }
+
+    // A ticker, its position size and its metrics
+    public record Holding(String ticker, long quantity, double value, double weight, Risk risk) {
+    }
+}
@@ -0,0 +1,9 @@
+package com.example.stock_portfolio.dto; // Package declaration for the PortfolioDto record
+
+// Portfolio as exposed by the API
+public record PortfolioDto(
+        Long id, // Unique identifier of the portfolio
+        Long ownerId, // ID of the user owning the portfolio
+        String name // Name of the portfolio
+) {
+}
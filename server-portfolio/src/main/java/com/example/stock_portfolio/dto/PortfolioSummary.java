@@ -0,0 +1,23 @@
+package com.example.stock_portfolio.dto; // Package declaration for the PortfolioSummary record
+
+import java.util.List; // Importing List for movers and allocations
+
+// Portfolio-wide totals served by GET /api/stocks/summary
+public record PortfolioSummary(
+        double totalValue, // Sum of quantity times current price over all holdings
+        double investedAmount, // Sum of quantity times buy price over all holdings
+        double unrealizedPnl, // Total value minus invested amount
+        double unrealizedPnlPercent, // Unrealized P&L relative to the invested amount
+        int holdings, // Number of holdings in the portfolio
+        List<Mover> topMovers, // Tickers with the largest absolute percentage move from their buy price
+        List<Allocation> allocations // Share of the total value held in each ticker, largest first
+) {
+
+    // A ticker and how far it moved from its buy price
+    public record Mover(String ticker, double value, double pnl, double pnlPercent) {
+    }
+
+    // A ticker and its share of the total portfolio value
+    public record Allocation(String ticker, double value, double percent) {
+    }
+}
@@ -0,0 +1,22 @@
+package com.example.stock_portfolio.dto; // Package declaration for the PriceAlertDto record
+
+import com.example.stock_portfolio.entity.AlertState; // Importing AlertState enum
+import com.example.stock_portfolio.entity.AlertType; // Importing AlertType enum
+
+import java.time.Instant; // Importing Instant for creation and fire times
+
+// Price alert as accepted and returned by the API; only type and threshold are read on input
+public record PriceAlertDto(
+        Long id, // Unique identifier of the alert, null on input
+        Long stockId, // ID of the position the alert watches
+        String ticker, // Ticker symbol of the position
+        AlertType type, // ABOVE, BELOW, PERCENT_MOVE or TRAILING_STOP
+        Double threshold, // Price for ABOVE and BELOW, percentage for PERCENT_MOVE and TRAILING_STOP
+        AlertState state, // ARMED or FIRED
+        Double triggerPrice, // Price at which the alert currently fires
+        Double highWaterMark, // Highest price since a trailing stop was armed, null for other types
+        Instant firedAt, // When the alert last fired
+        Double firedPrice, // Price that made the alert fire
+        Instant createdAt // When the alert was registered
+) {
+}
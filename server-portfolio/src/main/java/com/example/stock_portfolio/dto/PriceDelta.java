@@ -0,0 +1,10 @@
+package com.example.stock_portfolio.dto; // Package declaration for the PriceDelta record
+
+// A single price change pushed to live dashboards
+public record PriceDelta(
+        String ticker, // The ticker symbol of the stock (e.g., 'TSLA')
+        double price, // The new current price of the stock
+        Double change, // Difference to the previously pushed price, null for the first push of a ticker
+        long timestamp // Epoch milliseconds at which the change was published
+) {
+}
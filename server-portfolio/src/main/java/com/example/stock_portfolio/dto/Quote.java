@@ -0,0 +1,12 @@
+package com.example.stock_portfolio.dto; // Package declaration for the Quote record
+
+// Immutable snapshot of a single Twelve Data quote, shared by stock writes and ticker info lookups
+public record Quote(
+        String symbol, // The ticker symbol as returned by the API (e.g., 'TSLA')
+        String name, // Name of the company (e.g., 'Tesla Inc')
+        double close, // The latest close price of the stock
+        String currency, // The currency the stock is traded in (e.g., 'USD')
+        String exchange, // The exchange the stock is listed on (e.g., 'NASDAQ')
+        String country // The country of the listing exchange
+) {
+}
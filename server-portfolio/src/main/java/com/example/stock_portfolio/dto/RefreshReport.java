@@ -0,0 +1,16 @@
+package com.example.stock_portfolio.dto; // Package declaration for the RefreshReport record
+
+import java.util.List; // Importing List for the refreshed tickers
+
+// Summary of a single price refresh cycle
+public record RefreshReport(
+        int symbols, // Number of distinct ticker symbols that were refreshed
+        int batches, // Number of multi-symbol quote requests sent upstream
+        int failedBatches, // Number of quote requests that failed
+        int skippedBatches, // Number of quote requests skipped for lack of spare API credits
+        int changedSymbols, // Number of symbols whose price differed from the last known price
+        int updatedRows, // Number of holdings whose current price was written
+        long durationMillis, // Wall time of the whole cycle in milliseconds
+        List<String> refreshedTickers // Requested tickers that got a quote; failed and skipped batches are left out
+) {
+}
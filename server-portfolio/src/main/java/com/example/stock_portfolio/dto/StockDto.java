@@ -26,7 +26,13 @@ public class StockDto {
 
     private Long quantity; // Number of shares owned for this stock
 
-    private Double buyPrice; // The price at which the stock was bought
+    private Double buyPrice; // Average cost per share of the shares held
 
     private Double currentPrice; // The current market price of the stock
+
+    private Long portfolioId; // ID of the portfolio holding this position, null for positions outside any portfolio
+
+    private Double costBasis; // FIFO cost of the open lots
+
+    private Double realizedPnl; // FIFO profit or loss realized by sells
 }
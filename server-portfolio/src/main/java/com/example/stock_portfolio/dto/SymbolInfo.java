@@ -0,0 +1,10 @@
+package com.example.stock_portfolio.dto; // Package declaration for the SymbolInfo record
+
+// One listing of the symbol directory, as returned by the Twelve Data /stocks and /etf reference endpoints
+public record SymbolInfo(
+        String symbol, // The ticker symbol (e.g., 'AAPL')
+        String name, // Name of the company (e.g., 'Apple Inc')
+        String exchange, // The exchange the symbol is listed on (e.g., 'NASDAQ')
+        String currency // The currency the symbol is traded in (e.g., 'USD')
+) {
+}
@@ -0,0 +1,10 @@
+package com.example.stock_portfolio.dto; // Package declaration for the TimestampedQuote record
+
+import java.time.Instant; // Importing Instant for the fetch time
+
+// A quote together with the time it was fetched from Twelve Data, so its staleness is known after a restart
+public record TimestampedQuote(
+        Quote quote, // The quote as returned by Twelve Data
+        Instant fetchedAt // When the quote was fetched
+) {
+}
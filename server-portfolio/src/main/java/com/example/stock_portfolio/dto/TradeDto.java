@@ -0,0 +1,17 @@
+package com.example.stock_portfolio.dto; // Package declaration for the TradeDto record
+
+import com.example.stock_portfolio.entity.TradeSide; // Importing TradeSide enum
+
+import java.time.Instant; // Importing Instant for the execution time
+
+// Trade as accepted and returned by the API
+public record TradeDto(
+        Long id, // Unique identifier of the trade, null on input
+        Long stockId, // ID of the position the trade was applied to, null on input
+        String ticker, // Ticker symbol traded (e.g., 'TSLA')
+        TradeSide side, // BUY or SELL
+        Long quantity, // Number of shares traded
+        Double price, // Price per share
+        Instant executedAt // When the trade was executed, defaults to now on input
+) {
+}
@@ -0,0 +1,10 @@
+package com.example.stock_portfolio.dto; // Package declaration for the TradeImportReport record
+
+import java.util.List; // Importing List for the touched positions
+
+// Result of a bulk trade import
+public record TradeImportReport(
+        int trades, // Number of trades appended to the ledger
+        List<StockDto> positions // Positions touched by the import, after all trades were applied
+) {
+}
@@ -0,0 +1,12 @@
+package com.example.stock_portfolio.dto; // Package declaration for the ValuationHistory record
+
+// Valuation history served by GET /api/stocks/history, in the columnar shape of the candle endpoint
+public record ValuationHistory(
+        Long portfolioId, // Portfolio whose total value is listed, null for all holdings or a ticker
+        String ticker, // Ticker whose price is listed, null for a portfolio total
+        String range, // Requested range, e.g. 1m or max
+        String tier, // Retention tier the points come from: RAW, HOURLY or DAILY
+        long[] t, // Point times in UTC epoch seconds; hourly and daily points carry the start of their bucket
+        double[] v // Total value or price at each time
+) {
+}
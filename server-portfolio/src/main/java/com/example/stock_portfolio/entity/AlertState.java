@@ -0,0 +1,7 @@
+package com.example.stock_portfolio.entity; // Package declaration for the AlertState enum
+
+// Lifecycle of a price alert
+public enum AlertState {
+    ARMED, // Waiting for the price to cross its trigger price
+    FIRED // Triggered; re-armed once the price moves back past its trigger price
+}
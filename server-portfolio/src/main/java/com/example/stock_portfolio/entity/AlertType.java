@@ -0,0 +1,9 @@
+package com.example.stock_portfolio.entity; // Package declaration for the AlertType enum
+
+// Condition a price alert watches for
+public enum AlertType {
+    ABOVE, // Price rises to or above the threshold price
+    BELOW, // Price falls to or below the threshold price
+    PERCENT_MOVE, // Price moves the threshold percentage away from the buy price (negative for a drop)
+    TRAILING_STOP // Price falls the threshold percentage below its highest price since the alert was armed
+}
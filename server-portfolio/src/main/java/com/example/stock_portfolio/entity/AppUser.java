@@ -0,0 +1,27 @@
+package com.example.stock_portfolio.entity; // Package declaration for the AppUser entity class
+
+import jakarta.persistence.*; // Importing JPA annotations for ORM mapping
+import lombok.AllArgsConstructor; // Importing Lombok annotation for generating constructor with all parameters
+import lombok.Getter; // Importing Lombok annotation for generating getters
+import lombok.NoArgsConstructor; // Importing Lombok annotation for generating no-argument constructor
+import lombok.Setter; // Importing Lombok annotation for generating setters
+
+// Lombok annotations to auto-generate getters, setters, constructors
+@Getter
+@Setter
+@NoArgsConstructor // No-argument constructor generated by Lombok
+@AllArgsConstructor // All-argument constructor generated by Lombok
+@Entity // Marks this class as a JPA entity
+@Table(name = "app_user") // "user" is a reserved word in PostgreSQL
+public class AppUser {
+
+    @Id // Marks this field as the primary key
+    @GeneratedValue(strategy = GenerationType.IDENTITY) // Auto-generates the value for this field using an incremental strategy
+    private Long id; // Unique identifier for each user
+
+    @Column(name = "username", nullable = false, unique = true) // Maps the field to a column in the database
+    private String username; // Login name of the user (e.g., 'jdoe')
+
+    @Column(name = "display_name") // Maps the field to a column in the database
+    private String displayName; // Name shown in the UI (e.g., 'Jane Doe')
+}
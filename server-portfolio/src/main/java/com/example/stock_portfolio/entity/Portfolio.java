@@ -0,0 +1,30 @@
+package com.example.stock_portfolio.entity; // Package declaration for the Portfolio entity class
+
+import jakarta.persistence.*; // Importing JPA annotations for ORM mapping
+import lombok.AllArgsConstructor; // Importing Lombok annotation for generating constructor with all parameters
+import lombok.Getter; // Importing Lombok annotation for generating getters
+import lombok.NoArgsConstructor; // Importing Lombok annotation for generating no-argument constructor
+import lombok.Setter; // Importing Lombok annotation for generating setters
+
+// Lombok annotations to auto-generate getters, setters, constructors
+@Getter
+@Setter
+@NoArgsConstructor // No-argument constructor generated by Lombok
+@AllArgsConstructor // All-argument constructor generated by Lombok
+@Entity // Marks this class as a JPA entity
+@Table(name = "portfolio", // Specifies the table name in the database
+       uniqueConstraints = @UniqueConstraint(name = "uk_portfolio_owner_name", columnNames = {"owner_id", "name"}), // Portfolio names are unique per user
+       indexes = @Index(name = "idx_portfolio_owner", columnList = "owner_id")) // Listing a user's portfolios
+public class Portfolio {
+
+    @Id // Marks this field as the primary key
+    @GeneratedValue(strategy = GenerationType.IDENTITY) // Auto-generates the value for this field using an incremental strategy
+    private Long id; // Unique identifier for each portfolio
+
+    @ManyToOne(fetch = FetchType.LAZY, optional = false) // Each portfolio belongs to exactly one user
+    @JoinColumn(name = "owner_id", nullable = false) // Foreign key to app_user
+    private AppUser owner; // User owning this portfolio
+
+    @Column(name = "name", nullable = false) // Maps the field to a column in the database
+    private String name; // Name of the portfolio (e.g., 'Retirement')
+}
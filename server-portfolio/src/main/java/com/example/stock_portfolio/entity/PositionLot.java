@@ -0,0 +1,36 @@
+package com.example.stock_portfolio.entity; // Package declaration for the PositionLot entity class
+
+import jakarta.persistence.*; // Importing JPA annotations for ORM mapping
+import lombok.AllArgsConstructor; // Importing Lombok annotation for generating constructor with all parameters
+import lombok.Getter; // Importing Lombok annotation for generating getters
+import lombok.NoArgsConstructor; // Importing Lombok annotation for generating no-argument constructor
+import lombok.Setter; // Importing Lombok annotation for generating setters
+import org.hibernate.annotations.OnDelete; // Importing Hibernate annotation for the foreign key delete rule
+import org.hibernate.annotations.OnDeleteAction; // Importing the delete rule values
+
+// Lombok annotations to auto-generate getters, setters, constructors
+@Getter
+@Setter
+@NoArgsConstructor // No-argument constructor generated by Lombok
+@AllArgsConstructor // All-argument constructor generated by Lombok
+@Entity // Marks this class as a JPA entity
+@Table(name = "position_lot", // Specifies the table name in the database
+       indexes = @Index(name = "idx_position_lot_stock", columnList = "stock_id, id")) // Open lots of a position, oldest first
+public class PositionLot {
+
+    @Id // Marks this field as the primary key
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "position_lot_seq") // Sequence ids let Hibernate batch the inserts
+    @SequenceGenerator(name = "position_lot_seq", sequenceName = "position_lot_seq", allocationSize = 50) // Matches hibernate.jdbc.batch_size
+    private Long id; // Unique identifier for each lot, increasing in ledger order
+
+    @ManyToOne(fetch = FetchType.LAZY, optional = false) // Each lot belongs to exactly one position
+    @JoinColumn(name = "stock_id", nullable = false) // Foreign key to stock
+    @OnDelete(action = OnDeleteAction.CASCADE) // Deleting a position deletes its lots
+    private Stocks position; // Position the lot is held in
+
+    @Column(name = "remaining_quantity", nullable = false) // Maps the field to a column in the database
+    private Long remainingQuantity; // Shares of the buy not yet consumed by sells
+
+    @Column(name = "price", nullable = false) // Maps the field to a column in the database
+    private Double price; // Price per share paid for the lot
+}
@@ -0,0 +1,55 @@
+package com.example.stock_portfolio.entity; // Package declaration for the PriceAlert entity class
+
+import jakarta.persistence.*; // Importing JPA annotations for ORM mapping
+import lombok.AllArgsConstructor; // Importing Lombok annotation for generating constructor with all parameters
+import lombok.Getter; // Importing Lombok annotation for generating getters
+import lombok.NoArgsConstructor; // Importing Lombok annotation for generating no-argument constructor
+import lombok.Setter; // Importing Lombok annotation for generating setters
+import org.hibernate.annotations.OnDelete; // Importing Hibernate annotation for the foreign key delete rule
+import org.hibernate.annotations.OnDeleteAction; // Importing the delete rule values
+
+import java.time.Instant; // Importing Instant for creation and fire times
+
+// Lombok annotations to auto-generate getters, setters, constructors
+@Getter
+@Setter
+@NoArgsConstructor // No-argument constructor generated by Lombok
+@AllArgsConstructor // All-argument constructor generated by Lombok
+@Entity // Marks this class as a JPA entity
+@Table(name = "price_alert", // Specifies the table name in the database
+       indexes = @Index(name = "idx_price_alert_stock", columnList = "stock_id")) // Alerts of a position
+public class PriceAlert {
+
+    @Id // Marks this field as the primary key
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "price_alert_seq") // Sequence ids like the other ledger tables
+    @SequenceGenerator(name = "price_alert_seq", sequenceName = "price_alert_seq", allocationSize = 50) // Matches hibernate.jdbc.batch_size
+    private Long id; // Unique identifier for each alert
+
+    @ManyToOne(fetch = FetchType.LAZY, optional = false) // Each alert watches exactly one position
+    @JoinColumn(name = "stock_id", nullable = false) // Foreign key to stock
+    @OnDelete(action = OnDeleteAction.CASCADE) // Deleting a position deletes its alerts
+    private Stocks position; // Position the alert watches
+
+    @Enumerated(EnumType.STRING) // Stored as ABOVE, BELOW, PERCENT_MOVE or TRAILING_STOP
+    @Column(name = "type", nullable = false, length = 16) // Maps the field to a column in the database
+    private AlertType type; // Condition the alert watches for
+
+    @Column(name = "threshold", nullable = false) // Maps the field to a column in the database
+    private Double threshold; // Price for ABOVE and BELOW, percentage for PERCENT_MOVE and TRAILING_STOP
+
+    @Enumerated(EnumType.STRING) // Stored as ARMED or FIRED
+    @Column(name = "state", nullable = false, length = 8) // Maps the field to a column in the database
+    private AlertState state; // Whether the alert is waiting or has fired
+
+    @Column(name = "high_water_mark") // Maps the field to a column in the database
+    private Double highWaterMark; // Highest price since a trailing stop was armed, null for other types
+
+    @Column(name = "fired_at") // Maps the field to a column in the database
+    private Instant firedAt; // When the alert last fired
+
+    @Column(name = "fired_price") // Maps the field to a column in the database
+    private Double firedPrice; // Price that made the alert fire
+
+    @Column(name = "created_at", nullable = false) // Maps the field to a column in the database
+    private Instant createdAt; // When the alert was registered
+}
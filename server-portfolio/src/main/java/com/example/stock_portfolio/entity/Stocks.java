@@ -12,14 +12,21 @@ import lombok.Setter; // Importing Lombok annotation for generating setters
 @NoArgsConstructor // No-argument constructor generated by Lombok
 @AllArgsConstructor // All-argument constructor generated by Lombok
 @Entity // Marks this class as a JPA entity
-@Table(name = "stock") // Specifies the table name in the database
+@Table(name = "stock", // Specifies the table name in the database
+       uniqueConstraints = {
+               // One holding per ticker per portfolio, even for concurrent inserts; its index serves per-portfolio listing and per-ticker lookup
+               @UniqueConstraint(name = "uk_stock_portfolio_ticker", columnNames = {"portfolio_id", "ticker"})
+       },
+       indexes = {
+               @Index(name = "idx_stock_ticker", columnList = "ticker") // Distinct tickers and batch price updates by ticker
+       })
 public class Stocks {
 
     @Id // Marks this field as the primary key
     @GeneratedValue(strategy = GenerationType.IDENTITY) // Auto-generates the value for this field using an incremental strategy
     private Long id; // Unique identifier for each stock record
 
-    @Column(name = "stock_name", nullable = false, unique = true) // Maps the field to a column in the database
+    @Column(name = "stock_name", nullable = false) // Maps the field to a column in the database; many portfolios may hold the same stock
     private String stockName; // Name of the stock (e.g., 'Tesla')
 
     @Column(name = "ticker") // Maps the field to a column in the database
@@ -29,8 +36,18 @@ public class Stocks {
     private Long quantity; // Number of shares owned for this stock
 
     @Column(name = "buy_price") // Maps the field to a column in the database
-    private Double buyPrice; // The price at which the stock was bought
+    private Double buyPrice; // Average cost per share of the shares held
 
     @Column(name = "current_price") // Maps the field to a column in the database
     private Double currentPrice; // The current market price of the stock
+
+    @ManyToOne(fetch = FetchType.LAZY) // Each position belongs to one portfolio; legacy rows have none
+    @JoinColumn(name = "portfolio_id") // Foreign key to portfolio
+    private Portfolio portfolio; // Portfolio holding this position
+
+    @Column(name = "cost_basis") // Maps the field to a column in the database; null for rows that predate the trade ledger
+    private Double costBasis; // FIFO cost of the open lots
+
+    @Column(name = "realized_pnl") // Maps the field to a column in the database
+    private Double realizedPnl; // FIFO profit or loss realized by sells
 }
@@ -0,0 +1,47 @@
+package com.example.stock_portfolio.entity; // Package declaration for the Trade entity class
+
+import jakarta.persistence.*; // Importing JPA annotations for ORM mapping
+import lombok.AllArgsConstructor; // Importing Lombok annotation for generating constructor with all parameters
+import lombok.Getter; // Importing Lombok annotation for generating getters
+import lombok.NoArgsConstructor; // Importing Lombok annotation for generating no-argument constructor
+import lombok.Setter; // Importing Lombok annotation for generating setters
+import org.hibernate.annotations.Immutable; // Importing Hibernate annotation to never issue updates for ledger rows
+import org.hibernate.annotations.OnDelete; // Importing Hibernate annotation for the foreign key delete rule
+import org.hibernate.annotations.OnDeleteAction; // Importing the delete rule values
+
+import java.time.Instant; // Importing Instant for the execution time
+
+// Lombok annotations to auto-generate getters, setters, constructors
+@Getter
+@Setter
+@NoArgsConstructor // No-argument constructor generated by Lombok
+@AllArgsConstructor // All-argument constructor generated by Lombok
+@Entity // Marks this class as a JPA entity
+@Immutable // The ledger is append-only
+@Table(name = "trade", // Specifies the table name in the database
+       indexes = @Index(name = "idx_trade_stock", columnList = "stock_id, id")) // Trade history of a position in ledger order
+public class Trade {
+
+    @Id // Marks this field as the primary key
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "trade_seq") // Sequence ids let Hibernate batch the inserts
+    @SequenceGenerator(name = "trade_seq", sequenceName = "trade_seq", allocationSize = 50) // Matches hibernate.jdbc.batch_size
+    private Long id; // Unique identifier for each trade, increasing in ledger order
+
+    @ManyToOne(fetch = FetchType.LAZY, optional = false) // Each trade belongs to exactly one position
+    @JoinColumn(name = "stock_id", nullable = false) // Foreign key to stock
+    @OnDelete(action = OnDeleteAction.CASCADE) // Deleting a position deletes its history
+    private Stocks position; // Position the trade was applied to
+
+    @Enumerated(EnumType.STRING) // Stored as BUY or SELL
+    @Column(name = "side", nullable = false, length = 4) // Maps the field to a column in the database
+    private TradeSide side; // Direction of the trade
+
+    @Column(name = "quantity", nullable = false) // Maps the field to a column in the database
+    private Long quantity; // Number of shares traded
+
+    @Column(name = "price", nullable = false) // Maps the field to a column in the database
+    private Double price; // Price per share
+
+    @Column(name = "executed_at", nullable = false) // Maps the field to a column in the database
+    private Instant executedAt; // When the trade was executed
+}
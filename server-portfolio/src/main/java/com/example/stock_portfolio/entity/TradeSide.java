@@ -0,0 +1,7 @@
+package com.example.stock_portfolio.entity; // Package declaration for the TradeSide enum
+
+// Direction of a trade in the ledger
+public enum TradeSide {
+    BUY, // Shares added to the position
+    SELL // Shares removed from the position, consuming the oldest open lots first
+}
@@ -0,0 +1,12 @@
+package com.example.stock_portfolio.event; // Package declaration for the AlertChangedEvent record
+
+import com.example.stock_portfolio.dto.PriceAlertDto; // Importing PriceAlertDto record
+
+// Published when an alert is registered, re-armed or deleted through the REST API, so every node's alert books follow
+public record AlertChangedEvent(
+        PriceAlertDto alert, // The alert after the change
+        Change change // What happened to the alert
+) {
+
+    public enum Change { CREATED, REARMED, DELETED }
+}
@@ -0,0 +1,11 @@
+package com.example.stock_portfolio.event; // Package declaration for the AlertsTriggeredEvent record
+
+import com.example.stock_portfolio.dto.PriceAlertDto; // Importing PriceAlertDto record
+
+import java.util.List; // Importing List for the fired alerts
+
+// Published by the alert engine when price updates made one or more alerts fire
+public record AlertsTriggeredEvent(
+        List<PriceAlertDto> alerts // The fired alerts with their fire price and time
+) {
+}
@@ -0,0 +1,10 @@
+package com.example.stock_portfolio.event; // Package declaration for the HoldingChangedEvent record
+
+import com.example.stock_portfolio.dto.StockDto; // Importing StockDto class
+
+// Published whenever a holding is created, updated or deleted through the REST API
+public record HoldingChangedEvent(
+        StockDto previous, // The holding before the change, null when it was created
+        StockDto current // The holding after the change, null when it was deleted
+) {
+}
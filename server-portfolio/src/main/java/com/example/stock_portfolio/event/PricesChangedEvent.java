@@ -0,0 +1,15 @@
+package com.example.stock_portfolio.event; // Package declaration for the PricesChangedEvent record
+
+import java.util.Map; // Importing Map for prices keyed by ticker symbol
+
+// Published by the price refresher after the current prices of one or more tickers were written
+public record PricesChangedEvent(
+        Map<String, Double> pricesByTicker, // The new current price of every ticker that moved
+        boolean relayed // Whether another node wrote the prices and this is its cluster notification
+) {
+
+    // Prices written by this node
+    public PricesChangedEvent(Map<String, Double> pricesByTicker) {
+        this(pricesByTicker, false);
+    }
+}
@@ -0,0 +1,7 @@
+package com.example.stock_portfolio.event; // Package declaration for the TickerViewedEvent record
+
+// Published when a client looks at a ticker (ticker info, chart data), so the refresher can keep it hot
+public record TickerViewedEvent(
+        String ticker // The ticker symbol that was looked at
+) {
+}
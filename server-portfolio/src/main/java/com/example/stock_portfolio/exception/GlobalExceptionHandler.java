@@ -1,5 +1,7 @@
 package com.example.stock_portfolio.exception;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.ExceptionHandler;
@@ -9,6 +11,12 @@ import org.springframework.web.bind.annotation.RestControllerAdvice;
 @RestControllerAdvice
 public class GlobalExceptionHandler {
 
+    private final MeterRegistry meterRegistry; // Registry for counting mapped errors by status and exception
+
+    public GlobalExceptionHandler(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
     // Handle ResourceNotFoundException (custom exception when resource is not found)
     @ExceptionHandler(ResourceNotFoundException.class)
     public ResponseEntity<ErrorResponse> handleResourceNotFoundException(ResourceNotFoundException ex) {
@@ -17,17 +25,51 @@ public class GlobalExceptionHandler {
             HttpStatus.NOT_FOUND.value(), // Set the status code (404 Not Found)
             ex.getMessage() // Set the exception message as the error message
         );
+        countError(errorResponse, ex);
         // Return the error response with status 404 (Not Found)
         return new ResponseEntity<>(errorResponse, HttpStatus.NOT_FOUND);
     }
 
+    // Handle IllegalArgumentException (invalid input such as a bad ticker or paging parameter)
+    @ExceptionHandler(IllegalArgumentException.class)
+    public ResponseEntity<ErrorResponse> handleIllegalArgumentException(IllegalArgumentException ex) {
+        // Create an ErrorResponse object for the exception
+        ErrorResponse errorResponse = new ErrorResponse(
+            HttpStatus.BAD_REQUEST.value(), // Set the status code (400 Bad Request)
+            ex.getMessage() // Set the exception message as the error message
+        );
+        countError(errorResponse, ex);
+        // Return the error response with status 400 (Bad Request)
+        return new ResponseEntity<>(errorResponse, HttpStatus.BAD_REQUEST);
+    }
+
+    // Handle DataIntegrityViolationException (a concurrent request inserted the same holding first)
+    @ExceptionHandler(DataIntegrityViolationException.class)
+    public ResponseEntity<ErrorResponse> handleDataIntegrityViolationException(DataIntegrityViolationException ex) {
+        ErrorResponse errorResponse = new ErrorResponse(
+            HttpStatus.BAD_REQUEST.value(), // Set the status code (400 Bad Request)
+            "The request conflicts with existing data; a portfolio holds each ticker at most once." // The database message is not meant for clients
+        );
+        countError(errorResponse, ex);
+        // Return the error response with status 400 (Bad Request)
+        return new ResponseEntity<>(errorResponse, HttpStatus.BAD_REQUEST);
+    }
+
     // Handle TwelveDataApiException (custom exception for API-related errors)
     @ExceptionHandler(TwelveDataApiException.class)
     public ResponseEntity<ErrorResponse> handleTwelveDataApiException(TwelveDataApiException ex) {
         // Get the ErrorResponse directly from the TwelveDataApiException
         ErrorResponse errorResponse = ex.getErrorResponse();
-        
+        countError(errorResponse, ex);
+
         // Use the status code from the ErrorResponse and return it with the appropriate status
         return ResponseEntity.status(errorResponse.getStatusCode()).body(errorResponse);
     }
+
+    // Count an error response by status code and exception type
+    private void countError(ErrorResponse errorResponse, Exception ex) {
+        meterRegistry.counter("portfolio.api.errors",
+                "status", String.valueOf(errorResponse.getStatusCode()),
+                "exception", ex.getClass().getSimpleName()).increment();
+    }
 }
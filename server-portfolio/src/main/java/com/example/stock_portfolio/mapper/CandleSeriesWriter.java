@@ -0,0 +1,91 @@
+package com.example.stock_portfolio.mapper; // Package declaration for CandleSeriesWriter class
+
+import com.example.stock_portfolio.store.CandleSeries; // Importing CandleSeries for columnar historical data
+import com.example.stock_portfolio.store.CandleStore; // Importing CandleStore to format candle times
+
+import com.fasterxml.jackson.core.JsonEncoding; // Importing JsonEncoding for UTF-8 output
+import com.fasterxml.jackson.core.JsonGenerator; // Importing JsonGenerator to stream JSON without intermediate maps
+import com.fasterxml.jackson.databind.ObjectMapper; // Importing the Spring-managed ObjectMapper for its JsonFactory
+
+import org.springframework.stereotype.Component; // Marking this class as a Spring component
+
+import java.io.IOException; // Importing IOException for output stream errors
+import java.io.OutputStream; // Importing OutputStream to write straight to the response
+import java.nio.ByteBuffer; // Importing ByteBuffer to encode the binary format
+import java.nio.ByteOrder; // Importing ByteOrder for the little-endian binary format
+
+// Writes candle series straight to a response output stream in one of the supported wire formats
+@Component // Marking this class as a Spring component
+public class CandleSeriesWriter {
+
+    private static final int CHUNK_CANDLES = 1024; // Candles encoded per buffer in the binary format
+
+    private final ObjectMapper objectMapper; // Injecting the shared ObjectMapper
+
+    public CandleSeriesWriter(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+    }
+
+    // Original shape: {"values": [{"datetime": "...", "close": ...}, ...]}, newest first
+    public void writeJson(CandleSeries series, String interval, OutputStream out) throws IOException {
+        try (JsonGenerator generator = createGenerator(out)) {
+            generator.writeStartObject();
+            generator.writeArrayFieldStart("values");
+            for (int i = series.size() - 1; i >= 0; i--) {
+                generator.writeStartObject();
+                generator.writeStringField("datetime", CandleStore.formatTime(series.times()[i], interval));
+                generator.writeNumberField("close", series.closes()[i]);
+                generator.writeEndObject();
+            }
+            generator.writeEndArray();
+            generator.writeEndObject();
+        }
+    }
+
+    // Columnar shape: {"symbol": ..., "interval": ..., "t": [epoch seconds...], "c": [closes...]}, oldest first
+    public void writeColumnarJson(String symbol, String interval, CandleSeries series, OutputStream out) throws IOException {
+        try (JsonGenerator generator = createGenerator(out)) {
+            generator.writeStartObject();
+            generator.writeStringField("symbol", symbol);
+            generator.writeStringField("interval", interval);
+            generator.writeFieldName("t");
+            generator.writeArray(series.times(), 0, series.size());
+            generator.writeFieldName("c");
+            generator.writeArray(series.closes(), 0, series.size());
+            generator.writeEndObject();
+        }
+    }
+
+    // Binary shape, little-endian: int32 count, then count int64 epoch seconds, then count float64 closes, oldest first
+    public void writeBinary(CandleSeries series, OutputStream out) throws IOException {
+        int size = series.size();
+        ByteBuffer buffer = ByteBuffer.allocate(CHUNK_CANDLES * Long.BYTES).order(ByteOrder.LITTLE_ENDIAN);
+        buffer.putInt(size);
+        for (int i = 0; i < size; i++) {
+            if (buffer.remaining() < Long.BYTES) {
+                flush(buffer, out);
+            }
+            buffer.putLong(series.times()[i]);
+        }
+        for (int i = 0; i < size; i++) {
+            if (buffer.remaining() < Double.BYTES) {
+                flush(buffer, out);
+            }
+            buffer.putDouble(series.closes()[i]);
+        }
+        flush(buffer, out);
+        out.flush();
+    }
+
+    // Generator that leaves closing the response stream to the container
+    private JsonGenerator createGenerator(OutputStream out) throws IOException {
+        JsonGenerator generator = objectMapper.getFactory().createGenerator(out, JsonEncoding.UTF8);
+        generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        return generator;
+    }
+
+    private static void flush(ByteBuffer buffer, OutputStream out) throws IOException {
+        out.write(buffer.array(), 0, buffer.position());
+        buffer.clear();
+    }
+}
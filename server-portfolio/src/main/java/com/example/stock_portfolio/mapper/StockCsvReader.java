@@ -0,0 +1,42 @@
+package com.example.stock_portfolio.mapper; // Package declaration for StockCsvReader class
+
+import com.example.stock_portfolio.dto.StockDto; // Importing StockDto class for the parsed rows
+
+import java.io.BufferedReader; // Importing BufferedReader to read line by line
+import java.io.IOException; // Importing IOException for read errors
+import java.io.Reader; // Importing Reader for the CSV source
+import java.util.ArrayList; // Importing ArrayList to hold the parsed rows
+import java.util.List; // Importing List for the parsed rows
+
+// Reads holdings from CSV lines of ticker[,quantity[,buyPrice[,portfolioId]]]. A first line starting with
+// "ticker" is a header, blank lines are skipped and empty optional fields fall back to the create defaults.
+public class StockCsvReader {
+
+    public static List<StockDto> read(Reader source) throws IOException {
+        List<StockDto> rows = new ArrayList<>();
+        BufferedReader reader = new BufferedReader(source);
+        String line;
+        int lineNumber = 0;
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+            if (line.isBlank() || (lineNumber == 1 && line.trim().toLowerCase().startsWith("ticker"))) {
+                continue;
+            }
+            String[] fields = line.split(",", -1);
+            if (fields.length > 4) {
+                throw new IllegalArgumentException("Line " + lineNumber + ": expected ticker[,quantity[,buyPrice[,portfolioId]]]");
+            }
+            StockDto row = new StockDto();
+            row.setTicker(fields[0].trim());
+            try {
+                row.setQuantity(fields.length > 1 && !fields[1].isBlank() ? Long.valueOf(fields[1].trim()) : null);
+                row.setBuyPrice(fields.length > 2 && !fields[2].isBlank() ? Double.valueOf(fields[2].trim()) : null);
+                row.setPortfolioId(fields.length > 3 && !fields[3].isBlank() ? Long.valueOf(fields[3].trim()) : null);
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Line " + lineNumber + ": " + e.getMessage());
+            }
+            rows.add(row);
+        }
+        return rows;
+    }
+}
@@ -14,7 +14,10 @@ public class StockMapper {
                 stock.getTicker(), // Mapping ticker field from Stocks entity to StockDto
                 stock.getQuantity(), // Mapping quantity field from Stocks entity to StockDto
                 stock.getBuyPrice(), // Mapping buyPrice field from Stocks entity to StockDto
-                stock.getCurrentPrice() // Mapping currentPrice field from Stocks entity to StockDto
+                stock.getCurrentPrice(), // Mapping currentPrice field from Stocks entity to StockDto
+                stock.getPortfolio() == null ? null : stock.getPortfolio().getId(), // Mapping the portfolio reference to its ID without loading it
+                stock.getCostBasis(), // Mapping costBasis field from Stocks entity to StockDto
+                stock.getRealizedPnl() // Mapping realizedPnl field from Stocks entity to StockDto
         );
     }
 
@@ -27,7 +30,10 @@ public class StockMapper {
                 stockDto.getTicker(), // Mapping ticker field from StockDto to Stocks entity
                 stockDto.getQuantity(), // Mapping quantity field from StockDto to Stocks entity
                 stockDto.getBuyPrice(), // Mapping buyPrice field from StockDto to Stocks entity
-                stockDto.getCurrentPrice() // Mapping currentPrice field from StockDto to Stocks entity
+                stockDto.getCurrentPrice(), // Mapping currentPrice field from StockDto to Stocks entity
+                null, // The portfolio reference is resolved by the service from portfolioId
+                stockDto.getCostBasis(), // Mapping costBasis field from StockDto to Stocks entity
+                stockDto.getRealizedPnl() // Mapping realizedPnl field from StockDto to Stocks entity
         );
     }
 }
@@ -0,0 +1,20 @@
+package com.example.stock_portfolio.mapper; // Package declaration for TradeMapper class
+
+import com.example.stock_portfolio.dto.TradeDto; // Importing TradeDto record
+import com.example.stock_portfolio.entity.Trade; // Importing Trade entity
+
+public class TradeMapper {
+
+    // Mapping from Trade entity to TradeDto; the ticker is passed in so the position is not loaded per trade
+    public static TradeDto mapToTradeDto(Trade trade, String ticker) {
+        return new TradeDto(
+                trade.getId(), // Mapping id field from Trade entity to TradeDto
+                trade.getPosition().getId(), // Mapping the position reference to its ID without loading it
+                ticker, // Ticker of the position
+                trade.getSide(), // Mapping side field from Trade entity to TradeDto
+                trade.getQuantity(), // Mapping quantity field from Trade entity to TradeDto
+                trade.getPrice(), // Mapping price field from Trade entity to TradeDto
+                trade.getExecutedAt() // Mapping executedAt field from Trade entity to TradeDto
+        );
+    }
+}
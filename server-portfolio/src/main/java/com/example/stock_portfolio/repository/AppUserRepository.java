@@ -0,0 +1,11 @@
+package com.example.stock_portfolio.repository;
+
+import com.example.stock_portfolio.entity.AppUser; // Importing the AppUser entity class
+import org.springframework.data.jpa.repository.JpaRepository; // Importing JpaRepository to handle CRUD operations
+
+// AppUserRepository interface extends JpaRepository to handle database operations for AppUser entities
+public interface AppUserRepository extends JpaRepository<AppUser, Long> {
+
+    // Check whether a username is already taken
+    boolean existsByUsername(String username);
+}
@@ -0,0 +1,16 @@
+package com.example.stock_portfolio.repository;
+
+import com.example.stock_portfolio.entity.Portfolio; // Importing the Portfolio entity class
+import org.springframework.data.jpa.repository.JpaRepository; // Importing JpaRepository to handle CRUD operations
+
+import java.util.List; // Importing List for collection of portfolios
+
+// PortfolioRepository interface extends JpaRepository to handle database operations for Portfolio entities
+public interface PortfolioRepository extends JpaRepository<Portfolio, Long> {
+
+    // List the portfolios of a user, served by the owner_id index
+    List<Portfolio> findByOwnerIdOrderByName(Long ownerId);
+
+    // Check whether a user already has a portfolio with this name
+    boolean existsByOwnerIdAndName(Long ownerId, String name);
+}
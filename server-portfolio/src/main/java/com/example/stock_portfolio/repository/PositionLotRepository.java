@@ -0,0 +1,17 @@
+package com.example.stock_portfolio.repository;
+
+import com.example.stock_portfolio.entity.PositionLot; // Importing the PositionLot entity class
+import org.springframework.data.jpa.repository.JpaRepository; // Importing JpaRepository to handle CRUD operations
+
+import java.util.Collection; // Importing Collection for the positions of a trade import
+import java.util.List; // Importing List for collection of lots
+
+// PositionLotRepository interface extends JpaRepository to handle database operations for PositionLot entities
+public interface PositionLotRepository extends JpaRepository<PositionLot, Long> {
+
+    // Open lots of a position, oldest first
+    List<PositionLot> findByPositionIdOrderById(Long stockId);
+
+    // Open lots of several positions with one query, oldest first within each position
+    List<PositionLot> findByPositionIdInOrderById(Collection<Long> stockIds);
+}
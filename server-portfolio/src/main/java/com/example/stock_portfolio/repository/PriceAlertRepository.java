@@ -0,0 +1,18 @@
+package com.example.stock_portfolio.repository;
+
+import com.example.stock_portfolio.entity.PriceAlert; // Importing the PriceAlert entity class
+import org.springframework.data.jpa.repository.JpaRepository; // Importing JpaRepository to handle CRUD operations
+import org.springframework.data.jpa.repository.Query; // Importing Query annotation for custom JPQL queries
+
+import java.util.List; // Importing List for query results
+
+// PriceAlertRepository interface extends JpaRepository to handle database operations for PriceAlert entities
+public interface PriceAlertRepository extends JpaRepository<PriceAlert, Long>, PriceAlertRepositoryCustom {
+
+    // Every alert together with its position, loaded once when the alert engine starts
+    @Query("select a from PriceAlert a join fetch a.position")
+    List<PriceAlert> findAllWithPosition();
+
+    // Alerts of a position, served by the stock_id index
+    List<PriceAlert> findByPositionIdOrderById(Long stockId);
+}
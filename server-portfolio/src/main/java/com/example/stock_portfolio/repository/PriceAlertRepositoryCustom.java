@@ -0,0 +1,12 @@
+package com.example.stock_portfolio.repository;
+
+import com.example.stock_portfolio.dto.PriceAlertDto; // Importing PriceAlertDto record
+
+import java.util.Collection; // Importing Collection for the alerts to write
+
+// Custom repository fragment for writing alert state changes in bulk
+public interface PriceAlertRepositoryCustom {
+
+    // Write state, high-water mark and fire details of the given alerts in a single JDBC batch, returning the number of updated rows
+    int updateAlertStates(Collection<PriceAlertDto> alerts);
+}
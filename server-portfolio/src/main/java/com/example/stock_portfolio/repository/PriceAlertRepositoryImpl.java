@@ -0,0 +1,41 @@
+package com.example.stock_portfolio.repository;
+
+import com.example.stock_portfolio.dto.PriceAlertDto; // Importing PriceAlertDto record
+import lombok.AllArgsConstructor; // Lombok annotation for constructor injection
+import org.springframework.jdbc.core.JdbcTemplate; // Importing JdbcTemplate for batched JDBC statements
+import org.springframework.transaction.annotation.Transactional; // Importing Transactional to run the batch in one transaction
+
+import java.sql.Timestamp; // Importing Timestamp for fire times
+import java.util.ArrayList; // Importing ArrayList to hold batch arguments
+import java.util.Collection; // Importing Collection for the alerts to write
+import java.util.List; // Importing List for collection of batch arguments
+
+// Implementation of PriceAlertRepositoryCustom, picked up by Spring Data through the "Impl" suffix
+@AllArgsConstructor // Lombok annotation to generate a constructor with all arguments
+public class PriceAlertRepositoryImpl implements PriceAlertRepositoryCustom {
+
+    private static final String UPDATE_ALERT_STATE_SQL = "UPDATE price_alert SET state = ?, high_water_mark = ?, "
+            + "fired_at = ?, fired_price = ? WHERE id = ?";
+
+    private final JdbcTemplate jdbcTemplate; // Injecting JdbcTemplate for batched updates
+
+    @Override
+    @Transactional
+    public int updateAlertStates(Collection<PriceAlertDto> alerts) {
+        if (alerts.isEmpty()) {
+            return 0;
+        }
+
+        List<Object[]> batchArgs = new ArrayList<>(alerts.size());
+        for (PriceAlertDto alert : alerts) {
+            batchArgs.add(new Object[]{alert.state().name(), alert.highWaterMark(),
+                    alert.firedAt() == null ? null : Timestamp.from(alert.firedAt()), alert.firedPrice(), alert.id()});
+        }
+
+        int updatedRows = 0;
+        for (int count : jdbcTemplate.batchUpdate(UPDATE_ALERT_STATE_SQL, batchArgs)) {
+            updatedRows += Math.max(count, 0); // Drivers may report SUCCESS_NO_INFO (-2) for batched statements
+        }
+        return updatedRows;
+    }
+}
@@ -1,10 +1,52 @@
 package com.example.stock_portfolio.repository;
 
+import com.example.stock_portfolio.dto.StockDto; // Importing StockDto class for the listing projection
 import com.example.stock_portfolio.entity.Stocks; // Importing the Stocks entity class
+import org.springframework.data.domain.Page; // Importing Page for paged query results
+import org.springframework.data.domain.Pageable; // Importing Pageable for page, size and sort parameters
 import org.springframework.data.jpa.repository.JpaRepository; // Importing JpaRepository to handle CRUD operations
+import org.springframework.data.jpa.repository.Query; // Importing Query annotation for custom JPQL queries
+
+import java.util.Collection; // Importing Collection for the tickers of a trade import
+import java.util.List; // Importing List for collection of ticker symbols
+import java.util.Optional; // Importing Optional for the per-ticker lookup
 
 // StockRepository interface extends JpaRepository to handle database operations for Stocks entities
-public interface StockRepository extends JpaRepository<Stocks, Long> {
+public interface StockRepository extends JpaRepository<Stocks, Long>, StockRepositoryCustom {
     // JpaRepository already provides basic CRUD operations like save, findById, findAll, deleteById, etc.
-    // Custom queries can be added if necessary in the future.
+
+    // Fetch each ticker once, no matter how many holdings reference it
+    @Query("select distinct s.ticker from Stocks s where s.ticker is not null")
+    List<String> findDistinctTickers();
+
+    // List holdings straight into DTOs, skipping entity hydration and the persistence context
+    @Query(value = "select new com.example.stock_portfolio.dto.StockDto(s.id, s.stockName, s.ticker, s.quantity, s.buyPrice, s.currentPrice, p.id, s.costBasis, s.realizedPnl) "
+                 + "from Stocks s left join s.portfolio p",
+           countQuery = "select count(s) from Stocks s")
+    Page<StockDto> findAllStockDtos(Pageable pageable);
+
+    // List the positions of one portfolio, served by the (portfolio_id, ticker) index
+    Page<Stocks> findByPortfolioId(Long portfolioId, Pageable pageable);
+
+    // Find the position of a portfolio in one ticker, served by the (portfolio_id, ticker) index
+    Optional<Stocks> findByPortfolioIdAndTicker(Long portfolioId, String ticker);
+
+    // Find the positions of a portfolio in several tickers with one query
+    List<Stocks> findByPortfolioIdAndTickerIn(Long portfolioId, Collection<String> tickers);
+
+    // Portfolio ID (null outside any portfolio) and ticker of every position in the given tickers
+    @Query("select p.id, s.ticker from Stocks s left join s.portfolio p where s.ticker in ?1")
+    List<Object[]> findPortfolioTickerPairs(Collection<String> tickers);
+
+    // Market value of every portfolio in one aggregate query, 0 for portfolios without positions
+    @Query("select p.id, coalesce(sum(coalesce(s.quantity, 0) * coalesce(s.currentPrice, 0)), 0) from Portfolio p left join Stocks s on s.portfolio = p group by p.id")
+    List<Object[]> sumValueByPortfolio();
+
+    // Market value of every position, including those outside any portfolio
+    @Query("select coalesce(sum(coalesce(s.quantity, 0) * coalesce(s.currentPrice, 0)), 0) from Stocks s")
+    double sumValue();
+
+    // Current price of every held ticker, once per ticker
+    @Query("select s.ticker, max(s.currentPrice) from Stocks s where s.ticker is not null and s.currentPrice is not null group by s.ticker")
+    List<Object[]> findCurrentPrices();
 }
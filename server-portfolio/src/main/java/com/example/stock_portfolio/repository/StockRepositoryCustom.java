@@ -0,0 +1,16 @@
+package com.example.stock_portfolio.repository;
+
+import com.example.stock_portfolio.entity.Stocks; // Importing the Stocks entity class
+
+import java.util.List; // Importing List for positions to insert
+import java.util.Map; // Importing Map for prices keyed by ticker symbol
+
+// Custom repository fragment for bulk operations that bypass per-entity persistence
+public interface StockRepositoryCustom {
+
+    // Write the current price of every holding with the given ticker in a single JDBC batch, returning the number of updated rows
+    int updateCurrentPrices(Map<String, Double> pricesByTicker);
+
+    // Insert new positions together with their opening trade and lot, one JDBC batch per table; assigns the generated ids
+    void insertOpenedPositions(List<Stocks> positions);
+}
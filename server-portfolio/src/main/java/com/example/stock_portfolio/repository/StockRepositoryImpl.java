@@ -0,0 +1,98 @@
+package com.example.stock_portfolio.repository;
+
+import com.example.stock_portfolio.entity.Stocks; // Importing the Stocks entity class
+import lombok.AllArgsConstructor; // Lombok annotation for constructor injection
+import org.springframework.jdbc.core.BatchPreparedStatementSetter; // Importing setter to bind each row of a batch
+import org.springframework.jdbc.core.JdbcTemplate; // Importing JdbcTemplate for batched JDBC statements
+import org.springframework.jdbc.support.GeneratedKeyHolder; // Importing GeneratedKeyHolder to collect the ids of inserted rows
+import org.springframework.transaction.annotation.Transactional; // Importing Transactional to run the batch in one transaction
+
+import java.sql.PreparedStatement; // Importing PreparedStatement to bind batch rows
+import java.sql.SQLException; // Importing SQLException thrown while binding
+import java.sql.Timestamp; // Importing Timestamp for the opening trade time
+import java.sql.Types; // Importing Types to bind a null portfolio
+import java.time.Instant; // Importing Instant for the opening trade time
+import java.util.ArrayList; // Importing ArrayList to hold batch arguments
+import java.util.List; // Importing List for collection of batch arguments
+import java.util.Map; // Importing Map for prices keyed by ticker symbol
+
+// Implementation of StockRepositoryCustom, picked up by Spring Data through the "Impl" suffix
+@AllArgsConstructor // Lombok annotation to generate a constructor with all arguments
+public class StockRepositoryImpl implements StockRepositoryCustom {
+
+    private static final String UPDATE_CURRENT_PRICE_SQL = "UPDATE stock SET current_price = ? WHERE ticker = ?";
+    private static final String INSERT_STOCK_SQL = "INSERT INTO stock (stock_name, ticker, quantity, buy_price, current_price, "
+            + "portfolio_id, cost_basis, realized_pnl) VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
+    // Ids come from the sequences Hibernate allocates from, so rows written here never collide with its id blocks
+    private static final String INSERT_OPENING_TRADE_SQL = "INSERT INTO trade (id, stock_id, side, quantity, price, executed_at) "
+            + "VALUES (nextval('trade_seq'), ?, 'BUY', ?, ?, ?)";
+    private static final String INSERT_OPENING_LOT_SQL = "INSERT INTO position_lot (id, stock_id, remaining_quantity, price) "
+            + "VALUES (nextval('position_lot_seq'), ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate; // Injecting JdbcTemplate for batched updates
+
+    @Override
+    @Transactional
+    public int updateCurrentPrices(Map<String, Double> pricesByTicker) {
+        if (pricesByTicker.isEmpty()) {
+            return 0;
+        }
+
+        List<Object[]> batchArgs = new ArrayList<>(pricesByTicker.size());
+        pricesByTicker.forEach((ticker, price) -> batchArgs.add(new Object[]{price, ticker}));
+
+        int updatedRows = 0;
+        for (int count : jdbcTemplate.batchUpdate(UPDATE_CURRENT_PRICE_SQL, batchArgs)) {
+            updatedRows += Math.max(count, 0); // Drivers may report SUCCESS_NO_INFO (-2) for batched statements
+        }
+        return updatedRows;
+    }
+
+    @Override
+    @Transactional
+    public void insertOpenedPositions(List<Stocks> positions) {
+        if (positions.isEmpty()) {
+            return;
+        }
+
+        GeneratedKeyHolder keyHolder = new GeneratedKeyHolder();
+        jdbcTemplate.batchUpdate(connection -> connection.prepareStatement(INSERT_STOCK_SQL, new String[]{"id"}),
+                new BatchPreparedStatementSetter() {
+                    @Override
+                    public void setValues(PreparedStatement statement, int i) throws SQLException {
+                        Stocks position = positions.get(i);
+                        statement.setString(1, position.getStockName());
+                        statement.setString(2, position.getTicker());
+                        statement.setLong(3, position.getQuantity());
+                        statement.setDouble(4, position.getBuyPrice());
+                        statement.setDouble(5, position.getCurrentPrice());
+                        if (position.getPortfolio() == null) {
+                            statement.setNull(6, Types.BIGINT);
+                        } else {
+                            statement.setLong(6, position.getPortfolio().getId());
+                        }
+                        statement.setDouble(7, position.getCostBasis());
+                        statement.setDouble(8, position.getRealizedPnl());
+                    }
+
+                    @Override
+                    public int getBatchSize() {
+                        return positions.size();
+                    }
+                }, keyHolder);
+        List<Map<String, Object>> keys = keyHolder.getKeyList();
+        for (int i = 0; i < positions.size(); i++) {
+            positions.get(i).setId(((Number) keys.get(i).get("id")).longValue());
+        }
+
+        Timestamp executedAt = Timestamp.from(Instant.now());
+        List<Object[]> tradeArgs = new ArrayList<>(positions.size());
+        List<Object[]> lotArgs = new ArrayList<>(positions.size());
+        for (Stocks position : positions) {
+            tradeArgs.add(new Object[]{position.getId(), position.getQuantity(), position.getBuyPrice(), executedAt});
+            lotArgs.add(new Object[]{position.getId(), position.getQuantity(), position.getBuyPrice()});
+        }
+        jdbcTemplate.batchUpdate(INSERT_OPENING_TRADE_SQL, tradeArgs);
+        jdbcTemplate.batchUpdate(INSERT_OPENING_LOT_SQL, lotArgs);
+    }
+}
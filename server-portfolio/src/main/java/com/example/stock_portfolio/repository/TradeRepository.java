@@ -0,0 +1,13 @@
+package com.example.stock_portfolio.repository;
+
+import com.example.stock_portfolio.entity.Trade; // Importing the Trade entity class
+import org.springframework.data.domain.Page; // Importing Page for paged query results
+import org.springframework.data.domain.Pageable; // Importing Pageable for page, size and sort parameters
+import org.springframework.data.jpa.repository.JpaRepository; // Importing JpaRepository to handle CRUD operations
+
+// TradeRepository interface extends JpaRepository to handle database operations for Trade entities
+public interface TradeRepository extends JpaRepository<Trade, Long> {
+
+    // Page through the trade history of a position, served by the (stock_id, id) index
+    Page<Trade> findByPositionId(Long stockId, Pageable pageable);
+}
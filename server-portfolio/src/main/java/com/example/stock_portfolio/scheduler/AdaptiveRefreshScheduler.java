@@ -0,0 +1,314 @@
+package com.example.stock_portfolio.scheduler; // Package declaration for the AdaptiveRefreshScheduler class
+
+import com.example.stock_portfolio.cluster.LeaderElection; // Importing LeaderElection so only one node refreshes
+import com.example.stock_portfolio.dto.RefreshReport; // Importing RefreshReport returned by a refresh cycle
+import com.example.stock_portfolio.dto.TimestampedQuote; // Importing TimestampedQuote record for last known quotes
+import com.example.stock_portfolio.event.PricesChangedEvent; // Importing event announcing written prices
+import com.example.stock_portfolio.event.TickerViewedEvent; // Importing event published when a ticker is looked at
+import com.example.stock_portfolio.repository.StockRepository; // Importing the StockRepository to list held tickers
+import com.example.stock_portfolio.service.PriceRefreshService; // Importing PriceRefreshService to refresh due tickers
+import com.example.stock_portfolio.service.QuoteService; // Importing QuoteService for last known quotes
+import com.example.stock_portfolio.util.ExchangeCalendar; // Importing ExchangeCalendar for trading hours
+import com.example.stock_portfolio.websocket.PriceStreamPublisher; // Importing PriceStreamPublisher for the per-ticker topic
+
+import io.micrometer.core.instrument.Counter; // Importing Counter for scheduled symbols per tier
+import io.micrometer.core.instrument.Gauge; // Importing Gauge for tier sizes and intervals
+import io.micrometer.core.instrument.MeterRegistry; // Importing MeterRegistry to register scheduler metrics
+
+import lombok.extern.slf4j.Slf4j; // Lombok annotation to generate a logger
+
+import org.springframework.beans.factory.annotation.Value; // Importing annotation to inject values from properties
+import org.springframework.context.ApplicationEventPublisher; // Importing publisher to announce live subscriptions as views
+import org.springframework.context.event.EventListener; // Importing annotation to listen for application events
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor; // Importing accessor to read STOMP subscription headers
+import org.springframework.scheduling.annotation.Scheduled; // Importing annotation for scheduling tasks
+import org.springframework.stereotype.Component; // Marking this class as a Spring component
+import org.springframework.web.socket.messaging.SessionDisconnectEvent; // Importing event for closed WebSocket sessions
+import org.springframework.web.socket.messaging.SessionSubscribeEvent; // Importing event for new STOMP subscriptions
+import org.springframework.web.socket.messaging.SessionUnsubscribeEvent; // Importing event for cancelled STOMP subscriptions
+
+import java.time.Duration; // Importing Duration for tier intervals and windows
+import java.time.Instant; // Importing Instant for refresh and view times
+import java.util.ArrayList; // Importing ArrayList to collect due tickers
+import java.util.EnumMap; // Importing EnumMap for per-tier settings and meters
+import java.util.HashSet; // Importing HashSet for the held symbols
+import java.util.List; // Importing List for tickers
+import java.util.Map; // Importing Map for per-ticker state
+import java.util.Set; // Importing Set for the held symbols
+import java.util.concurrent.ConcurrentHashMap; // Importing ConcurrentHashMap for state shared with event listeners
+import java.util.concurrent.atomic.AtomicInteger; // Importing AtomicInteger for tier size gauges
+
+// Replaces the fixed ten-minute refresh of every holding. Every tick each held ticker is put in a tier and
+// refreshed once the interval of its tier has passed: hot tickers (watched live, looked at recently or
+// moving fast) often, warm ones at a moderate pace, cold ones (not looked at for a long time) rarely.
+// Tickers whose exchange is closed are refreshed once after the close to pick up the closing price and
+// then left alone until the next session; tickers of unknown exchanges are treated as always open.
+// A ticker with a last known quote (e.g. restored from the snapshot at startup) counts as refreshed when
+// that quote was fetched; any other ticker gets its first refresh after an initial delay, spread over a
+// window, so a restart does not spend a burst of credits while users are arriving.
+// In a cluster only the leader refreshes; the other nodes keep their tiers up to date from the relayed
+// events, so a node that takes over continues where the previous leader stopped. Websocket subscriptions
+// only exist on the node the client is connected to, so every tick a follower announces its watched tickers
+// as views, which the relay forwards to the leader often enough to keep them hot.
+@Slf4j // Lombok annotation to generate a logger for this class
+@Component // Marking this class as a Spring component
+public class AdaptiveRefreshScheduler {
+
+    public enum Tier { HOT, WARM, COLD, CLOSED }
+
+    private static final Duration CLOSE_SETTLE_DELAY = Duration.ofMinutes(15); // Wait for the closing auction before the last refresh
+
+    // What the scheduler knows about one held ticker
+    private static final class TickerState {
+        private final Instant firstSeen; // When the ticker was first seen held, the start of its view history
+        private final Instant firstDue; // Earliest first refresh of a ticker that was never refreshed
+        private volatile Instant lastRefreshed; // Start of the last refresh that included the ticker
+        private volatile Instant lastViewed; // Last ticker info or chart request
+        private volatile Instant volatileUntil; // End of the hot period after a large price move
+        private volatile Double lastPrice; // Last written price, to measure the next move
+
+        private TickerState(Instant firstSeen, Instant firstDue) {
+            this.firstSeen = firstSeen;
+            this.firstDue = firstDue;
+        }
+    }
+
+    private final PriceRefreshService priceRefreshService; // Injecting the refresher that fetches and writes prices
+    private final QuoteService quoteService; // Injecting QuoteService to seed refresh times from last known quotes
+    private final StockRepository stockRepository; // Injecting stock repository to list held tickers
+    private final ExchangeCalendar exchangeCalendar; // Injecting the trading hours of the listing exchanges
+    private final LeaderElection leaderElection; // Injecting the election of the refreshing node
+    private final ApplicationEventPublisher eventPublisher; // Injecting publisher to announce watched tickers as views
+    private final Map<Tier, Duration> intervals = new EnumMap<>(Tier.class); // Refresh interval of the open-market tiers
+    private final Duration hotViewWindow; // How long a look at a ticker keeps it hot
+    private final Duration coldAfter; // How long without a look before a ticker turns cold
+    private final double volatilityThreshold; // Relative price move between refreshes that makes a ticker hot
+    private final Duration volatileHold; // How long a large price move keeps a ticker hot
+    private final Duration initialDelay; // Delay before the first refresh of a ticker without a last known quote
+    private final Duration startupSpread; // Window over which those first refreshes are spread
+
+    private final Map<String, TickerState> states = new ConcurrentHashMap<>(); // Keyed by upper-case symbol
+    private final Map<String, String> subscriptions = new ConcurrentHashMap<>(); // "session:subscription" to watched symbol
+    private final Map<String, Integer> watchers = new ConcurrentHashMap<>(); // Live per-ticker subscriptions by symbol
+    private final Map<Tier, AtomicInteger> tierSizes = new EnumMap<>(Tier.class); // Tickers per tier at the last tick
+    private final Map<Tier, Counter> scheduledCounters = new EnumMap<>(Tier.class); // Tickers refreshed per tier
+
+    public AdaptiveRefreshScheduler(PriceRefreshService priceRefreshService,
+                                    QuoteService quoteService,
+                                    StockRepository stockRepository,
+                                    ExchangeCalendar exchangeCalendar,
+                                    LeaderElection leaderElection,
+                                    ApplicationEventPublisher eventPublisher,
+                                    MeterRegistry meterRegistry,
+                                    @Value("${portfolio.refresh.hot-interval:PT1M}") Duration hotInterval,
+                                    @Value("${portfolio.refresh.warm-interval:PT5M}") Duration warmInterval,
+                                    @Value("${portfolio.refresh.cold-interval:PT30M}") Duration coldInterval,
+                                    @Value("${portfolio.refresh.hot-view-window:PT10M}") Duration hotViewWindow,
+                                    @Value("${portfolio.refresh.cold-after:PT72H}") Duration coldAfter,
+                                    @Value("${portfolio.refresh.volatility-threshold:0.01}") double volatilityThreshold,
+                                    @Value("${portfolio.refresh.volatile-hold:PT30M}") Duration volatileHold,
+                                    @Value("${portfolio.refresh.initial-delay:PT1M}") Duration initialDelay,
+                                    @Value("${portfolio.refresh.startup-spread:PT10M}") Duration startupSpread) {
+        this.priceRefreshService = priceRefreshService;
+        this.quoteService = quoteService;
+        this.stockRepository = stockRepository;
+        this.exchangeCalendar = exchangeCalendar;
+        this.leaderElection = leaderElection;
+        this.eventPublisher = eventPublisher;
+        this.intervals.put(Tier.HOT, hotInterval);
+        this.intervals.put(Tier.WARM, warmInterval);
+        this.intervals.put(Tier.COLD, coldInterval);
+        this.hotViewWindow = hotViewWindow;
+        this.coldAfter = coldAfter;
+        this.volatilityThreshold = volatilityThreshold;
+        this.volatileHold = volatileHold;
+        this.initialDelay = initialDelay;
+        this.startupSpread = startupSpread;
+
+        for (Tier tier : Tier.values()) {
+            String tag = tier.name().toLowerCase();
+            AtomicInteger size = new AtomicInteger();
+            tierSizes.put(tier, size);
+            Gauge.builder("portfolio.refresh.tier.symbols", size, AtomicInteger::get).tag("tier", tag)
+                    .description("Held tickers in each refresh tier at the last scheduler tick").register(meterRegistry);
+            scheduledCounters.put(tier, Counter.builder("portfolio.refresh.scheduled.symbols").tag("tier", tag)
+                    .description("Tickers refreshed by the adaptive scheduler per tier").register(meterRegistry));
+            Duration interval = intervals.get(tier);
+            if (interval != null) {
+                Gauge.builder("portfolio.refresh.tier.interval", interval, Duration::toSeconds).tag("tier", tag)
+                        .baseUnit("seconds").description("Configured refresh interval of each tier").register(meterRegistry);
+            }
+        }
+    }
+
+    // Refresh the held tickers that are due, checked on a short tick
+    @Scheduled(fixedDelayString = "${portfolio.refresh.tick:PT15S}")
+    public void refreshDue() {
+        if (!leaderElection.isLeader()) {
+            // Another node refreshes for the cluster; the relay sends it at most one view per ticker and view relay interval
+            watchers.keySet().forEach(symbol -> eventPublisher.publishEvent(new TickerViewedEvent(symbol)));
+            return;
+        }
+        Instant now = Instant.now();
+        List<String> due = dueTickers(stockRepository.findDistinctTickers(), now);
+        if (due.isEmpty()) {
+            return; // Nothing due, no credits spent
+        }
+
+        RefreshReport report = priceRefreshService.refreshPrices(due);
+        markRefreshed(report.refreshedTickers(), now); // Tickers of failed or skipped batches stay due for the next tick
+        log.info("Refreshed {} due symbols in {} batches ({} failed, {} skipped), {} changed, updated {} holdings in {} ms",
+                report.symbols(), report.batches(), report.failedBatches(), report.skippedBatches(), report.changedSymbols(),
+                report.updatedRows(), report.durationMillis());
+    }
+
+    // Select the held tickers whose tier interval has passed, updating the tier metrics on the way
+    List<String> dueTickers(List<String> heldTickers, Instant now) {
+        Set<String> held = new HashSet<>();
+        Map<Tier, Integer> sizes = new EnumMap<>(Tier.class);
+        List<String> due = new ArrayList<>();
+        for (String ticker : heldTickers) {
+            String symbol = symbol(ticker);
+            held.add(symbol);
+            TickerState state = states.computeIfAbsent(symbol, key -> newState(key, now));
+            Tier tier = tierOf(symbol, state, now);
+            sizes.merge(tier, 1, Integer::sum);
+            if (isDue(symbol, state, tier, now)) {
+                due.add(ticker);
+                scheduledCounters.get(tier).increment();
+            }
+        }
+        states.keySet().retainAll(held); // Forget tickers that are no longer held
+        tierSizes.forEach((tier, size) -> size.set(sizes.getOrDefault(tier, 0)));
+        return due;
+    }
+
+    // Record that the given tickers were refreshed at the given time
+    void markRefreshed(List<String> tickers, Instant refreshedAt) {
+        for (String ticker : tickers) {
+            TickerState state = states.get(symbol(ticker));
+            if (state != null) {
+                state.lastRefreshed = refreshedAt;
+            }
+        }
+    }
+
+    // Current tier of a held ticker
+    Tier tierOf(String ticker, Instant now) {
+        String symbol = symbol(ticker);
+        return tierOf(symbol, states.computeIfAbsent(symbol, key -> newState(key, now)), now);
+    }
+
+    // State of a newly seen ticker, spread over the startup window by a hash of its symbol
+    private TickerState newState(String symbol, Instant now) {
+        double offset = Math.floorMod(symbol.hashCode(), 1000) / 1000.0;
+        TickerState state = new TickerState(now, now.plus(initialDelay).plusMillis((long) (startupSpread.toMillis() * offset)));
+        TimestampedQuote lastKnown = quoteService.getLastKnownQuote(symbol);
+        if (lastKnown != null) {
+            state.lastRefreshed = lastKnown.fetchedAt(); // Its tier interval decides when the next refresh is due
+        }
+        return state;
+    }
+
+    private Tier tierOf(String symbol, TickerState state, Instant now) {
+        String exchange = priceRefreshService.exchangeOf(symbol);
+        if (exchange != null && !exchangeCalendar.isOpen(exchange, now)) {
+            return Tier.CLOSED;
+        }
+        Instant lastViewed = state.lastViewed;
+        Instant volatileUntil = state.volatileUntil;
+        if (watchers.containsKey(symbol)
+                || (lastViewed != null && lastViewed.plus(hotViewWindow).isAfter(now))
+                || (volatileUntil != null && volatileUntil.isAfter(now))) {
+            return Tier.HOT;
+        }
+        Instant lastActivity = lastViewed == null || lastViewed.isBefore(state.firstSeen) ? state.firstSeen : lastViewed;
+        return lastActivity.plus(coldAfter).isAfter(now) ? Tier.WARM : Tier.COLD;
+    }
+
+    private boolean isDue(String symbol, TickerState state, Tier tier, Instant now) {
+        Instant lastRefreshed = state.lastRefreshed;
+        if (lastRefreshed == null) {
+            return !state.firstDue.isAfter(now); // Never refreshed, which is also how its exchange is learned
+        }
+        if (tier == Tier.CLOSED) {
+            // One refresh once the last session has settled, then nothing until the market opens again
+            Instant previousClose = exchangeCalendar.previousClose(priceRefreshService.exchangeOf(symbol), now);
+            if (previousClose == null) {
+                return false;
+            }
+            Instant settled = previousClose.plus(CLOSE_SETTLE_DELAY);
+            return !settled.isAfter(now) && lastRefreshed.isBefore(settled);
+        }
+        return !lastRefreshed.plus(intervals.get(tier)).isAfter(now);
+    }
+
+    // Tickers looked at through the REST endpoints stay hot for the view window
+    @EventListener
+    public void onTickerViewed(TickerViewedEvent event) {
+        TickerState state = states.get(symbol(event.ticker()));
+        if (state != null) {
+            state.lastViewed = Instant.now(); // Views of tickers nobody holds do not need a refresh
+        }
+    }
+
+    // A large move between two written prices keeps the ticker hot for a while; a price written by another
+    // node also counts as a refresh, so a follower that becomes leader does not refresh everything at once
+    @EventListener
+    public void onPricesChanged(PricesChangedEvent event) {
+        Instant now = Instant.now();
+        boolean follower = !leaderElection.isLeader();
+        event.pricesByTicker().forEach((ticker, price) -> {
+            TickerState state = states.get(symbol(ticker));
+            if (state == null || price == null) {
+                return;
+            }
+            if (follower) {
+                state.lastRefreshed = now;
+            }
+            Double previous = state.lastPrice;
+            if (previous != null && previous != 0 && Math.abs(price - previous) / Math.abs(previous) >= volatilityThreshold) {
+                state.volatileUntil = now.plus(volatileHold);
+            }
+            state.lastPrice = price;
+        });
+    }
+
+    // Tickers with a live per-ticker price subscription stay hot for as long as it is open
+    @EventListener
+    public void onSubscribe(SessionSubscribeEvent event) {
+        SimpMessageHeaderAccessor headers = SimpMessageHeaderAccessor.wrap(event.getMessage());
+        String destination = headers.getDestination();
+        String prefix = PriceStreamPublisher.PRICES_TOPIC + "/";
+        if (destination == null || !destination.startsWith(prefix) || destination.length() == prefix.length()) {
+            return;
+        }
+        String symbol = symbol(destination.substring(prefix.length()));
+        if (subscriptions.put(headers.getSessionId() + ":" + headers.getSubscriptionId(), symbol) == null) {
+            watchers.merge(symbol, 1, Integer::sum);
+        }
+    }
+
+    @EventListener
+    public void onUnsubscribe(SessionUnsubscribeEvent event) {
+        SimpMessageHeaderAccessor headers = SimpMessageHeaderAccessor.wrap(event.getMessage());
+        unwatch(headers.getSessionId() + ":" + headers.getSubscriptionId());
+    }
+
+    @EventListener
+    public void onDisconnect(SessionDisconnectEvent event) {
+        String prefix = event.getSessionId() + ":";
+        subscriptions.keySet().stream().filter(key -> key.startsWith(prefix)).toList().forEach(this::unwatch);
+    }
+
+    private void unwatch(String subscriptionKey) {
+        String symbol = subscriptions.remove(subscriptionKey);
+        if (symbol != null) {
+            watchers.computeIfPresent(symbol, (key, count) -> count > 1 ? count - 1 : null);
+        }
+    }
+
+    private static String symbol(String ticker) {
+        return ticker.trim().toUpperCase();
+    }
+}
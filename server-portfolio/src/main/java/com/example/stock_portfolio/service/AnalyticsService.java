@@ -0,0 +1,9 @@
+package com.example.stock_portfolio.service; // Package declaration for AnalyticsService interface
+
+import com.example.stock_portfolio.dto.PortfolioAnalytics; // Importing PortfolioAnalytics record
+
+public interface AnalyticsService {
+
+    // Method to compute (or serve the cached) risk analytics of a portfolio, or of all holdings if portfolioId is null
+    PortfolioAnalytics getAnalytics(Long portfolioId, String interval, int points);
+}
@@ -0,0 +1,18 @@
+package com.example.stock_portfolio.service; // Package declaration for PortfolioService interface
+
+import java.util.List; // Importing List to represent a list of PortfolioDto objects
+
+import com.example.stock_portfolio.dto.AppUserDto; // Importing AppUserDto record
+import com.example.stock_portfolio.dto.PortfolioDto; // Importing PortfolioDto record
+
+public interface PortfolioService {
+
+    // Method to register a new user
+    AppUserDto createUser(AppUserDto appUserDto);
+
+    // Method to create a portfolio owned by a user
+    PortfolioDto createPortfolio(Long userId, PortfolioDto portfolioDto);
+
+    // Method to list the portfolios of a user, ordered by name
+    List<PortfolioDto> getPortfolios(Long userId);
+}
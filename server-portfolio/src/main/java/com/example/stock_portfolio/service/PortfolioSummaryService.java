@@ -0,0 +1,15 @@
+package com.example.stock_portfolio.service; // Package declaration for PortfolioSummaryService interface
+
+import com.example.stock_portfolio.dto.PortfolioSummary; // Importing PortfolioSummary record
+
+public interface PortfolioSummaryService {
+
+    // Method to retrieve the portfolio totals from the running aggregates
+    PortfolioSummary getSummary(int topMovers);
+
+    // Method to compare the running aggregates against a full recompute from the database
+    boolean verifyConsistency();
+
+    // Method to discard the running aggregates and rebuild them from the database
+    void rebuild();
+}
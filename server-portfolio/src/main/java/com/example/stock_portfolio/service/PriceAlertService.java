@@ -0,0 +1,23 @@
+package com.example.stock_portfolio.service; // Package declaration for PriceAlertService interface
+
+import com.example.stock_portfolio.dto.PriceAlertDto; // Importing PriceAlertDto record
+
+import java.util.List; // Importing List for the alerts of a position
+
+public interface PriceAlertService {
+
+    // Method to register an alert on a position
+    PriceAlertDto createAlert(Long stockId, PriceAlertDto alert);
+
+    // Method to list the alerts of a position with their live state
+    List<PriceAlertDto> getAlerts(Long stockId);
+
+    // Method to re-arm a fired alert by hand
+    PriceAlertDto rearmAlert(Long alertId);
+
+    // Method to delete an alert
+    void deleteAlert(Long alertId);
+
+    // Method to write the pending alert state changes in one batch, returning the number of written alerts
+    int flush();
+}
@@ -0,0 +1,17 @@
+package com.example.stock_portfolio.service; // Package declaration for PriceRefreshService interface
+
+import com.example.stock_portfolio.dto.RefreshReport; // Importing RefreshReport record
+
+import java.util.List; // Importing List for the tickers to refresh
+
+public interface PriceRefreshService {
+
+    // Method to refresh the current price of every holding and report what the cycle did
+    RefreshReport refreshPrices();
+
+    // Method to refresh the current price of the holdings of the given tickers only
+    RefreshReport refreshPrices(List<String> tickers);
+
+    // Method to look up the listing exchange last reported for a ticker, or null if it was not refreshed yet
+    String exchangeOf(String ticker);
+}
@@ -0,0 +1,40 @@
+package com.example.stock_portfolio.service; // Package declaration for QuoteService interface
+
+import com.example.stock_portfolio.dto.Quote; // Importing Quote record
+import com.example.stock_portfolio.dto.TimestampedQuote; // Importing TimestampedQuote record for last known quotes
+
+import java.time.Duration; // Importing Duration for how long a restored quote may be served
+import java.util.Collection; // Importing Collection for the last known quotes
+import java.util.List; // Importing List for collection of ticker symbols
+import java.util.Map; // Importing Map for quotes keyed by ticker symbol
+import java.util.Optional; // Importing Optional for requests skipped for lack of API credits
+
+public interface QuoteService {
+
+    // Method to retrieve the latest quote for a ticker symbol, served from the cache while it is fresh
+    Quote getQuote(String ticker);
+
+    // Method to fetch fresh quotes for several tickers in one upstream request, refreshing the cache with the results
+    Map<String, Quote> fetchQuotes(List<String> tickers);
+
+    // Method to fetch fresh quotes like fetchQuotes, but only from spare API credits; empty if the request was skipped
+    Optional<Map<String, Quote>> tryFetchQuotes(List<String> tickers);
+
+    // Method to look up a quote that is still fresh in the cache without going upstream; null if there is none
+    Quote getCachedQuote(String ticker);
+
+    // Method to record a quote fetched by another client, so that it serves cached lookups and counts as last known
+    void remember(Quote quote);
+
+    // Method to drop a cached quote so that the next lookup goes to the Twelve Data API
+    void evict(String ticker);
+
+    // Method to look up the last quote fetched for a ticker, however old, without going upstream; null if there is none
+    TimestampedQuote getLastKnownQuote(String ticker);
+
+    // Method to list the last quote fetched for every ticker seen, however old
+    Collection<TimestampedQuote> getLastKnownQuotes();
+
+    // Method to restore a previously fetched quote, serving it from the cache for servedFor if that is positive
+    void restore(TimestampedQuote quote, Duration servedFor);
+}
@@ -0,0 +1,10 @@
+package com.example.stock_portfolio.service; // Package declaration for QuoteSnapshotService interface
+
+public interface QuoteSnapshotService {
+
+    // Method to load the local snapshot into the quote cache and return how many quotes were restored
+    int restore();
+
+    // Method to write the last known quotes to the local snapshot and return how many were written
+    int save();
+}
@@ -0,0 +1,19 @@
+package com.example.stock_portfolio.service; // Package declaration for ReactiveStockService interface
+
+import java.util.Map; // Importing Map to represent key-value pairs for stock data
+
+import com.example.stock_portfolio.store.CandleSeries; // Importing CandleSeries for columnar historical data
+import reactor.core.publisher.Mono; // Importing Mono for asynchronous results
+
+// Non-blocking variant of the upstream-facing methods of StockService
+public interface ReactiveStockService {
+
+    // Method to retrieve historical data for a stock using its ticker symbol
+    Mono<Map<String, Object>> getStockHistoricalData(String ticker);
+
+    // Method to retrieve the latest outputsize candles of a ticker for an interval, optionally limited to [from, to]
+    Mono<CandleSeries> getHistoricalCandles(String ticker, String interval, int outputsize, String from, String to);
+
+    // Method to retrieve information about a stock (such as company name, current price) using its ticker symbol
+    Mono<Map<String, Object>> getTickerInfo(String ticker);
+}
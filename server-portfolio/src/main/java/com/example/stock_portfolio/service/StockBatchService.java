@@ -0,0 +1,12 @@
+package com.example.stock_portfolio.service; // Package declaration for StockBatchService interface
+
+import java.util.List; // Importing List for the rows to import
+
+import com.example.stock_portfolio.dto.BatchCreateReport; // Importing BatchCreateReport record
+import com.example.stock_portfolio.dto.StockDto; // Importing StockDto class
+
+public interface StockBatchService {
+
+    // Method to create many holdings at once, reporting the outcome of every row instead of failing on the first bad one
+    BatchCreateReport createStocks(List<StockDto> rows);
+}
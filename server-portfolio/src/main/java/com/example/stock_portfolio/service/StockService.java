@@ -4,6 +4,9 @@ import java.util.List; // Importing List to represent a list of StockDto objects
 import java.util.Map; // Importing Map to represent key-value pairs for stock data
 
 import com.example.stock_portfolio.dto.StockDto; // Importing StockDto class
+import com.example.stock_portfolio.store.CandleSeries; // Importing CandleSeries for columnar historical data
+import org.springframework.data.domain.Page; // Importing Page for paged results
+import org.springframework.data.domain.Pageable; // Importing Pageable for page, size and sort parameters
 
 public interface StockService {
 
@@ -16,6 +19,12 @@ public interface StockService {
     // Method to retrieve all stocks in the system
     List<StockDto> getAllStocks();
 
+    // Method to retrieve one page of stocks
+    Page<StockDto> getStocks(Pageable pageable);
+
+    // Method to retrieve one page of the positions of a portfolio
+    Page<StockDto> getPortfolioStocks(Long portfolioId, Pageable pageable);
+
     // Method to update a stock's information
     StockDto updateStock(Long stockId, StockDto updatedStock);
 
@@ -25,6 +34,9 @@ public interface StockService {
     // Method to retrieve historical data for a stock using its ticker symbol
     Map<String, Object> getStockHistoricalData(String ticker);
 
+    // Method to retrieve the latest outputsize candles of a ticker for an interval, optionally limited to [from, to]
+    CandleSeries getHistoricalCandles(String ticker, String interval, int outputsize, String from, String to);
+
     // Method to retrieve information about a stock (such as company name, current price) using its ticker symbol
     Map<String, Object> getTickerInfo(String ticker);
 }
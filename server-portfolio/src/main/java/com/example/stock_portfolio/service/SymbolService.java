@@ -0,0 +1,18 @@
+package com.example.stock_portfolio.service; // Package declaration for SymbolService interface
+
+import com.example.stock_portfolio.dto.SymbolInfo; // Importing SymbolInfo record for listings
+
+import java.util.List; // Importing List for search results
+
+public interface SymbolService {
+
+    // Method to find listings whose symbol, or else whose company name, starts with the prefix
+    List<SymbolInfo> search(String prefix, int limit);
+
+    // Method to check a ticker: true if the directory lists it or none has been loaded yet; any other ticker may be
+    // listed on an exchange the directory does not cover, so the quote lookup decides (one credit, then cached)
+    boolean isListed(String ticker);
+
+    // Method to download the directory from Twelve Data, store it locally and return the number of listings
+    int sync();
+}
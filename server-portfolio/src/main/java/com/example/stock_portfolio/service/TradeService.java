@@ -0,0 +1,25 @@
+package com.example.stock_portfolio.service; // Package declaration for TradeService interface
+
+import java.util.List; // Importing List for bulk imports
+
+import com.example.stock_portfolio.dto.StockDto; // Importing StockDto class
+import com.example.stock_portfolio.dto.TradeDto; // Importing TradeDto record
+import com.example.stock_portfolio.dto.TradeImportReport; // Importing TradeImportReport record
+import org.springframework.data.domain.Page; // Importing Page for paged results
+import org.springframework.data.domain.Pageable; // Importing Pageable for page, size and sort parameters
+
+public interface TradeService {
+
+    // Method to append a trade to the ledger of a position and return the updated position
+    StockDto recordTrade(Long stockId, TradeDto trade);
+
+    // Method to append a trade as the last step of a larger edit of a position, announcing the whole edit
+    // as one holding change that starts from the given snapshot
+    StockDto recordTrade(Long stockId, TradeDto trade, StockDto previous);
+
+    // Method to append many trades to the positions of a portfolio in one transaction, creating positions as needed
+    TradeImportReport importTrades(Long portfolioId, List<TradeDto> trades);
+
+    // Method to retrieve one page of the trade history of a position
+    Page<TradeDto> getTrades(Long stockId, Pageable pageable);
+}
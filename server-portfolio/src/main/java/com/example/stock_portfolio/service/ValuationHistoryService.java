@@ -0,0 +1,12 @@
+package com.example.stock_portfolio.service; // Package declaration for ValuationHistoryService interface
+
+import com.example.stock_portfolio.dto.ValuationHistory; // Importing ValuationHistory record
+
+public interface ValuationHistoryService {
+
+    // Method to append the current portfolio totals and ticker prices to the history, returning the number of recorded series
+    int recordSnapshot();
+
+    // Method to read the history of a portfolio total (or of a ticker price) over a range such as 1d, 1m, 5y or max
+    ValuationHistory getHistory(Long portfolioId, String ticker, String range, int points);
+}
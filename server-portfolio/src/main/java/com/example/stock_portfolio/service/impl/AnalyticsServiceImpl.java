@@ -0,0 +1,281 @@
+package com.example.stock_portfolio.service.impl;
+
+import com.example.stock_portfolio.dto.PortfolioAnalytics; // Importing PortfolioAnalytics record
+import com.example.stock_portfolio.dto.StockDto; // Importing StockDto class
+import com.example.stock_portfolio.event.HoldingChangedEvent; // Importing event published on holding changes
+import com.example.stock_portfolio.exception.ResourceNotFoundException; // Importing custom exception for resource not found
+import com.example.stock_portfolio.mapper.StockMapper; // Importing the StockMapper for entity-DTO conversion
+import com.example.stock_portfolio.repository.PortfolioRepository; // Importing the PortfolioRepository to check portfolios
+import com.example.stock_portfolio.repository.StockRepository; // Importing the StockRepository to load holdings
+import com.example.stock_portfolio.service.AnalyticsService; // Importing AnalyticsService interface
+import com.example.stock_portfolio.store.CandleSeries; // Importing CandleSeries for stored historical data
+import com.example.stock_portfolio.store.CandleStore; // Importing CandleStore for the local time-series store
+import com.example.stock_portfolio.util.RiskMetrics; // Importing RiskMetrics for the statistics
+import com.github.benmanes.caffeine.cache.Cache; // Importing Caffeine cache abstraction
+import com.github.benmanes.caffeine.cache.Caffeine; // Importing Caffeine cache builder
+
+import org.springframework.beans.factory.annotation.Value; // Importing annotation to inject values from properties
+import org.springframework.data.domain.Pageable; // Importing Pageable to load all holdings
+import org.springframework.stereotype.Service; // Marking this class as a service
+import org.springframework.transaction.event.TransactionPhase; // Importing TransactionPhase to follow committed changes only
+import org.springframework.transaction.event.TransactionalEventListener; // Importing listener annotation bound to the transaction outcome
+
+import java.time.Duration; // Importing Duration for candle intervals
+import java.time.Instant; // Importing Instant for the computation time
+import java.util.ArrayList; // Importing ArrayList to hold lists of data
+import java.util.Arrays; // Importing Arrays to compare candle versions
+import java.util.Comparator; // Importing Comparator to order holdings by value
+import java.util.List; // Importing List for collection of items
+import java.util.Map; // Importing Map for quantities
+import java.util.TreeMap; // Importing TreeMap to keep tickers in a stable order
+import java.util.concurrent.atomic.AtomicLong; // Importing AtomicLong for the holdings generation
+
+// Risk analytics computed from the locally stored candles, so a request never spends API credits.
+// Results are cached per portfolio, interval and window and stay valid until new candles of one of
+// the involved tickers are stored or a holding changes; there is no time-based expiry. The cache holds at
+// most cache-size results, evicting the least recently used, since every portfolio, interval and window
+// requested adds an entry.
+@Service // Marking this class as a Spring service
+public class AnalyticsServiceImpl implements AnalyticsService {
+
+    private static final int MAX_POINTS = 5000; // Largest window, matching the chart endpoint
+
+    private final StockRepository stockRepository; // Injecting stock repository to load holdings
+    private final PortfolioRepository portfolioRepository; // Injecting portfolio repository to check portfolios
+    private final CandleStore candleStore; // Injecting the local store of historical candles
+    private final String benchmark; // Ticker the betas are measured against, blank for none
+    private final int rollingWindow; // Number of latest returns in the rolling volatility
+    private final double confidence; // Confidence level of the value at risk
+
+    private final Cache<Key, Entry> cache; // Latest result per portfolio, interval and window
+    private final AtomicLong holdingsGeneration = new AtomicLong(); // Bumped on every holding change
+
+    // Cache key of one result
+    private record Key(Long portfolioId, String interval, int points) {
+    }
+
+    // A cached result and the state it was computed from
+    private record Entry(long holdingsGeneration, List<String> tickers, long[] candleVersions, PortfolioAnalytics analytics) {
+    }
+
+    public AnalyticsServiceImpl(StockRepository stockRepository,
+                                PortfolioRepository portfolioRepository,
+                                CandleStore candleStore,
+                                @Value("${portfolio.analytics.benchmark:SPY}") String benchmark,
+                                @Value("${portfolio.analytics.rolling-window:20}") int rollingWindow,
+                                @Value("${portfolio.analytics.var-confidence:0.95}") double confidence,
+                                @Value("${portfolio.analytics.cache-size:1000}") long cacheSize) {
+        this.stockRepository = stockRepository;
+        this.portfolioRepository = portfolioRepository;
+        this.candleStore = candleStore;
+        this.benchmark = benchmark == null ? "" : benchmark.trim().toUpperCase();
+        this.rollingWindow = Math.max(rollingWindow, 2);
+        this.confidence = confidence;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(cacheSize) // Least recently used results are evicted beyond this size
+                .build();
+    }
+
+    // Method to serve the analytics of a portfolio, recomputing them only if their inputs changed
+    @Override
+    public PortfolioAnalytics getAnalytics(Long portfolioId, String interval, int points) {
+        if (points < 2 || points > MAX_POINTS) {
+            throw new IllegalArgumentException("points must be between 2 and " + MAX_POINTS);
+        }
+        CandleStore.intervalDuration(interval); // Rejects unsupported intervals
+
+        Key key = new Key(portfolioId, interval, points);
+        Entry cached = cache.getIfPresent(key);
+        if (cached != null && cached.holdingsGeneration() == holdingsGeneration.get()
+                && Arrays.equals(cached.candleVersions(), candleVersions(cached.tickers(), interval))) {
+            return cached.analytics();
+        }
+
+        long generation = holdingsGeneration.get(); // Read before the holdings, so a concurrent change invalidates the result
+        Map<String, Long> quantities = quantities(portfolioId);
+        List<String> tickers = new ArrayList<>(quantities.keySet());
+        if (!benchmark.isEmpty()) {
+            tickers.add(benchmark);
+        }
+        long[] versions = candleVersions(tickers, interval); // Read before the candles, for the same reason
+        PortfolioAnalytics analytics = compute(portfolioId, interval, points, quantities);
+        cache.put(key, new Entry(generation, tickers, versions, analytics));
+        return analytics;
+    }
+
+    // A holding was created, updated or deleted; cached weights and ticker sets are outdated
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onHoldingChanged(HoldingChangedEvent event) {
+        holdingsGeneration.incrementAndGet();
+    }
+
+    // Held quantity per ticker, summed over positions of the same ticker
+    private Map<String, Long> quantities(Long portfolioId) {
+        List<StockDto> stocks;
+        if (portfolioId == null) {
+            stocks = stockRepository.findAllStockDtos(Pageable.unpaged()).getContent();
+        } else {
+            if (!portfolioRepository.existsById(portfolioId)) {
+                throw new ResourceNotFoundException("Portfolio does not exist for the given id: " + portfolioId);
+            }
+            stocks = stockRepository.findByPortfolioId(portfolioId, Pageable.unpaged()).map(StockMapper::mapToStockDto).getContent();
+        }
+        Map<String, Long> quantities = new TreeMap<>();
+        for (StockDto stock : stocks) {
+            if (stock.getTicker() != null && stock.getQuantity() != null && stock.getQuantity() > 0) {
+                quantities.merge(stock.getTicker().trim().toUpperCase(), stock.getQuantity(), Long::sum);
+            }
+        }
+        return quantities;
+    }
+
+    private long[] candleVersions(List<String> tickers, String interval) {
+        long[] versions = new long[tickers.size()];
+        for (int i = 0; i < versions.length; i++) {
+            versions[i] = candleStore.version(tickers.get(i), interval);
+        }
+        return versions;
+    }
+
+    // Align the candles of every held ticker, then derive per-ticker, portfolio and pairwise metrics
+    private PortfolioAnalytics compute(Long portfolioId, String interval, int points, Map<String, Long> quantities) {
+        List<String> tickers = new ArrayList<>(quantities.size());
+        List<String> missingHistory = new ArrayList<>();
+        List<CandleSeries> series = new ArrayList<>(quantities.size() + 1);
+        for (String ticker : quantities.keySet()) {
+            CandleSeries stored = tail(candleStore.read(ticker, interval), points + 1);
+            if (stored.size() < 2) {
+                missingHistory.add(ticker);
+            } else {
+                tickers.add(ticker);
+                series.add(stored);
+            }
+        }
+        CandleSeries benchmarkSeries = benchmark.isEmpty() ? CandleSeries.EMPTY : tail(candleStore.read(benchmark, interval), points + 1);
+        boolean hasBenchmark = benchmarkSeries.size() >= 2;
+        if (hasBenchmark) {
+            series.add(benchmarkSeries);
+        }
+
+        double[][] prices = align(series, points + 1);
+        int length = prices.length == 0 ? 0 : prices[0].length;
+        double[] benchmarkReturns = hasBenchmark ? RiskMetrics.returns(prices[tickers.size()], length) : null;
+        double periodsPerYear = periodsPerYear(CandleStore.intervalDuration(interval));
+
+        int n = tickers.size();
+        double[][] returns = new double[n][];
+        double[] values = new double[n];
+        double totalValue = 0;
+        for (int i = 0; i < n; i++) {
+            returns[i] = RiskMetrics.returns(prices[i], length);
+            values[i] = quantities.get(tickers.get(i)) * prices[i][length - 1];
+            totalValue += values[i];
+        }
+
+        // Portfolio returns with the current value weights held constant over the window
+        double[] portfolioReturns = new double[Math.max(length - 1, 0)];
+        List<PortfolioAnalytics.Holding> holdings = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) {
+            double weight = totalValue == 0 ? 0 : values[i] / totalValue;
+            for (int t = 0; t < portfolioReturns.length; t++) {
+                portfolioReturns[t] += weight * returns[i][t];
+            }
+            holdings.add(new PortfolioAnalytics.Holding(tickers.get(i), quantities.get(tickers.get(i)), values[i], weight,
+                    risk(prices[i], returns[i], benchmarkReturns, values[i], periodsPerYear)));
+        }
+        holdings.sort(Comparator.comparingDouble(PortfolioAnalytics.Holding::value).reversed());
+
+        double[] portfolioPrices = new double[portfolioReturns.length + 1]; // Growth of one unit invested at the start
+        portfolioPrices[0] = 1;
+        for (int t = 0; t < portfolioReturns.length; t++) {
+            portfolioPrices[t + 1] = portfolioPrices[t] * (1 + portfolioReturns[t]);
+        }
+        PortfolioAnalytics.Risk portfolioRisk = n == 0 ? risk(new double[0], new double[0], null, 0, periodsPerYear)
+                : risk(portfolioPrices, portfolioReturns, benchmarkReturns, totalValue, periodsPerYear);
+
+        double[] flat = RiskMetrics.correlationMatrix(returns);
+        double[][] correlation = new double[n][];
+        for (int i = 0; i < n; i++) {
+            correlation[i] = Arrays.copyOfRange(flat, i * n, (i + 1) * n);
+        }
+
+        return new PortfolioAnalytics(portfolioId, interval, Math.max(length - 1, 0), hasBenchmark ? benchmark : null,
+                confidence, Instant.now(), totalValue, portfolioRisk, holdings, tickers, correlation, missingHistory);
+    }
+
+    private PortfolioAnalytics.Risk risk(double[] prices, double[] returns, double[] benchmarkReturns, double value, double periodsPerYear) {
+        double annualization = Math.sqrt(periodsPerYear);
+        double valueAtRisk = RiskMetrics.valueAtRisk(returns, confidence);
+        return new PortfolioAnalytics.Risk(
+                finite(RiskMetrics.totalReturn(prices, prices.length)),
+                finite(RiskMetrics.standardDeviation(returns, 0, returns.length) * annualization),
+                finite(RiskMetrics.standardDeviation(returns, Math.max(returns.length - rollingWindow, 0), returns.length) * annualization),
+                finite(RiskMetrics.maxDrawdown(prices, prices.length)),
+                benchmarkReturns == null ? null : finite(RiskMetrics.beta(returns, benchmarkReturns)),
+                finite(valueAtRisk),
+                finite(valueAtRisk * value));
+    }
+
+    // The latest count candles of a series
+    private static CandleSeries tail(CandleSeries series, int count) {
+        return series.slice(Math.max(series.size() - count, 0), series.size());
+    }
+
+    // Put the series on one time grid: the union of their candle times from the point where all of them have
+    // started, limited to the latest count times. A series without a candle at a grid time keeps its previous close.
+    static double[][] align(List<CandleSeries> series, int count) {
+        if (series.isEmpty()) {
+            return new double[0][];
+        }
+        long start = Long.MIN_VALUE;
+        int total = 0;
+        for (CandleSeries candles : series) {
+            start = Math.max(start, candles.times()[0]);
+            total += candles.size();
+        }
+        long[] grid = new long[total];
+        int size = 0;
+        for (CandleSeries candles : series) {
+            for (int i = candles.indexAtOrAfter(start); i < candles.size(); i++) {
+                grid[size++] = candles.times()[i];
+            }
+        }
+        Arrays.sort(grid, 0, size);
+        int distinct = 0;
+        for (int i = 0; i < size; i++) {
+            if (distinct == 0 || grid[i] != grid[distinct - 1]) {
+                grid[distinct++] = grid[i];
+            }
+        }
+        int from = Math.max(distinct - count, 0);
+        int length = distinct - from;
+
+        double[][] aligned = new double[series.size()][length];
+        for (int k = 0; k < series.size(); k++) {
+            CandleSeries candles = series.get(k);
+            int index = 0;
+            for (int t = 0; t < length; t++) {
+                long time = grid[from + t];
+                while (index + 1 < candles.size() && candles.times()[index + 1] <= time) {
+                    index++;
+                }
+                aligned[k][t] = candles.closes()[index];
+            }
+        }
+        return aligned;
+    }
+
+    // Number of periods of the interval in a year: 252 sessions of 6.5 hours for intraday and daily candles
+    static double periodsPerYear(Duration interval) {
+        long minutes = interval.toMinutes();
+        if (minutes < Duration.ofDays(1).toMinutes()) {
+            return 252.0 * Math.ceil(390.0 / minutes);
+        }
+        long days = interval.toDays();
+        return days == 1 ? 252 : 365.0 / days;
+    }
+
+    private static Double finite(double value) {
+        return Double.isFinite(value) ? value : null;
+    }
+}
@@ -0,0 +1,66 @@
+package com.example.stock_portfolio.service.impl;
+
+import com.example.stock_portfolio.dto.AppUserDto; // Importing AppUserDto record
+import com.example.stock_portfolio.dto.PortfolioDto; // Importing PortfolioDto record
+import com.example.stock_portfolio.entity.AppUser; // Importing AppUser entity
+import com.example.stock_portfolio.entity.Portfolio; // Importing Portfolio entity
+import com.example.stock_portfolio.exception.ResourceNotFoundException; // Importing custom exception for resource not found
+import com.example.stock_portfolio.repository.AppUserRepository; // Importing the AppUserRepository for DB operations
+import com.example.stock_portfolio.repository.PortfolioRepository; // Importing the PortfolioRepository for DB operations
+import com.example.stock_portfolio.service.PortfolioService; // Importing PortfolioService interface
+
+import lombok.AllArgsConstructor; // Lombok annotation to generate the constructor with all fields
+
+import org.springframework.stereotype.Service; // Marking this class as a service
+
+import java.util.List; // Importing List for collection of items
+
+@Service // Marking this class as a Spring service
+@AllArgsConstructor // Lombok annotation to generate constructor with all arguments
+public class PortfolioServiceImpl implements PortfolioService {
+
+    private final AppUserRepository appUserRepository; // Injecting user repository for DB operations
+    private final PortfolioRepository portfolioRepository; // Injecting portfolio repository for DB operations
+
+    // Method to register a new user with a unique username
+    @Override
+    public AppUserDto createUser(AppUserDto appUserDto) {
+        String username = appUserDto.username();
+        if (username == null || username.isBlank()) {
+            throw new IllegalArgumentException("Username is required.");
+        }
+        if (appUserRepository.existsByUsername(username)) {
+            throw new IllegalArgumentException("Username already taken: " + username);
+        }
+        AppUser saved = appUserRepository.save(new AppUser(null, username, appUserDto.displayName()));
+        return new AppUserDto(saved.getId(), saved.getUsername(), saved.getDisplayName());
+    }
+
+    // Method to create a portfolio with a name that is unique for its owner
+    @Override
+    public PortfolioDto createPortfolio(Long userId, PortfolioDto portfolioDto) {
+        String name = portfolioDto.name();
+        if (name == null || name.isBlank()) {
+            throw new IllegalArgumentException("Portfolio name is required.");
+        }
+        if (!appUserRepository.existsById(userId)) {
+            throw new ResourceNotFoundException("User does not exist for the given id: " + userId);
+        }
+        if (portfolioRepository.existsByOwnerIdAndName(userId, name)) {
+            throw new IllegalArgumentException("User " + userId + " already has a portfolio named " + name + ".");
+        }
+        Portfolio saved = portfolioRepository.save(new Portfolio(null, appUserRepository.getReferenceById(userId), name));
+        return new PortfolioDto(saved.getId(), userId, saved.getName());
+    }
+
+    // Method to list the portfolios of a user
+    @Override
+    public List<PortfolioDto> getPortfolios(Long userId) {
+        if (!appUserRepository.existsById(userId)) {
+            throw new ResourceNotFoundException("User does not exist for the given id: " + userId);
+        }
+        return portfolioRepository.findByOwnerIdOrderByName(userId).stream()
+                .map(portfolio -> new PortfolioDto(portfolio.getId(), userId, portfolio.getName()))
+                .toList();
+    }
+}
@@ -0,0 +1,195 @@
+package com.example.stock_portfolio.service.impl;
+
+import com.example.stock_portfolio.dto.PortfolioSummary; // Importing PortfolioSummary record
+import com.example.stock_portfolio.dto.StockDto; // Importing StockDto class
+import com.example.stock_portfolio.event.HoldingChangedEvent; // Importing event published on holding changes
+import com.example.stock_portfolio.event.PricesChangedEvent; // Importing event published on price changes
+import com.example.stock_portfolio.repository.StockRepository; // Importing the StockRepository for DB operations
+import com.example.stock_portfolio.service.PortfolioSummaryService; // Importing PortfolioSummaryService interface
+
+import org.springframework.boot.context.event.ApplicationReadyEvent; // Importing event fired once the application is ready
+import org.springframework.context.event.EventListener; // Importing annotation to listen for application events
+import org.springframework.data.domain.Pageable; // Importing Pageable to load all holdings
+import org.springframework.stereotype.Service; // Marking this class as a service
+import org.springframework.transaction.event.TransactionPhase; // Importing TransactionPhase to follow committed changes only
+import org.springframework.transaction.event.TransactionalEventListener; // Importing listener annotation bound to the transaction outcome
+
+import java.util.ArrayList; // Importing ArrayList to hold lists of data
+import java.util.Comparator; // Importing Comparator to rank movers and allocations
+import java.util.HashMap; // Importing HashMap for key-value pairs
+import java.util.List; // Importing List for collection of items
+import java.util.Map; // Importing Map for key-value pairs
+import java.util.PriorityQueue; // Importing PriorityQueue to select the top movers
+
+// Keeps portfolio totals as running aggregates. Every holding change and every refreshed ticker price
+// adjusts them in O(1), so the summary never has to scan the stock table.
+@Service // Marking this class as a Spring service
+public class PortfolioSummaryServiceImpl implements PortfolioSummaryService {
+
+    private static final double TOLERANCE = 1e-6; // Allowed relative drift between aggregates and a full recompute
+
+    private final StockRepository stockRepository; // Injecting stock repository for the initial load and consistency checks
+
+    private final Map<Long, Holding> holdings = new HashMap<>(); // Holding state by stock ID
+    private final Map<String, TickerTotals> tickers = new HashMap<>(); // Running totals by ticker symbol
+    private double totalValue; // Sum of quantity times current price over all holdings
+    private double investedAmount; // Sum of quantity times buy price over all holdings
+
+    public PortfolioSummaryServiceImpl(StockRepository stockRepository) {
+        this.stockRepository = stockRepository;
+    }
+
+    // Load the aggregates once the application (and its database connection) is ready
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        rebuild();
+    }
+
+    // Method to build the summary from the running aggregates
+    @Override
+    public synchronized PortfolioSummary getSummary(int topMovers) {
+        // Keep only the k largest absolute moves while walking the tickers
+        PriorityQueue<PortfolioSummary.Mover> movers = new PriorityQueue<>(
+                Comparator.comparingDouble((PortfolioSummary.Mover mover) -> Math.abs(mover.pnlPercent())));
+        List<PortfolioSummary.Allocation> allocations = new ArrayList<>(tickers.size());
+
+        tickers.forEach((ticker, totals) -> {
+            double pnl = totals.value - totals.invested;
+            double pnlPercent = totals.invested == 0 ? 0 : pnl / totals.invested * 100;
+            movers.add(new PortfolioSummary.Mover(ticker, totals.value, pnl, pnlPercent));
+            if (movers.size() > topMovers) {
+                movers.poll(); // Drop the smallest move
+            }
+            allocations.add(new PortfolioSummary.Allocation(ticker, totals.value,
+                    totalValue == 0 ? 0 : totals.value / totalValue * 100));
+        });
+
+        List<PortfolioSummary.Mover> topMoverList = new ArrayList<>(movers);
+        topMoverList.sort(Comparator.comparingDouble((PortfolioSummary.Mover mover) -> Math.abs(mover.pnlPercent())).reversed());
+        allocations.sort(Comparator.comparingDouble(PortfolioSummary.Allocation::value).reversed());
+
+        double unrealizedPnl = totalValue - investedAmount;
+        return new PortfolioSummary(totalValue, investedAmount, unrealizedPnl,
+                investedAmount == 0 ? 0 : unrealizedPnl / investedAmount * 100,
+                holdings.size(), topMoverList, allocations);
+    }
+
+    // Method to recompute the totals from every holding in the database and compare them with the aggregates
+    @Override
+    public synchronized boolean verifyConsistency() {
+        double expectedValue = 0;
+        double expectedInvested = 0;
+        List<StockDto> stocks = stockRepository.findAllStockDtos(Pageable.unpaged()).getContent();
+        for (StockDto stock : stocks) {
+            expectedValue += quantityOf(stock) * valueOrZero(stock.getCurrentPrice());
+            expectedInvested += quantityOf(stock) * valueOrZero(stock.getBuyPrice());
+        }
+        return stocks.size() == holdings.size()
+                && closeTo(expectedValue, totalValue)
+                && closeTo(expectedInvested, investedAmount);
+    }
+
+    // Method to rebuild the aggregates from scratch
+    @Override
+    public synchronized void rebuild() {
+        holdings.clear();
+        tickers.clear();
+        totalValue = 0;
+        investedAmount = 0;
+        stockRepository.findAllStockDtos(Pageable.unpaged()).forEach(this::add);
+    }
+
+    // Apply a created, updated or deleted holding
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public synchronized void onHoldingChanged(HoldingChangedEvent event) {
+        if (event.previous() != null) {
+            remove(event.previous().getId());
+        }
+        if (event.current() != null) {
+            add(event.current());
+        }
+    }
+
+    // Apply refreshed prices: all holdings of a ticker move together, so each ticker costs O(1)
+    @EventListener
+    public synchronized void onPricesChanged(PricesChangedEvent event) {
+        event.pricesByTicker().forEach((ticker, price) -> {
+            TickerTotals totals = tickers.get(ticker);
+            if (totals == null) {
+                return; // No holding of this ticker is tracked
+            }
+            double newValue = totals.quantity * price;
+            totalValue += newValue - totals.value;
+            totals.value = newValue;
+            totals.price = price;
+            totals.epoch++; // Every holding priced in an earlier epoch now carries the ticker price
+        });
+    }
+
+    // Add a holding to the aggregates
+    private void add(StockDto stock) {
+        if (stock.getId() == null || stock.getTicker() == null) {
+            return;
+        }
+        remove(stock.getId()); // Never count the same holding twice
+
+        TickerTotals totals = tickers.computeIfAbsent(stock.getTicker(), ticker -> new TickerTotals());
+        Holding holding = new Holding(stock.getTicker(), quantityOf(stock), valueOrZero(stock.getBuyPrice()),
+                valueOrZero(stock.getCurrentPrice()), totals.epoch);
+        holdings.put(stock.getId(), holding);
+
+        totals.holdings++;
+        totals.quantity += holding.quantity;
+        totals.invested += holding.quantity * holding.buyPrice;
+        totals.value += holding.quantity * holding.price;
+        totalValue += holding.quantity * holding.price;
+        investedAmount += holding.quantity * holding.buyPrice;
+    }
+
+    // Remove a holding from the aggregates
+    private void remove(Long stockId) {
+        Holding holding = stockId == null ? null : holdings.remove(stockId);
+        if (holding == null) {
+            return;
+        }
+        TickerTotals totals = tickers.get(holding.ticker);
+        // A holding added before the latest price change is valued at the ticker price, not its own
+        double price = holding.epoch == totals.epoch ? holding.price : totals.price;
+
+        totals.holdings--;
+        totals.quantity -= holding.quantity;
+        totals.invested -= holding.quantity * holding.buyPrice;
+        totals.value -= holding.quantity * price;
+        totalValue -= holding.quantity * price;
+        investedAmount -= holding.quantity * holding.buyPrice;
+        if (totals.holdings == 0) {
+            tickers.remove(holding.ticker);
+        }
+    }
+
+    private static long quantityOf(StockDto stock) {
+        return stock.getQuantity() == null ? 0 : stock.getQuantity();
+    }
+
+    private static double valueOrZero(Double value) {
+        return value == null ? 0 : value;
+    }
+
+    private static boolean closeTo(double expected, double actual) {
+        return Math.abs(expected - actual) <= TOLERANCE * Math.max(1, Math.abs(expected));
+    }
+
+    // Aggregate state of one holding, with the price epoch of its ticker at the time it was added
+    private record Holding(String ticker, long quantity, double buyPrice, double price, long epoch) {
+    }
+
+    // Running totals of all holdings of one ticker
+    private static final class TickerTotals {
+        int holdings; // Number of holdings of this ticker
+        long quantity; // Total quantity held
+        double invested; // Total quantity times buy price
+        double value; // Total quantity times current price
+        double price; // Price written by the latest refresh
+        long epoch; // Incremented on every refreshed price
+    }
+}
@@ -0,0 +1,45 @@
+package com.example.stock_portfolio.service.impl;
+
+import com.example.stock_portfolio.event.HoldingChangedEvent; // Importing event published on holding changes
+import com.example.stock_portfolio.event.PricesChangedEvent; // Importing event published on price changes
+
+import org.springframework.context.event.EventListener; // Importing annotation to listen for application events
+import org.springframework.stereotype.Component; // Marking this class as a Spring component
+import org.springframework.transaction.event.TransactionPhase; // Importing TransactionPhase to follow committed changes only
+import org.springframework.transaction.event.TransactionalEventListener; // Importing listener annotation bound to the transaction outcome
+
+import java.util.UUID; // Importing UUID for the node part of the ETag
+import java.util.concurrent.atomic.AtomicLong; // Importing AtomicLong for the version counter
+
+// Version counter of the whole portfolio, bumped on every holding or price change and used as the ETag of stock listings.
+// Every node counts on its own, so two nodes can reach the same number for different data; the ETag carries a
+// random node part, and a client that moves to another node behind the load balancer just gets a full answer.
+@Component // Marking this class as a Spring component
+public class PortfolioVersion {
+
+    // Seeded with the start time so that an ETag issued before a restart never matches after it
+    private final AtomicLong version = new AtomicLong(System.currentTimeMillis());
+    private final String node = UUID.randomUUID().toString().substring(0, 8); // Tells the ETags of this node apart
+
+    // Weak ETag of the current version, only ever matched on the node that issued it
+    public String etag() {
+        return "W/\"" + node + "-" + version.get() + "\"";
+    }
+
+    // Current version of the portfolio
+    public long current() {
+        return version.get();
+    }
+
+    // A holding was created, updated or deleted; bumped once committed, so a listing under the new ETag sees the change
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onHoldingChanged(HoldingChangedEvent event) {
+        version.incrementAndGet();
+    }
+
+    // The refresher wrote new prices
+    @EventListener
+    public void onPricesChanged(PricesChangedEvent event) {
+        version.incrementAndGet();
+    }
+}
@@ -0,0 +1,111 @@
+package com.example.stock_portfolio.service.impl;
+
+import com.example.stock_portfolio.entity.PositionLot; // Importing PositionLot entity
+import com.example.stock_portfolio.entity.Stocks; // Importing Stocks entity holding the position snapshot
+import com.example.stock_portfolio.entity.TradeSide; // Importing TradeSide enum
+
+import java.util.ArrayDeque; // Importing ArrayDeque for the FIFO queue of open lots
+import java.util.ArrayList; // Importing ArrayList for lots to persist
+import java.util.List; // Importing List for lots to persist
+import java.util.function.Supplier; // Importing Supplier to load the open lots lazily
+
+// Applies trades to the snapshot stored on a position, so the snapshot never has to be recomputed from the
+// full ledger. Quantity, average cost (buyPrice), FIFO cost basis and FIFO realized P&L are updated in O(1)
+// per buy; a sell additionally touches only the open lots it consumes. The open lots are loaded on the first
+// sell, so buy-only batches never read them.
+final class PositionLedger {
+
+    private final Stocks position;
+    private final Supplier<List<PositionLot>> lotLoader;
+    private final List<PositionLot> addedLots = new ArrayList<>(); // Lots opened by this ledger
+    private final List<PositionLot> closedLots = new ArrayList<>(); // Persisted lots fully consumed by this ledger
+    private ArrayDeque<PositionLot> openLots; // Oldest first, null until the first sell
+
+    PositionLedger(Stocks position, Supplier<List<PositionLot>> lotLoader) {
+        this.position = position;
+        if (position.getCostBasis() != null) {
+            this.lotLoader = lotLoader;
+            return;
+        }
+
+        // The row predates the ledger: its quantity and buy price become a single opening lot
+        long quantity = position.getQuantity() == null ? 0 : position.getQuantity();
+        double price = position.getBuyPrice() == null ? 0 : position.getBuyPrice();
+        this.lotLoader = List::of; // Nothing persisted yet
+        position.setQuantity(0L);
+        position.setBuyPrice(0.0);
+        position.setCostBasis(0.0);
+        position.setRealizedPnl(0.0);
+        if (quantity > 0) {
+            apply(TradeSide.BUY, quantity, price);
+        }
+    }
+
+    // Apply one trade; sells may not exceed the quantity held
+    void apply(TradeSide side, long quantity, double price) {
+        long held = position.getQuantity();
+        if (side == TradeSide.BUY) {
+            long total = held + quantity;
+            double averageCost = held == 0 ? 0 : position.getBuyPrice();
+            position.setBuyPrice((held * averageCost + quantity * price) / total);
+            position.setQuantity(total);
+            position.setCostBasis(position.getCostBasis() + quantity * price);
+            PositionLot lot = new PositionLot(null, position, quantity, price);
+            addedLots.add(lot);
+            if (openLots != null) {
+                openLots.addLast(lot);
+            }
+            return;
+        }
+
+        if (quantity > held) {
+            throw new IllegalArgumentException("Cannot sell " + quantity + " " + position.getTicker()
+                    + ", only " + held + " held.");
+        }
+        if (openLots == null) {
+            openLots = new ArrayDeque<>(lotLoader.get());
+            openLots.addAll(addedLots); // Opened by this ledger, so newer than every persisted lot
+        }
+
+        long remaining = quantity;
+        double consumedCost = 0;
+        while (remaining > 0) {
+            PositionLot lot = openLots.peekFirst();
+            if (lot == null) {
+                throw new IllegalStateException("Open lots of position " + position.getId() + " do not cover its quantity.");
+            }
+            long taken = Math.min(remaining, lot.getRemainingQuantity());
+            consumedCost += taken * lot.getPrice();
+            remaining -= taken;
+            lot.setRemainingQuantity(lot.getRemainingQuantity() - taken);
+            if (lot.getRemainingQuantity() == 0) {
+                openLots.removeFirst();
+                if (lot.getId() != null) {
+                    closedLots.add(lot);
+                }
+            }
+        }
+
+        boolean closed = quantity == held;
+        position.setQuantity(held - quantity);
+        position.setCostBasis(closed ? 0.0 : position.getCostBasis() - consumedCost); // No rounding residue on a closed position
+        position.setRealizedPnl(position.getRealizedPnl() + quantity * price - consumedCost);
+        if (closed) {
+            position.setBuyPrice(0.0); // Average cost restarts with the next buy
+        }
+    }
+
+    Stocks position() {
+        return position;
+    }
+
+    // Lots opened by this ledger that are still open and have to be inserted
+    List<PositionLot> lotsToInsert() {
+        return addedLots.stream().filter(lot -> lot.getRemainingQuantity() > 0).toList();
+    }
+
+    // Persisted lots fully consumed by this ledger that have to be deleted; partially consumed ones are dirty-checked
+    List<PositionLot> lotsToDelete() {
+        return closedLots;
+    }
+}
@@ -0,0 +1,358 @@
+package com.example.stock_portfolio.service.impl;
+
+import com.example.stock_portfolio.dto.PriceAlertDto; // Importing PriceAlertDto record
+import com.example.stock_portfolio.dto.StockDto; // Importing StockDto class
+import com.example.stock_portfolio.entity.AlertState; // Importing AlertState enum
+import com.example.stock_portfolio.entity.AlertType; // Importing AlertType enum
+import com.example.stock_portfolio.entity.PriceAlert; // Importing PriceAlert entity
+import com.example.stock_portfolio.entity.Stocks; // Importing Stocks entity
+import com.example.stock_portfolio.event.AlertChangedEvent; // Importing event announcing registered, re-armed and deleted alerts
+import com.example.stock_portfolio.event.AlertsTriggeredEvent; // Importing event announcing fired alerts
+import com.example.stock_portfolio.event.HoldingChangedEvent; // Importing event published on holding changes
+import com.example.stock_portfolio.event.PricesChangedEvent; // Importing event published on price changes
+import com.example.stock_portfolio.exception.ResourceNotFoundException; // Importing custom exception for resource not found
+import com.example.stock_portfolio.repository.PriceAlertRepository; // Importing the PriceAlertRepository for DB operations
+import com.example.stock_portfolio.repository.StockRepository; // Importing the StockRepository to resolve positions
+import com.example.stock_portfolio.service.PriceAlertService; // Importing PriceAlertService interface
+import com.example.stock_portfolio.util.AlertBook; // Importing the per-ticker rule indexes
+
+import io.micrometer.core.instrument.Counter; // Importing Counter for fired alerts
+import io.micrometer.core.instrument.MeterRegistry; // Importing MeterRegistry to register the counter
+
+import jakarta.annotation.PreDestroy; // Importing PreDestroy to write pending changes on shutdown
+
+import lombok.extern.slf4j.Slf4j; // Lombok annotation to generate a logger
+
+import org.springframework.beans.factory.annotation.Value; // Importing annotation to inject values from properties
+import org.springframework.boot.ApplicationArguments; // Importing ApplicationArguments for the startup runner
+import org.springframework.boot.ApplicationRunner; // Importing ApplicationRunner to load the alerts before readiness
+import org.springframework.context.ApplicationEventPublisher; // Importing publisher for fired alert events
+import org.springframework.context.event.EventListener; // Importing annotation to listen for application events
+import org.springframework.scheduling.annotation.Scheduled; // Importing annotation for scheduling tasks
+import org.springframework.stereotype.Service; // Marking this class as a service
+import org.springframework.transaction.annotation.Transactional; // Importing Transactional for alert creation
+import org.springframework.transaction.event.TransactionPhase; // Importing TransactionPhase to follow committed changes only
+import org.springframework.transaction.event.TransactionalEventListener; // Importing listener annotation bound to the transaction outcome
+
+import java.time.Instant; // Importing Instant for creation and fire times
+import java.util.ArrayList; // Importing ArrayList to hold lists of data
+import java.util.Comparator; // Importing Comparator to list alerts in creation order
+import java.util.List; // Importing List for collection of items
+import java.util.Map; // Importing Map for books and pending changes
+import java.util.concurrent.ConcurrentHashMap; // Importing ConcurrentHashMap for books and pending changes
+
+// Price alerts evaluated on every price update of the refresher. Rules live in one AlertBook per ticker, so
+// an update only visits the rules whose thresholds it crossed. State changes are kept in memory and written
+// to the price_alert table in one JDBC batch per flush interval; fired alerts are announced as an event
+// that the websocket layer pushes to subscribers. Registered, re-armed and deleted alerts are announced as
+// well, so that the books of the other nodes of a cluster follow. Every node evaluates every price update, so
+// its books and websocket subscribers follow, but only the node that wrote the prices writes the resulting
+// state changes and counts the fired alerts. A registered alert enters the books only
+// once its row is committed, so a rolled-back registration never fires.
+@Slf4j // Lombok annotation to generate a logger for this class
+@Service // Marking this class as a Spring service
+public class PriceAlertServiceImpl implements PriceAlertService, ApplicationRunner {
+
+    private final PriceAlertRepository priceAlertRepository; // Injecting alert repository for DB operations
+    private final StockRepository stockRepository; // Injecting stock repository to resolve positions
+    private final ApplicationEventPublisher eventPublisher; // Injecting publisher to announce fired alerts
+    private final double rearmBand; // Fraction the price has to move back past the trigger price to re-arm
+    private final Counter firedCounter; // Number of fired alerts
+
+    private final Map<String, AlertBook> books = new ConcurrentHashMap<>(); // Rule indexes by ticker
+    private final Map<Long, String> tickersByAlert = new ConcurrentHashMap<>(); // Book of every alert
+    private final Map<Long, PriceAlertDto> pending = new ConcurrentHashMap<>(); // Latest unwritten state by alert ID
+
+    public PriceAlertServiceImpl(PriceAlertRepository priceAlertRepository,
+                                 StockRepository stockRepository,
+                                 ApplicationEventPublisher eventPublisher,
+                                 MeterRegistry meterRegistry,
+                                 @Value("${portfolio.alerts.rearm-band:0.01}") double rearmBand) {
+        this.priceAlertRepository = priceAlertRepository;
+        this.stockRepository = stockRepository;
+        this.eventPublisher = eventPublisher;
+        this.rearmBand = rearmBand;
+        this.firedCounter = Counter.builder("portfolio.alerts.fired")
+                .description("Price alerts fired by price updates")
+                .register(meterRegistry);
+    }
+
+    // Load every alert into the books before the application reports itself ready
+    @Override
+    public void run(ApplicationArguments args) {
+        List<PriceAlert> alerts = priceAlertRepository.findAllWithPosition();
+        for (PriceAlert alert : alerts) {
+            Stocks position = alert.getPosition();
+            add(normalize(position.getTicker()), toRule(alert, reference(alert.getType(), position.getBuyPrice(), position.getCurrentPrice())));
+        }
+        log.info("Loaded {} price alerts", alerts.size());
+    }
+
+    // Method to register an alert on a position; it fires at the first price update at or beyond its trigger price
+    @Override
+    @Transactional
+    public PriceAlertDto createAlert(Long stockId, PriceAlertDto alert) {
+        Stocks position = stockRepository.findById(stockId)
+                .orElseThrow(() -> new ResourceNotFoundException("Stock does not exist for the given id: " + stockId)); // Handle resource not found
+        validate(alert);
+        Double highWaterMark = alert.type() == AlertType.TRAILING_STOP ? position.getCurrentPrice() : null;
+        PriceAlert saved = priceAlertRepository.save(new PriceAlert(null, position, alert.type(), alert.threshold(),
+                AlertState.ARMED, highWaterMark, null, null, Instant.now()));
+
+        String ticker = normalize(position.getTicker());
+        AlertBook.Rule rule = toRule(saved, reference(saved.getType(), position.getBuyPrice(), position.getCurrentPrice()));
+        PriceAlertDto created = toDto(rule, ticker);
+        // Added to the books of this node by onAlertChanged and sent to the other nodes, both on commit
+        eventPublisher.publishEvent(new AlertChangedEvent(created, AlertChangedEvent.Change.CREATED));
+        return created;
+    }
+
+    // Method to list the alerts of a position from the books, which are never behind the table
+    @Override
+    public List<PriceAlertDto> getAlerts(Long stockId) {
+        Stocks position = stockRepository.findById(stockId)
+                .orElseThrow(() -> new ResourceNotFoundException("Stock does not exist for the given id: " + stockId)); // Handle resource not found
+        String ticker = normalize(position.getTicker());
+        AlertBook book = books.get(ticker);
+        List<PriceAlertDto> alerts = new ArrayList<>();
+        if (book != null) {
+            synchronized (book) {
+                for (AlertBook.Rule rule : book.rules()) {
+                    if (rule.stockId() == stockId) {
+                        alerts.add(toDto(rule, ticker));
+                    }
+                }
+            }
+        }
+        alerts.sort(Comparator.comparing(PriceAlertDto::id));
+        return alerts;
+    }
+
+    // Method to re-arm a fired alert by hand
+    @Override
+    public PriceAlertDto rearmAlert(Long alertId) {
+        PriceAlertDto alert = rearm(alertId);
+        if (alert == null) {
+            throw new ResourceNotFoundException("Price alert does not exist for the given id: " + alertId);
+        }
+        pending.put(alertId, alert);
+        eventPublisher.publishEvent(new AlertChangedEvent(alert, AlertChangedEvent.Change.REARMED));
+        return alert;
+    }
+
+    // Method to delete an alert
+    @Override
+    public void deleteAlert(Long alertId) {
+        PriceAlert alert = priceAlertRepository.findById(alertId)
+                .orElseThrow(() -> new ResourceNotFoundException("Price alert does not exist for the given id: " + alertId)); // Handle resource not found
+        priceAlertRepository.delete(alert);
+        PriceAlertDto deleted = forget(alertId);
+        eventPublisher.publishEvent(new AlertChangedEvent(deleted != null ? deleted
+                : new PriceAlertDto(alertId, null, null, alert.getType(), alert.getThreshold(), alert.getState(),
+                null, null, null, null, null), AlertChangedEvent.Change.DELETED));
+    }
+
+    // Follow committed alert changes, including those made through another node; re-arms and deletes made here
+    // are already applied, registrations made here are added now. Events outside a transaction apply at once
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onAlertChanged(AlertChangedEvent event) {
+        PriceAlertDto alert = event.alert();
+        if (alert == null || alert.id() == null) {
+            return;
+        }
+        switch (event.change()) {
+            case CREATED -> {
+                if (!tickersByAlert.containsKey(alert.id()) && alert.ticker() != null) {
+                    add(normalize(alert.ticker()), toRule(alert));
+                }
+            }
+            case REARMED -> rearm(alert.id()); // Re-arming an armed rule changes nothing
+            case DELETED -> forget(alert.id());
+        }
+    }
+
+    // Evaluate the rules of every ticker the refresher wrote a new price for, on this node or another one
+    @EventListener
+    public void onPricesChanged(PricesChangedEvent event) {
+        boolean written = !event.relayed(); // The writing node evaluates the same prices and persists the outcome
+        Instant now = Instant.now();
+        List<PriceAlertDto> fired = new ArrayList<>();
+        event.pricesByTicker().forEach((storedTicker, price) -> {
+            String ticker = normalize(storedTicker);
+            AlertBook book = books.get(ticker);
+            if (book == null || price == null) {
+                return; // No alerts on this ticker
+            }
+            synchronized (book) {
+                AlertBook.Transitions transitions = book.onPrice(price, now);
+                if (written) {
+                    for (AlertBook.Rule rule : transitions.changed()) {
+                        pending.put(rule.id(), toDto(rule, ticker));
+                    }
+                }
+                for (AlertBook.Rule rule : transitions.fired()) {
+                    fired.add(toDto(rule, ticker));
+                }
+            }
+        });
+        if (!fired.isEmpty()) {
+            if (written) {
+                firedCounter.increment(fired.size());
+            }
+            eventPublisher.publishEvent(new AlertsTriggeredEvent(List.copyOf(fired))); // Pushed to websocket subscribers
+        }
+    }
+
+    // Follow holdings: deleted positions take their alerts along, renamed ones move them to the new ticker's
+    // book, and a changed buy price moves the trigger price of percent-move alerts
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onHoldingChanged(HoldingChangedEvent event) {
+        StockDto previous = event.previous();
+        StockDto current = event.current();
+        if (previous == null || previous.getId() == null || previous.getTicker() == null) {
+            return; // A new holding has no alerts yet
+        }
+        long stockId = previous.getId();
+        String previousTicker = normalize(previous.getTicker());
+        String currentTicker = current == null || current.getTicker() == null ? null : normalize(current.getTicker());
+        AlertBook book = books.get(previousTicker);
+        if (book == null) {
+            return;
+        }
+
+        if (!previousTicker.equals(currentTicker)) {
+            List<AlertBook.Rule> removed;
+            synchronized (book) {
+                removed = book.removeStock(stockId);
+            }
+            for (AlertBook.Rule rule : removed) {
+                tickersByAlert.remove(rule.id());
+                if (currentTicker != null) {
+                    add(currentTicker, rule);
+                } else {
+                    pending.remove(rule.id()); // The rows went with the position
+                }
+            }
+            book = currentTicker == null ? null : books.get(currentTicker);
+        }
+        if (book != null && current.getBuyPrice() != null && current.getBuyPrice() > 0) {
+            synchronized (book) {
+                book.rebase(stockId, current.getBuyPrice());
+            }
+        }
+    }
+
+    // Method to write the pending state changes in one JDBC batch
+    @Override
+    @Scheduled(fixedDelayString = "${portfolio.alerts.flush-interval:PT5S}")
+    public int flush() {
+        if (pending.isEmpty()) {
+            return 0;
+        }
+        List<PriceAlertDto> batch = new ArrayList<>(pending.size());
+        for (Long alertId : pending.keySet()) {
+            PriceAlertDto alert = pending.remove(alertId); // A change arriving after this point goes out with the next flush
+            if (alert != null) {
+                batch.add(alert);
+            }
+        }
+        try {
+            priceAlertRepository.updateAlertStates(batch);
+            return batch.size();
+        } catch (RuntimeException e) {
+            log.warn("Failed to write {} price alert states, retrying with the next flush: {}", batch.size(), e.getMessage());
+            for (PriceAlertDto alert : batch) {
+                pending.putIfAbsent(alert.id(), alert); // Newer changes win over the failed ones
+            }
+            return 0;
+        }
+    }
+
+    // Write what is still pending before the application stops
+    @PreDestroy
+    public void flushOnShutdown() {
+        flush();
+    }
+
+    // Re-arm a rule in its book, returning its new state or null if no book holds it
+    private PriceAlertDto rearm(long alertId) {
+        String ticker = tickersByAlert.get(alertId);
+        AlertBook book = ticker == null ? null : books.get(ticker);
+        if (book == null) {
+            return null;
+        }
+        synchronized (book) {
+            AlertBook.Rule rule = book.rearm(alertId);
+            return rule == null ? null : toDto(rule, ticker);
+        }
+    }
+
+    // Take a rule out of its book, returning its last state or null if no book held it
+    private PriceAlertDto forget(long alertId) {
+        pending.remove(alertId);
+        String ticker = tickersByAlert.remove(alertId);
+        AlertBook book = ticker == null ? null : books.get(ticker);
+        if (book == null) {
+            return null;
+        }
+        synchronized (book) {
+            AlertBook.Rule rule = book.remove(alertId);
+            return rule == null ? null : toDto(rule, ticker);
+        }
+    }
+
+    private void add(String ticker, AlertBook.Rule rule) {
+        AlertBook book = books.computeIfAbsent(ticker, key -> new AlertBook(rearmBand));
+        synchronized (book) {
+            book.add(rule);
+        }
+        tickersByAlert.put(rule.id(), ticker);
+    }
+
+    private static void validate(PriceAlertDto alert) {
+        if (alert == null || alert.type() == null || alert.threshold() == null || !Double.isFinite(alert.threshold())) {
+            throw new IllegalArgumentException("An alert needs a type (ABOVE, BELOW, PERCENT_MOVE or TRAILING_STOP) and a threshold.");
+        }
+        double threshold = alert.threshold();
+        boolean valid = switch (alert.type()) {
+            case ABOVE, BELOW -> threshold > 0;
+            case PERCENT_MOVE -> threshold != 0 && threshold > -100;
+            case TRAILING_STOP -> threshold > 0 && threshold < 100;
+        };
+        if (!valid) {
+            throw new IllegalArgumentException("Invalid threshold " + threshold + " for a " + alert.type() + " alert.");
+        }
+    }
+
+    // Reference price of a rule: the buy price for percent moves, the stored high-water mark for trailing stops
+    private static double reference(AlertType type, Double buyPrice, Double currentPrice) {
+        Double price = type == AlertType.PERCENT_MOVE && buyPrice != null && buyPrice > 0 ? buyPrice : currentPrice;
+        return price == null ? 0 : price;
+    }
+
+    private static AlertBook.Rule toRule(PriceAlert alert, double reference) {
+        return new AlertBook.Rule(alert.getId(), alert.getPosition().getId(), alert.getType(), alert.getThreshold(),
+                alert.getHighWaterMark() != null ? alert.getHighWaterMark() : reference,
+                alert.getState(), alert.getFiredAt(), alert.getFiredPrice(), alert.getCreatedAt());
+    }
+
+    // Rule of an alert announced by another node, its reference price recovered from the trigger price
+    private static AlertBook.Rule toRule(PriceAlertDto alert) {
+        double reference = switch (alert.type()) {
+            case PERCENT_MOVE -> alert.triggerPrice() / (1 + alert.threshold() / 100);
+            case TRAILING_STOP -> alert.highWaterMark() != null ? alert.highWaterMark() : 0;
+            case ABOVE, BELOW -> 0;
+        };
+        return new AlertBook.Rule(alert.id(), alert.stockId(), alert.type(), alert.threshold(), reference,
+                alert.state(), alert.firedAt(), alert.firedPrice(), alert.createdAt());
+    }
+
+    private static PriceAlertDto toDto(AlertBook.Rule rule, String ticker) {
+        return new PriceAlertDto(rule.id(), rule.stockId(), ticker, rule.type(), rule.threshold(), rule.state(),
+                rule.triggerPrice(), rule.highWaterMark(), rule.firedAt(), rule.firedPrice(), rule.createdAt());
+    }
+
+    private static String normalize(String ticker) {
+        return ticker.trim().toUpperCase();
+    }
+}
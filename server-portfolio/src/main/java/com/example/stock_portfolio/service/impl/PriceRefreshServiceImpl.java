@@ -0,0 +1,222 @@
+package com.example.stock_portfolio.service.impl;
+
+import com.example.stock_portfolio.dto.Quote; // Importing Quote record
+import com.example.stock_portfolio.dto.RefreshReport; // Importing RefreshReport record
+import com.example.stock_portfolio.dto.TimestampedQuote; // Importing TimestampedQuote record for last known quotes
+import com.example.stock_portfolio.event.HoldingChangedEvent; // Importing event published on holding changes
+import com.example.stock_portfolio.event.PricesChangedEvent; // Importing event announcing written prices
+import com.example.stock_portfolio.exception.TwelveDataApiException; // Importing custom exception for Twelve Data API errors
+import com.example.stock_portfolio.repository.StockRepository; // Importing the StockRepository for DB operations
+import com.example.stock_portfolio.service.PriceRefreshService; // Importing PriceRefreshService interface
+import com.example.stock_portfolio.service.QuoteService; // Importing QuoteService for multi-symbol quote requests
+import com.example.stock_portfolio.util.TokenBucketRateLimiter; // Importing the shared rate limiter to size the batches
+
+import io.micrometer.core.instrument.Counter; // Importing Counter for refresh totals
+import io.micrometer.core.instrument.MeterRegistry; // Importing MeterRegistry to register refresh metrics
+import io.micrometer.core.instrument.Timer; // Importing Timer for refresh cycle duration
+
+import lombok.extern.slf4j.Slf4j; // Lombok annotation to generate a logger
+
+import org.springframework.beans.factory.annotation.Qualifier; // Importing Qualifier to select the refresh executor
+import org.springframework.beans.factory.annotation.Value; // Importing annotation to inject values from properties
+import org.springframework.context.ApplicationEventPublisher; // Importing publisher for application events
+import org.springframework.stereotype.Service; // Marking this class as a service
+import org.springframework.transaction.event.TransactionPhase; // Importing TransactionPhase to follow committed changes only
+import org.springframework.transaction.event.TransactionalEventListener; // Importing listener annotation bound to the transaction outcome
+
+import java.io.UncheckedIOException; // Importing UncheckedIOException for retryable I/O failures
+import java.time.Duration; // Importing Duration for the retry backoff
+import java.util.ArrayList; // Importing ArrayList to hold lists of data
+import java.util.HashMap; // Importing HashMap for key-value pairs
+import java.util.HashSet; // Importing HashSet for the held symbols
+import java.util.List; // Importing List for collection of items
+import java.util.Map; // Importing Map for key-value pairs
+import java.util.Set; // Importing Set for the held symbols
+import java.util.concurrent.CompletableFuture; // Importing CompletableFuture to fan batches out
+import java.util.concurrent.ConcurrentHashMap; // Importing ConcurrentHashMap for the last known prices
+import java.util.concurrent.ExecutorService; // Importing ExecutorService for running refresh tasks
+import java.util.concurrent.ThreadLocalRandom; // Importing ThreadLocalRandom for backoff jitter
+import java.util.concurrent.TimeUnit; // Importing TimeUnit for recording the cycle duration
+
+@Slf4j // Lombok annotation to generate a logger for this class
+@Service // Marking this class as a Spring service
+public class PriceRefreshServiceImpl implements PriceRefreshService {
+
+    private final StockRepository stockRepository; // Injecting stock repository for DB operations
+    private final QuoteService quoteService; // Injecting QuoteService for rate-limited multi-symbol quote requests
+    private final ExecutorService refreshExecutor; // Injecting the virtual thread executor for quote requests
+    private final ApplicationEventPublisher eventPublisher; // Injecting publisher to announce written prices
+    private final int batchSize; // Maximum number of symbols per quote request, at most the credits a background request can get
+    private final int maxAttempts; // Number of attempts per batch before it is reported as failed
+    private final Duration initialBackoff; // Delay before the first retry, doubled for every further retry
+    private final Timer refreshTimer; // Duration of each refresh cycle
+    private final Counter symbolsCounter; // Symbols requested across refresh cycles
+    private final Counter failedBatchesCounter; // Batches that failed after all retries
+    private final Counter skippedBatchesCounter; // Batches skipped for lack of spare API credits
+    private final Counter changedSymbolsCounter; // Symbols whose price moved and was written
+    private final Counter updatedRowsCounter; // Holding rows rewritten with a new price
+
+    // Price last written for each stored ticker; tickers missing here are always written on the next cycle
+    private final Map<String, Double> lastKnownPrices = new ConcurrentHashMap<>();
+    // Listing exchange of each refreshed ticker, keyed by upper-case symbol
+    private final Map<String, String> exchanges = new ConcurrentHashMap<>();
+
+    public PriceRefreshServiceImpl(StockRepository stockRepository,
+                                   QuoteService quoteService,
+                                   @Qualifier("refreshExecutor") ExecutorService refreshExecutor,
+                                   ApplicationEventPublisher eventPublisher,
+                                   MeterRegistry meterRegistry,
+                                   TokenBucketRateLimiter rateLimiter,
+                                   @Value("${twelvedata.refresh.batch-size:50}") int batchSize,
+                                   @Value("${twelvedata.refresh.max-attempts:3}") int maxAttempts,
+                                   @Value("${twelvedata.refresh.initial-backoff:PT0.5S}") Duration initialBackoff) {
+        this.stockRepository = stockRepository;
+        this.quoteService = quoteService;
+        this.refreshExecutor = refreshExecutor;
+        this.eventPublisher = eventPublisher;
+        this.batchSize = Math.min(batchSize, rateLimiter.backgroundCapacity()); // A larger batch would never get its credits
+        this.maxAttempts = maxAttempts;
+        this.initialBackoff = initialBackoff;
+        this.refreshTimer = Timer.builder("portfolio.refresh")
+                .description("Duration of a price refresh cycle").register(meterRegistry);
+        this.symbolsCounter = Counter.builder("portfolio.refresh.symbols")
+                .description("Symbols requested by price refresh cycles").register(meterRegistry);
+        this.failedBatchesCounter = Counter.builder("portfolio.refresh.failed.batches")
+                .description("Quote batches that failed after all retries").register(meterRegistry);
+        this.skippedBatchesCounter = Counter.builder("portfolio.refresh.skipped.batches")
+                .description("Quote batches skipped for lack of spare API credits").register(meterRegistry);
+        this.changedSymbolsCounter = Counter.builder("portfolio.refresh.changed.symbols")
+                .description("Symbols whose refreshed price was written").register(meterRegistry);
+        this.updatedRowsCounter = Counter.builder("portfolio.refresh.updated.rows")
+                .description("Holding rows updated by price refresh cycles").register(meterRegistry);
+    }
+
+    // Method to refresh every held ticker, forgetting the state of tickers that are no longer held
+    @Override
+    public RefreshReport refreshPrices() {
+        List<String> tickers = stockRepository.findDistinctTickers(); // Each ticker once, however many holdings share it
+        RefreshReport report = refreshPrices(tickers);
+        lastKnownPrices.keySet().retainAll(tickers); // Forget tickers that are no longer held
+        Set<String> symbols = new HashSet<>();
+        tickers.forEach(ticker -> symbols.add(ticker.trim().toUpperCase()));
+        exchanges.keySet().retainAll(symbols);
+        return report;
+    }
+
+    // Method to refresh prices by fanning batched quote requests out onto virtual threads and writing them back in one JDBC batch.
+    // Batches only spend spare API credits: those that find none are skipped rather than queued ahead of interactive calls.
+    @Override
+    public RefreshReport refreshPrices(List<String> tickers) {
+        long startNanos = System.nanoTime();
+
+        // Start every batch at once; the shared rate limiter decides which of them go out this cycle
+        List<CompletableFuture<Map<String, Quote>>> futures = new ArrayList<>();
+        List<List<String>> batches = new ArrayList<>();
+        for (int from = 0; from < tickers.size(); from += batchSize) {
+            List<String> batch = tickers.subList(from, Math.min(from + batchSize, tickers.size()));
+            batches.add(batch);
+            futures.add(CompletableFuture.supplyAsync(() -> fetchWithRetry(batch), refreshExecutor));
+        }
+
+        Map<String, Double> pricesByTicker = new HashMap<>();
+        List<String> refreshedTickers = new ArrayList<>();
+        int failedBatches = 0;
+        int skippedBatches = 0;
+        for (int i = 0; i < batches.size(); i++) {
+            try {
+                Map<String, Quote> quotes = futures.get(i).join();
+                if (quotes == null) {
+                    skippedBatches++;
+                    continue;
+                }
+                for (String ticker : batches.get(i)) {
+                    Quote quote = quotes.get(ticker.trim().toUpperCase());
+                    if (quote != null) {
+                        refreshedTickers.add(ticker);
+                    }
+                    if (quote != null && quote.exchange() != null) {
+                        exchanges.put(ticker.trim().toUpperCase(), quote.exchange()); // Lets the scheduler follow trading hours
+                    }
+                    // Only prices that moved since the last write are persisted
+                    if (quote != null && !Double.valueOf(quote.close()).equals(lastKnownPrices.get(ticker))) {
+                        pricesByTicker.put(ticker, quote.close()); // Keyed by the stored ticker for the update
+                    }
+                }
+            } catch (Exception e) {
+                failedBatches++;
+                log.warn("Error refreshing prices for tickers {}: {}", batches.get(i), e.getMessage());
+            }
+        }
+
+        int updatedRows = stockRepository.updateCurrentPrices(pricesByTicker); // Single JDBC batch update of changed rows
+        lastKnownPrices.putAll(pricesByTicker); // Remember what was written only once the write succeeded
+        if (!pricesByTicker.isEmpty()) {
+            eventPublisher.publishEvent(new PricesChangedEvent(Map.copyOf(pricesByTicker))); // Notify live subscribers
+        }
+        long durationNanos = System.nanoTime() - startNanos;
+        long durationMillis = durationNanos / 1_000_000;
+        refreshTimer.record(durationNanos, TimeUnit.NANOSECONDS);
+        symbolsCounter.increment(tickers.size());
+        failedBatchesCounter.increment(failedBatches);
+        skippedBatchesCounter.increment(skippedBatches);
+        changedSymbolsCounter.increment(pricesByTicker.size());
+        updatedRowsCounter.increment(updatedRows);
+        return new RefreshReport(tickers.size(), batches.size(), failedBatches, skippedBatches, pricesByTicker.size(),
+                updatedRows, durationMillis, refreshedTickers);
+    }
+
+    // Method to look up the listing exchange of a ticker as reported by its last refreshed quote,
+    // falling back to the last known quote (e.g. restored from the snapshot) before its first refresh
+    @Override
+    public String exchangeOf(String ticker) {
+        String exchange = exchanges.get(ticker.trim().toUpperCase());
+        if (exchange == null) {
+            TimestampedQuote lastKnown = quoteService.getLastKnownQuote(ticker);
+            exchange = lastKnown == null ? null : lastKnown.quote().exchange();
+        }
+        return exchange;
+    }
+
+    // Rows of a ticker whose holdings changed may no longer match the last known price, so rewrite them next cycle
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onHoldingChanged(HoldingChangedEvent event) {
+        if (event.previous() != null && event.previous().getTicker() != null) {
+            lastKnownPrices.remove(event.previous().getTicker());
+        }
+        if (event.current() != null && event.current().getTicker() != null) {
+            lastKnownPrices.remove(event.current().getTicker());
+        }
+    }
+
+    // Fetch a batch, retrying transient failures with exponential backoff and jitter; null if it found no spare credits
+    private Map<String, Quote> fetchWithRetry(List<String> batch) {
+        long backoffMillis = initialBackoff.toMillis();
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return quoteService.tryFetchQuotes(batch).orElse(null); // Bounded by the RestTemplate connect/read timeouts
+            } catch (RuntimeException e) {
+                if (attempt >= maxAttempts || !isRetryable(e)) {
+                    throw e;
+                }
+            }
+
+            try {
+                Thread.sleep(backoffMillis + ThreadLocalRandom.current().nextLong(backoffMillis / 2 + 1));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new TwelveDataApiException(503, "Interrupted while refreshing prices");
+            }
+            backoffMillis *= 2;
+        }
+    }
+
+    // Rate limiting, upstream errors and I/O failures (reported by the client as 500) are worth another attempt;
+    // invalid requests and bugs are rethrown at once
+    private static boolean isRetryable(RuntimeException e) {
+        if (e instanceof TwelveDataApiException apiException) {
+            int statusCode = apiException.getErrorResponse().getStatusCode();
+            return statusCode == 429 || statusCode >= 500;
+        }
+        return e instanceof UncheckedIOException;
+    }
+}
@@ -0,0 +1,161 @@
+package com.example.stock_portfolio.service.impl;
+
+import com.example.stock_portfolio.client.TwelveDataClient; // Importing the Twelve Data API client
+import com.example.stock_portfolio.dto.Quote; // Importing Quote record
+import com.example.stock_portfolio.dto.TimestampedQuote; // Importing TimestampedQuote record for last known quotes
+import com.example.stock_portfolio.service.QuoteService; // Importing QuoteService interface
+
+import com.github.benmanes.caffeine.cache.Cache; // Importing Caffeine cache abstraction
+import com.github.benmanes.caffeine.cache.Caffeine; // Importing Caffeine cache builder
+import com.github.benmanes.caffeine.cache.Expiry; // Importing Expiry for per-entry lifetimes of restored quotes
+
+import io.micrometer.core.instrument.MeterRegistry; // Importing MeterRegistry to publish cache metrics
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics; // Importing binder for Caffeine cache statistics
+
+import org.springframework.beans.factory.annotation.Value; // Importing annotation to inject values from properties
+import org.springframework.stereotype.Service; // Marking this class as a service
+
+import java.time.Duration; // Importing Duration for the cache TTL
+import java.time.Instant; // Importing Instant for fetch times
+import java.util.Collection; // Importing Collection for the last known quotes
+import java.util.List; // Importing List for collection of items
+import java.util.Map; // Importing Map for key-value pairs
+import java.util.Optional; // Importing Optional for requests skipped for lack of API credits
+
+@Service // Marking this class as a Spring service
+public class QuoteServiceImpl implements QuoteService {
+
+    private final TwelveDataClient twelveDataClient; // Injecting the Twelve Data client for upstream calls
+    private final Cache<String, Quote> quoteCache; // Cache of the latest quote per ticker symbol
+    private final Cache<String, TimestampedQuote> lastKnownQuotes; // Last fetched quote per ticker, kept after it expired
+
+    public QuoteServiceImpl(TwelveDataClient twelveDataClient,
+                            MeterRegistry meterRegistry,
+                            @Value("${twelvedata.quote-cache.ttl:PT1M}") Duration ttl,
+                            @Value("${twelvedata.quote-cache.max-size:10000}") long maxSize) {
+        this.twelveDataClient = twelveDataClient;
+        this.quoteCache = Caffeine.newBuilder()
+                .expireAfter(expireAfterWrite(ttl)) // Quotes older than the TTL are fetched again
+                .maximumSize(maxSize) // Least recently used tickers are evicted beyond this size
+                .recordStats() // Hits, misses and evictions
+                .build();
+        this.lastKnownQuotes = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, quoteCache, "twelvedata.quotes"); // Published as cache.gets{cache=twelvedata.quotes,result=hit|miss}
+    }
+
+    // Method to fetch the quote for a ticker, going upstream only on a cache miss
+    @Override
+    public Quote getQuote(String ticker) {
+        // Caffeine computes a missing entry at most once per key, so concurrent misses
+        // for the same ticker wait on a single upstream call instead of issuing their own
+        return quoteCache.get(normalize(ticker), this::fetchQuote);
+    }
+
+    // Method to look up a fresh cached quote without going upstream
+    @Override
+    public Quote getCachedQuote(String ticker) {
+        return quoteCache.getIfPresent(normalize(ticker));
+    }
+
+    // Method to record a quote fetched by the non-blocking client
+    @Override
+    public void remember(Quote quote) {
+        remember(Map.of(normalize(quote.symbol()), quote));
+    }
+
+    // Method to remove a ticker from the cache
+    @Override
+    public void evict(String ticker) {
+        quoteCache.invalidate(normalize(ticker));
+    }
+
+    // Method to look up the last quote fetched for a ticker without going upstream
+    @Override
+    public TimestampedQuote getLastKnownQuote(String ticker) {
+        return lastKnownQuotes.getIfPresent(normalize(ticker));
+    }
+
+    // Method to list the last quote fetched for every ticker seen
+    @Override
+    public Collection<TimestampedQuote> getLastKnownQuotes() {
+        return List.copyOf(lastKnownQuotes.asMap().values());
+    }
+
+    // Method to restore a quote from a snapshot; it serves cached lookups only for the given remaining lifetime
+    @Override
+    public void restore(TimestampedQuote quote, Duration servedFor) {
+        String symbol = normalize(quote.quote().symbol());
+        lastKnownQuotes.asMap().merge(symbol, quote,
+                (current, restored) -> current.fetchedAt().isAfter(restored.fetchedAt()) ? current : restored);
+        if (servedFor.isPositive()) {
+            quoteCache.policy().expireVariably().orElseThrow().putIfAbsent(symbol, quote.quote(), servedFor);
+        }
+    }
+
+    // Method to fetch fresh quotes for several tickers with one multi-symbol request
+    @Override
+    public Map<String, Quote> fetchQuotes(List<String> tickers) {
+        List<String> symbols = tickers.stream().map(QuoteServiceImpl::normalize).distinct().toList();
+        if (symbols.isEmpty()) {
+            return Map.of();
+        }
+
+        return remember(twelveDataClient.quotes(symbols)); // One API call for the whole batch
+    }
+
+    // Method to fetch fresh quotes for several tickers from spare API credits, for background refreshes
+    @Override
+    public Optional<Map<String, Quote>> tryFetchQuotes(List<String> tickers) {
+        List<String> symbols = tickers.stream().map(QuoteServiceImpl::normalize).distinct().toList();
+        if (symbols.isEmpty()) {
+            return Optional.of(Map.of());
+        }
+        return twelveDataClient.tryQuotes(symbols).map(this::remember);
+    }
+
+    // Cache freshly fetched quotes so that they also serve subsequent cached lookups
+    private Map<String, Quote> remember(Map<String, Quote> quotes) {
+        quoteCache.putAll(quotes);
+        Instant fetchedAt = Instant.now();
+        quotes.forEach((symbol, quote) -> lastKnownQuotes.put(symbol, new TimestampedQuote(quote, fetchedAt)));
+        return quotes;
+    }
+
+    // Fetch a quote from Twelve Data API in a single round trip
+    private Quote fetchQuote(String ticker) {
+        Quote quote = twelveDataClient.quote(ticker);
+        lastKnownQuotes.put(ticker, new TimestampedQuote(quote, Instant.now()));
+        return quote;
+    }
+
+    // Fixed lifetime from the last write, like expireAfterWrite, while still allowing restored quotes their own lifetime
+    private static Expiry<String, Quote> expireAfterWrite(Duration ttl) {
+        long ttlNanos = ttl.toNanos();
+        return new Expiry<>() {
+            @Override
+            public long expireAfterCreate(String ticker, Quote quote, long currentTime) {
+                return ttlNanos;
+            }
+
+            @Override
+            public long expireAfterUpdate(String ticker, Quote quote, long currentTime, long currentDuration) {
+                return ttlNanos;
+            }
+
+            @Override
+            public long expireAfterRead(String ticker, Quote quote, long currentTime, long currentDuration) {
+                return currentDuration;
+            }
+        };
+    }
+
+    // Clean up and capitalize the ticker symbol so 'tsla' and 'TSLA ' share one cache entry
+    private static String normalize(String ticker) {
+        if (ticker == null || ticker.isBlank()) {
+            throw new IllegalArgumentException("Ticker symbol must not be empty.");
+        }
+        return ticker.trim().toUpperCase();
+    }
+}
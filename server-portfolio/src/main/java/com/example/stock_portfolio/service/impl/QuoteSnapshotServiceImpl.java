@@ -0,0 +1,139 @@
+package com.example.stock_portfolio.service.impl;
+
+import com.example.stock_portfolio.dto.TimestampedQuote; // Importing TimestampedQuote record for snapshot entries
+import com.example.stock_portfolio.service.QuoteService; // Importing QuoteService that owns the quote cache
+import com.example.stock_portfolio.service.QuoteSnapshotService; // Importing QuoteSnapshotService interface
+import com.example.stock_portfolio.store.QuoteSnapshotStore; // Importing the snapshot file store
+import com.example.stock_portfolio.util.ExchangeCalendar; // Importing ExchangeCalendar to judge restored prices
+
+import jakarta.annotation.PreDestroy; // Importing annotation to save the snapshot on shutdown
+
+import lombok.extern.slf4j.Slf4j; // Lombok annotation to generate a logger
+
+import org.springframework.beans.factory.annotation.Value; // Importing annotation to inject values from properties
+import org.springframework.boot.ApplicationArguments; // Importing ApplicationArguments for the startup runner
+import org.springframework.boot.ApplicationRunner; // Importing ApplicationRunner to warm the cache before readiness
+import org.springframework.scheduling.annotation.Scheduled; // Importing annotation for scheduling tasks
+import org.springframework.stereotype.Service; // Marking this class as a service
+
+import java.io.UncheckedIOException; // Importing UncheckedIOException for snapshot file errors
+import java.time.Duration; // Importing Duration for quote lifetimes
+import java.time.Instant; // Importing Instant for fetch times
+import java.util.List; // Importing List for snapshot entries
+
+// Persists the last known quotes so a restart starts with ticker names and prices instead of an empty cache.
+// The snapshot is restored by an ApplicationRunner, which Spring Boot completes before it reports the
+// application ready, so readiness probes only pass once the cache is warm. Restored quotes always serve as
+// last known quotes; they also serve cached lookups while they are younger than the cache TTL, or, for a
+// market that has closed since they were fetched, until the market opens again.
+@Slf4j // Lombok annotation to generate a logger for this class
+@Service // Marking this class as a Spring service
+public class QuoteSnapshotServiceImpl implements QuoteSnapshotService, ApplicationRunner {
+
+    private final QuoteService quoteService; // Injecting QuoteService that owns the quote cache
+    private final QuoteSnapshotStore snapshotStore; // Injecting the snapshot file store
+    private final ExchangeCalendar exchangeCalendar; // Injecting the trading hours of the listing exchanges
+    private final Duration ttl; // Lifetime of a quote in the cache while its market is open
+    private final Duration maxAge; // Quotes older than this are neither saved nor restored
+
+    private volatile Instant lastSavedFetchedAt = Instant.EPOCH; // Newest fetch time in the snapshot on disk
+
+    public QuoteSnapshotServiceImpl(QuoteService quoteService,
+                                    QuoteSnapshotStore snapshotStore,
+                                    ExchangeCalendar exchangeCalendar,
+                                    @Value("${twelvedata.quote-cache.ttl:PT1M}") Duration ttl,
+                                    @Value("${portfolio.quote-snapshot.max-age:PT168H}") Duration maxAge) {
+        this.quoteService = quoteService;
+        this.snapshotStore = snapshotStore;
+        this.exchangeCalendar = exchangeCalendar;
+        this.ttl = ttl;
+        this.maxAge = maxAge;
+    }
+
+    // Warm the quote cache before the application reports itself ready
+    @Override
+    public void run(ApplicationArguments args) {
+        restore();
+    }
+
+    // Method to restore the snapshot; an unreadable snapshot is logged and the cache starts cold
+    @Override
+    public int restore() {
+        List<TimestampedQuote> quotes;
+        try {
+            quotes = snapshotStore.read();
+        } catch (UncheckedIOException e) {
+            log.warn("Starting with a cold quote cache: {}", e.getMessage());
+            return 0;
+        }
+
+        Instant now = Instant.now();
+        int restored = 0;
+        int served = 0;
+        for (TimestampedQuote quote : quotes) {
+            if (quote.fetchedAt().plus(maxAge).isBefore(now)) {
+                continue; // Too old to be worth anything
+            }
+            Duration servedFor = servedFor(quote, now);
+            quoteService.restore(quote, servedFor);
+            restored++;
+            served += servedFor.isPositive() ? 1 : 0;
+            if (quote.fetchedAt().isAfter(lastSavedFetchedAt)) {
+                lastSavedFetchedAt = quote.fetchedAt();
+            }
+        }
+        log.info("Restored {} quotes from the snapshot, {} of them still current", restored, served);
+        return restored;
+    }
+
+    // Method to write the last known quotes that are not too old
+    @Override
+    public synchronized int save() {
+        Instant cutoff = Instant.now().minus(maxAge);
+        List<TimestampedQuote> quotes = quoteService.getLastKnownQuotes().stream()
+                .filter(quote -> quote.fetchedAt().isAfter(cutoff))
+                .toList();
+        snapshotStore.write(quotes);
+        quotes.stream().map(TimestampedQuote::fetchedAt).max(Instant::compareTo)
+                .ifPresent(newest -> lastSavedFetchedAt = newest);
+        return quotes.size();
+    }
+
+    // Periodically write the snapshot, but only if a quote was fetched since the last write
+    @Scheduled(fixedDelayString = "${portfolio.quote-snapshot.save-interval:PT5M}",
+            initialDelayString = "${portfolio.quote-snapshot.save-interval:PT5M}")
+    public void saveIfChanged() {
+        Instant saved = lastSavedFetchedAt;
+        if (quoteService.getLastKnownQuotes().stream().anyMatch(quote -> quote.fetchedAt().isAfter(saved))) {
+            saveQuietly();
+        }
+    }
+
+    // Write the snapshot once more on shutdown, so a restart picks up everything fetched until now
+    @PreDestroy
+    public void saveOnShutdown() {
+        saveQuietly();
+    }
+
+    private void saveQuietly() {
+        try {
+            int saved = save();
+            log.debug("Saved {} quotes to the snapshot", saved);
+        } catch (UncheckedIOException e) {
+            log.warn("Failed to save the quote snapshot: {}", e.getMessage());
+        }
+    }
+
+    // How long a restored quote may still serve cached lookups
+    Duration servedFor(TimestampedQuote quote, Instant now) {
+        String exchange = quote.quote().exchange();
+        if (exchangeCalendar.isKnown(exchange) && !exchangeCalendar.isOpen(exchange, now)) {
+            Instant previousClose = exchangeCalendar.previousClose(exchange, now);
+            Instant nextOpen = exchangeCalendar.nextOpen(exchange, now);
+            if (previousClose != null && nextOpen != null && !quote.fetchedAt().isBefore(previousClose)) {
+                return Duration.between(now, nextOpen); // The price cannot move before the market opens again
+            }
+        }
+        return ttl.minus(Duration.between(quote.fetchedAt(), now));
+    }
+}
@@ -0,0 +1,193 @@
+package com.example.stock_portfolio.service.impl;
+
+import com.example.stock_portfolio.client.ReactiveTwelveDataClient; // Importing the non-blocking Twelve Data client
+import com.example.stock_portfolio.dto.Quote; // Importing Quote record
+import com.example.stock_portfolio.event.TickerViewedEvent; // Importing event published when a ticker is looked at
+import com.example.stock_portfolio.exception.TwelveDataApiException; // Importing custom exception for Twelve Data API errors
+import com.example.stock_portfolio.service.QuoteService; // Importing QuoteService to share quotes with the blocking stack
+import com.example.stock_portfolio.service.ReactiveStockService; // Importing ReactiveStockService interface
+import com.example.stock_portfolio.store.CandleSeries; // Importing CandleSeries for stored historical data
+import com.example.stock_portfolio.store.CandleStore; // Importing CandleStore for the local time-series store
+
+import com.github.benmanes.caffeine.cache.AsyncCache; // Importing Caffeine's asynchronous cache
+import com.github.benmanes.caffeine.cache.Caffeine; // Importing Caffeine cache builder
+
+import io.micrometer.core.instrument.MeterRegistry; // Importing MeterRegistry to publish cache metrics
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics; // Importing binder for Caffeine cache statistics
+
+import lombok.extern.slf4j.Slf4j; // Lombok annotation to generate a logger
+
+import org.springframework.beans.factory.annotation.Value; // Importing annotation to inject values from properties
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty; // Importing condition to enable the reactive stack by configuration
+import org.springframework.context.ApplicationEventPublisher; // Importing publisher for ticker view events
+import org.springframework.stereotype.Service; // Marking this class as a service
+
+import reactor.core.publisher.Mono; // Importing Mono for asynchronous results
+import reactor.core.scheduler.Schedulers; // Importing Schedulers to keep store I/O off the event loop
+
+import java.time.Duration; // Importing Duration for the cache TTL and candle staleness
+import java.util.Map; // Importing Map for key-value pairs
+import java.util.concurrent.CompletableFuture; // Importing CompletableFuture for shared in-flight fetches
+import java.util.concurrent.ConcurrentHashMap; // Importing ConcurrentHashMap for in-flight tail fetches
+
+// Chart and ticker info lookups on the non-blocking client. Identical concurrent lookups are coalesced:
+// quotes through Caffeine's AsyncCache, which hands every caller of a ticker the same pending future, and
+// candle tail fetches through a map of in-flight futures per ticker and interval. The shared futures run to
+// completion even if the caller that started them goes away, so a cancelled request never fails the others.
+// The AsyncCache only coalesces: it is seeded from QuoteService's cache and fetched quotes are written back, so
+// both stacks spend one credit per ticker and the last known quotes (and their snapshot) include reactive lookups.
+@Slf4j // Lombok annotation to generate a logger for this class
+@Service // Marking this class as a Spring service
+@ConditionalOnProperty(name = "portfolio.reactive.enabled", havingValue = "true") // Only built for the reactive endpoints
+public class ReactiveStockServiceImpl implements ReactiveStockService {
+
+    private static final String HISTORY_INTERVAL = "1h"; // Default candle interval served by the chart endpoint
+    private static final int HISTORY_POINTS = 100; // Default number of candles served by the chart endpoint
+    private static final int MAX_TAIL_POINTS = 5000; // Largest outputsize accepted by Twelve Data
+    private static final int MAX_HISTORY_FETCHES = 3; // Upstream calls one chart request may spend reaching further back
+
+    private final ReactiveTwelveDataClient twelveDataClient; // Injecting the non-blocking Twelve Data client
+    private final QuoteService quoteService; // Injecting the quote cache shared with the blocking service
+    private final CandleStore candleStore; // Injecting the local store of historical candles, shared with the blocking service
+    private final ApplicationEventPublisher eventPublisher; // Injecting publisher for ticker view events
+    private final Duration candleMaxStaleness; // Upper bound on how old the latest stored candle may be
+    private final AsyncCache<String, Quote> quoteCache; // Latest quote per ticker, including pending lookups
+    private final Map<String, CompletableFuture<Void>> tailFetches = new ConcurrentHashMap<>(); // In-flight tail fetches by ticker and interval
+
+    public ReactiveStockServiceImpl(ReactiveTwelveDataClient twelveDataClient,
+                                    QuoteService quoteService,
+                                    CandleStore candleStore,
+                                    ApplicationEventPublisher eventPublisher,
+                                    MeterRegistry meterRegistry,
+                                    @Value("${twelvedata.quote-cache.ttl:PT1M}") Duration ttl,
+                                    @Value("${twelvedata.quote-cache.max-size:10000}") long maxSize,
+                                    @Value("${portfolio.candles.max-staleness:PT15M}") Duration candleMaxStaleness) {
+        this.twelveDataClient = twelveDataClient;
+        this.quoteService = quoteService;
+        this.candleStore = candleStore;
+        this.eventPublisher = eventPublisher;
+        this.candleMaxStaleness = candleMaxStaleness;
+        this.quoteCache = Caffeine.newBuilder()
+                .expireAfterWrite(ttl) // Same policy as the blocking quote cache
+                .maximumSize(maxSize)
+                .recordStats()
+                .buildAsync();
+        CaffeineCacheMetrics.monitor(meterRegistry, quoteCache, "twelvedata.quotes.reactive");
+    }
+
+    // Method to fetch historical data for a stock
+    @Override
+    public Mono<Map<String, Object>> getStockHistoricalData(String ticker) {
+        return getHistoricalCandles(ticker, HISTORY_INTERVAL, HISTORY_POINTS, null, null)
+                .map(series -> StockServiceImpl.processHistoricalData(series, HISTORY_INTERVAL));
+    }
+
+    // Method to fetch a window of historical candles for a stock
+    @Override
+    public Mono<CandleSeries> getHistoricalCandles(String ticker, String interval, int outputsize, String from, String to) {
+        if (outputsize < 1 || outputsize > MAX_TAIL_POINTS) {
+            return Mono.error(new IllegalArgumentException("outputsize must be between 1 and " + MAX_TAIL_POINTS));
+        }
+        String symbol = ticker.trim().toUpperCase(); // Clean up and capitalize ticker symbol
+        viewed(symbol); // Charted tickers are refreshed more often
+        return loadCandles(symbol, interval, outputsize)
+                .flatMap(series -> withEarlierCandles(symbol, interval, outputsize, from, to, series, MAX_HISTORY_FETCHES))
+                .map(series -> StockServiceImpl.window(series, outputsize, from, to));
+    }
+
+    // Method to fetch ticker info for a stock; concurrent lookups of a ticker share one upstream call
+    @Override
+    public Mono<Map<String, Object>> getTickerInfo(String ticker) {
+        String symbol = ticker.trim().toUpperCase(); // Clean up and capitalize ticker symbol
+        viewed(symbol); // Looked-at tickers are refreshed more often
+        CompletableFuture<Quote> quote = quoteCache.get(symbol, (key, executor) -> {
+            Quote cached = quoteService.getCachedQuote(key); // Fetched by the blocking stack or a refresh
+            return cached != null
+                    ? CompletableFuture.completedFuture(cached)
+                    : twelveDataClient.quote(key).doOnNext(quoteService::remember).toFuture();
+        });
+        return Mono.fromFuture(quote, true) // A cancelled caller must not cancel the shared lookup
+                .map(StockServiceImpl::processTickerInfo);
+    }
+
+    // Announce a view like the blocking service does; listeners may relay it over JDBC, so they run off the event loop
+    private void viewed(String symbol) {
+        Schedulers.boundedElastic().schedule(() -> eventPublisher.publishEvent(new TickerViewedEvent(symbol)));
+    }
+
+    // Read candles from the local store, first fetching the missing tail if the stored data is stale
+    private Mono<CandleSeries> loadCandles(String ticker, String interval, int seedPoints) {
+        long maxAgeMillis = Math.min(CandleStore.intervalDuration(interval).toMillis(), candleMaxStaleness.toMillis());
+        Mono<Void> refresh = Mono.empty();
+        if (System.currentTimeMillis() - candleStore.lastFetchedAt(ticker, interval) >= maxAgeMillis) {
+            String key = ticker + "|" + interval;
+            CompletableFuture<Void> fetch = tailFetches.computeIfAbsent(key,
+                    k -> fetchMissingCandles(ticker, interval, seedPoints).toFuture()); // Started now, joined by later callers
+            fetch.whenComplete((ignored, error) -> tailFetches.remove(key, fetch));
+            refresh = Mono.fromFuture(fetch, true);
+        }
+        return refresh.then(Mono.fromCallable(() -> candleStore.read(ticker, interval))
+                .subscribeOn(Schedulers.boundedElastic()));
+    }
+
+    // Fetch the candles before the earliest stored one while the window reaches back further than the store holds
+    private Mono<CandleSeries> withEarlierCandles(String ticker, String interval, int outputsize, String from, String to,
+                                                  CandleSeries stored, int fetchesLeft) {
+        long historyStart = candleStore.historyStart(ticker, interval);
+        if (fetchesLeft == 0 || !StockServiceImpl.needsEarlierCandles(stored, historyStart, outputsize, from, to)) {
+            return Mono.just(stored);
+        }
+        int points = StockServiceImpl.earlierPoints(outputsize, from);
+        return twelveDataClient.timeSeries(ticker, interval, points, from, CandleStore.formatTime(stored.times()[0], interval))
+                .onErrorResume(TwelveDataApiException.class, e -> e.getErrorResponse().getStatusCode() == 400
+                        ? Mono.just(CandleSeries.EMPTY) // "No data is available on the specified dates", nothing earlier upstream
+                        : Mono.error(e))
+                .publishOn(Schedulers.boundedElastic()) // The prepend rewrites the file
+                .map(fetched -> {
+                    synchronized (candleStore.fetchLock(ticker, interval)) { // Serialized with blocking fetches of the same series
+                        candleStore.prepend(ticker, interval, fetched.times(), fetched.closes(), fetched.size());
+                        if (fetched.size() < points) { // A short answer holds everything back to the requested start
+                            candleStore.extendHistory(ticker, interval, from == null ? Long.MIN_VALUE : CandleStore.parseTime(from));
+                        }
+                    }
+                    return candleStore.read(ticker, interval);
+                })
+                .flatMap(updated -> candleStore.historyStart(ticker, interval) == historyStart
+                        ? Mono.just(updated)
+                        : withEarlierCandles(ticker, interval, outputsize, from, to, updated, fetchesLeft - 1))
+                .onErrorResume(TwelveDataApiException.class, e -> {
+                    log.warn("Serving stored candles for {} after failed history fetch: {}", ticker, e.getMessage());
+                    return Mono.just(stored);
+                });
+    }
+
+    // Fetch only the candles after the latest stored one and append them to the store
+    private Mono<Void> fetchMissingCandles(String ticker, String interval, int seedPoints) {
+        return Mono.fromCallable(() -> candleStore.read(ticker, interval))
+                .subscribeOn(Schedulers.boundedElastic())
+                .flatMap(stored -> (stored.size() == 0
+                        ? twelveDataClient.timeSeries(ticker, interval, seedPoints, null) // Nothing stored yet, seed the requested chart window
+                        // Start at the latest stored candle so that its still-forming close gets updated too
+                        : twelveDataClient.timeSeries(ticker, interval, MAX_TAIL_POINTS, CandleStore.formatTime(stored.lastTime(), interval)))
+                        .publishOn(Schedulers.boundedElastic()) // The append writes to disk
+                        .doOnNext(fetched -> {
+                            synchronized (candleStore.fetchLock(ticker, interval)) { // Serialized with blocking fetches of the same series
+                                candleStore.append(ticker, interval, fetched.times(), fetched.closes(), fetched.size());
+                                candleStore.markFetched(ticker, interval);
+                                if (stored.size() == 0 && fetched.size() < seedPoints) {
+                                    candleStore.extendHistory(ticker, interval, Long.MIN_VALUE); // The seed holds the whole upstream history
+                                }
+                            }
+                        })
+                        .then()
+                        .onErrorResume(TwelveDataApiException.class, e -> {
+                            if (stored.size() == 0) {
+                                return Mono.error(e);
+                            }
+                            // Keep serving the stored candles; "no data" for an up-to-date tail lands here as well
+                            log.warn("Serving stored candles for {} after failed tail fetch: {}", ticker, e.getMessage());
+                            candleStore.markFetched(ticker, interval);
+                            return Mono.empty();
+                        }));
+    }
+}
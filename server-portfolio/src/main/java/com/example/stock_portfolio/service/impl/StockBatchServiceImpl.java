@@ -0,0 +1,217 @@
+package com.example.stock_portfolio.service.impl;
+
+import com.example.stock_portfolio.dto.BatchCreateReport; // Importing BatchCreateReport record
+import com.example.stock_portfolio.dto.BatchRowResult; // Importing BatchRowResult record
+import com.example.stock_portfolio.dto.Quote; // Importing Quote record
+import com.example.stock_portfolio.dto.StockDto; // Importing StockDto class
+import com.example.stock_portfolio.entity.Portfolio; // Importing Portfolio entity
+import com.example.stock_portfolio.entity.Stocks; // Importing Stocks entity
+import com.example.stock_portfolio.event.HoldingChangedEvent; // Importing event published on holding changes
+import com.example.stock_portfolio.exception.TwelveDataApiException; // Importing custom exception for Twelve Data API errors
+import com.example.stock_portfolio.mapper.StockMapper; // Importing the StockMapper for entity-DTO conversion
+import com.example.stock_portfolio.repository.PortfolioRepository; // Importing the PortfolioRepository for DB operations
+import com.example.stock_portfolio.repository.StockRepository; // Importing the StockRepository for DB operations
+import com.example.stock_portfolio.service.QuoteService; // Importing QuoteService for multi-symbol quote requests
+import com.example.stock_portfolio.service.StockBatchService; // Importing StockBatchService interface
+import com.example.stock_portfolio.util.TokenBucketRateLimiter; // Importing the shared rate limiter to size the batches
+
+import lombok.extern.slf4j.Slf4j; // Lombok annotation to generate a logger
+
+import org.springframework.beans.factory.annotation.Qualifier; // Importing Qualifier to select the refresh executor
+import org.springframework.beans.factory.annotation.Value; // Importing annotation to inject values from properties
+import org.springframework.context.ApplicationEventPublisher; // Importing publisher for application events
+import org.springframework.dao.DataIntegrityViolationException; // Importing exception for a holding inserted concurrently
+import org.springframework.stereotype.Service; // Marking this class as a service
+
+import java.util.ArrayList; // Importing ArrayList to hold lists of data
+import java.util.Arrays; // Importing Arrays to expose the results as a list
+import java.util.HashMap; // Importing HashMap for key-value pairs
+import java.util.HashSet; // Importing HashSet for duplicate detection
+import java.util.LinkedHashSet; // Importing LinkedHashSet to keep tickers in request order
+import java.util.List; // Importing List for collection of items
+import java.util.Map; // Importing Map for key-value pairs
+import java.util.Optional; // Importing Optional for batches skipped for lack of API credits
+import java.util.Set; // Importing Set for duplicate detection
+import java.util.concurrent.CompletableFuture; // Importing CompletableFuture to fan batches out
+import java.util.concurrent.CompletionException; // Importing CompletionException to unwrap batch failures
+import java.util.concurrent.ExecutorService; // Importing ExecutorService for running quote requests
+
+@Slf4j // Lombok annotation to generate a logger for this class
+@Service // Marking this class as a Spring service
+public class StockBatchServiceImpl implements StockBatchService {
+
+    private static final int MAX_ROWS = 10_000; // Upper bound for one import request
+
+    private final StockRepository stockRepository; // Injecting stock repository for DB operations
+    private final PortfolioRepository portfolioRepository; // Injecting portfolio repository to check portfolios
+    private final QuoteService quoteService; // Injecting QuoteService for rate-limited multi-symbol quote requests
+    private final ExecutorService refreshExecutor; // Injecting the virtual thread executor for quote requests
+    private final ApplicationEventPublisher eventPublisher; // Injecting publisher to announce new holdings
+    private final int batchSize; // Maximum number of symbols per quote request
+
+    public StockBatchServiceImpl(StockRepository stockRepository,
+                                 PortfolioRepository portfolioRepository,
+                                 QuoteService quoteService,
+                                 @Qualifier("refreshExecutor") ExecutorService refreshExecutor,
+                                 ApplicationEventPublisher eventPublisher,
+                                 TokenBucketRateLimiter rateLimiter,
+                                 @Value("${twelvedata.refresh.batch-size:50}") int batchSize) {
+        this.stockRepository = stockRepository;
+        this.portfolioRepository = portfolioRepository;
+        this.quoteService = quoteService;
+        this.refreshExecutor = refreshExecutor;
+        this.eventPublisher = eventPublisher;
+        this.batchSize = Math.min(batchSize, rateLimiter.backgroundCapacity()); // A larger batch would never get its credits
+    }
+
+    // Method to validate every row, look all new tickers up with concurrent multi-symbol quote requests and
+    // insert the valid rows with one JDBC batch per table. Lookups only spend the credits available right now,
+    // leaving the interactive reserve alone; rows whose batch got none fail with a retryable ERROR
+    @Override
+    public BatchCreateReport createStocks(List<StockDto> rows) {
+        if (rows == null || rows.isEmpty() || rows.size() > MAX_ROWS) {
+            throw new IllegalArgumentException("A batch must contain between 1 and " + MAX_ROWS + " rows.");
+        }
+        BatchRowResult[] results = new BatchRowResult[rows.size()];
+        String[] tickers = new String[rows.size()];
+
+        // Row checks that need no lookups
+        Set<Long> portfolioIds = new HashSet<>();
+        for (int i = 0; i < rows.size(); i++) {
+            StockDto row = rows.get(i);
+            if (row == null || row.getTicker() == null || row.getTicker().isBlank()) {
+                results[i] = failure(i, null, BatchRowResult.Status.INVALID, "Ticker symbol must not be empty.");
+                continue;
+            }
+            tickers[i] = row.getTicker().trim().toUpperCase(); // Clean up and capitalize ticker symbol
+            if (row.getPortfolioId() != null) {
+                portfolioIds.add(row.getPortfolioId());
+            }
+        }
+
+        // Unknown portfolios and duplicates, each with one query
+        Map<Long, Portfolio> portfolios = new HashMap<>();
+        portfolioRepository.findAllById(portfolioIds).forEach(portfolio -> portfolios.put(portfolio.getId(), portfolio));
+        Set<String> held = new HashSet<>();
+        Set<String> requestedTickers = new LinkedHashSet<>();
+        for (int i = 0; i < rows.size(); i++) {
+            if (results[i] == null) {
+                requestedTickers.add(tickers[i]);
+            }
+        }
+        if (!requestedTickers.isEmpty()) {
+            for (Object[] pair : stockRepository.findPortfolioTickerPairs(requestedTickers)) {
+                held.add(holdingKey((Long) pair[0], (String) pair[1]));
+            }
+        }
+        Set<String> lookups = new LinkedHashSet<>();
+        for (int i = 0; i < rows.size(); i++) {
+            if (results[i] != null) {
+                continue;
+            }
+            Long portfolioId = rows.get(i).getPortfolioId();
+            if (portfolioId != null && !portfolios.containsKey(portfolioId)) {
+                results[i] = failure(i, tickers[i], BatchRowResult.Status.INVALID, "Portfolio does not exist for the given id: " + portfolioId);
+            } else if (!held.add(holdingKey(portfolioId, tickers[i]))) { // Also catches repeats within the request
+                results[i] = failure(i, tickers[i], BatchRowResult.Status.DUPLICATE,
+                        (portfolioId == null ? "The holdings" : "Portfolio " + portfolioId) + " already hold " + tickers[i] + ".");
+            } else {
+                lookups.add(tickers[i]);
+            }
+        }
+
+        // Validate the remaining tickers and fetch their prices through the shared rate limiter; unknown tickers are
+        // left out of the answers. The symbol directory is not consulted: it covers only the synced exchanges,
+        // and checking the tickers it lacks one by one would spend the same credits without batching
+        Map<String, Quote> quotes = new HashMap<>();
+        Map<String, String> lookupErrors = new HashMap<>();
+        fetchQuotes(new ArrayList<>(lookups), quotes, lookupErrors);
+
+        List<Stocks> positions = new ArrayList<>();
+        List<Integer> positionRows = new ArrayList<>();
+        for (int i = 0; i < rows.size(); i++) {
+            if (results[i] != null) {
+                continue;
+            }
+            String ticker = tickers[i];
+            if (lookupErrors.containsKey(ticker)) {
+                results[i] = failure(i, ticker, BatchRowResult.Status.ERROR, lookupErrors.get(ticker));
+                continue;
+            }
+            Quote quote = quotes.get(ticker);
+            if (quote == null || quote.name() == null || quote.name().isEmpty()) {
+                results[i] = failure(i, ticker, BatchRowResult.Status.INVALID_TICKER,
+                        "The stock ticker " + ticker + " is not valid or could not be found.");
+                continue;
+            }
+
+            // Same defaults as a single create: one share at the latest close, booked as the opening lot
+            StockDto row = rows.get(i);
+            long quantity = row.getQuantity() == null || row.getQuantity() < 1 ? 1L : row.getQuantity();
+            double buyPrice = row.getBuyPrice() == null || !(row.getBuyPrice() > 0) ? quote.close() : row.getBuyPrice();
+            positions.add(new Stocks(null, quote.name(), ticker, quantity, buyPrice, quote.close(),
+                    row.getPortfolioId() == null ? null : portfolios.get(row.getPortfolioId()), quantity * buyPrice, 0.0));
+            positionRows.add(i);
+        }
+
+        try {
+            stockRepository.insertOpenedPositions(positions); // One JDBC batch per table for all valid rows
+        } catch (DataIntegrityViolationException e) {
+            // A concurrent request added one of these holdings after the duplicate check; nothing was inserted
+            throw new IllegalArgumentException("A portfolio already holds one of the tickers of this batch; "
+                    + "retry to see which rows are duplicates.");
+        }
+        for (int j = 0; j < positions.size(); j++) {
+            StockDto created = StockMapper.mapToStockDto(positions.get(j));
+            int i = positionRows.get(j);
+            results[i] = new BatchRowResult(i, created.getTicker(), BatchRowResult.Status.CREATED, created, null);
+            eventPublisher.publishEvent(new HoldingChangedEvent(null, created)); // Announce the new holding
+        }
+        return new BatchCreateReport(positions.size(), rows.size() - positions.size(), Arrays.asList(results));
+    }
+
+    // Fetch quotes for the tickers in concurrent multi-symbol batches from spare credits; tickers of failed or
+    // skipped batches get an error message
+    private void fetchQuotes(List<String> tickers, Map<String, Quote> quotes, Map<String, String> errors) {
+        List<List<String>> batches = new ArrayList<>();
+        List<CompletableFuture<Optional<Map<String, Quote>>>> futures = new ArrayList<>();
+        for (int from = 0; from < tickers.size(); from += batchSize) {
+            List<String> batch = tickers.subList(from, Math.min(from + batchSize, tickers.size()));
+            batches.add(batch);
+            futures.add(CompletableFuture.supplyAsync(() -> quoteService.tryFetchQuotes(batch), refreshExecutor));
+        }
+
+        for (int i = 0; i < batches.size(); i++) {
+            List<String> batch = batches.get(i);
+            try {
+                Optional<Map<String, Quote>> fetched = futures.get(i).join();
+                if (fetched.isPresent()) {
+                    quotes.putAll(fetched.get());
+                } else { // Never waits for credits, so a large import cannot starve interactive calls
+                    batch.forEach(ticker -> errors.put(ticker, "No API credits are available right now; retry this row in a minute."));
+                }
+            } catch (CompletionException e) {
+                Throwable cause = e.getCause();
+                // A single-symbol request reports an unknown ticker as a client error; leave it out so the row is invalid
+                if (batch.size() == 1 && cause instanceof TwelveDataApiException apiError && isUnknownSymbol(apiError)) {
+                    continue;
+                }
+                log.warn("Error validating tickers {}: {}", batch, cause.getMessage());
+                batch.forEach(ticker -> errors.put(ticker, "Quote lookup failed: " + cause.getMessage()));
+            }
+        }
+    }
+
+    private static boolean isUnknownSymbol(TwelveDataApiException e) {
+        int status = e.getErrorResponse().getStatusCode();
+        return status == 400 || status == 404;
+    }
+
+    private static String holdingKey(Long portfolioId, String ticker) {
+        return portfolioId + ":" + ticker; // "null:TSLA" for holdings outside any portfolio
+    }
+
+    private static BatchRowResult failure(int row, String ticker, BatchRowResult.Status status, String message) {
+        return new BatchRowResult(row, ticker, status, null, message);
+    }
+}
@@ -1,101 +1,111 @@
 package com.example.stock_portfolio.service.impl;
 
+import com.example.stock_portfolio.client.TwelveDataClient; // Importing the Twelve Data API client
+import com.example.stock_portfolio.dto.Quote; // Importing Quote record
 import com.example.stock_portfolio.dto.StockDto; // Importing StockDto class
+import com.example.stock_portfolio.dto.TradeDto; // Importing TradeDto record for opening and adjusting trades
 import com.example.stock_portfolio.entity.Stocks; // Importing Stocks entity class
+import com.example.stock_portfolio.entity.TradeSide; // Importing TradeSide enum
+import com.example.stock_portfolio.event.HoldingChangedEvent; // Importing event published on holding changes
+import com.example.stock_portfolio.event.TickerViewedEvent; // Importing event published when a ticker is looked at
 import com.example.stock_portfolio.exception.ResourceNotFoundException; // Importing custom exception for resource not found
 import com.example.stock_portfolio.exception.TwelveDataApiException; // Importing custom exception for Twelve Data API errors
 import com.example.stock_portfolio.mapper.StockMapper; // Importing the StockMapper for entity-DTO conversion
+import com.example.stock_portfolio.repository.PortfolioRepository; // Importing the PortfolioRepository to resolve position owners
 import com.example.stock_portfolio.repository.StockRepository; // Importing the StockRepository for DB operations
+import com.example.stock_portfolio.service.QuoteService; // Importing QuoteService for cached quote lookups
 import com.example.stock_portfolio.service.StockService; // Importing StockService interface
+import com.example.stock_portfolio.service.SymbolService; // Importing SymbolService to validate tickers locally
+import com.example.stock_portfolio.service.TradeService; // Importing TradeService to book quantity changes in the ledger
+import com.example.stock_portfolio.store.CandleSeries; // Importing CandleSeries for stored historical data
+import com.example.stock_portfolio.store.CandleStore; // Importing CandleStore for the local time-series store
 
 import lombok.AllArgsConstructor; // Lombok annotation for constructor injection
+import lombok.extern.slf4j.Slf4j; // Lombok annotation to generate a logger
 
+import org.springframework.context.ApplicationEventPublisher; // Importing publisher for application events
+import org.springframework.dao.DataIntegrityViolationException; // Importing exception for a holding inserted concurrently
+import org.springframework.data.domain.Page; // Importing Page for paged results
+import org.springframework.data.domain.Pageable; // Importing Pageable for page, size and sort parameters
 import org.springframework.stereotype.Service; // Marking this class as a service
-import org.springframework.web.client.RestTemplate; // Importing RestTemplate for making API calls
+import org.springframework.transaction.annotation.Transactional; // Importing Transactional so a position and its first trade commit together
 import org.springframework.beans.factory.annotation.Value; // Importing annotation to inject values from properties
-import org.springframework.http.ResponseEntity; // Importing ResponseEntity for HTTP responses
-
-import com.fasterxml.jackson.databind.JsonNode; // Importing JsonNode for parsing JSON data
-import com.fasterxml.jackson.databind.ObjectMapper; // Importing ObjectMapper for converting JSON to objects
 
+import java.time.Duration; // Importing Duration for candle staleness
 import java.util.ArrayList; // Importing ArrayList to hold lists of data
 import java.util.HashMap; // Importing HashMap for key-value pairs
 import java.util.List; // Importing List for collection of items
 import java.util.Map; // Importing Map for key-value pairs
-import java.util.stream.Collectors; // Importing Collectors for stream operations
-
-import org.springframework.scheduling.annotation.Scheduled; // Importing annotation for scheduling tasks
 
+@Slf4j // Lombok annotation to generate a logger for this class
 @Service // Marking this class as a Spring service
 @AllArgsConstructor // Lombok annotation to generate a constructor with all arguments
 public class StockServiceImpl implements StockService {
 
-    private final StockRepository stockRepository; // Injecting stock repository for DB operations
-    private final RestTemplate restTemplate; // Injecting RestTemplate for API calls
+    private static final String HISTORY_INTERVAL = "1h"; // Default candle interval served by the chart endpoint
+    private static final int HISTORY_POINTS = 100; // Default number of candles served by the chart endpoint
+    private static final int MAX_TAIL_POINTS = 5000; // Largest outputsize accepted by Twelve Data
+    private static final int MAX_HISTORY_FETCHES = 3; // Upstream calls one chart request may spend reaching further back
 
-    // Inject API Key for Twelve Data
-    @Value("${TWELVE_DATA_API_KEY}")
-    private final String apiKey; // API key for accessing Twelve Data API
+    private final StockRepository stockRepository; // Injecting stock repository for DB operations
+    private final PortfolioRepository portfolioRepository; // Injecting portfolio repository to attach positions to portfolios
+    private final TradeService tradeService; // Injecting the trade ledger that owns quantity and cost basis
+    private final TwelveDataClient twelveDataClient; // Injecting the Twelve Data client for time series requests
+    private final QuoteService quoteService; // Injecting QuoteService for cached quote lookups
+    private final SymbolService symbolService; // Injecting the local symbol directory to reject unknown tickers
+    private final ApplicationEventPublisher eventPublisher; // Injecting publisher to announce holding changes and ticker views
+    private final CandleStore candleStore; // Injecting the local store of historical candles
+
+    // Upper bound on how old the latest stored candle may be before the tail is fetched again
+    @Value("${portfolio.candles.max-staleness:PT15M}")
+    private final Duration candleMaxStaleness;
 
     // Method to create a new stock
     @Override
+    @Transactional
     public StockDto createStock(StockDto stockDto) {
         String ticker = stockDto.getTicker().trim().toUpperCase(); // Clean up and capitalize ticker symbol
-        String stockName = getStockNameByTicker(ticker); // Get stock name using ticker
+        if (!symbolService.isListed(ticker)) { // Typos are rejected without spending an API credit
+            throw new IllegalArgumentException("The stock ticker " + ticker + " is not valid or could not be found.");
+        }
+        Quote quote = quoteService.getQuote(ticker); // Get stock name and price in a single lookup
+        String stockName = quote.name();
         if (stockName == null || stockName.isEmpty()) {
             throw new IllegalArgumentException("The stock ticker " + ticker + " is not valid or could not be found.");
         }
-        double buyPrice = getStockBuyPriceByTicker(ticker); // Get stock buy price using ticker
+        long quantity = stockDto.getQuantity() == null || stockDto.getQuantity() < 1 ? 1L : stockDto.getQuantity(); // Default to a single share
+        double buyPrice = stockDto.getBuyPrice() == null || !(stockDto.getBuyPrice() > 0)
+                ? quote.close() : stockDto.getBuyPrice(); // Default to the latest close
 
         stockDto.setStockName(stockName); // Set the stock name
-        stockDto.setBuyPrice(buyPrice); // Set the buy price
-        stockDto.setCurrentPrice(buyPrice); // Set the current price to the buy price initially
-        stockDto.setQuantity(1L); // Set default quantity
+        stockDto.setCurrentPrice(quote.close()); // Set the current price to the latest close
+        stockDto.setQuantity(0L); // Quantity and cost are derived from the opening trade below
+        stockDto.setBuyPrice(0.0);
+        stockDto.setCostBasis(0.0);
+        stockDto.setRealizedPnl(0.0);
 
         Stocks stock = StockMapper.mapToStock(stockDto); // Convert DTO to entity
-        Stocks savedStock = stockRepository.save(stock); // Save the stock to the DB
-        return StockMapper.mapToStockDto(savedStock); // Return saved stock as DTO
-    }
-
-    // Fetch stock name from Twelve Data API using the ticker symbol
-    private String getStockNameByTicker(String ticker) {
-        String apiUrl = "https://api.twelvedata.com/quote?symbol=" + ticker +
-                "&apikey=" + apiKey; // Construct API URL
-        try {
-            ResponseEntity<String> response = restTemplate.getForEntity(apiUrl, String.class); // API call
-            String responseBody = response.getBody(); // Get response body
-
-            // Check if the response status code is 500 or if there are any issues with the data
-            if (response.getStatusCode().value() == 400) {
-                // Custom error handling when server responds with a 500 error (invalid ticker or internal error)
-                throw new IllegalArgumentException("Invalid ticker name, please insert a valid one.");
+        if (stockDto.getPortfolioId() != null) {
+            Long portfolioId = stockDto.getPortfolioId();
+            if (!portfolioRepository.existsById(portfolioId)) {
+                throw new ResourceNotFoundException("Portfolio does not exist for the given id: " + portfolioId);
             }
-            ObjectMapper objectMapper = new ObjectMapper(); // Initialize ObjectMapper
-            JsonNode jsonNode = objectMapper.readTree(responseBody); // Parse JSON response
-            // Check if the API response contains an error (invalid ticker)
-            if (jsonNode.has("code") && jsonNode.get("code").asInt() != 200) {
-                throw new IllegalArgumentException("Invalid ticker name, please insert a valid one.");
+            if (stockRepository.findByPortfolioIdAndTicker(portfolioId, ticker).isPresent()) {
+                throw new IllegalArgumentException("Portfolio " + portfolioId + " already holds " + ticker + ".");
             }
-            return jsonNode.path("name").asText(); // Extract stock name from JSON
-        } catch (Exception e) {
-            throw new RuntimeException("Error fetching stock name", e); // Handle errors
+            stock.setPortfolio(portfolioRepository.getReferenceById(portfolioId)); // Reference only, no select
         }
-    }
-
-    // Fetch stock buy price from Twelve Data API using the ticker symbol
-    private double getStockBuyPriceByTicker(String ticker) {
-        String apiUrl = "https://api.twelvedata.com/quote?symbol=" + ticker +
-                "&apikey=" + apiKey; // Construct API URL
+        Stocks savedStock;
         try {
-            ResponseEntity<String> response = restTemplate.getForEntity(apiUrl, String.class); // API call
-            String responseBody = response.getBody(); // Get response body
-
-            ObjectMapper objectMapper = new ObjectMapper(); // Initialize ObjectMapper
-            JsonNode jsonNode = objectMapper.readTree(responseBody); // Parse JSON response
-            return jsonNode.path("close").asDouble(); // Extract close price from JSON
-        } catch (Exception e) {
-            throw new RuntimeException("Error fetching stock buy price", e); // Handle errors
+            savedStock = stockRepository.save(stock); // Save the stock to the DB; the identity insert runs right away
+        } catch (DataIntegrityViolationException e) {
+            // A concurrent request added the same holding between the check above and this insert
+            throw new IllegalArgumentException("Portfolio " + stockDto.getPortfolioId() + " already holds " + ticker + ".");
         }
+
+        // The opening position is the first trade of the ledger; recording it announces the new holding
+        return tradeService.recordTrade(savedStock.getId(),
+                new TradeDto(null, null, ticker, TradeSide.BUY, quantity, buyPrice, null));
     }
 
     // Method to fetch stock by ID
@@ -109,30 +119,77 @@ public class StockServiceImpl implements StockService {
     // Method to fetch all stocks
     @Override
     public List<StockDto> getAllStocks() {
-        List<Stocks> stocks = stockRepository.findAll(); // Fetch all stocks from DB
-        return stocks.stream().map(StockMapper::mapToStockDto).collect(Collectors.toList()); // Convert entities to DTOs
+        return stockRepository.findAllStockDtos(Pageable.unpaged()).getContent(); // Fetch all stocks as DTOs from DB
+    }
+
+    // Method to fetch one page of stocks
+    @Override
+    public Page<StockDto> getStocks(Pageable pageable) {
+        return stockRepository.findAllStockDtos(pageable); // Projected straight into DTOs by the query
+    }
+
+    // Method to fetch one page of the positions of a portfolio
+    @Override
+    public Page<StockDto> getPortfolioStocks(Long portfolioId, Pageable pageable) {
+        if (!portfolioRepository.existsById(portfolioId)) {
+            throw new ResourceNotFoundException("Portfolio does not exist for the given id: " + portfolioId);
+        }
+        return stockRepository.findByPortfolioId(portfolioId, pageable).map(StockMapper::mapToStockDto);
     }
 
     // Method to update stock details
     @Override
+    @Transactional
     public StockDto updateStock(Long stockId, StockDto updatedStock) {
         Stocks existingStock = stockRepository.findById(stockId)
                 .orElseThrow(() -> new ResourceNotFoundException("Stock does not exist with the given id: " + stockId)); // Handle resource not found
+        StockDto previousStock = StockMapper.mapToStockDto(existingStock); // Snapshot before the update
+
+        String ticker = updatedStock.getTicker().trim().toUpperCase(); // Clean up and capitalize ticker symbol
+        long held = existingStock.getQuantity() == null ? 0 : existingStock.getQuantity();
+        Long quantity = updatedStock.getQuantity();
+        if (quantity != null && quantity < 0) {
+            throw new IllegalArgumentException("Quantity must not be negative.");
+        }
+        boolean tickerChanged = !ticker.equals(existingStock.getTicker());
+        if (tickerChanged && held > 0) {
+            // The open lots, cost basis and trades belong to the security they were bought in
+            throw new IllegalArgumentException("Sell all " + held + " shares of " + existingStock.getTicker()
+                    + " before changing the ticker to " + ticker + ".");
+        }
+        Quote quote = quoteService.getQuote(ticker); // Fetch stock name and buy price in a single lookup
+        String stockName = quote.name();
 
-        String ticker = updatedStock.getTicker(); // Get ticker
-        String stockName = getStockNameByTicker(ticker); // Fetch stock name
-        double buyPrice = getStockBuyPriceByTicker(ticker); // Fetch buy price
+        if (existingStock.getPortfolio() != null && tickerChanged) {
+            Long portfolioId = existingStock.getPortfolio().getId();
+            if (stockRepository.findByPortfolioIdAndTicker(portfolioId, ticker).isPresent()) {
+                throw new IllegalArgumentException("Portfolio " + portfolioId + " already holds " + ticker + ".");
+            }
+        }
 
-        // Update stock details
+        // Update stock details; quantity and cost basis belong to the trade ledger
         existingStock.setTicker(ticker);
         existingStock.setStockName(stockName);
-        existingStock.setBuyPrice(buyPrice);
-        existingStock.setCurrentPrice(buyPrice);
-        existingStock.setQuantity(1L); // Ensuring quantity remains 1
+        existingStock.setCurrentPrice(quote.close());
 
-        Stocks updatedStockObj = stockRepository.save(existingStock); // Save updated stock to DB
+        Stocks updatedStockObj;
+        try {
+            updatedStockObj = stockRepository.saveAndFlush(existingStock); // Flushed so that a ticker clash surfaces here
+        } catch (DataIntegrityViolationException e) {
+            // A concurrent request added the same holding between the check above and this update
+            throw new IllegalArgumentException("Portfolio " + existingStock.getPortfolio().getId() + " already holds " + ticker + ".");
+        }
 
-        return StockMapper.mapToStockDto(updatedStockObj); // Return updated stock as DTO
+        // An edited quantity is booked as a trade of the difference at the latest close, 0 selling the whole position;
+        // the trade announces the whole update as one holding change
+        if (quantity != null && quantity != held) {
+            TradeSide side = quantity > held ? TradeSide.BUY : TradeSide.SELL;
+            return tradeService.recordTrade(stockId,
+                    new TradeDto(null, null, ticker, side, Math.abs(quantity - held), quote.close(), null), previousStock);
+        }
+        StockDto updatedStockDto = StockMapper.mapToStockDto(updatedStockObj);
+        eventPublisher.publishEvent(new HoldingChangedEvent(previousStock, updatedStockDto)); // Announce the updated holding
+        return updatedStockDto; // Return updated stock as DTO
     }
 
     // Method to delete stock
@@ -141,68 +198,143 @@ public class StockServiceImpl implements StockService {
         Stocks stock = stockRepository.findById(stockId)
                 .orElseThrow(() -> new ResourceNotFoundException("Stock does not exist with the given id: " + stockId)); // Handle resource not found
         stockRepository.delete(stock); // Delete stock from DB
+        eventPublisher.publishEvent(new HoldingChangedEvent(StockMapper.mapToStockDto(stock), null)); // Announce the removed holding
     }
 
-    // Scheduled task to update stock prices every 10 minutes
-    @Scheduled(fixedRate = 600000) // Run every 10 minutes
-    public void updateStockPrices() {
-        List<Stocks> stocksList = stockRepository.findAll(); // Fetch all stocks from DB
-    
-        for (Stocks stock : stocksList) {
-            String ticker = stock.getTicker(); // Get ticker
-            String apiUrl = "https://api.twelvedata.com/quote?symbol=" + ticker + "&apikey=" + apiKey; // API URL
-    
-            try {
-                ResponseEntity<String> response = restTemplate.getForEntity(apiUrl, String.class); // API call
-                String responseBody = response.getBody(); // Get response body
-    
-                ObjectMapper objectMapper = new ObjectMapper(); // Initialize ObjectMapper
-                JsonNode jsonNode = objectMapper.readTree(responseBody); // Parse JSON response
-                double currentPrice = jsonNode.path("close").asDouble(); // Extract current price from JSON
-    
-                // Update the stock entity with the new price
-                stock.setCurrentPrice(currentPrice);
-                stockRepository.save(stock); // Save updated stock entity to the database
-    
-                System.out.println("Updated stock: " + ticker + " with price: " + currentPrice); // Log updated stock info
-            } catch (Exception e) {
-                System.err.println("Error updating stock price for ticker: " + ticker); // Handle error
-                e.printStackTrace();
+    // Method to fetch historical data for a stock
+    @Override
+    public Map<String, Object> getStockHistoricalData(String ticker) {
+        CandleSeries series = getHistoricalCandles(ticker, HISTORY_INTERVAL, HISTORY_POINTS, null, null);
+        return processHistoricalData(series, HISTORY_INTERVAL); // Process and return historical data
+    }
+
+    // Method to fetch a window of historical candles for a stock
+    @Override
+    public CandleSeries getHistoricalCandles(String ticker, String interval, int outputsize, String from, String to) {
+        if (outputsize < 1 || outputsize > MAX_TAIL_POINTS) {
+            throw new IllegalArgumentException("outputsize must be between 1 and " + MAX_TAIL_POINTS);
+        }
+        String symbol = ticker.trim().toUpperCase(); // Clean up and capitalize ticker symbol
+        eventPublisher.publishEvent(new TickerViewedEvent(symbol)); // Charted tickers are refreshed more often
+        CandleSeries series = loadCandles(symbol, interval, outputsize, from, to); // Served from the local store
+        return window(series, outputsize, from, to);
+    }
+
+    // Whether a window reaches past the earliest stored candle into history the store is not known to hold
+    static boolean needsEarlierCandles(CandleSeries series, long historyStart, int outputsize, String from, String to) {
+        if (series.size() == 0) {
+            return false; // Nothing stored yet, the seed fetch asks for the window
+        }
+        long requestedStart = from == null ? Long.MIN_VALUE : CandleStore.parseTime(from);
+        int end = to == null ? series.size() : series.indexAtOrAfter(CandleStore.parseTime(to) + 1);
+        int start = from == null ? 0 : Math.min(series.indexAtOrAfter(requestedStart), end);
+        return start == 0 && end < outputsize && requestedStart < historyStart;
+    }
+
+    // Narrow down to [from, to], then keep the latest outputsize candles of that window
+    static CandleSeries window(CandleSeries series, int outputsize, String from, String to) {
+        int end = to == null ? series.size() : series.indexAtOrAfter(CandleStore.parseTime(to) + 1);
+        int start = from == null ? 0 : Math.min(series.indexAtOrAfter(CandleStore.parseTime(from)), end);
+        return series.slice(Math.max(start, end - outputsize), end);
+    }
+
+    // Read candles from the local store, first fetching the missing tail if the stored data is stale
+    // and the candles before the earliest stored one if the window reaches back that far
+    private CandleSeries loadCandles(String ticker, String interval, int outputsize, String from, String to) {
+        Duration intervalLength = CandleStore.intervalDuration(interval);
+        long maxAgeMillis = Math.min(intervalLength.toMillis(), candleMaxStaleness.toMillis());
+        synchronized (candleStore.fetchLock(ticker, interval)) { // Concurrent chart views share one fetch
+            if (System.currentTimeMillis() - candleStore.lastFetchedAt(ticker, interval) >= maxAgeMillis) {
+                fetchMissingCandles(ticker, interval, outputsize);
+            }
+            for (int fetches = 0; fetches < MAX_HISTORY_FETCHES; fetches++) {
+                long historyStart = candleStore.historyStart(ticker, interval);
+                CandleSeries stored = candleStore.read(ticker, interval);
+                if (!needsEarlierCandles(stored, historyStart, outputsize, from, to)) {
+                    break;
+                }
+                fetchEarlierCandles(ticker, interval, outputsize, from, stored);
+                if (candleStore.historyStart(ticker, interval) == historyStart) {
+                    break; // Failed fetch, serve what is stored
+                }
             }
         }
+        return candleStore.read(ticker, interval);
     }
 
-    // Method to fetch historical data for a stock
-    @Override
-    public Map<String, Object> getStockHistoricalData(String ticker) {
-        String apiUrl = "https://api.twelvedata.com/time_series?symbol=" + ticker 
-                      + "&interval=1h&outputsize=100&apikey=" + apiKey; // API URL for historical data
-    
-        JsonNode response = fetchTwelveData(apiUrl); // Fetch data
-        return processHistoricalData(response); // Process and return historical data
+    // Fetch only the candles after the latest stored one and append them to the store
+    private void fetchMissingCandles(String ticker, String interval, int seedPoints) {
+        CandleSeries stored = candleStore.read(ticker, interval);
+        CandleSeries fetched;
+        try {
+            fetched = stored.size() == 0
+                    ? twelveDataClient.timeSeries(ticker, interval, seedPoints, null) // Nothing stored yet, seed the requested chart window
+                    // Start at the latest stored candle so that its still-forming close gets updated too
+                    : twelveDataClient.timeSeries(ticker, interval, MAX_TAIL_POINTS,
+                            CandleStore.formatTime(stored.lastTime(), interval));
+        } catch (TwelveDataApiException e) {
+            if (stored.size() == 0) {
+                candleStore.discardIfEmpty(ticker, interval); // Nothing to keep for a ticker that may not exist
+                throw e;
+            }
+            // Keep serving the stored candles; "no data" for an up-to-date tail lands here as well
+            log.warn("Serving stored candles for {} after failed tail fetch: {}", ticker, e.getMessage());
+            candleStore.markFetched(ticker, interval);
+            return;
+        }
+
+        candleStore.append(ticker, interval, fetched.times(), fetched.closes(), fetched.size()); // Parsed in ascending time order
+        candleStore.markFetched(ticker, interval);
+        if (stored.size() == 0 && fetched.size() < seedPoints) {
+            candleStore.extendHistory(ticker, interval, Long.MIN_VALUE); // The seed holds the whole upstream history
+        }
+    }
+
+    // Fetch the candles up to the earliest stored one and prepend them to the store
+    private void fetchEarlierCandles(String ticker, String interval, int outputsize, String from, CandleSeries stored) {
+        int points = earlierPoints(outputsize, from);
+        CandleSeries fetched;
+        try {
+            fetched = twelveDataClient.timeSeries(ticker, interval, points, from,
+                    CandleStore.formatTime(stored.times()[0], interval));
+        } catch (TwelveDataApiException e) {
+            if (e.getErrorResponse().getStatusCode() != 400) {
+                log.warn("Serving stored candles for {} after failed history fetch: {}", ticker, e.getMessage());
+                return;
+            }
+            fetched = CandleSeries.EMPTY; // "No data is available on the specified dates", nothing earlier upstream
+        }
+
+        candleStore.prepend(ticker, interval, fetched.times(), fetched.closes(), fetched.size());
+        if (fetched.size() < points) { // A short answer holds everything the upstream has back to the requested start
+            candleStore.extendHistory(ticker, interval, from == null ? Long.MIN_VALUE : CandleStore.parseTime(from));
+        }
+    }
+
+    // Number of candles to ask for before the earliest stored one: one extra point covers that candle
+    // coming back again, and a start date asks for everything after it
+    static int earlierPoints(int outputsize, String from) {
+        return from == null ? Math.min(outputsize + 1, MAX_TAIL_POINTS) : MAX_TAIL_POINTS;
     }
 
     // Method to fetch ticker info for a stock
     @Override
     public Map<String, Object> getTickerInfo(String ticker) {
-        String apiUrl = "https://api.twelvedata.com/quote?symbol=" + ticker 
-                      + "&apikey=" + apiKey; // API URL for ticker info
-    
-        JsonNode response = fetchTwelveData(apiUrl); // Fetch data
-        return processTickerInfo(response); // Process and return ticker info
+        Quote quote = quoteService.getQuote(ticker); // Served from the same cache as stock writes
+        eventPublisher.publishEvent(new TickerViewedEvent(ticker.trim().toUpperCase())); // Looked-at tickers are refreshed more often
+        return processTickerInfo(quote); // Process and return ticker info
     }
 
-    // Process historical data
-    private Map<String, Object> processHistoricalData(JsonNode jsonNode) {
+    // Process historical data, newest first as returned by Twelve Data
+    static Map<String, Object> processHistoricalData(CandleSeries series, String interval) {
         Map<String, Object> result = new HashMap<>();
-        JsonNode values = jsonNode.path("values"); // Get "values" array from response
-    
+
         // Extract datetime and close price for each entry
-        List<Map<String, Object>> formattedValues = new ArrayList<>();
-        for (JsonNode value : values) {
+        List<Map<String, Object>> formattedValues = new ArrayList<>(series.size());
+        for (int i = series.size() - 1; i >= 0; i--) {
             Map<String, Object> entry = new HashMap<>();
-            entry.put("datetime", value.path("datetime").asText()); // Extract datetime
-            entry.put("close", value.path("close").asDouble()); // Extract close price
+            entry.put("datetime", CandleStore.formatTime(series.times()[i], interval)); // Extract datetime
+            entry.put("close", series.closes()[i]); // Extract close price
             formattedValues.add(entry); // Add to the list
         }
     
@@ -211,35 +343,14 @@ public class StockServiceImpl implements StockService {
     }
 
     // Process ticker info
-    private Map<String, Object> processTickerInfo(JsonNode jsonNode) {
+    static Map<String, Object> processTickerInfo(Quote quote) {
         Map<String, Object> info = new HashMap<>();
-        info.put("name", jsonNode.path("name").asText()); // Extract name
-        info.put("symbol", jsonNode.path("symbol").asText()); // Extract symbol
-        info.put("price", jsonNode.path("close").asDouble()); // Extract price
-        info.put("currency", jsonNode.path("currency").asText()); // Extract currency
-        info.put("exchange", jsonNode.path("exchange").asText()); // Extract exchange
-        info.put("country", jsonNode.path("country").asText()); // Extract country
+        info.put("name", quote.name()); // Extract name
+        info.put("symbol", quote.symbol()); // Extract symbol
+        info.put("price", quote.close()); // Extract price
+        info.put("currency", quote.currency()); // Extract currency
+        info.put("exchange", quote.exchange()); // Extract exchange
+        info.put("country", quote.country()); // Extract country
         return info; // Return processed info
     }
-
-    // Reusable method to fetch data from Twelve Data API
-    private JsonNode fetchTwelveData(String apiUrl) {
-        try {
-            ResponseEntity<String> response = restTemplate.getForEntity(apiUrl, String.class); // API call
-            ObjectMapper objectMapper = new ObjectMapper(); // Initialize ObjectMapper
-            JsonNode rootNode = objectMapper.readTree(response.getBody()); // Parse response body
-
-            // Check for API errors
-            if (rootNode.has("code") && rootNode.get("code").asInt() != 200) {
-                int statusCode = rootNode.get("code").asInt();
-                String errorMessage = "API Error: " + rootNode.path("message").asText(); // Extract error message
-                throw new TwelveDataApiException(statusCode, errorMessage); // Throw custom exception
-            }
-
-            return rootNode; // Return parsed data
-        } catch (Exception e) {
-            // Handle generic errors (e.g., network issues)
-            throw new TwelveDataApiException(500, "Failed to fetch data: " + e.getMessage()); // Handle errors
-        }
-    }
 }
@@ -0,0 +1,120 @@
+package com.example.stock_portfolio.service.impl;
+
+import com.example.stock_portfolio.client.TwelveDataClient; // Importing the Twelve Data client for the stocks reference endpoint
+import com.example.stock_portfolio.dto.SymbolInfo; // Importing SymbolInfo record for listings
+import com.example.stock_portfolio.exception.TwelveDataApiException; // Importing custom exception for Twelve Data API errors
+import com.example.stock_portfolio.service.QuoteService; // Importing QuoteService to check tickers outside the directory
+import com.example.stock_portfolio.service.SymbolService; // Importing SymbolService interface
+import com.example.stock_portfolio.store.SymbolListingStore; // Importing the local listing file
+import com.example.stock_portfolio.util.SymbolIndex; // Importing the in-memory symbol index
+
+import lombok.extern.slf4j.Slf4j; // Lombok annotation to generate a logger
+
+import org.springframework.beans.factory.annotation.Value; // Importing annotation to inject values from properties
+import org.springframework.boot.ApplicationArguments; // Importing ApplicationArguments for the startup runner
+import org.springframework.boot.ApplicationRunner; // Importing ApplicationRunner to load the directory before readiness
+import org.springframework.scheduling.annotation.Scheduled; // Importing annotation for scheduling tasks
+import org.springframework.stereotype.Service; // Marking this class as a service
+
+import java.io.UncheckedIOException; // Importing UncheckedIOException for listing file errors
+import java.time.Duration; // Importing Duration for the sync interval
+import java.time.Instant; // Importing Instant for the listing age
+import java.util.ArrayList; // Importing ArrayList to collect synced listings
+import java.util.Arrays; // Importing Arrays to split the configured exchanges
+import java.util.List; // Importing List for listings and search results
+
+// Symbol directory used to validate tickers and to autocomplete them without spending API credits.
+// It is loaded from the local listing file at startup and replaced by a download of the stocks and ETFs of
+// the configured exchanges once the file is older than the sync interval. Lookups go to an immutable SymbolIndex that
+// is swapped in whole, so searches never see a half-built directory and need no locking. The directory only
+// covers the configured exchanges; a ticker it does not hold is checked with a quote lookup instead.
+@Slf4j // Lombok annotation to generate a logger for this class
+@Service // Marking this class as a Spring service
+public class SymbolServiceImpl implements SymbolService, ApplicationRunner {
+
+    private final TwelveDataClient twelveDataClient; // Injecting the Twelve Data client for directory downloads
+    private final SymbolListingStore listingStore; // Injecting the local listing file
+    private final QuoteService quoteService; // Injecting QuoteService for tickers the directory does not hold
+    private final List<String> exchanges; // Exchanges whose listings are downloaded, none disables the sync
+    private final Duration syncInterval; // Age of the listing file after which it is downloaded again
+
+    private volatile SymbolIndex index = SymbolIndex.EMPTY; // Current directory
+
+    public SymbolServiceImpl(TwelveDataClient twelveDataClient,
+                             SymbolListingStore listingStore,
+                             QuoteService quoteService,
+                             @Value("${portfolio.symbols.exchanges:NASDAQ,NYSE}") String exchanges,
+                             @Value("${portfolio.symbols.sync-interval:PT24H}") Duration syncInterval) {
+        this.twelveDataClient = twelveDataClient;
+        this.listingStore = listingStore;
+        this.quoteService = quoteService;
+        this.exchanges = Arrays.stream(exchanges.split(",")).map(String::trim).filter(exchange -> !exchange.isEmpty()).toList();
+        this.syncInterval = syncInterval;
+    }
+
+    // Load the local listing before the application reports itself ready
+    @Override
+    public void run(ApplicationArguments args) {
+        try {
+            index = SymbolIndex.of(listingStore.read());
+            log.info("Loaded {} symbol listings", index.size());
+        } catch (UncheckedIOException e) {
+            log.warn("Starting without a symbol directory: {}", e.getMessage());
+        }
+    }
+
+    // Method to search the directory by symbol, then by company name
+    @Override
+    public List<SymbolInfo> search(String prefix, int limit) {
+        return index.search(prefix, limit);
+    }
+
+    // Method to check a ticker; without a directory, or outside it, the ticker is left to the quote lookup, whose
+    // result is cached for the write that follows
+    @Override
+    public boolean isListed(String ticker) {
+        SymbolIndex current = index;
+        if (current.size() == 0 || current.contains(ticker)) {
+            return true;
+        }
+        try {
+            quoteService.getQuote(ticker);
+            return true;
+        } catch (TwelveDataApiException e) {
+            int status = e.getErrorResponse().getStatusCode();
+            if (status == 400 || status == 404) { // Unknown to the quote endpoint too
+                return false;
+            }
+            throw e;
+        }
+    }
+
+    // Method to download the stock and ETF listings of every configured exchange, keeping the current directory if any download fails
+    @Override
+    public synchronized int sync() {
+        List<SymbolInfo> listings = new ArrayList<>();
+        for (String exchange : exchanges) {
+            listings.addAll(twelveDataClient.stocks(exchange)); // One credit per exchange
+            listings.addAll(twelveDataClient.etfs(exchange)); // ETFs such as SPY and QQQ are not in the stocks directory
+        }
+        SymbolIndex synced = SymbolIndex.of(listings);
+        listingStore.write(listings);
+        index = synced;
+        return synced.size();
+    }
+
+    // Download the directory again once the local listing is older than the sync interval
+    @Scheduled(fixedDelayString = "${portfolio.symbols.check-interval:PT1H}",
+            initialDelayString = "${portfolio.symbols.initial-delay:PT2M}")
+    public void syncIfStale() {
+        Instant lastModified = listingStore.lastModified();
+        if (exchanges.isEmpty() || (lastModified != null && lastModified.plus(syncInterval).isAfter(Instant.now()))) {
+            return;
+        }
+        try {
+            log.info("Synced {} symbol listings from {}", sync(), exchanges);
+        } catch (TwelveDataApiException | UncheckedIOException e) {
+            log.warn("Symbol directory sync failed, keeping {} listings: {}", index.size(), e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,297 @@
+package com.example.stock_portfolio.service.impl;
+
+import com.example.stock_portfolio.dto.Quote; // Importing Quote record
+import com.example.stock_portfolio.dto.TimestampedQuote; // Importing TimestampedQuote record for quotes fetched earlier
+import com.example.stock_portfolio.dto.StockDto; // Importing StockDto class
+import com.example.stock_portfolio.dto.TradeDto; // Importing TradeDto record
+import com.example.stock_portfolio.dto.TradeImportReport; // Importing TradeImportReport record
+import com.example.stock_portfolio.entity.PositionLot; // Importing PositionLot entity
+import com.example.stock_portfolio.entity.Stocks; // Importing Stocks entity
+import com.example.stock_portfolio.entity.Trade; // Importing Trade entity
+import com.example.stock_portfolio.entity.TradeSide; // Importing TradeSide enum
+import com.example.stock_portfolio.event.HoldingChangedEvent; // Importing event announcing holding changes
+import com.example.stock_portfolio.exception.ResourceNotFoundException; // Importing custom exception for resource not found
+import com.example.stock_portfolio.exception.TwelveDataApiException; // Importing custom exception for Twelve Data API errors
+import com.example.stock_portfolio.mapper.StockMapper; // Importing the StockMapper for entity-DTO conversion
+import com.example.stock_portfolio.mapper.TradeMapper; // Importing the TradeMapper for entity-DTO conversion
+import com.example.stock_portfolio.repository.PortfolioRepository; // Importing the PortfolioRepository for DB operations
+import com.example.stock_portfolio.repository.PositionLotRepository; // Importing the PositionLotRepository for DB operations
+import com.example.stock_portfolio.repository.StockRepository; // Importing the StockRepository for DB operations
+import com.example.stock_portfolio.repository.TradeRepository; // Importing the TradeRepository for DB operations
+import com.example.stock_portfolio.service.QuoteService; // Importing QuoteService for names and prices of new positions
+import com.example.stock_portfolio.service.TradeService; // Importing TradeService interface
+import com.example.stock_portfolio.util.TokenBucketRateLimiter; // Importing the shared rate limiter to size the lookups
+
+import org.springframework.beans.factory.annotation.Value; // Importing annotation to inject values from properties
+import org.springframework.context.ApplicationEventPublisher; // Importing publisher for holding change events
+import org.springframework.data.domain.Page; // Importing Page for paged results
+import org.springframework.data.domain.Pageable; // Importing Pageable for page, size and sort parameters
+import org.springframework.stereotype.Service; // Marking this class as a service
+import org.springframework.transaction.annotation.Transactional; // Importing Transactional so a trade and its snapshot commit together
+import org.springframework.transaction.support.TransactionTemplate; // Importing TransactionTemplate to open the import transaction after the lookups
+
+import java.time.Instant; // Importing Instant for default execution times
+import java.util.ArrayList; // Importing ArrayList for collection of items
+import java.util.Comparator; // Importing Comparator to order imported trades by execution time
+import java.util.HashMap; // Importing HashMap for lookups by ticker and position
+import java.util.HashSet; // Importing HashSet for the tickers already held
+import java.util.LinkedHashMap; // Importing LinkedHashMap to keep positions in first-trade order
+import java.util.LinkedHashSet; // Importing LinkedHashSet to keep tickers in first-trade order
+import java.util.List; // Importing List for collection of items
+import java.util.Map; // Importing Map for lookups by ticker and position
+import java.util.Optional; // Importing Optional for lookups skipped for lack of API credits
+import java.util.Set; // Importing Set for the tickers already held
+
+@Service // Marking this class as a Spring service
+public class TradeServiceImpl implements TradeService {
+
+    private static final int MAX_IMPORT_TRADES = 10_000; // Upper bound for one import request
+
+    private final StockRepository stockRepository; // Injecting stock repository for the position snapshots
+    private final PortfolioRepository portfolioRepository; // Injecting portfolio repository to attach new positions
+    private final TradeRepository tradeRepository; // Injecting trade repository for the ledger
+    private final PositionLotRepository positionLotRepository; // Injecting lot repository for FIFO cost basis
+    private final QuoteService quoteService; // Injecting QuoteService for names and prices of new positions
+    private final ApplicationEventPublisher eventPublisher; // Injecting publisher to announce holding changes
+    private final TransactionTemplate transactionTemplate; // Injecting TransactionTemplate for the import writes
+    private final int batchSize; // Maximum number of symbols per quote request of an import
+
+    public TradeServiceImpl(StockRepository stockRepository,
+                            PortfolioRepository portfolioRepository,
+                            TradeRepository tradeRepository,
+                            PositionLotRepository positionLotRepository,
+                            QuoteService quoteService,
+                            ApplicationEventPublisher eventPublisher,
+                            TransactionTemplate transactionTemplate,
+                            TokenBucketRateLimiter rateLimiter,
+                            @Value("${twelvedata.refresh.batch-size:50}") int batchSize) {
+        this.stockRepository = stockRepository;
+        this.portfolioRepository = portfolioRepository;
+        this.tradeRepository = tradeRepository;
+        this.positionLotRepository = positionLotRepository;
+        this.quoteService = quoteService;
+        this.eventPublisher = eventPublisher;
+        this.transactionTemplate = transactionTemplate;
+        this.batchSize = Math.min(batchSize, rateLimiter.backgroundCapacity()); // A larger batch would never get its credits
+    }
+
+    // Method to append a single trade to the ledger of a position
+    @Override
+    @Transactional
+    public StockDto recordTrade(Long stockId, TradeDto trade) {
+        return recordTrade(stockId, trade, null);
+    }
+
+    // Method to append a single trade to the ledger of a position that the caller already changed since the given snapshot
+    @Override
+    @Transactional
+    public StockDto recordTrade(Long stockId, TradeDto trade, StockDto previous) {
+        Stocks position = stockRepository.findById(stockId)
+                .orElseThrow(() -> new ResourceNotFoundException("Stock does not exist for the given id: " + stockId)); // Handle resource not found
+        validate(trade, null);
+
+        if (previous == null) {
+            previous = StockMapper.mapToStockDto(position); // Snapshot before the trade
+        }
+        PositionLedger ledger = new PositionLedger(position, () -> positionLotRepository.findByPositionIdOrderById(stockId));
+        ledger.apply(trade.side(), trade.quantity(), trade.price());
+        Trade recorded = new Trade(null, position, trade.side(), trade.quantity(), trade.price(),
+                trade.executedAt() == null ? Instant.now() : trade.executedAt());
+
+        persist(List.of(recorded), List.of(ledger));
+        StockDto current = StockMapper.mapToStockDto(position);
+        eventPublisher.publishEvent(new HoldingChangedEvent(previous, current)); // Announce the updated holding
+        return current;
+    }
+
+    // Method to import many trades into a portfolio: every position is read once, updated in memory trade by
+    // trade and written once, and the trades and new lots go out as batched inserts. New tickers are looked up
+    // before the transaction opens, so no connection is held while the quote requests run
+    @Override
+    public TradeImportReport importTrades(Long portfolioId, List<TradeDto> trades) {
+        if (trades == null || trades.isEmpty() || trades.size() > MAX_IMPORT_TRADES) {
+            throw new IllegalArgumentException("An import must contain between 1 and " + MAX_IMPORT_TRADES + " trades.");
+        }
+        if (!portfolioRepository.existsById(portfolioId)) {
+            throw new ResourceNotFoundException("Portfolio does not exist for the given id: " + portfolioId);
+        }
+
+        // Normalize and validate, then apply in execution order; ties keep their request order
+        Instant now = Instant.now();
+        List<TradeDto> ordered = new ArrayList<>(trades.size());
+        for (int i = 0; i < trades.size(); i++) {
+            TradeDto trade = trades.get(i);
+            validate(trade, i);
+            ordered.add(new TradeDto(null, null, trade.ticker().trim().toUpperCase(), trade.side(), trade.quantity(),
+                    trade.price(), trade.executedAt() == null ? now : trade.executedAt()));
+        }
+        ordered.sort(Comparator.comparing(TradeDto::executedAt));
+
+        Map<String, Quote> quotes = lookUpNewTickers(portfolioId, ordered);
+        return transactionTemplate.execute(status -> applyTrades(portfolioId, ordered, quotes));
+    }
+
+    // Apply the ordered trades of an import in one transaction
+    private TradeImportReport applyTrades(Long portfolioId, List<TradeDto> ordered, Map<String, Quote> quotes) {
+        Map<String, Stocks> positions = loadPositions(portfolioId, ordered, quotes);
+        Map<Long, StockDto> previous = new HashMap<>();
+        List<Long> sellingPositionIds = new ArrayList<>();
+        for (Stocks position : positions.values()) {
+            if (position.getId() != null) {
+                previous.put(position.getId(), StockMapper.mapToStockDto(position));
+            }
+        }
+        for (TradeDto trade : ordered) {
+            Stocks position = positions.get(trade.ticker());
+            if (trade.side() == TradeSide.SELL && position.getId() != null && position.getCostBasis() != null) {
+                sellingPositionIds.add(position.getId());
+            }
+        }
+
+        // Open lots of every position that sells, with one query
+        Map<Long, List<PositionLot>> lotsByPosition = new HashMap<>();
+        if (!sellingPositionIds.isEmpty()) {
+            for (PositionLot lot : positionLotRepository.findByPositionIdInOrderById(sellingPositionIds)) {
+                lotsByPosition.computeIfAbsent(lot.getPosition().getId(), id -> new ArrayList<>()).add(lot);
+            }
+        }
+
+        // New positions are saved first so that trades and lots can reference them
+        List<Stocks> created = positions.values().stream().filter(position -> position.getId() == null).toList();
+        stockRepository.saveAll(created);
+
+        Map<String, PositionLedger> ledgers = new LinkedHashMap<>();
+        List<Trade> recorded = new ArrayList<>(ordered.size());
+        for (TradeDto trade : ordered) {
+            Stocks position = positions.get(trade.ticker());
+            PositionLedger ledger = ledgers.computeIfAbsent(trade.ticker(), ticker -> new PositionLedger(position,
+                    () -> lotsByPosition.getOrDefault(position.getId(), List.of())));
+            ledger.apply(trade.side(), trade.quantity(), trade.price());
+            recorded.add(new Trade(null, position, trade.side(), trade.quantity(), trade.price(), trade.executedAt()));
+        }
+
+        persist(recorded, ledgers.values());
+        List<StockDto> updated = new ArrayList<>(ledgers.size());
+        for (PositionLedger ledger : ledgers.values()) {
+            StockDto current = StockMapper.mapToStockDto(ledger.position());
+            eventPublisher.publishEvent(new HoldingChangedEvent(previous.get(current.getId()), current)); // Announce the created or updated holding
+            updated.add(current);
+        }
+        return new TradeImportReport(recorded.size(), updated);
+    }
+
+    // Method to fetch one page of the trade history of a position
+    @Override
+    public Page<TradeDto> getTrades(Long stockId, Pageable pageable) {
+        Stocks position = stockRepository.findById(stockId)
+                .orElseThrow(() -> new ResourceNotFoundException("Stock does not exist for the given id: " + stockId)); // Handle resource not found
+        return tradeRepository.findByPositionId(stockId, pageable)
+                .map(trade -> TradeMapper.mapToTradeDto(trade, position.getTicker()));
+    }
+
+    // Name and price of every imported ticker the portfolio does not hold yet: the last quote fetched if there is
+    // one, else a multi-symbol request per batch from spare credits. Fails fast instead of waiting for credits.
+    // Unknown tickers are left out and rejected by loadPositions; the symbol directory is not consulted, since it
+    // covers only the synced exchanges and checking the tickers it lacks one by one would defeat the batching
+    private Map<String, Quote> lookUpNewTickers(Long portfolioId, List<TradeDto> trades) {
+        Set<String> tickers = new LinkedHashSet<>();
+        trades.forEach(trade -> tickers.add(trade.ticker()));
+        Set<String> held = new HashSet<>();
+        for (Stocks position : stockRepository.findByPortfolioIdAndTickerIn(portfolioId, tickers)) {
+            held.add(position.getTicker());
+        }
+
+        Map<String, Quote> quotes = new HashMap<>();
+        List<String> missing = new ArrayList<>();
+        for (String ticker : tickers) {
+            if (held.contains(ticker)) {
+                continue;
+            }
+            TimestampedQuote known = quoteService.getLastKnownQuote(ticker);
+            if (known != null) {
+                quotes.put(ticker, known.quote()); // Refreshed with the holdings soon after the import
+            } else {
+                missing.add(ticker);
+            }
+        }
+        for (int from = 0; from < missing.size(); from += batchSize) {
+            List<String> batch = missing.subList(from, Math.min(from + batchSize, missing.size()));
+            Optional<Map<String, Quote>> fetched;
+            try {
+                fetched = quoteService.tryFetchQuotes(batch);
+            } catch (TwelveDataApiException e) {
+                int status = e.getErrorResponse().getStatusCode();
+                // A single-symbol request reports an unknown ticker as a client error instead of leaving it out
+                if (batch.size() == 1 && (status == 400 || status == 404)) {
+                    continue;
+                }
+                throw e;
+            }
+            if (fetched.isEmpty()) { // Tickers fetched so far are remembered, so a retry needs fewer credits
+                throw new TwelveDataApiException(429, "Not enough API credits to look up " + (missing.size() - from)
+                        + " new tickers right now; retry the import in a minute.");
+            }
+            quotes.putAll(fetched.get());
+        }
+        return quotes;
+    }
+
+    // Load the positions of the portfolio in the imported tickers, creating the missing ones from the looked up quotes
+    private Map<String, Stocks> loadPositions(Long portfolioId, List<TradeDto> trades, Map<String, Quote> quotes) {
+        Map<String, Stocks> positions = new LinkedHashMap<>();
+        trades.forEach(trade -> positions.put(trade.ticker(), null));
+        for (Stocks position : stockRepository.findByPortfolioIdAndTickerIn(portfolioId, positions.keySet())) {
+            positions.put(position.getTicker(), position);
+        }
+
+        for (Map.Entry<String, Stocks> entry : positions.entrySet()) {
+            if (entry.getValue() != null) {
+                continue;
+            }
+            String ticker = entry.getKey();
+            Quote quote = quotes.get(ticker); // Missing too if the position was deleted since the lookup
+            if (quote == null || quote.name() == null || quote.name().isEmpty()) {
+                throw new IllegalArgumentException("The stock ticker " + ticker + " is not valid or could not be found.");
+            }
+            entry.setValue(new Stocks(null, quote.name(), ticker, 0L, 0.0, quote.close(),
+                    portfolioRepository.getReferenceById(portfolioId), 0.0, 0.0));
+        }
+        return positions;
+    }
+
+    // Write the trades, the lot changes and the updated snapshots; inserts are batched by Hibernate
+    private void persist(List<Trade> trades, Iterable<PositionLedger> ledgers) {
+        List<PositionLot> inserted = new ArrayList<>();
+        List<PositionLot> deleted = new ArrayList<>();
+        for (PositionLedger ledger : ledgers) {
+            inserted.addAll(ledger.lotsToInsert());
+            deleted.addAll(ledger.lotsToDelete());
+            stockRepository.save(ledger.position()); // Managed already; the snapshot is flushed with the transaction
+        }
+        tradeRepository.saveAll(trades);
+        positionLotRepository.saveAll(inserted);
+        if (!deleted.isEmpty()) {
+            positionLotRepository.deleteAllInBatch(deleted); // One statement for all consumed lots
+        }
+    }
+
+    // Reject trades that cannot be applied; index is the position in an import, null for single trades
+    private static void validate(TradeDto trade, Integer index) {
+        String prefix = index == null ? "" : "Trade " + index + ": ";
+        if (trade == null) {
+            throw new IllegalArgumentException(prefix + "Trade must not be empty.");
+        }
+        if (index != null && (trade.ticker() == null || trade.ticker().isBlank())) {
+            throw new IllegalArgumentException(prefix + "Ticker symbol must not be empty.");
+        }
+        if (trade.side() == null) {
+            throw new IllegalArgumentException(prefix + "Side must be BUY or SELL.");
+        }
+        if (trade.quantity() == null || trade.quantity() <= 0) {
+            throw new IllegalArgumentException(prefix + "Quantity must be positive.");
+        }
+        if (trade.price() == null || !(trade.price() > 0) || trade.price().isInfinite()) {
+            throw new IllegalArgumentException(prefix + "Price must be a positive number.");
+        }
+    }
+}
@@ -0,0 +1,183 @@
+package com.example.stock_portfolio.service.impl;
+
+import com.example.stock_portfolio.dto.ValuationHistory; // Importing ValuationHistory record
+import com.example.stock_portfolio.exception.ResourceNotFoundException; // Importing custom exception for resource not found
+import com.example.stock_portfolio.repository.PortfolioRepository; // Importing the PortfolioRepository to check portfolios
+import com.example.stock_portfolio.repository.StockRepository; // Importing the StockRepository for the aggregate queries
+import com.example.stock_portfolio.service.ValuationHistoryService; // Importing ValuationHistoryService interface
+import com.example.stock_portfolio.store.CandleSeries; // Importing CandleSeries for stored points
+import com.example.stock_portfolio.store.ValuationStore; // Importing the local valuation history store
+
+import lombok.extern.slf4j.Slf4j; // Lombok annotation to generate a logger
+
+import org.springframework.beans.factory.annotation.Value; // Importing annotation to inject values from properties
+import org.springframework.scheduling.annotation.Scheduled; // Importing annotation for scheduling tasks
+import org.springframework.stereotype.Service; // Marking this class as a service
+
+import java.time.Duration; // Importing Duration for ranges and tier resolutions
+import java.time.Instant; // Importing Instant for snapshot times
+import java.time.format.DateTimeParseException; // Importing DateTimeParseException for invalid ISO ranges
+import java.util.Arrays; // Importing Arrays to copy the served window
+import java.util.regex.Matcher; // Importing Matcher to parse short ranges
+import java.util.regex.Pattern; // Importing Pattern to parse short ranges
+
+// Records the value of every portfolio and the price of every held ticker into the valuation store whenever
+// the portfolio version moved since the last snapshot, and serves the history from the coarsest retention tier
+// that still resolves the requested range into the requested number of points.
+@Slf4j // Lombok annotation to generate a logger for this class
+@Service // Marking this class as a Spring service
+public class ValuationHistoryServiceImpl implements ValuationHistoryService {
+
+    static final String ALL_KEY = "all"; // Series of the total value over all holdings
+    private static final Pattern SHORT_RANGE = Pattern.compile("(\\d+)([dwmy])"); // 1d, 2w, 3m, 5y
+    private static final int MAX_POINTS = 10_000; // Upper bound for ?points=
+
+    private final StockRepository stockRepository; // Injecting stock repository for the aggregate queries
+    private final PortfolioRepository portfolioRepository; // Injecting portfolio repository to check portfolios
+    private final ValuationStore valuationStore; // Injecting the local valuation history store
+    private final PortfolioVersion portfolioVersion; // Injecting the version bumped on holding and price changes
+    private final Duration snapshotInterval; // Spacing of raw points
+
+    private long recordedVersion = Long.MIN_VALUE; // Portfolio version of the latest snapshot
+
+    public ValuationHistoryServiceImpl(StockRepository stockRepository,
+                                       PortfolioRepository portfolioRepository,
+                                       ValuationStore valuationStore,
+                                       PortfolioVersion portfolioVersion,
+                                       @Value("${portfolio.history.snapshot-interval:PT1M}") Duration snapshotInterval) {
+        this.stockRepository = stockRepository;
+        this.portfolioRepository = portfolioRepository;
+        this.valuationStore = valuationStore;
+        this.portfolioVersion = portfolioVersion;
+        this.snapshotInterval = snapshotInterval;
+    }
+
+    // Take a snapshot if a holding or price changed since the previous one; unchanged values are not repeated
+    @Scheduled(fixedDelayString = "${portfolio.history.snapshot-interval:PT1M}")
+    public void recordIfChanged() {
+        long version = portfolioVersion.current(); // Read first, so a change during the snapshot triggers the next one
+        if (version == recordedVersion) {
+            return;
+        }
+        int recorded = recordSnapshot();
+        recordedVersion = version;
+        log.debug("Recorded {} valuation series", recorded);
+    }
+
+    // Method to append one point per portfolio, for all holdings together and per held ticker
+    @Override
+    public int recordSnapshot() {
+        long now = Instant.now().getEpochSecond();
+        int recorded = 0;
+        for (Object[] row : stockRepository.sumValueByPortfolio()) { // Emptied portfolios record 0 rather than keeping their last value
+            valuationStore.append(portfolioKey(((Number) row[0]).longValue()), now, ((Number) row[1]).doubleValue());
+            recorded++;
+        }
+        valuationStore.append(ALL_KEY, now, stockRepository.sumValue());
+        recorded++;
+        for (Object[] row : stockRepository.findCurrentPrices()) {
+            valuationStore.append(tickerKey((String) row[0]), now, ((Number) row[1]).doubleValue());
+            recorded++;
+        }
+        return recorded;
+    }
+
+    // Drop raw and hourly points that fell out of their retention
+    @Scheduled(fixedDelayString = "${portfolio.history.compact-interval:PT1H}")
+    public void compact() {
+        valuationStore.compact(Instant.now());
+    }
+
+    // Method to read a window of history from the coarsest tier that resolves it
+    @Override
+    public ValuationHistory getHistory(Long portfolioId, String ticker, String range, int points) {
+        if (points < 1 || points > MAX_POINTS) {
+            throw new IllegalArgumentException("points must be between 1 and " + MAX_POINTS);
+        }
+        if (portfolioId != null && ticker != null) {
+            throw new IllegalArgumentException("Pass either portfolioId or ticker, not both.");
+        }
+        String key;
+        if (ticker != null) {
+            key = tickerKey(ticker);
+        } else if (portfolioId != null) {
+            if (!portfolioRepository.existsById(portfolioId)) {
+                throw new ResourceNotFoundException("Portfolio does not exist for the given id: " + portfolioId);
+            }
+            key = portfolioKey(portfolioId);
+        } else {
+            key = ALL_KEY;
+        }
+
+        Duration span = parseRange(range);
+        ValuationStore.Tier tier = selectTier(span, points);
+        CandleSeries series = valuationStore.read(key, tier);
+        int start = span == null ? 0 : series.indexAtOrAfter(Instant.now().minus(span).getEpochSecond());
+        return new ValuationHistory(portfolioId, ticker == null ? null : ticker.trim().toUpperCase(), range, tier.name(),
+                Arrays.copyOfRange(series.times(), start, series.size()),
+                Arrays.copyOfRange(series.closes(), start, series.size()));
+    }
+
+    // Coarsest tier whose step is fine enough for the range split into the given number of points and whose
+    // retention covers the range; if no tier is that fine, the finest tier that still covers the range
+    ValuationStore.Tier selectTier(Duration span, int points) {
+        Duration resolution = span == null ? null : span.dividedBy(points);
+        ValuationStore.Tier[] coarsestFirst = {ValuationStore.Tier.DAILY, ValuationStore.Tier.HOURLY, ValuationStore.Tier.RAW};
+        for (ValuationStore.Tier tier : coarsestFirst) {
+            Duration step = tier == ValuationStore.Tier.RAW ? snapshotInterval : tier.step();
+            if (covers(tier, span) && (resolution == null || step.compareTo(resolution) <= 0)) {
+                return tier;
+            }
+        }
+        for (int i = coarsestFirst.length - 1; i >= 0; i--) {
+            if (covers(coarsestFirst[i], span)) {
+                return coarsestFirst[i];
+            }
+        }
+        return ValuationStore.Tier.DAILY;
+    }
+
+    private boolean covers(ValuationStore.Tier tier, Duration span) {
+        Duration retention = valuationStore.retention(tier);
+        return retention == null || (span != null && retention.compareTo(span) >= 0);
+    }
+
+    // Parse a range such as 1d, 2w, 3m, 1y, an ISO-8601 duration such as P90D, or max (null)
+    static Duration parseRange(String range) {
+        String value = range.trim().toLowerCase();
+        if (value.equals("max")) {
+            return null;
+        }
+        Matcher matcher = SHORT_RANGE.matcher(value);
+        if (matcher.matches()) {
+            long amount = Long.parseLong(matcher.group(1));
+            long days = switch (matcher.group(2)) {
+                case "d" -> amount;
+                case "w" -> 7 * amount;
+                case "m" -> 30 * amount;
+                default -> 365 * amount;
+            };
+            if (days > 0) {
+                return Duration.ofDays(days);
+            }
+        } else if (value.startsWith("p")) {
+            try {
+                Duration duration = Duration.parse(value.toUpperCase());
+                if (!duration.isNegative() && !duration.isZero()) {
+                    return duration;
+                }
+            } catch (DateTimeParseException e) {
+                // Reported below
+            }
+        }
+        throw new IllegalArgumentException("Invalid range '" + range + "', expected e.g. 1d, 1w, 1m, 1y, 5y, max or an ISO-8601 duration");
+    }
+
+    private static String portfolioKey(long portfolioId) {
+        return "portfolio-" + portfolioId;
+    }
+
+    private static String tickerKey(String ticker) {
+        return "ticker-" + ticker.trim().toUpperCase();
+    }
+}
@@ -0,0 +1,40 @@
+package com.example.stock_portfolio.store; // Package declaration for the CandleSeries record
+
+import java.util.Arrays; // Importing Arrays to copy a window of candles
+
+// Read-only view of a ticker's candles in ascending time order, backed by columnar primitive arrays.
+// Only the first size entries are valid; the arrays are shared with the store and must not be modified.
+public record CandleSeries(
+        long[] times, // Candle open times in epoch seconds (exchange-local wall clock encoded as UTC)
+        double[] closes, // Close prices, parallel to times
+        int size // Number of valid candles
+) {
+
+    // An empty series for tickers that have no stored candles yet
+    public static final CandleSeries EMPTY = new CandleSeries(new long[0], new double[0], 0);
+
+    // Index of the first candle at or after the given time, or size if there is none
+    public int indexAtOrAfter(long epochSeconds) {
+        int low = 0;
+        int high = size;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (times[mid] < epochSeconds) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    // Copy of the candles in the index range [from, to)
+    public CandleSeries slice(int from, int to) {
+        return new CandleSeries(Arrays.copyOfRange(times, from, to), Arrays.copyOfRange(closes, from, to), to - from);
+    }
+
+    // Time of the latest candle, or Long.MIN_VALUE if the series is empty
+    public long lastTime() {
+        return size == 0 ? Long.MIN_VALUE : times[size - 1];
+    }
+}
@@ -0,0 +1,344 @@
+package com.example.stock_portfolio.store; // Package declaration for the CandleStore class
+
+import lombok.extern.slf4j.Slf4j; // Lombok annotation to generate a logger
+
+import org.springframework.beans.factory.annotation.Value; // Importing annotation to inject values from properties
+import org.springframework.stereotype.Component; // Marking this class as a Spring component
+
+import java.io.IOException; // Importing IOException for file access errors
+import java.io.UncheckedIOException; // Importing UncheckedIOException to surface file errors
+import java.nio.ByteBuffer; // Importing ByteBuffer to encode appended candles
+import java.nio.ByteOrder; // Importing ByteOrder for the little-endian file layout
+import java.nio.MappedByteBuffer; // Importing MappedByteBuffer to read candle files
+import java.nio.channels.FileChannel; // Importing FileChannel to map and append candle files
+import java.nio.file.Files; // Importing Files to create the store directory
+import java.nio.file.Path; // Importing Path for candle file locations
+import java.nio.file.StandardCopyOption; // Importing options to replace a rewritten candle file atomically
+import java.nio.file.StandardOpenOption; // Importing options for opening candle files
+import java.time.DateTimeException; // Importing DateTimeException for unparseable times
+import java.time.Duration; // Importing Duration for candle intervals
+import java.time.LocalDateTime; // Importing LocalDateTime to parse intraday candle times
+import java.time.ZoneOffset; // Importing ZoneOffset to encode exchange-local times as epoch seconds
+import java.time.format.DateTimeFormatter; // Importing DateTimeFormatter to format candle times
+import java.util.Arrays; // Importing Arrays to grow the column arrays
+import java.util.Map; // Importing Map for series keyed by ticker and interval
+import java.util.Set; // Importing Set for the supported intervals
+import java.util.concurrent.ConcurrentHashMap; // Importing ConcurrentHashMap for loaded series
+
+// Local store of historical candles, one append-only file per ticker and interval.
+// Each file is a sequence of 16-byte little-endian records (epoch seconds, close). Files are memory-mapped
+// once when first read and kept in memory as columnar long[]/double[] arrays. A record with the same time
+// as the previous one replaces its close, which is how the still-forming latest candle gets updated.
+// Candles older than the earliest stored one are prepended by rewriting the file. Each series also tracks
+// how far back it is known to hold every upstream candle, so a longer or earlier window fetches the gap.
+// Only series that have a file, or are being fetched, are kept in memory: reads of a ticker with nothing
+// stored answer from defaults, and a failed first fetch drops its entry, so mistyped tickers do not pile up.
+@Slf4j // Lombok annotation to generate a logger for this class
+@Component // Marking this class as a Spring component
+public class CandleStore {
+
+    private static final int RECORD_BYTES = Long.BYTES + Double.BYTES; // Size of one stored candle
+    private static final Set<String> SUPPORTED_INTERVALS = Set.of(
+            "1min", "5min", "15min", "30min", "45min", "1h", "2h", "4h", "1day", "1week", "1month"); // Twelve Data intervals
+    private static final DateTimeFormatter DATE_TIME_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+
+    private final Path directory; // Directory holding the candle files
+    private final Map<String, Series> series = new ConcurrentHashMap<>(); // Loaded series by ticker and interval
+
+    public CandleStore(@Value("${portfolio.candles.dir:data/candles}") Path directory) {
+        this.directory = directory;
+    }
+
+    // Read the candles of a ticker, loading them from disk on first access
+    public CandleSeries read(String ticker, String interval) {
+        Series loaded = find(ticker, interval);
+        if (loaded == null) {
+            return CandleSeries.EMPTY;
+        }
+        synchronized (loaded) {
+            return loaded.snapshot();
+        }
+    }
+
+    // Append candles newer than (or equal in time to) the latest stored one, returning how many were written
+    public int append(String ticker, String interval, long[] times, double[] closes, int size) {
+        Series loaded = load(ticker, interval);
+        synchronized (loaded) {
+            ByteBuffer buffer = ByteBuffer.allocate(size * RECORD_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+            for (int i = 0; i < size; i++) {
+                if (loaded.put(times[i], closes[i])) {
+                    buffer.putLong(times[i]).putDouble(closes[i]);
+                }
+            }
+            buffer.flip();
+            if (!buffer.hasRemaining()) {
+                return 0;
+            }
+            int written = buffer.remaining() / RECORD_BYTES;
+            loaded.version++;
+            try {
+                Files.createDirectories(directory);
+                try (FileChannel channel = FileChannel.open(loaded.path,
+                        StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND)) {
+                    while (buffer.hasRemaining()) {
+                        channel.write(buffer);
+                    }
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException("Failed to append candles to " + loaded.path, e);
+            }
+            return written;
+        }
+    }
+
+    // Prepend candles older than the earliest stored one, returning how many were written; the rest are ignored
+    public int prepend(String ticker, String interval, long[] times, double[] closes, int size) {
+        Series loaded = load(ticker, interval);
+        synchronized (loaded) {
+            long firstTime = loaded.size == 0 ? Long.MAX_VALUE : loaded.times[0];
+            int older = 0;
+            while (older < size && times[older] < firstTime) { // Given in ascending time order
+                older++;
+            }
+            if (older == 0) {
+                return 0;
+            }
+            long[] newTimes = new long[older + loaded.size];
+            double[] newCloses = new double[older + loaded.size];
+            System.arraycopy(times, 0, newTimes, 0, older);
+            System.arraycopy(closes, 0, newCloses, 0, older);
+            System.arraycopy(loaded.times, 0, newTimes, older, loaded.size);
+            System.arraycopy(loaded.closes, 0, newCloses, older, loaded.size);
+
+            ByteBuffer buffer = ByteBuffer.allocate(newTimes.length * RECORD_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+            for (int i = 0; i < newTimes.length; i++) {
+                buffer.putLong(newTimes[i]).putDouble(newCloses[i]);
+            }
+            buffer.flip();
+            Path rewritten = loaded.path.resolveSibling(loaded.path.getFileName() + ".tmp");
+            try {
+                Files.createDirectories(directory);
+                try (FileChannel channel = FileChannel.open(rewritten,
+                        StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+                    while (buffer.hasRemaining()) {
+                        channel.write(buffer);
+                    }
+                }
+                Files.move(rewritten, loaded.path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Failed to prepend candles to " + loaded.path, e);
+            }
+            // New arrays, so that snapshots already handed out keep their values
+            loaded.times = newTimes;
+            loaded.closes = newCloses;
+            loaded.size = newTimes.length;
+            loaded.version++;
+            return older;
+        }
+    }
+
+    // Earliest time from which the store holds every upstream candle of a ticker: the earliest stored candle
+    // unless more is known, Long.MIN_VALUE once the start of the upstream history was reached, and
+    // Long.MAX_VALUE while nothing is stored
+    public long historyStart(String ticker, String interval) {
+        Series loaded = find(ticker, interval);
+        if (loaded == null) {
+            return Long.MAX_VALUE;
+        }
+        synchronized (loaded) {
+            return Math.min(loaded.historyStart, loaded.size == 0 ? Long.MAX_VALUE : loaded.times[0]);
+        }
+    }
+
+    // Record that the upstream has no candles of a ticker between the given time and the earliest stored one
+    public void extendHistory(String ticker, String interval, long historyStart) {
+        Series loaded = load(ticker, interval);
+        synchronized (loaded) {
+            loaded.historyStart = Math.min(loaded.historyStart, historyStart);
+        }
+    }
+
+    // Counter bumped whenever candles of a ticker are appended or prepended or its latest close changes, so derived
+    // results can tell whether they are still current without comparing the candles themselves
+    public long version(String ticker, String interval) {
+        Series loaded = find(ticker, interval);
+        return loaded == null ? 0 : loaded.version;
+    }
+
+    // Wall-clock millis of the last upstream fetch for a ticker, or 0 if it was never fetched in this process
+    public long lastFetchedAt(String ticker, String interval) {
+        Series loaded = find(ticker, interval);
+        return loaded == null ? 0 : loaded.lastFetchedAt;
+    }
+
+    // Record that the tail of a ticker was just fetched from upstream
+    public void markFetched(String ticker, String interval) {
+        load(ticker, interval).lastFetchedAt = System.currentTimeMillis();
+    }
+
+    // Lock object that serializes upstream fetches for one ticker and interval
+    public Object fetchLock(String ticker, String interval) {
+        return load(ticker, interval).fetchLock;
+    }
+
+    // Forget a series that still has nothing stored, after its first fetch failed (e.g. for an unknown ticker)
+    public void discardIfEmpty(String ticker, String interval) {
+        series.computeIfPresent(key(ticker, interval), (key, loaded) -> {
+            synchronized (loaded) {
+                return loaded.size == 0 ? null : loaded;
+            }
+        });
+    }
+
+    // Number of series held in memory
+    int loadedSeries() {
+        return series.size();
+    }
+
+    // Length of a Twelve Data interval such as "1min", "1h", "1day" or "1week"
+    public static Duration intervalDuration(String interval) {
+        if (!SUPPORTED_INTERVALS.contains(interval)) {
+            throw new IllegalArgumentException("Unsupported interval '" + interval + "', expected one of " + SUPPORTED_INTERVALS);
+        }
+        int unitStart = 0;
+        while (unitStart < interval.length() && Character.isDigit(interval.charAt(unitStart))) {
+            unitStart++;
+        }
+        long amount = unitStart == 0 ? 1 : Long.parseLong(interval.substring(0, unitStart));
+        return switch (interval.substring(unitStart)) {
+            case "min" -> Duration.ofMinutes(amount);
+            case "h" -> Duration.ofHours(amount);
+            case "day" -> Duration.ofDays(amount);
+            case "week" -> Duration.ofDays(7 * amount);
+            case "month" -> Duration.ofDays(30 * amount);
+            default -> throw new IllegalArgumentException("Unsupported interval: " + interval);
+        };
+    }
+
+    // Parse a Twelve Data datetime ("yyyy-MM-dd HH:mm:ss", ISO "yyyy-MM-ddTHH:mm:ss" or "yyyy-MM-dd")
+    // in exchange-local time to epoch seconds, encoded as UTC so it formats back to the same wall clock
+    public static long parseTime(String datetime) {
+        try {
+            // Fixed-width fields are read directly, this runs once per candle of every time series response
+            boolean dateOnly = datetime.length() == 10;
+            if (!dateOnly && (datetime.length() != 19 || datetime.charAt(13) != ':' || datetime.charAt(16) != ':'
+                    || (datetime.charAt(10) != ' ' && datetime.charAt(10) != 'T'))) {
+                throw new DateTimeException(datetime);
+            }
+            if (datetime.charAt(4) != '-' || datetime.charAt(7) != '-') {
+                throw new DateTimeException(datetime);
+            }
+            LocalDateTime localDateTime = LocalDateTime.of(
+                    digits(datetime, 0, 4), digits(datetime, 5, 2), digits(datetime, 8, 2),
+                    dateOnly ? 0 : digits(datetime, 11, 2), dateOnly ? 0 : digits(datetime, 14, 2),
+                    dateOnly ? 0 : digits(datetime, 17, 2)); // Rejects out-of-range fields such as month 13
+            return localDateTime.toEpochSecond(ZoneOffset.UTC);
+        } catch (DateTimeException e) {
+            throw new IllegalArgumentException("Invalid datetime '" + datetime + "', expected yyyy-MM-dd or yyyy-MM-dd HH:mm:ss");
+        }
+    }
+
+    // Format stored epoch seconds back into the Twelve Data datetime format of the interval
+    public static String formatTime(long epochSeconds, String interval) {
+        LocalDateTime localDateTime = LocalDateTime.ofEpochSecond(epochSeconds, 0, ZoneOffset.UTC);
+        return intervalDuration(interval).toDays() >= 1
+                ? localDateTime.toLocalDate().toString()
+                : localDateTime.format(DATE_TIME_FORMAT);
+    }
+
+    // Parse a fixed-width run of decimal digits
+    private static int digits(String text, int offset, int length) {
+        int value = 0;
+        for (int i = offset; i < offset + length; i++) {
+            char c = text.charAt(i);
+            if (c < '0' || c > '9') {
+                throw new DateTimeException(text);
+            }
+            value = value * 10 + (c - '0');
+        }
+        return value;
+    }
+
+    // Get the series for a ticker and interval if it is loaded or stored, null if there is nothing to read
+    private Series find(String ticker, String interval) {
+        String key = key(ticker, interval);
+        Series loaded = series.get(key);
+        if (loaded != null || !Files.exists(path(key))) {
+            return loaded;
+        }
+        return load(ticker, interval);
+    }
+
+    // Get or load the series for a ticker and interval, keeping an entry even if nothing is stored yet
+    private Series load(String ticker, String interval) {
+        return series.computeIfAbsent(key(ticker, interval), k -> {
+            Series loaded = new Series(path(k));
+            if (Files.exists(loaded.path)) {
+                try (FileChannel channel = FileChannel.open(loaded.path, StandardOpenOption.READ)) {
+                    int records = (int) (channel.size() / RECORD_BYTES); // A torn trailing record is ignored
+                    MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, (long) records * RECORD_BYTES);
+                    buffer.order(ByteOrder.LITTLE_ENDIAN);
+                    for (int i = 0; i < records; i++) {
+                        loaded.put(buffer.getLong(i * RECORD_BYTES), buffer.getDouble(i * RECORD_BYTES + Long.BYTES));
+                    }
+                } catch (IOException e) {
+                    throw new UncheckedIOException("Failed to read candles from " + loaded.path, e);
+                }
+                log.debug("Loaded {} candles from {}", loaded.size, loaded.path);
+            }
+            return loaded;
+        });
+    }
+
+    private static String key(String ticker, String interval) {
+        return ticker.trim().toUpperCase() + "_" + interval;
+    }
+
+    private Path path(String key) {
+        return directory.resolve(key.replaceAll("[^A-Za-z0-9._-]", "_") + ".bin");
+    }
+
+    // In-memory columns of one candle file
+    private static final class Series {
+        final Path path; // File backing this series
+        final Object fetchLock = new Object(); // Serializes upstream fetches of this series
+        long[] times = new long[64]; // Candle times in ascending order
+        double[] closes = new double[64]; // Close prices parallel to times
+        int size; // Number of valid candles
+        volatile long lastFetchedAt; // Wall-clock millis of the last upstream fetch
+        volatile long version; // Number of appends and prepends that changed this series since it was loaded
+        long historyStart = Long.MAX_VALUE; // Known upstream coverage before the earliest candle, not kept across restarts
+
+        Series(Path path) {
+            this.path = path;
+        }
+
+        // Add a candle after the latest one or replace the latest close; older candles are ignored
+        boolean put(long time, double close) {
+            if (size > 0 && time < times[size - 1]) {
+                return false;
+            }
+            if (size > 0 && time == times[size - 1]) {
+                if (closes[size - 1] == close) {
+                    return false;
+                }
+                // Copy so that snapshots already handed out keep their values
+                closes = Arrays.copyOf(closes, closes.length);
+                closes[size - 1] = close;
+                return true;
+            }
+            if (size == times.length) {
+                times = Arrays.copyOf(times, size * 2);
+                closes = Arrays.copyOf(closes, size * 2);
+            }
+            times[size] = time;
+            closes[size] = close;
+            size++;
+            return true;
+        }
+
+        CandleSeries snapshot() {
+            return new CandleSeries(times, closes, size);
+        }
+    }
+}
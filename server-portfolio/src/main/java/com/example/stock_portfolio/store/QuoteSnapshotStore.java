@@ -0,0 +1,116 @@
+package com.example.stock_portfolio.store; // Package declaration for the QuoteSnapshotStore class
+
+import com.example.stock_portfolio.dto.Quote; // Importing Quote record
+import com.example.stock_portfolio.dto.TimestampedQuote; // Importing TimestampedQuote record for stored quotes
+
+import org.springframework.beans.factory.annotation.Value; // Importing annotation to inject values from properties
+import org.springframework.stereotype.Component; // Marking this class as a Spring component
+
+import java.io.BufferedInputStream; // Importing BufferedInputStream to read the snapshot
+import java.io.BufferedOutputStream; // Importing BufferedOutputStream to write the snapshot
+import java.io.DataInputStream; // Importing DataInputStream to decode snapshot records
+import java.io.DataOutputStream; // Importing DataOutputStream to encode snapshot records
+import java.io.IOException; // Importing IOException for file access errors
+import java.io.UncheckedIOException; // Importing UncheckedIOException to surface file errors
+import java.nio.file.AtomicMoveNotSupportedException; // Importing exception for file systems without atomic moves
+import java.nio.file.Files; // Importing Files to read, write and move the snapshot
+import java.nio.file.Path; // Importing Path for the snapshot location
+import java.nio.file.StandardCopyOption; // Importing options to replace the snapshot atomically
+import java.time.Instant; // Importing Instant for fetch times
+import java.util.ArrayList; // Importing ArrayList to collect read quotes
+import java.util.Collection; // Importing Collection for the quotes to write
+import java.util.List; // Importing List for read quotes
+
+// Local snapshot of the last known quotes, so ticker names and prices survive a restart.
+// The file is a small binary record stream (magic, version, count, then one record per quote with its
+// fetch time) that is written to a temporary file and moved over the previous snapshot, so a crash
+// while writing never leaves a half-written snapshot behind.
+@Component // Marking this class as a Spring component
+public class QuoteSnapshotStore {
+
+    private static final int MAGIC = 0x51534E50; // "QSNP"
+    private static final int VERSION = 1; // Bumped whenever the record layout changes
+
+    private final Path file; // Location of the snapshot file
+
+    public QuoteSnapshotStore(@Value("${portfolio.quote-snapshot.file:data/quote-snapshot.bin}") Path file) {
+        this.file = file;
+    }
+
+    // Replace the snapshot with the given quotes
+    public void write(Collection<TimestampedQuote> quotes) {
+        try {
+            Path directory = file.toAbsolutePath().getParent();
+            Files.createDirectories(directory);
+            Path temporary = Files.createTempFile(directory, file.getFileName().toString(), ".tmp");
+            try {
+                try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temporary)))) {
+                    out.writeInt(MAGIC);
+                    out.writeInt(VERSION);
+                    out.writeInt(quotes.size());
+                    for (TimestampedQuote entry : quotes) {
+                        Quote quote = entry.quote();
+                        out.writeUTF(quote.symbol());
+                        writeNullable(out, quote.name());
+                        out.writeDouble(quote.close());
+                        writeNullable(out, quote.currency());
+                        writeNullable(out, quote.exchange());
+                        writeNullable(out, quote.country());
+                        out.writeLong(entry.fetchedAt().toEpochMilli());
+                    }
+                }
+                move(temporary);
+            } finally {
+                Files.deleteIfExists(temporary);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to write quote snapshot " + file, e);
+        }
+    }
+
+    // Read the quotes of the snapshot; an empty list if there is no snapshot yet
+    public List<TimestampedQuote> read() {
+        if (!Files.exists(file)) {
+            return List.of();
+        }
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+            if (in.readInt() != MAGIC || in.readInt() != VERSION) {
+                throw new IOException("Unknown snapshot format");
+            }
+            int count = in.readInt();
+            List<TimestampedQuote> quotes = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                String symbol = in.readUTF();
+                String name = readNullable(in);
+                double close = in.readDouble();
+                String currency = readNullable(in);
+                String exchange = readNullable(in);
+                String country = readNullable(in);
+                Instant fetchedAt = Instant.ofEpochMilli(in.readLong());
+                quotes.add(new TimestampedQuote(new Quote(symbol, name, close, currency, exchange, country), fetchedAt));
+            }
+            return quotes;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to read quote snapshot " + file, e);
+        }
+    }
+
+    private void move(Path temporary) throws IOException {
+        try {
+            Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    private static void writeNullable(DataOutputStream out, String value) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) {
+            out.writeUTF(value);
+        }
+    }
+
+    private static String readNullable(DataInputStream in) throws IOException {
+        return in.readBoolean() ? in.readUTF() : null;
+    }
+}
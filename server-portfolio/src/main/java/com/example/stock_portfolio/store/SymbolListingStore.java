@@ -0,0 +1,120 @@
+package com.example.stock_portfolio.store; // Package declaration for the SymbolListingStore class
+
+import com.example.stock_portfolio.dto.SymbolInfo; // Importing SymbolInfo record for listings
+
+import org.springframework.beans.factory.annotation.Value; // Importing annotation to inject values from properties
+import org.springframework.stereotype.Component; // Marking this class as a Spring component
+
+import java.io.BufferedReader; // Importing BufferedReader to read the listing line by line
+import java.io.BufferedWriter; // Importing BufferedWriter to write the listing
+import java.io.IOException; // Importing IOException for file access errors
+import java.io.UncheckedIOException; // Importing UncheckedIOException to surface file errors
+import java.nio.charset.StandardCharsets; // Importing StandardCharsets for the file encoding
+import java.nio.file.AtomicMoveNotSupportedException; // Importing exception for file systems without atomic moves
+import java.nio.file.Files; // Importing Files to read, write and move the listing
+import java.nio.file.Path; // Importing Path for the listing location
+import java.nio.file.StandardCopyOption; // Importing options to replace the listing atomically
+import java.time.Instant; // Importing Instant for the listing age
+import java.util.ArrayList; // Importing ArrayList to collect listings
+import java.util.Collection; // Importing Collection for the listings to write
+import java.util.List; // Importing List for read listings
+import java.util.Locale; // Importing Locale for case-insensitive header names
+
+// Local copy of the symbol directory in the semicolon-separated layout of the Twelve Data /stocks endpoint
+// with format=CSV (symbol;name;currency;exchange;...), so a bulk download can be dropped in as is.
+// Columns are located by their header names; only symbol is required.
+@Component // Marking this class as a Spring component
+public class SymbolListingStore {
+
+    private static final String SEPARATOR = ";";
+
+    private final Path file; // Location of the listing file
+
+    public SymbolListingStore(@Value("${portfolio.symbols.file:data/symbols.csv}") Path file) {
+        this.file = file;
+    }
+
+    // When the listing was last written, or null if there is none
+    public Instant lastModified() {
+        try {
+            return Files.exists(file) ? Files.getLastModifiedTime(file).toInstant() : null;
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    // Read the listings; an empty list if there is no listing file yet
+    public List<SymbolInfo> read() {
+        if (!Files.exists(file)) {
+            return List.of();
+        }
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            String header = reader.readLine();
+            if (header == null) {
+                return List.of();
+            }
+            List<String> columns = List.of(header.replace("\uFEFF", "").toLowerCase(Locale.ROOT).split(SEPARATOR, -1));
+            int symbolColumn = columns.indexOf("symbol");
+            int nameColumn = columns.indexOf("name");
+            int exchangeColumn = columns.indexOf("exchange");
+            int currencyColumn = columns.indexOf("currency");
+            if (symbolColumn < 0) {
+                throw new IOException("Listing header has no symbol column");
+            }
+
+            List<SymbolInfo> listings = new ArrayList<>();
+            for (String line = reader.readLine(); line != null; line = reader.readLine()) {
+                String[] values = line.split(SEPARATOR, -1);
+                String symbol = column(values, symbolColumn);
+                if (symbol != null) {
+                    listings.add(new SymbolInfo(symbol, column(values, nameColumn),
+                            column(values, exchangeColumn), column(values, currencyColumn)));
+                }
+            }
+            return listings;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to read symbol listing " + file, e);
+        }
+    }
+
+    // Replace the listing file with the given listings
+    public void write(Collection<SymbolInfo> listings) {
+        try {
+            Path directory = file.toAbsolutePath().getParent();
+            Files.createDirectories(directory);
+            Path temporary = Files.createTempFile(directory, file.getFileName().toString(), ".tmp");
+            try {
+                try (BufferedWriter writer = Files.newBufferedWriter(temporary, StandardCharsets.UTF_8)) {
+                    writer.write("symbol;name;currency;exchange");
+                    writer.newLine();
+                    for (SymbolInfo listing : listings) {
+                        writer.write(value(listing.symbol()) + SEPARATOR + value(listing.name()) + SEPARATOR
+                                + value(listing.currency()) + SEPARATOR + value(listing.exchange()));
+                        writer.newLine();
+                    }
+                }
+                try {
+                    Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+                } catch (AtomicMoveNotSupportedException e) {
+                    Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING);
+                }
+            } finally {
+                Files.deleteIfExists(temporary);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to write symbol listing " + file, e);
+        }
+    }
+
+    private static String column(String[] values, int index) {
+        if (index < 0 || index >= values.length || values[index].isBlank()) {
+            return null;
+        }
+        return values[index].trim();
+    }
+
+    // The layout has no quoting, so separators and line breaks inside names are replaced
+    private static String value(String value) {
+        return value == null ? "" : value.replace(SEPARATOR, ",").replace('\n', ' ').replace('\r', ' ');
+    }
+}
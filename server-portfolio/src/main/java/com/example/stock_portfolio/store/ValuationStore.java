@@ -0,0 +1,269 @@
+package com.example.stock_portfolio.store; // Package declaration for the ValuationStore class
+
+import lombok.extern.slf4j.Slf4j; // Lombok annotation to generate a logger
+
+import org.springframework.beans.factory.annotation.Value; // Importing annotation to inject values from properties
+import org.springframework.stereotype.Component; // Marking this class as a Spring component
+
+import java.io.IOException; // Importing IOException for file access errors
+import java.io.UncheckedIOException; // Importing UncheckedIOException to surface file errors
+import java.nio.ByteBuffer; // Importing ByteBuffer to encode records
+import java.nio.ByteOrder; // Importing ByteOrder for the little-endian file layout
+import java.nio.MappedByteBuffer; // Importing MappedByteBuffer to read series files
+import java.nio.channels.FileChannel; // Importing FileChannel to map, append and rewrite series files
+import java.nio.file.AtomicMoveNotSupportedException; // Importing exception for file systems without atomic moves
+import java.nio.file.DirectoryStream; // Importing DirectoryStream to find stored series
+import java.nio.file.Files; // Importing Files to create directories and move compacted files
+import java.nio.file.Path; // Importing Path for series file locations
+import java.nio.file.StandardCopyOption; // Importing options to replace compacted files atomically
+import java.nio.file.StandardOpenOption; // Importing options for opening series files
+import java.time.Duration; // Importing Duration for the retention of each tier
+import java.time.Instant; // Importing Instant for compaction cut-offs
+import java.util.Arrays; // Importing Arrays to grow and trim the column arrays
+import java.util.Map; // Importing Map for series keyed by tier and key
+import java.util.concurrent.ConcurrentHashMap; // Importing ConcurrentHashMap for loaded series
+
+// Local append-only store of valuation history, one file per retention tier and series key (a portfolio total
+// or a ticker price), in the 16-byte little-endian record layout of the candle store with UTC epoch seconds.
+// Every point goes to the raw tier; the hourly and daily tiers keep the last value of each bucket. A bucket is
+// written once a point of the next bucket arrives and until then is only held in memory; after a restart the
+// open buckets are rebuilt by replaying the raw tier. Compaction drops points older than a tier's retention.
+@Slf4j // Lombok annotation to generate a logger for this class
+@Component // Marking this class as a Spring component
+public class ValuationStore {
+
+    // Resolution tiers from finest to coarsest
+    public enum Tier {
+        RAW(0), // Every recorded point
+        HOURLY(3600), // Last point of every UTC hour
+        DAILY(86_400); // Last point of every UTC day
+
+        private final long stepSeconds; // Bucket length, 0 for the raw tier
+
+        Tier(long stepSeconds) {
+            this.stepSeconds = stepSeconds;
+        }
+
+        public Duration step() {
+            return Duration.ofSeconds(stepSeconds);
+        }
+
+        long bucket(long epochSeconds) {
+            return stepSeconds == 0 ? epochSeconds : Math.floorDiv(epochSeconds, stepSeconds) * stepSeconds;
+        }
+    }
+
+    private static final int RECORD_BYTES = Long.BYTES + Double.BYTES; // Size of one stored point
+
+    private final Path directory; // Directory holding one sub-directory per tier
+    private final Duration rawRetention; // How long raw points are kept
+    private final Duration hourlyRetention; // How long hourly points are kept; daily points are kept forever
+    private final Map<String, Series> series = new ConcurrentHashMap<>(); // Loaded series by tier and key
+
+    public ValuationStore(@Value("${portfolio.history.dir:data/valuation}") Path directory,
+                          @Value("${portfolio.history.raw-retention:P1D}") Duration rawRetention,
+                          @Value("${portfolio.history.hourly-retention:P30D}") Duration hourlyRetention) {
+        this.directory = directory;
+        this.rawRetention = rawRetention;
+        this.hourlyRetention = hourlyRetention;
+    }
+
+    // How long points of a tier are kept, or null if they are kept forever
+    public Duration retention(Tier tier) {
+        return switch (tier) {
+            case RAW -> rawRetention;
+            case HOURLY -> hourlyRetention;
+            case DAILY -> null;
+        };
+    }
+
+    // Record a point of a series in every tier; points not after the latest raw point are ignored
+    public void append(String key, long epochSeconds, double value) {
+        Series raw = load(Tier.RAW, key);
+        synchronized (raw) {
+            if (raw.size > 0 && epochSeconds <= raw.times[raw.size - 1]) {
+                return;
+            }
+            raw.put(epochSeconds, value);
+            raw.write(raw.size - 1, raw.size);
+        }
+        for (Tier tier : new Tier[]{Tier.HOURLY, Tier.DAILY}) {
+            Series bucketed = load(tier, key);
+            synchronized (bucketed) {
+                bucketed.putBucketed(tier, epochSeconds, value);
+            }
+        }
+    }
+
+    // Read the points of a series in a tier, including the still-open bucket of the hourly and daily tiers
+    public CandleSeries read(String key, Tier tier) {
+        Series loaded = load(tier, key);
+        synchronized (loaded) {
+            return loaded.snapshot();
+        }
+    }
+
+    // Drop raw and hourly points older than their retention from memory and disk, including series not read since startup
+    public void compact(Instant now) {
+        for (Tier tier : new Tier[]{Tier.RAW, Tier.HOURLY}) {
+            long cutoff = now.minus(retention(tier)).getEpochSecond();
+            Path tierDirectory = directory.resolve(tier.name().toLowerCase());
+            if (!Files.isDirectory(tierDirectory)) {
+                continue;
+            }
+            try (DirectoryStream<Path> files = Files.newDirectoryStream(tierDirectory, "*.bin")) {
+                for (Path file : files) {
+                    String fileName = file.getFileName().toString();
+                    Series loaded = load(tier, fileName.substring(0, fileName.length() - ".bin".length()));
+                    synchronized (loaded) {
+                        loaded.dropBefore(cutoff);
+                    }
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException("Failed to compact valuation history in " + tierDirectory, e);
+            }
+        }
+    }
+
+    // Get or load the series of a key in a tier; the hourly and daily tiers replay raw points newer than their last bucket
+    private Series load(Tier tier, String key) {
+        String fileKey = key.replaceAll("[^A-Za-z0-9._-]", "_");
+        Series loaded = series.computeIfAbsent(tier.name() + "/" + fileKey,
+                k -> read(directory.resolve(tier.name().toLowerCase()).resolve(fileKey + ".bin")));
+        if (tier != Tier.RAW && !loaded.replayed) {
+            CandleSeries raw = read(key, Tier.RAW);
+            synchronized (loaded) {
+                if (!loaded.replayed) {
+                    long next = loaded.size == 0 ? Long.MIN_VALUE : loaded.times[loaded.size - 1] + tier.stepSeconds;
+                    for (int i = raw.indexAtOrAfter(next); i < raw.size(); i++) {
+                        loaded.putBucketed(tier, raw.times()[i], raw.closes()[i]);
+                    }
+                    loaded.replayed = true;
+                }
+            }
+        }
+        return loaded;
+    }
+
+    private static Series read(Path path) {
+        Series loaded = new Series(path);
+        if (Files.exists(path)) {
+            try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+                int records = (int) (channel.size() / RECORD_BYTES); // A torn trailing record is ignored
+                MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, (long) records * RECORD_BYTES);
+                buffer.order(ByteOrder.LITTLE_ENDIAN);
+                for (int i = 0; i < records; i++) {
+                    long time = buffer.getLong(i * RECORD_BYTES);
+                    if (loaded.size == 0 || time > loaded.times[loaded.size - 1]) {
+                        loaded.put(time, buffer.getDouble(i * RECORD_BYTES + Long.BYTES));
+                    }
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException("Failed to read valuation history from " + path, e);
+            }
+            log.debug("Loaded {} valuation points from {}", loaded.size, path);
+        }
+        return loaded;
+    }
+
+    // In-memory columns of one series file
+    private static final class Series {
+        final Path path; // File backing this series
+        long[] times = new long[64]; // Point times in ascending order
+        double[] values = new double[64]; // Values parallel to times
+        int size; // Number of valid points
+        boolean open; // Whether the latest point is a bucket that is not written yet
+        volatile boolean replayed; // Whether the raw points after the last stored bucket were replayed
+
+        Series(Path path) {
+            this.path = path;
+        }
+
+        // Add a point after the latest one
+        void put(long time, double value) {
+            if (size == times.length) {
+                times = Arrays.copyOf(times, size * 2);
+                values = Arrays.copyOf(values, size * 2);
+            }
+            times[size] = time;
+            values[size] = value;
+            size++;
+        }
+
+        // Update the open bucket of the point, writing the previous bucket once a later one starts
+        void putBucketed(Tier tier, long epochSeconds, double value) {
+            long bucket = tier.bucket(epochSeconds);
+            if (size > 0 && bucket < times[size - 1]) {
+                return;
+            }
+            if (size > 0 && bucket == times[size - 1]) {
+                // Copy so that snapshots already handed out keep their values
+                values = Arrays.copyOf(values, values.length);
+                values[size - 1] = value;
+                return;
+            }
+            if (open) {
+                write(size - 1, size);
+            }
+            put(bucket, value);
+            open = true;
+        }
+
+        // Forget the points before the cut-off and rewrite the file without them
+        void dropBefore(long cutoff) {
+            int first = 0;
+            while (first < size && times[first] < cutoff) {
+                first++;
+            }
+            if (first == 0) {
+                return;
+            }
+            times = Arrays.copyOfRange(times, first, Math.max(times.length, first + 64));
+            values = Arrays.copyOfRange(values, first, Math.max(values.length, first + 64));
+            size -= first;
+            int stored = open ? size - 1 : size;
+            try {
+                Path temporary = Files.createTempFile(path.getParent(), path.getFileName().toString(), ".tmp");
+                try {
+                    writeTo(temporary, 0, Math.max(stored, 0), StandardOpenOption.TRUNCATE_EXISTING);
+                    try {
+                        Files.move(temporary, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+                    } catch (AtomicMoveNotSupportedException e) {
+                        Files.move(temporary, path, StandardCopyOption.REPLACE_EXISTING);
+                    }
+                } finally {
+                    Files.deleteIfExists(temporary);
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException("Failed to compact " + path, e);
+            }
+        }
+
+        // Append the points [from, to) to the file
+        void write(int from, int to) {
+            try {
+                Files.createDirectories(path.getParent());
+                writeTo(path, from, to, StandardOpenOption.APPEND);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Failed to append valuation history to " + path, e);
+            }
+        }
+
+        private void writeTo(Path file, int from, int to, StandardOpenOption mode) throws IOException {
+            ByteBuffer buffer = ByteBuffer.allocate((to - from) * RECORD_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+            for (int i = from; i < to; i++) {
+                buffer.putLong(times[i]).putDouble(values[i]);
+            }
+            buffer.flip();
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE, mode)) {
+                while (buffer.hasRemaining()) {
+                    channel.write(buffer);
+                }
+            }
+        }
+
+        CandleSeries snapshot() {
+            return new CandleSeries(times, values, size);
+        }
+    }
+}
@@ -0,0 +1,244 @@
+package com.example.stock_portfolio.util; // Package declaration for the AlertBook class
+
+import com.example.stock_portfolio.entity.AlertState; // Importing AlertState enum
+import com.example.stock_portfolio.entity.AlertType; // Importing AlertType enum
+
+import java.time.Instant; // Importing Instant for fire times
+import java.util.ArrayList; // Importing ArrayList to collect transitions
+import java.util.Collection; // Importing Collection for the rules of the book
+import java.util.Comparator; // Importing Comparator to order rules by their keys
+import java.util.HashMap; // Importing HashMap for rules by alert ID
+import java.util.List; // Importing List for transitions
+import java.util.Map; // Importing Map for rules by alert ID
+import java.util.NavigableSet; // Importing NavigableSet for the sorted threshold indexes
+import java.util.TreeSet; // Importing TreeSet for the sorted threshold indexes
+
+// Alert rules of one ticker in sorted threshold indexes. Armed rules that fire on a rise and on a fall sit in
+// separate sets ordered by trigger price, fired rules in two more sets ordered by their re-arm price, so a
+// price update only touches the ends of the sets up to the first rule that stays put: O(log n + k) for k
+// rules that change state. Trailing stops are additionally ordered by high-water mark; a new high ratchets
+// up exactly the stops whose mark it exceeds. Not thread-safe; callers synchronize on the book.
+public class AlertBook {
+
+    // One alert and its position in the indexes
+    public static final class Rule {
+        private final long id; // ID of the persisted alert
+        private final long stockId; // Position the alert watches
+        private final AlertType type; // Condition the alert watches for
+        private final double threshold; // Price for ABOVE and BELOW, percentage for PERCENT_MOVE and TRAILING_STOP
+        private double reference; // Buy price for PERCENT_MOVE, high-water mark for TRAILING_STOP
+        private AlertState state; // Whether the rule is waiting or has fired
+        private Instant firedAt; // When the rule last fired
+        private Double firedPrice; // Price that made the rule fire
+        private final Instant createdAt; // When the alert was registered
+        private double key; // Trigger price while armed, re-arm price while fired
+
+        public Rule(long id, long stockId, AlertType type, double threshold, double reference,
+                    AlertState state, Instant firedAt, Double firedPrice, Instant createdAt) {
+            this.id = id;
+            this.stockId = stockId;
+            this.type = type;
+            this.threshold = threshold;
+            this.reference = reference;
+            this.state = state;
+            this.firedAt = firedAt;
+            this.firedPrice = firedPrice;
+            this.createdAt = createdAt;
+        }
+
+        public long id() { return id; }
+        public long stockId() { return stockId; }
+        public AlertType type() { return type; }
+        public double threshold() { return threshold; }
+        public AlertState state() { return state; }
+        public Instant firedAt() { return firedAt; }
+        public Double firedPrice() { return firedPrice; }
+        public Instant createdAt() { return createdAt; }
+
+        // High-water mark of a trailing stop, null for other types
+        public Double highWaterMark() {
+            return type == AlertType.TRAILING_STOP ? reference : null;
+        }
+
+        // Price at which the rule fires
+        public double triggerPrice() {
+            return switch (type) {
+                case ABOVE, BELOW -> threshold;
+                case PERCENT_MOVE -> reference * (1 + threshold / 100);
+                case TRAILING_STOP -> reference * (1 - threshold / 100);
+            };
+        }
+
+        // Whether the rule fires when the price rises to its trigger price, rather than falls to it
+        boolean rising() {
+            return type == AlertType.ABOVE || (type == AlertType.PERCENT_MOVE && threshold > 0);
+        }
+    }
+
+    // Transitions caused by a price update
+    public record Transitions(
+            List<Rule> fired, // Rules that fired
+            List<Rule> changed // Every rule whose persisted state changed, including the fired ones
+    ) {
+    }
+
+    private static final Comparator<Rule> BY_KEY = Comparator.comparingDouble((Rule rule) -> rule.key).thenComparingLong(rule -> rule.id);
+    private static final Comparator<Rule> BY_REFERENCE = Comparator.comparingDouble((Rule rule) -> rule.reference).thenComparingLong(rule -> rule.id);
+
+    private final double rearmBand; // Fraction the price has to move back past the trigger price to re-arm
+    private final Map<Long, Rule> rules = new HashMap<>(); // Every rule of the ticker by alert ID
+    private final NavigableSet<Rule> armedRising = new TreeSet<>(BY_KEY); // Fire when the price rises to the key
+    private final NavigableSet<Rule> armedFalling = new TreeSet<>(BY_KEY); // Fire when the price falls to the key
+    private final NavigableSet<Rule> firedRising = new TreeSet<>(BY_KEY); // Fired on a rise, re-arm when the price falls to the key
+    private final NavigableSet<Rule> firedFalling = new TreeSet<>(BY_KEY); // Fired on a fall, re-arm when the price rises to the key
+    private final NavigableSet<Rule> trailing = new TreeSet<>(BY_REFERENCE); // Armed trailing stops by high-water mark
+    private double lastPrice = Double.NaN; // Latest price seen by the book
+
+    // Constructor to create an empty book with the given re-arm band (e.g. 0.01 for 1%)
+    public AlertBook(double rearmBand) {
+        this.rearmBand = rearmBand;
+    }
+
+    // Add a rule in its current state
+    public void add(Rule rule) {
+        remove(rule.id);
+        rules.put(rule.id, rule);
+        index(rule);
+    }
+
+    // Remove a rule, returning it or null if the book does not hold it
+    public Rule remove(long id) {
+        Rule rule = rules.remove(id);
+        if (rule != null) {
+            unindex(rule);
+        }
+        return rule;
+    }
+
+    // Remove every rule of a position, returning the removed rules
+    public List<Rule> removeStock(long stockId) {
+        List<Rule> removed = new ArrayList<>();
+        for (Rule rule : List.copyOf(rules.values())) {
+            if (rule.stockId == stockId) {
+                removed.add(remove(rule.id));
+            }
+        }
+        return removed;
+    }
+
+    // Move the percent-move rules of a position to a new buy price
+    public void rebase(long stockId, double buyPrice) {
+        for (Rule rule : rules.values()) {
+            if (rule.stockId == stockId && rule.type == AlertType.PERCENT_MOVE && rule.reference != buyPrice) {
+                unindex(rule);
+                rule.reference = buyPrice;
+                index(rule);
+            }
+        }
+    }
+
+    // Re-arm a fired rule by hand; a trailing stop restarts from the latest price
+    public Rule rearm(long id) {
+        Rule rule = rules.get(id);
+        if (rule != null && rule.state == AlertState.FIRED) {
+            unindex(rule);
+            arm(rule);
+            index(rule);
+        }
+        return rule;
+    }
+
+    public Rule get(long id) {
+        return rules.get(id);
+    }
+
+    public Collection<Rule> rules() {
+        return rules.values();
+    }
+
+    public boolean isEmpty() {
+        return rules.isEmpty();
+    }
+
+    // Apply a price update and return the rules it fired, re-armed or ratcheted
+    public Transitions onPrice(double price, Instant now) {
+        lastPrice = price;
+        List<Rule> fired = new ArrayList<>();
+        List<Rule> changed = new ArrayList<>();
+
+        // A new high lifts the trailing stops whose high-water mark it exceeds
+        while (!trailing.isEmpty() && trailing.first().reference < price) {
+            Rule rule = trailing.pollFirst();
+            armedFalling.remove(rule);
+            rule.reference = price;
+            rule.key = rule.triggerPrice();
+            armedFalling.add(rule);
+            trailing.add(rule);
+            changed.add(rule);
+        }
+        while (!armedRising.isEmpty() && armedRising.first().key <= price) {
+            fire(armedRising.pollFirst(), price, now, fired, changed);
+        }
+        while (!armedFalling.isEmpty() && armedFalling.last().key >= price) {
+            fire(armedFalling.pollLast(), price, now, fired, changed);
+        }
+        while (!firedRising.isEmpty() && firedRising.last().key >= price) {
+            Rule rule = firedRising.pollLast();
+            arm(rule);
+            index(rule);
+            changed.add(rule);
+        }
+        while (!firedFalling.isEmpty() && firedFalling.first().key <= price) {
+            Rule rule = firedFalling.pollFirst();
+            arm(rule);
+            index(rule);
+            changed.add(rule);
+        }
+        return new Transitions(fired, changed);
+    }
+
+    private void fire(Rule rule, double price, Instant now, List<Rule> fired, List<Rule> changed) {
+        trailing.remove(rule);
+        rule.state = AlertState.FIRED;
+        rule.firedAt = now;
+        rule.firedPrice = price;
+        index(rule);
+        fired.add(rule);
+        changed.add(rule); // A stop ratcheted by this price sits below it, so it is never listed twice
+    }
+
+    // Arm a rule; a trailing stop starts over from the latest price
+    private void arm(Rule rule) {
+        rule.state = AlertState.ARMED;
+        if (rule.type == AlertType.TRAILING_STOP && !Double.isNaN(lastPrice)) {
+            rule.reference = lastPrice;
+        }
+    }
+
+    // Put a rule into the indexes of its state
+    private void index(Rule rule) {
+        double trigger = rule.triggerPrice();
+        if (rule.state == AlertState.ARMED) {
+            rule.key = trigger;
+            (rule.rising() ? armedRising : armedFalling).add(rule);
+            if (rule.type == AlertType.TRAILING_STOP) {
+                trailing.add(rule);
+            }
+        } else if (rule.rising()) {
+            rule.key = trigger * (1 - rearmBand);
+            firedRising.add(rule);
+        } else {
+            rule.key = trigger * (1 + rearmBand);
+            firedFalling.add(rule);
+        }
+    }
+
+    // Take a rule out of every index; must happen before its key or reference changes
+    private void unindex(Rule rule) {
+        armedRising.remove(rule);
+        armedFalling.remove(rule);
+        firedRising.remove(rule);
+        firedFalling.remove(rule);
+        trailing.remove(rule);
+    }
+}
@@ -0,0 +1,70 @@
+package com.example.stock_portfolio.util; // Package declaration for the CircuitBreaker class
+
+import java.time.Duration; // Importing Duration for the open period
+
+// Consecutive-failure circuit breaker. After failureThreshold failures in a row the circuit opens and
+// calls are refused for openDuration; then a single trial call is let through (half-open), which
+// either closes the circuit again or reopens it for another openDuration.
+public class CircuitBreaker {
+
+    public enum State { CLOSED, OPEN, HALF_OPEN }
+
+    private final int failureThreshold; // Consecutive failures that open the circuit
+    private final long openNanos; // How long an open circuit refuses calls
+    private State state = State.CLOSED; // Current state of the circuit
+    private int consecutiveFailures; // Failures since the last success
+    private long openedAtNanos; // When the circuit was last opened
+    private boolean trialInFlight; // Whether the half-open trial call has been handed out
+
+    // Constructor to create a breaker that opens after failureThreshold failures in a row
+    public CircuitBreaker(int failureThreshold, Duration openDuration) {
+        if (failureThreshold <= 0) {
+            throw new IllegalArgumentException("Circuit breaker failure threshold must be positive.");
+        }
+        this.failureThreshold = failureThreshold;
+        this.openNanos = openDuration.toNanos();
+    }
+
+    // Whether a call may go out now; a true result must be followed by onSuccess or onFailure
+    public synchronized boolean tryAcquirePermission() {
+        if (state == State.OPEN && System.nanoTime() - openedAtNanos >= openNanos) {
+            state = State.HALF_OPEN;
+            trialInFlight = false;
+        }
+        return switch (state) {
+            case CLOSED -> true;
+            case OPEN -> false;
+            case HALF_OPEN -> {
+                if (trialInFlight) {
+                    yield false; // Only one trial call at a time
+                }
+                trialInFlight = true;
+                yield true;
+            }
+        };
+    }
+
+    // Record a call that reached a healthy upstream
+    public synchronized void onSuccess() {
+        consecutiveFailures = 0;
+        state = State.CLOSED;
+    }
+
+    // Record a call that failed because the upstream is unreachable or erroring
+    public synchronized void onFailure() {
+        consecutiveFailures++;
+        if (state == State.HALF_OPEN || consecutiveFailures >= failureThreshold) {
+            state = State.OPEN;
+            openedAtNanos = System.nanoTime();
+        }
+    }
+
+    // Hand back a permission whose call never went out, so a half-open circuit can try again
+    public synchronized void releasePermission() {
+        trialInFlight = false;
+    }
+
+    public synchronized State getState() {
+        return state;
+    }
+}
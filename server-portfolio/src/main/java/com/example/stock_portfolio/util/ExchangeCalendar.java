@@ -0,0 +1,203 @@
+package com.example.stock_portfolio.util; // Package declaration for the ExchangeCalendar class
+
+import java.time.DayOfWeek; // Importing DayOfWeek for weekends and holiday rules
+import java.time.Instant; // Importing Instant for the points in time being checked
+import java.time.LocalDate; // Importing LocalDate for trading days and holidays
+import java.time.LocalTime; // Importing LocalTime for session open and close times
+import java.time.Month; // Importing Month for holiday rules
+import java.time.ZoneId; // Importing ZoneId for the exchange time zones
+import java.time.ZonedDateTime; // Importing ZonedDateTime to move between instants and local exchange time
+import java.time.format.DateTimeParseException; // Importing DateTimeParseException for invalid holiday dates
+import java.time.temporal.TemporalAdjusters; // Importing TemporalAdjusters for "nth weekday of month" rules
+import java.util.HashMap; // Importing HashMap to collect configured holidays
+import java.util.HashSet; // Importing HashSet to collect configured holidays
+import java.util.Locale; // Importing Locale for case-insensitive exchange codes
+import java.util.Map; // Importing Map for sessions and holidays keyed by exchange
+import java.util.Set; // Importing Set for the holidays of one exchange
+
+// Regular trading sessions of the exchanges Twelve Data reports in the quote "exchange" field. A day is a
+// trading day unless it is a weekend, a built-in US market holiday (US exchanges only) or a configured
+// holiday. Lunch breaks and early closes are ignored, so the calendar errs on the side of "open".
+public class ExchangeCalendar {
+
+    // Local session hours of an exchange
+    private record Session(ZoneId zone, LocalTime open, LocalTime close, boolean usHolidays) {
+    }
+
+    private static final Session US = new Session(ZoneId.of("America/New_York"), LocalTime.of(9, 30), LocalTime.of(16, 0), true);
+    private static final Session EUROPE = new Session(ZoneId.of("Europe/Berlin"), LocalTime.of(9, 0), LocalTime.of(17, 30), false);
+
+    private static final Map<String, Session> SESSIONS = Map.ofEntries(
+            Map.entry("NASDAQ", US),
+            Map.entry("NYSE", US),
+            Map.entry("AMEX", US),
+            Map.entry("NYSE ARCA", US),
+            Map.entry("CBOE", US),
+            Map.entry("OTC", US),
+            Map.entry("TSX", new Session(ZoneId.of("America/Toronto"), LocalTime.of(9, 30), LocalTime.of(16, 0), false)),
+            Map.entry("LSE", new Session(ZoneId.of("Europe/London"), LocalTime.of(8, 0), LocalTime.of(16, 30), false)),
+            Map.entry("XETR", EUROPE),
+            Map.entry("FSX", EUROPE),
+            Map.entry("EURONEXT", new Session(ZoneId.of("Europe/Paris"), LocalTime.of(9, 0), LocalTime.of(17, 30), false)),
+            Map.entry("SIX", new Session(ZoneId.of("Europe/Zurich"), LocalTime.of(9, 0), LocalTime.of(17, 30), false)),
+            Map.entry("JPX", new Session(ZoneId.of("Asia/Tokyo"), LocalTime.of(9, 0), LocalTime.of(15, 0), false)),
+            Map.entry("HKEX", new Session(ZoneId.of("Asia/Hong_Kong"), LocalTime.of(9, 30), LocalTime.of(16, 0), false)),
+            Map.entry("NSE", new Session(ZoneId.of("Asia/Kolkata"), LocalTime.of(9, 15), LocalTime.of(15, 30), false)),
+            Map.entry("BSE", new Session(ZoneId.of("Asia/Kolkata"), LocalTime.of(9, 15), LocalTime.of(15, 30), false)),
+            Map.entry("ASX", new Session(ZoneId.of("Australia/Sydney"), LocalTime.of(10, 0), LocalTime.of(16, 0), false)));
+
+    private static final int MAX_LOOKBACK_DAYS = 14; // Longest run of non-trading days searched for a session
+
+    private final Map<String, Set<LocalDate>> holidays; // Configured holidays keyed by upper-case exchange code
+
+    // Constructor to create a calendar with additional holidays per exchange code
+    public ExchangeCalendar(Map<String, Set<LocalDate>> holidays) {
+        Map<String, Set<LocalDate>> normalized = new HashMap<>();
+        holidays.forEach((exchange, dates) -> normalized.put(normalize(exchange), Set.copyOf(dates)));
+        this.holidays = Map.copyOf(normalized);
+    }
+
+    // Create a calendar from a comma-separated list of EXCHANGE:yyyy-MM-dd holiday entries
+    public static ExchangeCalendar parse(String spec) {
+        Map<String, Set<LocalDate>> holidays = new HashMap<>();
+        if (spec != null) {
+            for (String entry : spec.split(",")) {
+                if (entry.isBlank()) {
+                    continue;
+                }
+                int separator = entry.lastIndexOf(':');
+                if (separator <= 0) {
+                    throw new IllegalArgumentException("Exchange holiday must look like EXCHANGE:yyyy-MM-dd: " + entry.trim());
+                }
+                try {
+                    LocalDate date = LocalDate.parse(entry.substring(separator + 1).trim());
+                    holidays.computeIfAbsent(entry.substring(0, separator), exchange -> new HashSet<>()).add(date);
+                } catch (DateTimeParseException e) {
+                    throw new IllegalArgumentException("Invalid exchange holiday date: " + entry.trim(), e);
+                }
+            }
+        }
+        return new ExchangeCalendar(holidays);
+    }
+
+    // Whether the trading hours of the exchange are known; unknown exchanges are treated as always open
+    public boolean isKnown(String exchange) {
+        return exchange != null && SESSIONS.containsKey(normalize(exchange));
+    }
+
+    // Whether the exchange is in its regular session at the given instant
+    public boolean isOpen(String exchange, Instant at) {
+        if (!isKnown(exchange)) {
+            return true;
+        }
+        String code = normalize(exchange);
+        Session session = SESSIONS.get(code);
+        ZonedDateTime local = at.atZone(session.zone());
+        LocalTime time = local.toLocalTime();
+        return isTradingDay(code, session, local.toLocalDate())
+                && !time.isBefore(session.open()) && time.isBefore(session.close());
+    }
+
+    // End of the latest session that closed at or before the given instant, or null for unknown exchanges
+    public Instant previousClose(String exchange, Instant at) {
+        if (!isKnown(exchange)) {
+            return null;
+        }
+        String code = normalize(exchange);
+        Session session = SESSIONS.get(code);
+        LocalDate date = at.atZone(session.zone()).toLocalDate();
+        for (int i = 0; i < MAX_LOOKBACK_DAYS; i++, date = date.minusDays(1)) {
+            if (!isTradingDay(code, session, date)) {
+                continue;
+            }
+            Instant close = ZonedDateTime.of(date, session.close(), session.zone()).toInstant();
+            if (!close.isAfter(at)) {
+                return close;
+            }
+        }
+        return null;
+    }
+
+    // Start of the first session that opens after the given instant, or null for unknown exchanges
+    public Instant nextOpen(String exchange, Instant at) {
+        if (!isKnown(exchange)) {
+            return null;
+        }
+        String code = normalize(exchange);
+        Session session = SESSIONS.get(code);
+        LocalDate date = at.atZone(session.zone()).toLocalDate();
+        for (int i = 0; i < MAX_LOOKBACK_DAYS; i++, date = date.plusDays(1)) {
+            if (!isTradingDay(code, session, date)) {
+                continue;
+            }
+            Instant open = ZonedDateTime.of(date, session.open(), session.zone()).toInstant();
+            if (open.isAfter(at)) {
+                return open;
+            }
+        }
+        return null;
+    }
+
+    private boolean isTradingDay(String code, Session session, LocalDate date) {
+        DayOfWeek day = date.getDayOfWeek();
+        if (day == DayOfWeek.SATURDAY || day == DayOfWeek.SUNDAY) {
+            return false;
+        }
+        if (session.usHolidays() && isUsMarketHoliday(date)) {
+            return false;
+        }
+        return !holidays.getOrDefault(code, Set.of()).contains(date);
+    }
+
+    // Full-day NYSE/NASDAQ holidays; a holiday on a Saturday is observed on Friday and one on a Sunday on Monday,
+    // except New Year's Day, which is not made up when it falls on a Saturday
+    static boolean isUsMarketHoliday(LocalDate date) {
+        int year = date.getYear();
+        LocalDate newYear = LocalDate.of(year, Month.JANUARY, 1);
+        return date.equals(newYear.getDayOfWeek() == DayOfWeek.SUNDAY ? newYear.plusDays(1) : newYear)
+                || date.equals(nthWeekday(year, Month.JANUARY, DayOfWeek.MONDAY, 3)) // Martin Luther King Jr. Day
+                || date.equals(nthWeekday(year, Month.FEBRUARY, DayOfWeek.MONDAY, 3)) // Presidents' Day
+                || date.equals(easterSunday(year).minusDays(2)) // Good Friday
+                || date.equals(LocalDate.of(year, Month.MAY, 31).with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY))) // Memorial Day
+                || (year >= 2022 && date.equals(observed(LocalDate.of(year, Month.JUNE, 19)))) // Juneteenth
+                || date.equals(observed(LocalDate.of(year, Month.JULY, 4))) // Independence Day
+                || date.equals(nthWeekday(year, Month.SEPTEMBER, DayOfWeek.MONDAY, 1)) // Labor Day
+                || date.equals(nthWeekday(year, Month.NOVEMBER, DayOfWeek.THURSDAY, 4)) // Thanksgiving
+                || date.equals(observed(LocalDate.of(year, Month.DECEMBER, 25))); // Christmas
+    }
+
+    private static LocalDate nthWeekday(int year, Month month, DayOfWeek day, int n) {
+        return LocalDate.of(year, month, 1).with(TemporalAdjusters.dayOfWeekInMonth(n, day));
+    }
+
+    private static LocalDate observed(LocalDate holiday) {
+        return switch (holiday.getDayOfWeek()) {
+            case SATURDAY -> holiday.minusDays(1);
+            case SUNDAY -> holiday.plusDays(1);
+            default -> holiday;
+        };
+    }
+
+    // Gregorian Easter Sunday (anonymous Gregorian algorithm)
+    private static LocalDate easterSunday(int year) {
+        int a = year % 19;
+        int b = year / 100;
+        int c = year % 100;
+        int d = b / 4;
+        int e = b % 4;
+        int f = (b + 8) / 25;
+        int g = (b - f + 1) / 3;
+        int h = (19 * a + b - d - g + 15) % 30;
+        int i = c / 4;
+        int k = c % 4;
+        int l = (32 + 2 * e + 2 * i - h - k) % 7;
+        int m = (a + 11 * h + 22 * l) / 451;
+        int month = (h + l - 7 * m + 114) / 31;
+        int day = (h + l - 7 * m + 114) % 31 + 1;
+        return LocalDate.of(year, month, day);
+    }
+
+    private static String normalize(String exchange) {
+        return exchange.trim().toUpperCase(Locale.ROOT);
+    }
+}
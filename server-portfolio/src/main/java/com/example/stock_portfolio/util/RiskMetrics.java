@@ -0,0 +1,179 @@
+package com.example.stock_portfolio.util; // Package declaration for the RiskMetrics class
+
+import java.util.Arrays; // Importing Arrays to sort returns for the VaR quantile
+import java.util.concurrent.ForkJoinPool; // Importing ForkJoinPool to spread the correlation matrix over all cores
+import java.util.concurrent.RecursiveAction; // Importing RecursiveAction for the row-splitting correlation task
+
+// Risk statistics over primitive price and return series. Returns are simple period returns
+// (p[t] / p[t-1] - 1); statistics that cannot be computed from the given data are NaN.
+public final class RiskMetrics {
+
+    // Upper bound on multiply-adds done by one correlation task before it splits its rows further
+    private static final long CORRELATION_TASK_WORK = 1L << 16;
+
+    private RiskMetrics() {
+    }
+
+    // Simple returns of the first size prices, one fewer than there are prices
+    public static double[] returns(double[] prices, int size) {
+        double[] returns = new double[Math.max(size - 1, 0)];
+        for (int i = 1; i < size; i++) {
+            returns[i - 1] = prices[i] / prices[i - 1] - 1;
+        }
+        return returns;
+    }
+
+    // Total return from the first to the last of the first size prices
+    public static double totalReturn(double[] prices, int size) {
+        return size < 2 ? Double.NaN : prices[size - 1] / prices[0] - 1;
+    }
+
+    // Sample standard deviation of values[from, to)
+    public static double standardDeviation(double[] values, int from, int to) {
+        int n = to - from;
+        if (n < 2) {
+            return Double.NaN;
+        }
+        double mean = 0;
+        for (int i = from; i < to; i++) {
+            mean += values[i];
+        }
+        mean /= n;
+        double squares = 0;
+        for (int i = from; i < to; i++) {
+            double deviation = values[i] - mean;
+            squares += deviation * deviation;
+        }
+        return Math.sqrt(squares / (n - 1));
+    }
+
+    // Largest peak-to-trough decline of the first size prices as a positive fraction of the peak
+    public static double maxDrawdown(double[] prices, int size) {
+        if (size < 2) {
+            return Double.NaN;
+        }
+        double peak = prices[0];
+        double drawdown = 0;
+        for (int i = 1; i < size; i++) {
+            peak = Math.max(peak, prices[i]);
+            drawdown = Math.max(drawdown, 1 - prices[i] / peak);
+        }
+        return drawdown;
+    }
+
+    // Sensitivity of the returns to the benchmark returns over the same periods (covariance over benchmark variance)
+    public static double beta(double[] returns, double[] benchmark) {
+        int n = Math.min(returns.length, benchmark.length);
+        if (n < 2) {
+            return Double.NaN;
+        }
+        double meanReturn = 0;
+        double meanBenchmark = 0;
+        for (int i = 0; i < n; i++) {
+            meanReturn += returns[i];
+            meanBenchmark += benchmark[i];
+        }
+        meanReturn /= n;
+        meanBenchmark /= n;
+        double covariance = 0;
+        double variance = 0;
+        for (int i = 0; i < n; i++) {
+            double deviation = benchmark[i] - meanBenchmark;
+            covariance += (returns[i] - meanReturn) * deviation;
+            variance += deviation * deviation;
+        }
+        return variance == 0 ? Double.NaN : covariance / variance;
+    }
+
+    // Historical value at risk: the loss (as a positive fraction) not exceeded in the given share of periods
+    public static double valueAtRisk(double[] returns, double confidence) {
+        if (returns.length == 0) {
+            return Double.NaN;
+        }
+        double[] sorted = returns.clone();
+        Arrays.sort(sorted);
+        int index = (int) Math.floor((1 - confidence) * sorted.length);
+        return -sorted[Math.min(index, sorted.length - 1)];
+    }
+
+    // Pairwise Pearson correlation of return series of equal length, as a row-major n x n matrix.
+    // Every series is standardized once, after which each coefficient is a single dot product;
+    // rows of the upper triangle are split across the common fork-join pool and mirrored below the diagonal.
+    public static double[] correlationMatrix(double[][] returns) {
+        int n = returns.length;
+        int length = n == 0 ? 0 : returns[0].length;
+        double[] standardized = new double[n * length]; // Row-major, so each dot product walks contiguous memory
+        boolean[] constant = new boolean[n];
+        for (int k = 0; k < n; k++) {
+            double[] series = returns[k];
+            double mean = 0;
+            for (double value : series) {
+                mean += value;
+            }
+            mean /= length;
+            double squares = 0;
+            for (double value : series) {
+                squares += (value - mean) * (value - mean);
+            }
+            double norm = Math.sqrt(squares);
+            constant[k] = norm == 0;
+            for (int t = 0; t < length; t++) {
+                standardized[k * length + t] = constant[k] ? 0 : (series[t] - mean) / norm;
+            }
+        }
+
+        double[] matrix = new double[n * n];
+        if (n > 0) {
+            ForkJoinPool.commonPool().invoke(new CorrelationTask(standardized, constant, n, length, matrix, 0, n));
+        }
+        return matrix;
+    }
+
+    // Computes rows [from, to) of the upper triangle, splitting while the rows hold too much work
+    private static final class CorrelationTask extends RecursiveAction {
+        private final double[] standardized; // Standardized series, row-major
+        private final boolean[] constant; // Series without variation, correlated with nothing
+        private final int n; // Number of series
+        private final int length; // Number of returns per series
+        private final double[] matrix; // Output matrix, row-major
+        private final int from; // First row of this task
+        private final int to; // End (exclusive) of the rows of this task
+
+        CorrelationTask(double[] standardized, boolean[] constant, int n, int length, double[] matrix, int from, int to) {
+            this.standardized = standardized;
+            this.constant = constant;
+            this.n = n;
+            this.length = length;
+            this.matrix = matrix;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            // Row i has n - i coefficients, so the work of [from, to) is the sum over those rows
+            long work = (long) (to - from) * (2L * n - from - to + 1) / 2 * Math.max(length, 1);
+            if (to - from > 1 && work > CORRELATION_TASK_WORK) {
+                int middle = (from + to) >>> 1;
+                invokeAll(new CorrelationTask(standardized, constant, n, length, matrix, from, middle),
+                        new CorrelationTask(standardized, constant, n, length, matrix, middle, to));
+                return;
+            }
+            for (int i = from; i < to; i++) {
+                matrix[i * n + i] = 1;
+                int rowI = i * length;
+                for (int j = i + 1; j < n; j++) {
+                    double correlation = 0;
+                    if (!constant[i] && !constant[j]) {
+                        int rowJ = j * length;
+                        for (int t = 0; t < length; t++) {
+                            correlation += standardized[rowI + t] * standardized[rowJ + t];
+                        }
+                    }
+                    matrix[i * n + j] = correlation;
+                    matrix[j * n + i] = correlation;
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,135 @@
+package com.example.stock_portfolio.util; // Package declaration for the SymbolIndex class
+
+import com.example.stock_portfolio.dto.SymbolInfo; // Importing SymbolInfo record for listings
+
+import java.util.ArrayList; // Importing ArrayList to collect search results
+import java.util.Arrays; // Importing Arrays to sort the name index
+import java.util.Collection; // Importing Collection for the listings to index
+import java.util.Comparator; // Importing Comparator to order listings
+import java.util.List; // Importing List for search results
+import java.util.Locale; // Importing Locale for case folding
+
+// Immutable in-memory index of the symbol directory. Listings are kept in parallel arrays sorted by symbol,
+// plus a second permutation sorted by lower-case name, so a prefix lookup is two binary searches followed
+// by a scan over the matching run; nothing is allocated per lookup except the result list and its listings.
+public final class SymbolIndex {
+
+    public static final SymbolIndex EMPTY = of(List.of());
+
+    private final String[] symbols; // Upper-case symbols in ascending order, ties ordered by exchange
+    private final String[] names; // Company names, parallel to symbols
+    private final String[] exchanges; // Listing exchanges, parallel to symbols
+    private final String[] currencies; // Trading currencies, parallel to symbols
+    private final String[] nameKeys; // Lower-case names in ascending order
+    private final int[] nameOrder; // Listing index of each entry of nameKeys
+
+    private SymbolIndex(List<SymbolInfo> sorted) {
+        int size = sorted.size();
+        symbols = new String[size];
+        names = new String[size];
+        exchanges = new String[size];
+        currencies = new String[size];
+        for (int i = 0; i < size; i++) {
+            SymbolInfo listing = sorted.get(i);
+            symbols[i] = listing.symbol();
+            names[i] = listing.name();
+            exchanges[i] = listing.exchange();
+            currencies[i] = listing.currency();
+        }
+        Integer[] order = new Integer[size];
+        for (int i = 0; i < size; i++) {
+            order[i] = i;
+        }
+        Arrays.sort(order, Comparator.comparing(i -> nameKey(names[i])));
+        nameKeys = new String[size];
+        nameOrder = new int[size];
+        for (int i = 0; i < size; i++) {
+            nameOrder[i] = order[i];
+            nameKeys[i] = nameKey(names[order[i]]);
+        }
+    }
+
+    // Build an index over the given listings; blank symbols and repeated symbol/exchange pairs are dropped
+    public static SymbolIndex of(Collection<SymbolInfo> listings) {
+        List<SymbolInfo> sorted = new ArrayList<>(listings.size());
+        for (SymbolInfo listing : listings) {
+            if (listing.symbol() != null && !listing.symbol().isBlank()) {
+                sorted.add(new SymbolInfo(normalize(listing.symbol()), listing.name(), listing.exchange(), listing.currency()));
+            }
+        }
+        sorted.sort(Comparator.comparing(SymbolInfo::symbol)
+                .thenComparing(listing -> listing.exchange() == null ? "" : listing.exchange()));
+        List<SymbolInfo> unique = new ArrayList<>(sorted.size());
+        for (SymbolInfo listing : sorted) {
+            SymbolInfo previous = unique.isEmpty() ? null : unique.get(unique.size() - 1);
+            if (previous == null || !previous.symbol().equals(listing.symbol())
+                    || !String.valueOf(previous.exchange()).equals(String.valueOf(listing.exchange()))) {
+                unique.add(listing);
+            }
+        }
+        return new SymbolIndex(unique);
+    }
+
+    // Number of listings in the index
+    public int size() {
+        return symbols.length;
+    }
+
+    // Whether the symbol is listed on any exchange
+    public boolean contains(String symbol) {
+        String key = normalize(symbol);
+        int index = lowerBound(symbols, key);
+        return index < symbols.length && symbols[index].equals(key);
+    }
+
+    // Listings whose symbol starts with the prefix, followed by listings whose name does, at most limit in total
+    public List<SymbolInfo> search(String prefix, int limit) {
+        if (prefix == null || prefix.isBlank() || limit < 1) {
+            return List.of();
+        }
+        List<SymbolInfo> results = new ArrayList<>(Math.min(limit, 16));
+
+        String symbolPrefix = normalize(prefix);
+        for (int i = lowerBound(symbols, symbolPrefix); i < symbols.length && results.size() < limit
+                && symbols[i].startsWith(symbolPrefix); i++) {
+            results.add(listing(i));
+        }
+
+        // Name matches are only reached once every symbol match is in the results, so those are skipped by symbol
+        String namePrefix = nameKey(prefix.trim());
+        for (int i = lowerBound(nameKeys, namePrefix); i < nameKeys.length && results.size() < limit
+                && nameKeys[i].startsWith(namePrefix); i++) {
+            if (!symbols[nameOrder[i]].startsWith(symbolPrefix)) {
+                results.add(listing(nameOrder[i]));
+            }
+        }
+        return results;
+    }
+
+    private SymbolInfo listing(int index) {
+        return new SymbolInfo(symbols[index], names[index], exchanges[index], currencies[index]);
+    }
+
+    // First position whose value is not less than the key
+    private static int lowerBound(String[] values, String key) {
+        int low = 0;
+        int high = values.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (values[mid].compareTo(key) < 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private static String nameKey(String name) {
+        return name == null ? "" : name.toLowerCase(Locale.ROOT);
+    }
+
+    private static String normalize(String symbol) {
+        return symbol.trim().toUpperCase(Locale.ROOT);
+    }
+}
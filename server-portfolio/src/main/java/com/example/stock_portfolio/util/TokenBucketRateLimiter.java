@@ -0,0 +1,89 @@
+package com.example.stock_portfolio.util; // Package declaration for the TokenBucketRateLimiter class
+
+import java.time.Duration; // Importing Duration for the refill period
+import java.util.concurrent.TimeUnit; // Importing TimeUnit for sleeping until tokens are available
+
+// Token bucket that spends one token per Twelve Data API credit and refills continuously.
+// Interactive callers reserve tokens up front, so the bucket may go negative and later callers wait
+// proportionally longer, which keeps waiting callers in roughly arrival order. Background callers
+// only take credits that are spare right now, leaving a reserved share for interactive calls, and
+// never wait or drive the bucket negative, so they can't hold interactive calls up.
+public class TokenBucketRateLimiter {
+
+    private final double capacity; // Maximum number of tokens the bucket can hold (burst size)
+    private final int reserved; // Credits background callers leave in the bucket for interactive calls
+    private final double tokensPerNano; // Refill rate of the bucket
+    private double tokens; // Tokens currently available, negative while callers are waiting
+    private long lastRefillNanos; // Last time the bucket was refilled
+
+    // Constructor to create a bucket that allows the given number of credits per period
+    public TokenBucketRateLimiter(int credits, Duration period) {
+        this(credits, period, 0);
+    }
+
+    // Constructor to create a bucket that keeps the given number of credits out of reach of background callers
+    public TokenBucketRateLimiter(int credits, Duration period, int reserved) {
+        if (credits <= 0) {
+            throw new IllegalArgumentException("Rate limit credits must be positive.");
+        }
+        if (reserved < 0 || reserved >= credits) {
+            throw new IllegalArgumentException("Reserved credits must be at least 0 and less than the credits per period.");
+        }
+        this.capacity = credits;
+        this.reserved = reserved;
+        this.tokensPerNano = credits / (double) period.toNanos();
+        this.tokens = credits; // Start full so the first calls go out immediately
+        this.lastRefillNanos = System.nanoTime();
+    }
+
+    // Block the calling thread until the given number of credits may be spent
+    public void acquire(int credits) throws InterruptedException {
+        long waitNanos = reserve(credits);
+        if (waitNanos > 0) {
+            TimeUnit.NANOSECONDS.sleep(waitNanos);
+        }
+    }
+
+    // Reserve the given number of credits without blocking and return how many nanoseconds the caller
+    // has to wait before spending them; used by non-blocking callers that schedule a delay instead
+    public synchronized long reserve(int credits) {
+        refill();
+        tokens -= credits; // Reserve the credits now, even if that drives the bucket negative
+        return tokens >= 0 ? 0 : (long) Math.ceil(-tokens / tokensPerNano);
+    }
+
+    // Give back credits reserved for a call that was abandoned before it was sent
+    public synchronized void refund(int credits) {
+        refill();
+        tokens = Math.min(capacity, tokens + credits);
+    }
+
+    // Spend the given number of credits only if they are spare right now, without touching the reserved share;
+    // used by background callers that skip their work rather than wait
+    public synchronized boolean tryAcquire(int credits) {
+        refill();
+        if (tokens - credits < reserved) {
+            return false;
+        }
+        tokens -= credits;
+        return true;
+    }
+
+    // Largest number of credits a single tryAcquire can ever get
+    public int backgroundCapacity() {
+        return (int) capacity - reserved;
+    }
+
+    // Number of credits that could be spent right now without waiting
+    public synchronized double availableCredits() {
+        refill();
+        return Math.max(tokens, 0);
+    }
+
+    // Add the tokens accumulated since the last refill, capped at the bucket capacity
+    private void refill() {
+        long now = System.nanoTime();
+        tokens = Math.min(capacity, tokens + (now - lastRefillNanos) * tokensPerNano);
+        lastRefillNanos = now;
+    }
+}
@@ -0,0 +1,31 @@
+package com.example.stock_portfolio.websocket; // Package declaration for the AlertPublisher class
+
+import com.example.stock_portfolio.dto.PriceAlertDto; // Importing PriceAlertDto record
+import com.example.stock_portfolio.event.AlertsTriggeredEvent; // Importing event published by the alert engine
+
+import org.springframework.context.event.EventListener; // Importing annotation to listen for application events
+import org.springframework.messaging.simp.SimpMessagingTemplate; // Importing template to send STOMP messages
+import org.springframework.stereotype.Component; // Marking this class as a Spring component
+
+// Pushes fired price alerts to STOMP subscribers as soon as the alert engine reports them.
+// Alerts are rare compared to price ticks, so they are sent right away instead of being coalesced.
+@Component // Marking this class as a Spring component
+public class AlertPublisher {
+
+    public static final String ALERTS_TOPIC = "/topic/alerts"; // Destination carrying the fired alerts of all tickers
+
+    private final SimpMessagingTemplate messagingTemplate; // Injecting template to send STOMP messages
+
+    public AlertPublisher(SimpMessagingTemplate messagingTemplate) {
+        this.messagingTemplate = messagingTemplate;
+    }
+
+    // Send each fired alert to its ticker's topic and all of them in one message to the shared topic
+    @EventListener
+    public void onAlertsTriggered(AlertsTriggeredEvent event) {
+        for (PriceAlertDto alert : event.alerts()) {
+            messagingTemplate.convertAndSend(ALERTS_TOPIC + "/" + alert.ticker(), alert); // Per-ticker subscribers
+        }
+        messagingTemplate.convertAndSend(ALERTS_TOPIC, event.alerts()); // One message for all-ticker dashboards
+    }
+}
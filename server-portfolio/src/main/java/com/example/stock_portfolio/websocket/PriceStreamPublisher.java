@@ -0,0 +1,67 @@
+package com.example.stock_portfolio.websocket; // Package declaration for the PriceStreamPublisher class
+
+import com.example.stock_portfolio.dto.PriceDelta; // Importing PriceDelta record
+import com.example.stock_portfolio.event.PricesChangedEvent; // Importing event published by the price refresher
+
+import org.springframework.context.event.EventListener; // Importing annotation to listen for application events
+import org.springframework.messaging.simp.SimpMessagingTemplate; // Importing template to send STOMP messages
+import org.springframework.scheduling.annotation.Scheduled; // Importing annotation for scheduling tasks
+import org.springframework.stereotype.Component; // Marking this class as a Spring component
+
+import java.util.ArrayList; // Importing ArrayList to hold the deltas of a tick
+import java.util.List; // Importing List for collection of deltas
+import java.util.Map; // Importing Map for prices keyed by ticker symbol
+import java.util.concurrent.ConcurrentHashMap; // Importing ConcurrentHashMap for pending and published prices
+
+// Pushes price deltas to STOMP subscribers. Changes are coalesced per ticker and flushed on a short tick,
+// so each tick is serialized once and the broker hands the same message to every connected dashboard.
+@Component // Marking this class as a Spring component
+public class PriceStreamPublisher {
+
+    public static final String PRICES_TOPIC = "/topic/prices"; // Destination carrying the deltas of all tickers
+
+    private final SimpMessagingTemplate messagingTemplate; // Injecting template to send STOMP messages
+
+    // Latest unpublished price per ticker; later changes within a tick overwrite earlier ones
+    private final Map<String, Double> pending = new ConcurrentHashMap<>();
+    // Last price pushed per ticker, used to compute the change carried by each delta
+    private final Map<String, Double> lastPublished = new ConcurrentHashMap<>();
+
+    public PriceStreamPublisher(SimpMessagingTemplate messagingTemplate) {
+        this.messagingTemplate = messagingTemplate;
+    }
+
+    // Buffer the prices written by the refresher until the next flush
+    @EventListener
+    public void onPricesChanged(PricesChangedEvent event) {
+        pending.putAll(event.pricesByTicker());
+    }
+
+    // Publish everything buffered since the previous tick
+    @Scheduled(fixedDelayString = "${portfolio.stream.flush-interval-ms:250}")
+    public void flush() {
+        if (pending.isEmpty()) {
+            return; // Nothing moved, nothing to push
+        }
+
+        long timestamp = System.currentTimeMillis();
+        List<PriceDelta> deltas = new ArrayList<>(pending.size());
+        for (String ticker : pending.keySet()) {
+            Double price = pending.remove(ticker); // A change arriving after this point goes out on the next tick
+            if (price == null) {
+                continue;
+            }
+            Double previous = lastPublished.put(ticker, price);
+            if (price.equals(previous)) {
+                continue; // Coalesced back to the last pushed price
+            }
+            PriceDelta delta = new PriceDelta(ticker, price, previous == null ? null : price - previous, timestamp);
+            deltas.add(delta);
+            messagingTemplate.convertAndSend(PRICES_TOPIC + "/" + ticker, delta); // Per-ticker subscribers
+        }
+
+        if (!deltas.isEmpty()) {
+            messagingTemplate.convertAndSend(PRICES_TOPIC, deltas); // One message for all-ticker dashboards
+        }
+    }
+}
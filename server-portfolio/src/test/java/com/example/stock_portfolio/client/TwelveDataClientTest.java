@@ -0,0 +1,100 @@
+package com.example.stock_portfolio.client;
+
+import com.example.stock_portfolio.dto.Quote;
+import com.example.stock_portfolio.dto.SymbolInfo;
+import com.example.stock_portfolio.exception.TwelveDataApiException;
+import com.example.stock_portfolio.store.CandleSeries;
+import com.example.stock_portfolio.store.CandleStore;
+import com.example.stock_portfolio.util.CircuitBreaker;
+import com.example.stock_portfolio.util.TokenBucketRateLimiter;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.client.MockRestServiceServer;
+import org.springframework.web.client.RestTemplate;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.requestTo;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withSuccess;
+
+class TwelveDataClientTest {
+
+	private final TwelveDataClient client = new TwelveDataClient(null, new ObjectMapper(), null, null, new SimpleMeterRegistry(), null, "test");
+
+	@Test
+	void readsQuoteAndSkipsUnusedFields() throws Exception {
+		Quote quote = client.readQuote(json("{\"symbol\":\"AAPL\",\"name\":\"Apple Inc\",\"exchange\":\"NASDAQ\","
+				+ "\"fifty_two_week\":{\"low\":\"164.08\",\"high\":\"220.20\"},\"close\":\"212.49\","
+				+ "\"currency\":\"USD\",\"is_market_open\":false,\"country\":\"United States\"}"));
+
+		assertEquals(new Quote("AAPL", "Apple Inc", 212.49, "USD", "NASDAQ", "United States"), quote);
+	}
+
+	@Test
+	void batchSkipsUnknownSymbolsAndTopLevelErrorsFail() throws Exception {
+		Map<String, Quote> quotes = client.readQuotes(json("{\"AAPL\":{\"symbol\":\"AAPL\",\"name\":\"Apple Inc\",\"close\":\"212.49\"},"
+				+ "\"NOPE\":{\"code\":404,\"message\":\"symbol not found\",\"status\":\"error\"}}"));
+
+		assertEquals(1, quotes.size());
+		assertEquals(212.49, quotes.get("AAPL").close());
+
+		TwelveDataApiException exception = assertThrows(TwelveDataApiException.class, () -> client.readQuotes(
+				json("{\"code\":429,\"message\":\"You have run out of API credits\",\"status\":\"error\"}")));
+		assertEquals(429, exception.getErrorResponse().getStatusCode());
+	}
+
+	@Test
+	void readsTimeSeriesInAscendingOrder() throws Exception {
+		CandleSeries series = client.readTimeSeries(json("{\"meta\":{\"symbol\":\"AAPL\",\"interval\":\"1h\"},\"values\":["
+				+ "{\"datetime\":\"2024-06-14 15:30:00\",\"open\":\"1\",\"close\":\"212.49\",\"volume\":\"10\"},"
+				+ "{\"datetime\":\"2024-06-14 14:30:00\",\"open\":\"1\",\"close\":\"211.00\",\"volume\":\"10\"}],\"status\":\"ok\"}"));
+
+		assertEquals(2, series.size());
+		assertArrayEquals(new long[] {CandleStore.parseTime("2024-06-14 14:30:00"), CandleStore.parseTime("2024-06-14 15:30:00")},
+				Arrays.copyOf(series.times(), 2));
+		assertEquals(211.00, series.closes()[0]);
+		assertEquals(212.49, series.closes()[1]);
+	}
+
+	@Test
+	void readsStockListings() throws Exception {
+		List<SymbolInfo> listings = client.readStocks(json("{\"data\":[{\"symbol\":\"AAPL\",\"name\":\"Apple Inc\",\"currency\":\"USD\","
+				+ "\"exchange\":\"NASDAQ\",\"mic_code\":\"XNGS\",\"country\":\"United States\",\"type\":\"Common Stock\"}],"
+				+ "\"count\":1,\"status\":\"ok\"}"));
+
+		assertEquals(List.of(new SymbolInfo("AAPL", "Apple Inc", "NASDAQ", "USD")), listings);
+	}
+
+	@Test
+	void malformedBodiesAreClientErrorsThatLeaveTheBreakerClosed() {
+		RestTemplate restTemplate = new RestTemplate();
+		MockRestServiceServer server = MockRestServiceServer.bindTo(restTemplate).build();
+		server.expect(requestTo("http://twelvedata.test/quote?symbol=AAPL&apikey=test"))
+				.andRespond(withSuccess("[\"not a quote\"]", MediaType.APPLICATION_JSON));
+		CircuitBreaker circuitBreaker = new CircuitBreaker(1, Duration.ofMinutes(1));
+		SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+		TwelveDataClient client = new TwelveDataClient(restTemplate, new ObjectMapper(),
+				new TokenBucketRateLimiter(8, Duration.ofMinutes(1)), circuitBreaker, meterRegistry, "http://twelvedata.test", "test");
+
+		TwelveDataApiException exception = assertThrows(TwelveDataApiException.class, () -> client.quote("AAPL"));
+
+		assertEquals(500, exception.getErrorResponse().getStatusCode());
+		assertEquals(CircuitBreaker.State.CLOSED, circuitBreaker.getState()); // The upstream answered, so it is not down
+		assertEquals(1, meterRegistry.get("twelvedata.requests").tag("outcome", "client_error").timer().count());
+	}
+
+	private static InputStream json(String body) {
+		return new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8));
+	}
+}
@@ -0,0 +1,105 @@
+package com.example.stock_portfolio.cluster;
+
+import com.example.stock_portfolio.dto.StockDto;
+import com.example.stock_portfolio.event.HoldingChangedEvent;
+import com.example.stock_portfolio.event.PricesChangedEvent;
+import com.example.stock_portfolio.event.TickerViewedEvent;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+class ClusterEventRelayTest {
+
+	private final ObjectMapper objectMapper = JsonMapper.builder().findAndAddModules().build();
+
+	private ClusterEventRelay relay(JdbcTemplate jdbcTemplate, ApplicationEventPublisher eventPublisher) {
+		return new ClusterEventRelay(jdbcTemplate, objectMapper, eventPublisher, mock(ClusterConnections.class),
+				new SimpleMeterRegistry(), "portfolio_events", Duration.ofMinutes(1), Duration.ofSeconds(1), Duration.ofSeconds(5));
+	}
+
+	// Records the payloads a relay sends instead of passing them to pg_notify
+	private JdbcTemplate recording(List<String> payloads) {
+		JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+		when(jdbcTemplate.queryForList(anyString(), anyString(), anyString())).thenAnswer(invocation -> {
+			payloads.add(invocation.getArgument(2));
+			return List.of();
+		});
+		return jdbcTemplate;
+	}
+
+	@Test
+	void largePriceUpdatesAreSplitIntoNotificationsThatFitAndReassembled() {
+		List<String> payloads = new ArrayList<>();
+		ClusterEventRelay sender = relay(recording(payloads), mock(ApplicationEventPublisher.class));
+		Map<String, Double> prices = new HashMap<>();
+		for (int i = 0; i < 600; i++) {
+			prices.put("TICKER" + i, 1000.0 / (i + 7)); // Long fractions, the worst case for the payload size
+		}
+		sender.onPricesChanged(new PricesChangedEvent(prices));
+
+		assertTrue(payloads.size() > 1);
+		assertTrue(payloads.stream().allMatch(payload -> payload.getBytes(StandardCharsets.UTF_8).length <= ClusterEventRelay.MAX_PAYLOAD_BYTES));
+
+		Map<String, Double> received = new HashMap<>();
+		ApplicationEventPublisher eventPublisher = mock(ApplicationEventPublisher.class);
+		doAnswer(invocation -> {
+			PricesChangedEvent event = invocation.getArgument(0);
+			assertTrue(event.relayed()); // Written by the sender
+			received.putAll(event.pricesByTicker());
+			return null;
+		}).when(eventPublisher).publishEvent(any(Object.class));
+		ClusterEventRelay receiver = relay(mock(JdbcTemplate.class), eventPublisher);
+		payloads.forEach(receiver::receive);
+		assertEquals(prices, received);
+	}
+
+	@Test
+	void ownAndReplayedEventsAreNotSentAgain() {
+		List<String> sent = new ArrayList<>();
+		ApplicationEventPublisher senderPublisher = mock(ApplicationEventPublisher.class);
+		ClusterEventRelay sender = relay(recording(sent), senderPublisher);
+		StockDto apple = new StockDto(1L, "Apple Inc", "AAPL", 10L, 100.0, 105.0, 3L, 1000.0, 0.0);
+		sender.onHoldingChanged(new HoldingChangedEvent(null, apple));
+		sender.onTickerViewed(new TickerViewedEvent("AAPL"));
+		sender.onTickerViewed(new TickerViewedEvent("AAPL")); // Within the relay interval
+		assertEquals(2, sent.size());
+
+		sent.forEach(sender::receive); // PostgreSQL echoes a node's own notifications
+		verifyNoInteractions(senderPublisher);
+
+		JdbcTemplate receiverJdbc = mock(JdbcTemplate.class);
+		ApplicationEventPublisher receiverPublisher = mock(ApplicationEventPublisher.class);
+		ClusterEventRelay receiver = relay(receiverJdbc, receiverPublisher);
+		doAnswer(invocation -> {
+			Object event = invocation.getArgument(0);
+			if (event instanceof HoldingChangedEvent holding) {
+				receiver.onHoldingChanged(holding); // The relay listens to the events it replays
+			}
+			return null;
+		}).when(receiverPublisher).publishEvent(any(Object.class));
+		receiver.receive(sent.get(0));
+
+		verify(receiverPublisher).publishEvent(any(HoldingChangedEvent.class));
+		verifyNoInteractions(receiverJdbc);
+	}
+}
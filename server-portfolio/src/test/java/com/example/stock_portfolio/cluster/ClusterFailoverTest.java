@@ -0,0 +1,118 @@
+package com.example.stock_portfolio.cluster;
+
+import com.example.stock_portfolio.event.PricesChangedEvent;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.time.Duration;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.after;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+
+// Runs against a local PostgreSQL, e.g. PORTFOLIO_CLUSTER_TEST_URL=jdbc:postgresql://localhost/portfolio
+// with PORTFOLIO_CLUSTER_TEST_USER and PORTFOLIO_CLUSTER_TEST_PASSWORD; skipped without it
+@EnabledIfEnvironmentVariable(named = "PORTFOLIO_CLUSTER_TEST_URL", matches = ".+")
+class ClusterFailoverTest {
+
+	private static final long LOCK_KEY = 7246099L; // Apart from the default key of a running application
+
+	private final String url = System.getenv("PORTFOLIO_CLUSTER_TEST_URL");
+	private final String user = System.getenv("PORTFOLIO_CLUSTER_TEST_USER");
+	private final String password = System.getenv("PORTFOLIO_CLUSTER_TEST_PASSWORD");
+	private final ClusterConnections connections = connections();
+
+	private ClusterConnections connections() {
+		DataSourceProperties properties = new DataSourceProperties();
+		properties.setUrl(url);
+		properties.setUsername(user);
+		properties.setPassword(password);
+		return new ClusterConnections(properties, "cluster-test");
+	}
+
+	private LeaderElection node() {
+		return new LeaderElection(connections, new SimpleMeterRegistry(), true, LOCK_KEY);
+	}
+
+	@Test
+	void followerTakesOverWhenTheLeaderIsKilled() throws Exception {
+		LeaderElection first = node();
+		LeaderElection second = node();
+		try {
+			first.heartbeat();
+			second.heartbeat();
+			assertTrue(first.isLeader());
+			assertFalse(second.isLeader());
+
+			// Kill the leader's session the way a crashed node loses it, without releasing anything
+			try (Connection admin = connections.open();
+				 PreparedStatement statement = admin.prepareStatement("select pg_terminate_backend(pid) from pg_locks"
+						 + " where locktype = 'advisory' and classid = 0 and objid = ? and granted")) {
+				statement.setLong(1, LOCK_KEY);
+				try (ResultSet resultSet = statement.executeQuery()) {
+					assertTrue(resultSet.next() && resultSet.getBoolean(1));
+				}
+			}
+
+			long deadline = System.nanoTime() + Duration.ofSeconds(10).toNanos();
+			while (!second.isLeader() && System.nanoTime() < deadline) {
+				Thread.sleep(100);
+				second.heartbeat();
+			}
+			assertTrue(second.isLeader());
+
+			first.heartbeat(); // Notices its dead session
+			assertFalse(first.isLeader());
+			first.heartbeat(); // Rejoins as a follower
+			assertFalse(first.isLeader());
+		} finally {
+			first.release();
+			second.release();
+		}
+	}
+
+	@Test
+	void pricesWrittenOnOneNodeReachTheOthers() throws Exception {
+		JdbcTemplate jdbcTemplate = new JdbcTemplate(new DriverManagerDataSource(url, user, password));
+		ApplicationEventPublisher senderPublisher = mock(ApplicationEventPublisher.class);
+		ApplicationEventPublisher receiverPublisher = mock(ApplicationEventPublisher.class);
+		ClusterEventRelay sender = relay(jdbcTemplate, senderPublisher);
+		ClusterEventRelay receiver = relay(jdbcTemplate, receiverPublisher);
+		sender.start();
+		receiver.start();
+		try {
+			long deadline = System.nanoTime() + Duration.ofSeconds(10).toNanos();
+			while (!(sender.isListening() && receiver.isListening()) && System.nanoTime() < deadline) {
+				Thread.sleep(50);
+			}
+			assertTrue(sender.isListening() && receiver.isListening());
+
+			sender.onPricesChanged(new PricesChangedEvent(Map.of("AAPL", 101.5)));
+			verify(receiverPublisher, timeout(5000)).publishEvent(new PricesChangedEvent(Map.of("AAPL", 101.5)));
+			verify(senderPublisher, after(500).never()).publishEvent(any(Object.class));
+		} finally {
+			sender.stop();
+			receiver.stop();
+		}
+	}
+
+	private ClusterEventRelay relay(JdbcTemplate jdbcTemplate, ApplicationEventPublisher eventPublisher) {
+		return new ClusterEventRelay(jdbcTemplate, JsonMapper.builder().findAndAddModules().build(), eventPublisher,
+				connections, new SimpleMeterRegistry(), "portfolio_events_test", Duration.ofMinutes(1),
+				Duration.ofMillis(200), Duration.ofSeconds(1));
+	}
+}
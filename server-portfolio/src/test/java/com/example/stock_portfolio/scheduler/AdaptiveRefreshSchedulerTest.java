@@ -0,0 +1,131 @@
+package com.example.stock_portfolio.scheduler;
+
+import com.example.stock_portfolio.cluster.ClusterConnections;
+import com.example.stock_portfolio.cluster.LeaderElection;
+import com.example.stock_portfolio.dto.Quote;
+import com.example.stock_portfolio.dto.RefreshReport;
+import com.example.stock_portfolio.dto.TimestampedQuote;
+import com.example.stock_portfolio.event.PricesChangedEvent;
+import com.example.stock_portfolio.event.TickerViewedEvent;
+import com.example.stock_portfolio.repository.StockRepository;
+import com.example.stock_portfolio.service.PriceRefreshService;
+import com.example.stock_portfolio.service.QuoteService;
+import com.example.stock_portfolio.util.ExchangeCalendar;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.web.socket.messaging.SessionSubscribeEvent;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class AdaptiveRefreshSchedulerTest {
+
+	private final PriceRefreshService priceRefreshService = mock(PriceRefreshService.class);
+	private final QuoteService quoteService = mock(QuoteService.class);
+	private final StockRepository stockRepository = mock(StockRepository.class);
+	private final ApplicationEventPublisher eventPublisher = mock(ApplicationEventPublisher.class);
+	private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+	private final AdaptiveRefreshScheduler scheduler = scheduler(Duration.ZERO, Duration.ZERO);
+
+	private AdaptiveRefreshScheduler scheduler(Duration initialDelay, Duration startupSpread) {
+		return scheduler(new LeaderElection(mock(ClusterConnections.class), meterRegistry, false, 0), initialDelay, startupSpread);
+	}
+
+	private AdaptiveRefreshScheduler scheduler(LeaderElection leaderElection, Duration initialDelay, Duration startupSpread) {
+		return new AdaptiveRefreshScheduler(priceRefreshService, quoteService,
+				stockRepository, ExchangeCalendar.parse(""), leaderElection, eventPublisher, meterRegistry,
+				Duration.ofMinutes(1), Duration.ofMinutes(5), Duration.ofMinutes(30),
+				Duration.ofMinutes(10), Duration.ofHours(72), 0.01, Duration.ofMinutes(30),
+				initialDelay, startupSpread);
+	}
+
+	@Test
+	void closedMarketsAreRefreshedOnceAfterTheCloseOnly() {
+		when(priceRefreshService.exchangeOf("AAPL")).thenReturn("NASDAQ");
+		Instant saturday = Instant.parse("2026-11-28T15:00:00Z");
+
+		assertEquals(List.of("AAPL"), scheduler.dueTickers(List.of("AAPL"), saturday)); // First sight, always refreshed
+		scheduler.markRefreshed(List.of("AAPL"), saturday);
+
+		Instant sunday = Instant.parse("2026-11-29T15:00:00Z");
+		assertEquals(List.of(), scheduler.dueTickers(List.of("AAPL"), sunday));
+		assertEquals(AdaptiveRefreshScheduler.Tier.CLOSED, scheduler.tierOf("AAPL", sunday));
+		assertEquals(1.0, meterRegistry.get("portfolio.refresh.tier.symbols").tag("tier", "closed").gauge().value());
+
+		Instant mondayOpen = Instant.parse("2026-11-30T14:45:00Z");
+		assertEquals(List.of("AAPL"), scheduler.dueTickers(List.of("AAPL"), mondayOpen));
+		assertEquals(AdaptiveRefreshScheduler.Tier.WARM, scheduler.tierOf("AAPL", mondayOpen));
+	}
+
+	@Test
+	void viewsAndLargeMovesMakeTickersHotAndIdleTickersCool() {
+		Instant now = Instant.now();
+		scheduler.dueTickers(List.of("msft", "TSLA"), now); // Unknown exchanges count as open
+		scheduler.markRefreshed(List.of("msft", "TSLA"), now);
+		assertEquals(List.of(), scheduler.dueTickers(List.of("msft", "TSLA"), now.plusSeconds(120)));
+
+		scheduler.onTickerViewed(new TickerViewedEvent("MSFT"));
+		scheduler.onPricesChanged(new PricesChangedEvent(Map.of("TSLA", 100.0)));
+		scheduler.onPricesChanged(new PricesChangedEvent(Map.of("TSLA", 102.0))); // 2% move
+		assertEquals(List.of("msft", "TSLA"), scheduler.dueTickers(List.of("msft", "TSLA"), now.plusSeconds(120)));
+		assertEquals(2.0, meterRegistry.get("portfolio.refresh.tier.symbols").tag("tier", "hot").gauge().value());
+
+		assertEquals(AdaptiveRefreshScheduler.Tier.COLD, scheduler.tierOf("MSFT", now.plus(Duration.ofHours(73))));
+	}
+
+	@Test
+	void tickersWithoutAQuoteStayDue() {
+		Instant now = Instant.now();
+		when(stockRepository.findDistinctTickers()).thenReturn(List.of("AAPL", "MSFT"));
+		when(priceRefreshService.refreshPrices(List.of("AAPL", "MSFT")))
+				.thenReturn(new RefreshReport(2, 2, 1, 0, 1, 1, 5, List.of("AAPL"))); // MSFT's batch failed
+
+		scheduler.refreshDue();
+
+		assertEquals(List.of("MSFT"), scheduler.dueTickers(List.of("AAPL", "MSFT"), now.plusSeconds(1)));
+	}
+
+	@Test
+	void firstRefreshesAreDeferredAndSpreadUnlessAQuoteIsKnown() {
+		Instant now = Instant.now();
+		when(quoteService.getLastKnownQuote("NVDA")).thenReturn(new TimestampedQuote(
+				new Quote("NVDA", "NVIDIA Corp", 120.0, "USD", null, "United States"), now.minusSeconds(30)));
+		AdaptiveRefreshScheduler deferred = scheduler(Duration.ofMinutes(1), Duration.ofMinutes(10));
+		List<String> held = List.of("AAPL", "MSFT", "NVDA");
+
+		assertEquals(List.of(), deferred.dueTickers(held, now));
+		assertEquals(List.of("NVDA"), deferred.dueTickers(held, now.plus(Duration.ofMinutes(5)))
+				.stream().filter("NVDA"::equals).toList()); // Warm interval since the snapshot fetch
+		assertEquals(List.of("AAPL", "MSFT"), deferred.dueTickers(held, now.plus(Duration.ofMinutes(11)))
+				.stream().filter(ticker -> !ticker.equals("NVDA")).toList());
+	}
+
+	@Test
+	void followersAnnounceTheirLiveSubscriptionsAsViews() {
+		LeaderElection follower = mock(LeaderElection.class); // Subscriptions only exist on the node the client is connected to
+		AdaptiveRefreshScheduler scheduler = scheduler(follower, Duration.ZERO, Duration.ZERO);
+		SimpMessageHeaderAccessor headers = SimpMessageHeaderAccessor.create(SimpMessageType.SUBSCRIBE);
+		headers.setSessionId("session-1");
+		headers.setSubscriptionId("sub-0");
+		headers.setDestination("/topic/prices/aapl");
+		scheduler.onSubscribe(new SessionSubscribeEvent(this, MessageBuilder.createMessage(new byte[0], headers.getMessageHeaders())));
+
+		scheduler.refreshDue();
+
+		verify(eventPublisher).publishEvent(new TickerViewedEvent("AAPL")); // Relayed to the leader, which keeps it hot
+		verify(priceRefreshService, never()).refreshPrices(anyList());
+	}
+}
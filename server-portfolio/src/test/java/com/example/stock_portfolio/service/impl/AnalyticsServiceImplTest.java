@@ -0,0 +1,91 @@
+package com.example.stock_portfolio.service.impl;
+
+import com.example.stock_portfolio.dto.PortfolioAnalytics;
+import com.example.stock_portfolio.dto.StockDto;
+import com.example.stock_portfolio.event.HoldingChangedEvent;
+import com.example.stock_portfolio.repository.PortfolioRepository;
+import com.example.stock_portfolio.repository.StockRepository;
+import com.example.stock_portfolio.store.CandleStore;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class AnalyticsServiceImplTest {
+
+	private static final long DAY = 86_400;
+
+	@TempDir
+	Path directory;
+
+	private final List<StockDto> table = new ArrayList<>(); // Stands in for the stock table
+	private CandleStore candleStore;
+	private AnalyticsServiceImpl analyticsService;
+
+	@BeforeEach
+	void setUp() {
+		StockRepository stockRepository = mock(StockRepository.class);
+		when(stockRepository.findAllStockDtos(any(Pageable.class)))
+				.thenAnswer(invocation -> new PageImpl<>(List.copyOf(table)));
+		table.add(new StockDto(1L, "Apple Inc", "AAPL", 10L, 100.0, 110.0, null, null, null));
+		table.add(new StockDto(2L, "Tesla Inc", "TSLA", 5L, 200.0, 150.0, null, null, null));
+		table.add(new StockDto(3L, "Microsoft Corp", "MSFT", 1L, 300.0, 400.0, null, null, null));
+		candleStore = new CandleStore(directory);
+		analyticsService = new AnalyticsServiceImpl(stockRepository, mock(PortfolioRepository.class), candleStore, "SPY", 20, 0.95, 1000);
+
+		append("SPY", new long[]{0, DAY, 2 * DAY, 3 * DAY}, new double[]{400, 404, 399.96, 407.9592});
+		append("AAPL", new long[]{0, DAY, 2 * DAY, 3 * DAY}, new double[]{100, 102, 99.96, 103.9584});
+		append("TSLA", new long[]{DAY, 3 * DAY}, new double[]{200, 180}); // No candle on day 2
+	}
+
+	@Test
+	void alignsHoldingsOnCommonCandles() {
+		PortfolioAnalytics analytics = analyticsService.getAnalytics(null, "1day", 250);
+
+		assertEquals(List.of("AAPL", "TSLA"), analytics.tickers());
+		assertEquals(List.of("MSFT"), analytics.missingHistory());
+		assertEquals(2, analytics.periods()); // Days 1 to 3, where every series has started
+		assertEquals(10 * 103.9584 + 5 * 180, analytics.value(), 1e-9);
+
+		PortfolioAnalytics.Holding apple = analytics.holdings().get(0);
+		assertEquals("AAPL", apple.ticker());
+		assertEquals(2.0, apple.risk().beta(), 1e-9); // Twice the benchmark moves
+		PortfolioAnalytics.Holding tesla = analytics.holdings().get(1);
+		assertEquals(-0.1, tesla.risk().totalReturn(), 1e-9);
+		assertEquals(0.1, tesla.risk().maxDrawdown(), 1e-9);
+		assertEquals(1.0, analytics.correlation()[0][0], 1e-12);
+		assertEquals(analytics.correlation()[0][1], analytics.correlation()[1][0], 0);
+	}
+
+	@Test
+	void servesCachedResultUntilCandlesOrHoldingsChange() {
+		PortfolioAnalytics first = analyticsService.getAnalytics(null, "1day", 250);
+		assertSame(first, analyticsService.getAnalytics(null, "1day", 250));
+
+		append("MSFT", new long[]{2 * DAY, 3 * DAY}, new double[]{390, 400});
+		PortfolioAnalytics second = analyticsService.getAnalytics(null, "1day", 250);
+		assertNotSame(first, second);
+		assertEquals(List.of("AAPL", "MSFT", "TSLA"), second.tickers());
+		assertSame(second, analyticsService.getAnalytics(null, "1day", 250));
+
+		table.remove(2);
+		analyticsService.onHoldingChanged(new HoldingChangedEvent(null, null));
+		assertEquals(List.of("AAPL", "TSLA"), analyticsService.getAnalytics(null, "1day", 250).tickers());
+	}
+
+	private void append(String ticker, long[] times, double[] closes) {
+		candleStore.append(ticker, "1day", times, closes, times.length);
+	}
+}
@@ -0,0 +1,78 @@
+package com.example.stock_portfolio.service.impl;
+
+import com.example.stock_portfolio.dto.PortfolioSummary;
+import com.example.stock_portfolio.dto.StockDto;
+import com.example.stock_portfolio.event.HoldingChangedEvent;
+import com.example.stock_portfolio.event.PricesChangedEvent;
+import com.example.stock_portfolio.repository.StockRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class PortfolioSummaryServiceImplTest {
+
+	private final List<StockDto> table = new ArrayList<>(); // Stands in for the stock table
+	private PortfolioSummaryServiceImpl summaryService;
+
+	@BeforeEach
+	void setUp() {
+		StockRepository stockRepository = mock(StockRepository.class);
+		when(stockRepository.findAllStockDtos(any(Pageable.class)))
+				.thenAnswer(invocation -> new PageImpl<>(List.copyOf(table)));
+		table.add(new StockDto(1L, "Apple Inc", "AAPL", 2L, 100.0, 110.0, null, null, null));
+		table.add(new StockDto(2L, "Tesla Inc", "TSLA", 1L, 200.0, 150.0, null, null, null));
+		summaryService = new PortfolioSummaryServiceImpl(stockRepository);
+		summaryService.rebuild();
+	}
+
+	@Test
+	void summaryMatchesInitialLoad() {
+		PortfolioSummary summary = summaryService.getSummary(5);
+
+		assertEquals(370.0, summary.totalValue(), 1e-9);
+		assertEquals(400.0, summary.investedAmount(), 1e-9);
+		assertEquals(-30.0, summary.unrealizedPnl(), 1e-9);
+		assertEquals("TSLA", summary.topMovers().get(0).ticker());
+		assertEquals("AAPL", summary.allocations().get(0).ticker());
+		assertTrue(summaryService.verifyConsistency());
+	}
+
+	@Test
+	void stayConsistentAcrossHoldingAndPriceChanges() {
+		StockDto added = new StockDto(3L, "Apple Inc", "AAPL", 1L, 120.0, 120.0, null, null, null);
+		table.add(added);
+		summaryService.onHoldingChanged(new HoldingChangedEvent(null, added));
+		assertTrue(summaryService.verifyConsistency());
+
+		// The refresher rewrites every AAPL row at once
+		table.forEach(stock -> { if (stock.getTicker().equals("AAPL")) stock.setCurrentPrice(130.0); });
+		summaryService.onPricesChanged(new PricesChangedEvent(Map.of("AAPL", 130.0)));
+		assertTrue(summaryService.verifyConsistency());
+
+		StockDto removed = table.remove(0);
+		summaryService.onHoldingChanged(new HoldingChangedEvent(removed, null));
+		assertTrue(summaryService.verifyConsistency());
+		assertEquals(130.0 + 150.0, summaryService.getSummary(5).totalValue(), 1e-9);
+	}
+
+	@Test
+	void detectsDriftFromTheDatabase() {
+		table.get(0).setCurrentPrice(500.0); // Written behind the aggregates' back
+
+		assertFalse(summaryService.verifyConsistency());
+		summaryService.rebuild();
+		assertTrue(summaryService.verifyConsistency());
+	}
+}
@@ -0,0 +1,91 @@
+package com.example.stock_portfolio.service.impl;
+
+import com.example.stock_portfolio.entity.PositionLot;
+import com.example.stock_portfolio.entity.Stocks;
+import com.example.stock_portfolio.entity.TradeSide;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PositionLedgerTest {
+
+	private static Stocks position(Long quantity, Double buyPrice, Double costBasis) {
+		return new Stocks(1L, "Apple Inc", "AAPL", quantity, buyPrice, 100.0, null, costBasis, costBasis == null ? null : 0.0);
+	}
+
+	@Test
+	void buysKeepAverageAndFifoCost() {
+		Stocks position = position(0L, 0.0, 0.0);
+		PositionLedger ledger = new PositionLedger(position, () -> { throw new AssertionError("buys never load lots"); });
+
+		ledger.apply(TradeSide.BUY, 10, 100.0);
+		ledger.apply(TradeSide.BUY, 10, 120.0);
+
+		assertEquals(20L, position.getQuantity());
+		assertEquals(110.0, position.getBuyPrice(), 1e-9);
+		assertEquals(2200.0, position.getCostBasis(), 1e-9);
+		assertEquals(2, ledger.lotsToInsert().size());
+	}
+
+	@Test
+	void sellsConsumeOldestLotsFirst() {
+		Stocks position = position(15L, 110.0, 1650.0);
+		PositionLot persisted = new PositionLot(7L, position, 5L, 90.0);
+		PositionLot partial = new PositionLot(8L, position, 10L, 120.0);
+		PositionLedger ledger = new PositionLedger(position, () -> List.of(persisted, partial));
+
+		ledger.apply(TradeSide.SELL, 8, 130.0); // 5 @ 90 and 3 @ 120
+
+		assertEquals(7L, position.getQuantity());
+		assertEquals(110.0, position.getBuyPrice(), 1e-9); // Average cost is unchanged by sells
+		assertEquals(1650.0 - 450.0 - 360.0, position.getCostBasis(), 1e-9);
+		assertEquals(8 * 130.0 - 810.0, position.getRealizedPnl(), 1e-9);
+		assertEquals(List.of(persisted), ledger.lotsToDelete());
+		assertEquals(7L, partial.getRemainingQuantity());
+	}
+
+	@Test
+	void lotsOpenedAndClosedInOneBatchAreNeverWritten() {
+		Stocks position = position(0L, 0.0, 0.0);
+		PositionLedger ledger = new PositionLedger(position, List::of);
+
+		ledger.apply(TradeSide.BUY, 4, 50.0);
+		ledger.apply(TradeSide.BUY, 6, 60.0);
+		ledger.apply(TradeSide.SELL, 5, 70.0);
+
+		assertTrue(ledger.lotsToDelete().isEmpty());
+		assertEquals(1, ledger.lotsToInsert().size());
+		assertEquals(5L, ledger.lotsToInsert().get(0).getRemainingQuantity());
+		assertEquals(300.0, position.getCostBasis(), 1e-9);
+		assertEquals(5 * 70.0 - 260.0, position.getRealizedPnl(), 1e-9);
+	}
+
+	@Test
+	void rowsWithoutLedgerBecomeAnOpeningLot() {
+		Stocks position = position(1L, 150.0, null); // Created before the ledger existed
+		PositionLedger ledger = new PositionLedger(position, () -> { throw new AssertionError("nothing is persisted yet"); });
+
+		assertEquals(150.0, position.getCostBasis(), 1e-9);
+		ledger.apply(TradeSide.SELL, 1, 160.0);
+
+		assertEquals(0L, position.getQuantity());
+		assertEquals(0.0, position.getCostBasis(), 1e-9);
+		assertEquals(10.0, position.getRealizedPnl(), 1e-9);
+		assertTrue(ledger.lotsToInsert().isEmpty());
+		assertSame(position, ledger.position());
+	}
+
+	@Test
+	void cannotSellMoreThanHeld() {
+		Stocks position = position(2L, 100.0, 200.0);
+		PositionLedger ledger = new PositionLedger(position, List::of);
+
+		assertThrows(IllegalArgumentException.class, () -> ledger.apply(TradeSide.SELL, 3, 100.0));
+		assertEquals(2L, position.getQuantity());
+	}
+}
@@ -0,0 +1,145 @@
+package com.example.stock_portfolio.service.impl;
+
+import com.example.stock_portfolio.dto.PriceAlertDto;
+import com.example.stock_portfolio.dto.StockDto;
+import com.example.stock_portfolio.entity.AlertState;
+import com.example.stock_portfolio.entity.AlertType;
+import com.example.stock_portfolio.entity.PriceAlert;
+import com.example.stock_portfolio.entity.Stocks;
+import com.example.stock_portfolio.event.AlertChangedEvent;
+import com.example.stock_portfolio.event.AlertsTriggeredEvent;
+import com.example.stock_portfolio.event.HoldingChangedEvent;
+import com.example.stock_portfolio.event.PricesChangedEvent;
+import com.example.stock_portfolio.repository.PriceAlertRepository;
+import com.example.stock_portfolio.repository.StockRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doNothing;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class PriceAlertServiceImplTest {
+
+	private final PriceAlertRepository priceAlertRepository = mock(PriceAlertRepository.class);
+	private final StockRepository stockRepository = mock(StockRepository.class);
+	private final ApplicationEventPublisher eventPublisher = mock(ApplicationEventPublisher.class);
+	private final Stocks apple = new Stocks(1L, "Apple Inc", "AAPL", 10L, 100.0, 105.0, null, 1000.0, 0.0);
+	private PriceAlertServiceImpl alertService;
+
+	@BeforeEach
+	void setUp() {
+		AtomicLong ids = new AtomicLong();
+		when(stockRepository.findById(1L)).thenReturn(Optional.of(apple));
+		when(priceAlertRepository.save(any(PriceAlert.class))).thenAnswer(invocation -> {
+			PriceAlert alert = invocation.getArgument(0);
+			alert.setId(ids.incrementAndGet());
+			return alert;
+		});
+		alertService = new PriceAlertServiceImpl(priceAlertRepository, stockRepository, eventPublisher, new SimpleMeterRegistry(), 0.01);
+		doAnswer(invocation -> { // Every registration commits
+			alertService.onAlertChanged(invocation.getArgument(0));
+			return null;
+		}).when(eventPublisher).publishEvent(any(AlertChangedEvent.class));
+	}
+
+	private PriceAlertDto request(AlertType type, double threshold) {
+		return new PriceAlertDto(null, null, null, type, threshold, null, null, null, null, null, null);
+	}
+
+	@Test
+	void firedAlertsArePublishedAndWrittenInOneBatch() {
+		alertService.createAlert(1L, request(AlertType.ABOVE, 110));
+		alertService.createAlert(1L, request(AlertType.PERCENT_MOVE, 20)); // Fires at 120
+
+		alertService.onPricesChanged(new PricesChangedEvent(Map.of("AAPL", 108.0, "TSLA", 300.0)));
+		verify(eventPublisher, never()).publishEvent(any(AlertsTriggeredEvent.class));
+
+		alertService.onPricesChanged(new PricesChangedEvent(Map.of("AAPL", 112.0)));
+		ArgumentCaptor<Object> events = ArgumentCaptor.forClass(Object.class);
+		verify(eventPublisher, times(3)).publishEvent(events.capture()); // Two registrations, then the fired alert
+		List<AlertsTriggeredEvent> triggered = events.getAllValues().stream()
+				.filter(AlertsTriggeredEvent.class::isInstance).map(AlertsTriggeredEvent.class::cast).toList();
+		assertEquals(1, triggered.size());
+		assertEquals(List.of(1L), triggered.get(0).alerts().stream().map(PriceAlertDto::id).toList());
+		assertEquals(112.0, triggered.get(0).alerts().get(0).firedPrice());
+
+		alertService.onPricesChanged(new PricesChangedEvent(Map.of("AAPL", 125.0)));
+		assertEquals(2, alertService.flush());
+		@SuppressWarnings("unchecked")
+		ArgumentCaptor<Collection<PriceAlertDto>> batch = ArgumentCaptor.forClass(Collection.class);
+		verify(priceAlertRepository, times(1)).updateAlertStates(batch.capture());
+		assertTrue(batch.getValue().stream().allMatch(alert -> alert.state() == AlertState.FIRED));
+		assertEquals(0, alertService.flush()); // Nothing left to write
+	}
+
+	@Test
+	void percentMoveAlertsFollowTheBuyPrice() {
+		alertService.createAlert(1L, request(AlertType.PERCENT_MOVE, -10)); // Fires at 90
+
+		StockDto previous = new StockDto(1L, "Apple Inc", "AAPL", 10L, 100.0, 105.0, null, 1000.0, 0.0);
+		StockDto current = new StockDto(1L, "Apple Inc", "AAPL", 20L, 80.0, 105.0, null, 1600.0, 0.0);
+		alertService.onHoldingChanged(new HoldingChangedEvent(previous, current));
+
+		assertEquals(72.0, alertService.getAlerts(1L).get(0).triggerPrice(), 1e-9);
+	}
+
+	@Test
+	void registrationsEnterTheBooksOnlyOnCommit() {
+		doNothing().when(eventPublisher).publishEvent(any(AlertChangedEvent.class)); // The transaction rolls back
+
+		alertService.createAlert(1L, request(AlertType.ABOVE, 110));
+		alertService.onPricesChanged(new PricesChangedEvent(Map.of("AAPL", 112.0)));
+
+		assertTrue(alertService.getAlerts(1L).isEmpty());
+		verify(eventPublisher, never()).publishEvent(any(AlertsTriggeredEvent.class));
+	}
+
+	@Test
+	void pricesWrittenByAnotherNodeFireWithoutBeingWrittenTwice() {
+		SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+		PriceAlertServiceImpl follower = new PriceAlertServiceImpl(priceAlertRepository, stockRepository, eventPublisher, meterRegistry, 0.01);
+		follower.onAlertChanged(new AlertChangedEvent(new PriceAlertDto(7L, 1L, "AAPL", AlertType.ABOVE, 110.0, AlertState.ARMED,
+				110.0, null, null, null, Instant.now()), AlertChangedEvent.Change.CREATED));
+
+		follower.onPricesChanged(new PricesChangedEvent(Map.of("AAPL", 112.0), true));
+
+		assertEquals(AlertState.FIRED, follower.getAlerts(1L).get(0).state()); // The books and subscribers follow
+		verify(eventPublisher).publishEvent(any(AlertsTriggeredEvent.class));
+		assertEquals(0, follower.flush()); // The writing node persists the state
+		assertEquals(0, meterRegistry.counter("portfolio.alerts.fired").count());
+	}
+
+	@Test
+	void alertsChangedOnAnotherNodeFollowIntoTheBooks() {
+		PriceAlertDto remote = new PriceAlertDto(7L, 1L, "aapl", AlertType.PERCENT_MOVE, 20.0, AlertState.ARMED,
+				120.0, null, null, null, Instant.now());
+		alertService.onAlertChanged(new AlertChangedEvent(remote, AlertChangedEvent.Change.CREATED));
+		assertEquals(120.0, alertService.getAlerts(1L).get(0).triggerPrice(), 1e-9);
+
+		alertService.onPricesChanged(new PricesChangedEvent(Map.of("AAPL", 121.0)));
+		assertEquals(AlertState.FIRED, alertService.getAlerts(1L).get(0).state());
+		alertService.onAlertChanged(new AlertChangedEvent(remote, AlertChangedEvent.Change.REARMED));
+		assertEquals(AlertState.ARMED, alertService.getAlerts(1L).get(0).state());
+
+		alertService.onAlertChanged(new AlertChangedEvent(remote, AlertChangedEvent.Change.DELETED));
+		assertTrue(alertService.getAlerts(1L).isEmpty());
+	}
+}
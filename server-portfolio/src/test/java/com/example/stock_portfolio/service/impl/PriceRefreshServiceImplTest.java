@@ -0,0 +1,66 @@
+package com.example.stock_portfolio.service.impl;
+
+import com.example.stock_portfolio.dto.Quote;
+import com.example.stock_portfolio.dto.RefreshReport;
+import com.example.stock_portfolio.exception.TwelveDataApiException;
+import com.example.stock_portfolio.repository.StockRepository;
+import com.example.stock_portfolio.service.QuoteService;
+import com.example.stock_portfolio.util.TokenBucketRateLimiter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class PriceRefreshServiceImplTest {
+
+	private final StockRepository stockRepository = mock(StockRepository.class);
+	private final QuoteService quoteService = mock(QuoteService.class);
+	private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+	private final PriceRefreshServiceImpl service = new PriceRefreshServiceImpl(stockRepository, quoteService, executor,
+			mock(ApplicationEventPublisher.class), new SimpleMeterRegistry(), new TokenBucketRateLimiter(8, Duration.ofMinutes(1)),
+			1, 3, Duration.ofMillis(1));
+
+	@AfterEach
+	void tearDown() {
+		executor.shutdownNow();
+	}
+
+	@Test
+	void transientFailuresAreRetried() {
+		when(quoteService.tryFetchQuotes(List.of("AAPL")))
+				.thenThrow(new TwelveDataApiException(429, "You have run out of API credits"))
+				.thenThrow(new TwelveDataApiException(500, "Failed to fetch data: Read timed out"))
+				.thenReturn(Optional.of(Map.of("AAPL", new Quote("AAPL", "Apple Inc", 212.49, "USD", "NASDAQ", "United States"))));
+
+		RefreshReport report = service.refreshPrices(List.of("AAPL"));
+
+		assertEquals(0, report.failedBatches());
+		assertEquals(List.of("AAPL"), report.refreshedTickers());
+		verify(quoteService, times(3)).tryFetchQuotes(List.of("AAPL"));
+	}
+
+	@Test
+	void otherFailuresAreNotRetried() {
+		when(quoteService.tryFetchQuotes(List.of("QQQQ"))).thenThrow(new TwelveDataApiException(404, "symbol not found"));
+		when(quoteService.tryFetchQuotes(List.of("MSFT"))).thenThrow(new IllegalStateException("bug"));
+
+		RefreshReport report = service.refreshPrices(List.of("QQQQ", "MSFT"));
+
+		assertEquals(2, report.failedBatches());
+		verify(quoteService, times(1)).tryFetchQuotes(List.of("QQQQ"));
+		verify(quoteService, times(1)).tryFetchQuotes(List.of("MSFT"));
+	}
+}
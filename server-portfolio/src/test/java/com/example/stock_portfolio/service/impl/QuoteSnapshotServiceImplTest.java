@@ -0,0 +1,64 @@
+package com.example.stock_portfolio.service.impl;
+
+import com.example.stock_portfolio.dto.Quote;
+import com.example.stock_portfolio.dto.TimestampedQuote;
+import com.example.stock_portfolio.service.QuoteService;
+import com.example.stock_portfolio.store.QuoteSnapshotStore;
+import com.example.stock_portfolio.util.ExchangeCalendar;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class QuoteSnapshotServiceImplTest {
+
+	@TempDir
+	Path directory;
+
+	private final QuoteService quoteService = mock(QuoteService.class);
+
+	private QuoteSnapshotServiceImpl service(QuoteSnapshotStore store) {
+		return new QuoteSnapshotServiceImpl(quoteService, store, ExchangeCalendar.parse(""), Duration.ofMinutes(1), Duration.ofDays(7));
+	}
+
+	@Test
+	void savedQuotesAreRestoredWithTheirFetchTimes() {
+		QuoteSnapshotStore store = new QuoteSnapshotStore(directory.resolve("snapshot/quotes.bin"));
+		TimestampedQuote apple = new TimestampedQuote(
+				new Quote("AAPL", "Apple Inc", 213.07, "USD", "NASDAQ", "United States"), Instant.now().truncatedTo(ChronoUnit.MILLIS).minusSeconds(20)); // Stored at millisecond precision
+		TimestampedQuote unnamed = new TimestampedQuote(
+				new Quote("XYZ", null, 1.5, null, null, null), Instant.now().minus(Duration.ofDays(8)));
+		when(quoteService.getLastKnownQuotes()).thenReturn(List.of(apple, unnamed));
+
+		assertEquals(1, service(store).save()); // Older than the max age
+		assertEquals(List.of(apple), store.read());
+
+		assertEquals(1, service(store).restore());
+		verify(quoteService).restore(eq(apple), any(Duration.class));
+	}
+
+	@Test
+	void restoredPricesStayCurrentWhileTheirMarketIsClosed() {
+		QuoteSnapshotServiceImpl service = service(new QuoteSnapshotStore(directory.resolve("quotes.bin")));
+		Quote apple = new Quote("AAPL", "Apple Inc", 213.07, "USD", "NASDAQ", "United States");
+		Instant saturday = Instant.parse("2026-11-28T15:00:00Z");
+
+		TimestampedQuote afterClose = new TimestampedQuote(apple, Instant.parse("2026-11-27T21:10:00Z"));
+		assertEquals(Duration.between(saturday, Instant.parse("2026-11-30T14:30:00Z")), service.servedFor(afterClose, saturday));
+
+		TimestampedQuote beforeClose = new TimestampedQuote(apple, Instant.parse("2026-11-27T20:00:00Z"));
+		assertTrue(service.servedFor(beforeClose, saturday).isNegative());
+	}
+}
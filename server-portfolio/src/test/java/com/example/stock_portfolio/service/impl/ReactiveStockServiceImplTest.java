@@ -0,0 +1,105 @@
+package com.example.stock_portfolio.service.impl;
+
+import com.example.stock_portfolio.client.ReactiveTwelveDataClient;
+import com.example.stock_portfolio.client.TwelveDataClient;
+import com.example.stock_portfolio.dto.Quote;
+import com.example.stock_portfolio.event.TickerViewedEvent;
+import com.example.stock_portfolio.store.CandleSeries;
+import com.example.stock_portfolio.store.CandleStore;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.context.ApplicationEventPublisher;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+class ReactiveStockServiceImplTest {
+
+	@TempDir
+	Path directory;
+
+	private final ReactiveTwelveDataClient client = mock(ReactiveTwelveDataClient.class);
+	private final ApplicationEventPublisher eventPublisher = mock(ApplicationEventPublisher.class);
+	private final TwelveDataClient blockingClient = mock(TwelveDataClient.class);
+	private final QuoteServiceImpl quoteService = new QuoteServiceImpl(blockingClient, new SimpleMeterRegistry(), Duration.ofMinutes(1), 100);
+
+	private ReactiveStockServiceImpl service() {
+		return new ReactiveStockServiceImpl(client, quoteService, new CandleStore(directory), eventPublisher, new SimpleMeterRegistry(),
+				Duration.ofMinutes(1), 100, Duration.ofMinutes(15));
+	}
+
+	@Test
+	void concurrentTickerLookupsShareOneUpstreamCall() {
+		AtomicInteger calls = new AtomicInteger();
+		when(client.quote("AAPL")).thenReturn(Mono.defer(() -> {
+			calls.incrementAndGet();
+			return Mono.delay(Duration.ofMillis(100))
+					.thenReturn(new Quote("AAPL", "Apple Inc", 212.49, "USD", "NASDAQ", "United States"));
+		}));
+		ReactiveStockServiceImpl service = service();
+
+		List<Map<String, Object>> infos = Flux.range(0, 20)
+				.flatMap(i -> service.getTickerInfo(i % 2 == 0 ? "aapl" : " AAPL "))
+				.collectList().block();
+
+		assertEquals(20, infos.size());
+		assertEquals(212.49, infos.get(0).get("price"));
+		assertEquals(1, calls.get());
+		verify(eventPublisher, timeout(1000).times(20)).publishEvent(new TickerViewedEvent("AAPL")); // Every lookup counts as a view
+	}
+
+	@Test
+	void tickerInfoSharesTheBlockingQuoteCache() {
+		Quote microsoft = new Quote("MSFT", "Microsoft Corp", 425.27, "USD", "NASDAQ", "United States");
+		Quote apple = new Quote("AAPL", "Apple Inc", 212.49, "USD", "NASDAQ", "United States");
+		quoteService.remember(microsoft); // Fetched by the blocking stack
+		when(client.quote("AAPL")).thenReturn(Mono.just(apple));
+		ReactiveStockServiceImpl service = service();
+
+		assertEquals(425.27, service.getTickerInfo("MSFT").block().get("price"));
+		assertEquals(212.49, service.getTickerInfo("AAPL").block().get("price"));
+
+		verify(client, never()).quote("MSFT");
+		assertEquals(apple, quoteService.getQuote("AAPL")); // Written back, so the blocking stack does not fetch it again
+		assertEquals(apple, quoteService.getLastKnownQuote("AAPL").quote());
+		verifyNoInteractions(blockingClient);
+	}
+
+	@Test
+	void concurrentChartViewsShareOneTailFetch() {
+		AtomicInteger calls = new AtomicInteger();
+		CandleSeries fetched = new CandleSeries(new long[]{1_700_000_000L, 1_700_003_600L}, new double[]{1.5, 2.5}, 2);
+		when(client.timeSeries(eq("AAPL"), eq("1h"), anyInt(), any())).thenReturn(Mono.defer(() -> {
+			calls.incrementAndGet();
+			return Mono.delay(Duration.ofMillis(100)).thenReturn(fetched);
+		}));
+		ReactiveStockServiceImpl service = service();
+
+		List<CandleSeries> views = Flux.range(0, 10)
+				.flatMap(i -> service.getHistoricalCandles("AAPL", "1h", 100, null, null))
+				.collectList().block();
+
+		assertEquals(1, calls.get());
+		views.forEach(series -> assertEquals(2, series.size()));
+		// The tail is fresh now, so another view is served from the store alone
+		assertEquals(2.5, service.getHistoricalCandles("AAPL", "1h", 1, null, null).block().closes()[0]);
+		assertEquals(1, calls.get());
+	}
+}
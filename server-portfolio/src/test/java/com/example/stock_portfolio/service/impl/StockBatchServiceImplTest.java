@@ -0,0 +1,141 @@
+package com.example.stock_portfolio.service.impl;
+
+import com.example.stock_portfolio.dto.BatchCreateReport;
+import com.example.stock_portfolio.dto.BatchRowResult;
+import com.example.stock_portfolio.dto.Quote;
+import com.example.stock_portfolio.dto.StockDto;
+import com.example.stock_portfolio.entity.Stocks;
+import com.example.stock_portfolio.event.HoldingChangedEvent;
+import com.example.stock_portfolio.exception.TwelveDataApiException;
+import com.example.stock_portfolio.repository.PortfolioRepository;
+import com.example.stock_portfolio.repository.StockRepository;
+import com.example.stock_portfolio.service.QuoteService;
+import com.example.stock_portfolio.util.TokenBucketRateLimiter;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class StockBatchServiceImplTest {
+
+	private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+	private final StockRepository stockRepository = mock(StockRepository.class);
+	private final PortfolioRepository portfolioRepository = mock(PortfolioRepository.class);
+	private final QuoteService quoteService = mock(QuoteService.class);
+	private final ApplicationEventPublisher eventPublisher = mock(ApplicationEventPublisher.class);
+	private final TokenBucketRateLimiter rateLimiter = new TokenBucketRateLimiter(8, Duration.ofMinutes(1), 2);
+
+	@AfterEach
+	void tearDown() {
+		executor.close();
+	}
+
+	private static StockDto row(String ticker) {
+		StockDto row = new StockDto();
+		row.setTicker(ticker);
+		return row;
+	}
+
+	private static Quote quote(String symbol, double close) {
+		return new Quote(symbol, symbol + " Inc", close, "USD", "NASDAQ", "United States");
+	}
+
+	@Test
+	void reportsEveryRowAndInsertsOnlyValidOnes() {
+		when(portfolioRepository.findAllById(any())).thenReturn(List.of());
+		List<Object[]> held = new ArrayList<>();
+		held.add(new Object[]{null, "MSFT"});
+		when(stockRepository.findPortfolioTickerPairs(any())).thenReturn(held);
+		// Batches of two: [AAPL, NOPE] resolves, [TSLA, GOOG] fails upstream, [ZZZZ] is unknown
+		when(quoteService.tryFetchQuotes(List.of("AAPL", "NOPE"))).thenReturn(Optional.of(Map.of("AAPL", quote("AAPL", 200.0))));
+		when(quoteService.tryFetchQuotes(List.of("TSLA", "GOOG"))).thenThrow(new TwelveDataApiException(503, "unavailable"));
+		when(quoteService.tryFetchQuotes(List.of("ZZZZ"))).thenThrow(new TwelveDataApiException(404, "symbol not found"));
+		List<List<Stocks>> inserted = new ArrayList<>();
+		doAnswer(invocation -> {
+			List<Stocks> positions = invocation.getArgument(0);
+			for (int i = 0; i < positions.size(); i++) {
+				positions.get(i).setId(100L + i);
+			}
+			inserted.add(List.copyOf(positions));
+			return null;
+		}).when(stockRepository).insertOpenedPositions(anyList());
+
+		StockDto withQuantity = row(" aapl ");
+		withQuantity.setQuantity(3L);
+		withQuantity.setBuyPrice(150.0);
+		StockDto unknownPortfolio = row("IBM");
+		unknownPortfolio.setPortfolioId(9L);
+		List<StockDto> rows = List.of(withQuantity, row("MSFT"), row("NOPE"), row("AAPL"), row(" "),
+				unknownPortfolio, row("TSLA"), row("GOOG"), row("ZZZZ"));
+
+		BatchCreateReport report = new StockBatchServiceImpl(stockRepository, portfolioRepository, quoteService,
+				executor, eventPublisher, rateLimiter, 2).createStocks(rows);
+
+		List<BatchRowResult.Status> statuses = report.rows().stream().map(BatchRowResult::status).toList();
+		assertEquals(List.of(BatchRowResult.Status.CREATED, BatchRowResult.Status.DUPLICATE, BatchRowResult.Status.INVALID_TICKER,
+				BatchRowResult.Status.DUPLICATE, BatchRowResult.Status.INVALID, BatchRowResult.Status.INVALID,
+				BatchRowResult.Status.ERROR, BatchRowResult.Status.ERROR, BatchRowResult.Status.INVALID_TICKER), statuses);
+		assertEquals(1, report.created());
+		assertEquals(8, report.failed());
+
+		StockDto created = report.rows().get(0).stock();
+		assertEquals(100L, created.getId());
+		assertEquals(3L, created.getQuantity());
+		assertEquals(150.0, created.getBuyPrice(), 1e-9);
+		assertEquals(450.0, created.getCostBasis(), 1e-9);
+		assertEquals(200.0, created.getCurrentPrice(), 1e-9);
+		assertNull(report.rows().get(1).stock());
+		assertEquals(1, inserted.size());
+		verify(eventPublisher, times(1)).publishEvent(any(HoldingChangedEvent.class));
+	}
+
+	@Test
+	void holdingsInsertedConcurrentlyAreReportedAsBadRequest() {
+		when(stockRepository.findPortfolioTickerPairs(any())).thenReturn(List.of());
+		when(quoteService.tryFetchQuotes(List.of("AAPL"))).thenReturn(Optional.of(Map.of("AAPL", quote("AAPL", 200.0))));
+		doThrow(new DataIntegrityViolationException("uk_stock_portfolio_ticker")) // Another request won the race
+				.when(stockRepository).insertOpenedPositions(anyList());
+
+		StockBatchServiceImpl service = new StockBatchServiceImpl(stockRepository, portfolioRepository, quoteService,
+				executor, eventPublisher, rateLimiter, 2);
+
+		assertThrows(IllegalArgumentException.class, () -> service.createStocks(List.of(row("AAPL"))));
+		verify(eventPublisher, never()).publishEvent(any(HoldingChangedEvent.class));
+	}
+
+	@Test
+	void batchesWithoutSpareCreditsAreLeftForARetry() {
+		when(stockRepository.findPortfolioTickerPairs(any())).thenReturn(List.of());
+		when(quoteService.tryFetchQuotes(anyList())).thenReturn(Optional.empty()); // The bucket is drained
+
+		BatchCreateReport report = new StockBatchServiceImpl(stockRepository, portfolioRepository, quoteService,
+				executor, eventPublisher, new TokenBucketRateLimiter(8, Duration.ofMinutes(1), 5), 50)
+				.createStocks(List.of(row("AAPL"), row("TSLA"), row("MSFT"), row("GOOG")));
+
+		assertEquals(List.of(BatchRowResult.Status.ERROR, BatchRowResult.Status.ERROR, BatchRowResult.Status.ERROR,
+				BatchRowResult.Status.ERROR), report.rows().stream().map(BatchRowResult::status).toList());
+		verify(quoteService, times(2)).tryFetchQuotes(anyList()); // Batches of three, the spare share of the bucket
+		verify(quoteService, never()).fetchQuotes(anyList());
+	}
+}
@@ -0,0 +1,115 @@
+package com.example.stock_portfolio.service.impl;
+
+import com.example.stock_portfolio.client.TwelveDataClient;
+import com.example.stock_portfolio.dto.Quote;
+import com.example.stock_portfolio.dto.StockDto;
+import com.example.stock_portfolio.dto.TradeDto;
+import com.example.stock_portfolio.entity.Stocks;
+import com.example.stock_portfolio.entity.TradeSide;
+import com.example.stock_portfolio.event.HoldingChangedEvent;
+import com.example.stock_portfolio.repository.PortfolioRepository;
+import com.example.stock_portfolio.repository.StockRepository;
+import com.example.stock_portfolio.service.QuoteService;
+import com.example.stock_portfolio.service.SymbolService;
+import com.example.stock_portfolio.service.TradeService;
+import com.example.stock_portfolio.store.CandleSeries;
+import com.example.stock_portfolio.store.CandleStore;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class StockServiceImplTest {
+
+	private static final long DAY = 86_400;
+
+	@TempDir
+	Path directory;
+
+	private final StockRepository stockRepository = mock(StockRepository.class);
+	private final TradeService tradeService = mock(TradeService.class);
+	private final TwelveDataClient client = mock(TwelveDataClient.class);
+	private final QuoteService quoteService = mock(QuoteService.class);
+	private final ApplicationEventPublisher eventPublisher = mock(ApplicationEventPublisher.class);
+	private StockServiceImpl stockService;
+
+	@BeforeEach
+	void setUp() {
+		stockService = new StockServiceImpl(stockRepository, mock(PortfolioRepository.class),
+				tradeService, client, quoteService, mock(SymbolService.class),
+				eventPublisher, new CandleStore(directory), Duration.ofDays(365_000));
+		when(stockRepository.findById(1L)).thenReturn(Optional.of(
+				new Stocks(1L, "Apple Inc", "AAPL", 10L, 100.0, 110.0, null, 1000.0, 0.0)));
+		when(stockRepository.saveAndFlush(any(Stocks.class))).thenAnswer(invocation -> invocation.getArgument(0));
+		when(quoteService.getQuote(anyString())).thenAnswer(invocation -> new Quote(invocation.getArgument(0),
+				invocation.getArgument(0) + " Inc", 120.0, "USD", "NASDAQ", "United States"));
+	}
+
+	@Test
+	void tickerChangesAreRejectedWhileThePositionHoldsShares() {
+		assertThrows(IllegalArgumentException.class, () -> stockService.updateStock(1L, edit("MSFT", null)));
+
+		verify(stockRepository, never()).saveAndFlush(any(Stocks.class));
+		verify(eventPublisher, never()).publishEvent(any());
+	}
+
+	@Test
+	void quantityZeroSellsTheWholePositionAndAnnouncesOneChange() {
+		stockService.updateStock(1L, edit("AAPL", 0L));
+
+		// The trade announces the edit, starting from the snapshot taken before the new price was set
+		verify(tradeService).recordTrade(eq(1L), eq(new TradeDto(null, null, "AAPL", TradeSide.SELL, 10L, 120.0, null)),
+				argThat(previous -> previous.getCurrentPrice() == 110.0));
+		verify(eventPublisher, never()).publishEvent(any(HoldingChangedEvent.class));
+	}
+
+	@Test
+	void longerWindowsFetchTheCandlesBeforeTheStoredOnes() {
+		when(client.timeSeries("AAPL", "1day", 3, null)).thenReturn(series(10, 11, 12));
+		assertEquals(3, stockService.getHistoricalCandles("AAPL", "1day", 3, null, null).size());
+
+		// The earliest stored candle comes back again and is skipped
+		when(client.timeSeries("AAPL", "1day", 6, null, "1970-01-11")).thenReturn(series(6, 7, 8, 9, 10));
+		CandleSeries window = stockService.getHistoricalCandles("AAPL", "1day", 5, null, null);
+
+		assertArrayEquals(new long[]{8 * DAY, 9 * DAY, 10 * DAY, 11 * DAY, 12 * DAY}, window.times());
+		// The short answer reached the start of the upstream history, so no further fetch is needed
+		assertEquals(7, stockService.getHistoricalCandles("AAPL", "1day", 50, null, null).size());
+		verify(client, never()).timeSeries(eq("AAPL"), eq("1day"), anyInt(), any(), eq("1970-01-07"));
+	}
+
+	private static StockDto edit(String ticker, Long quantity) {
+		StockDto edit = new StockDto();
+		edit.setTicker(ticker);
+		edit.setQuantity(quantity);
+		return edit;
+	}
+
+	// Daily candles on the given days since the epoch, closing at the day number
+	private static CandleSeries series(long... days) {
+		long[] times = new long[days.length];
+		double[] closes = new double[days.length];
+		for (int i = 0; i < days.length; i++) {
+			times[i] = days[i] * DAY;
+			closes[i] = days[i];
+		}
+		return new CandleSeries(times, closes, days.length);
+	}
+}
@@ -0,0 +1,69 @@
+package com.example.stock_portfolio.service.impl;
+
+import com.example.stock_portfolio.client.TwelveDataClient;
+import com.example.stock_portfolio.dto.Quote;
+import com.example.stock_portfolio.dto.SymbolInfo;
+import com.example.stock_portfolio.exception.TwelveDataApiException;
+import com.example.stock_portfolio.service.QuoteService;
+import com.example.stock_portfolio.store.SymbolListingStore;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class SymbolServiceImplTest {
+
+	@TempDir
+	Path directory;
+
+	private final TwelveDataClient twelveDataClient = mock(TwelveDataClient.class);
+	private final QuoteService quoteService = mock(QuoteService.class);
+	private SymbolServiceImpl symbolService;
+
+	@BeforeEach
+	void setUp() {
+		when(twelveDataClient.stocks("NASDAQ")).thenReturn(List.of(new SymbolInfo("AAPL", "Apple Inc", "NASDAQ", "USD")));
+		when(twelveDataClient.etfs("NASDAQ")).thenReturn(List.of(new SymbolInfo("QQQ", "Invesco QQQ Trust", "NASDAQ", "USD")));
+		symbolService = new SymbolServiceImpl(twelveDataClient, new SymbolListingStore(directory.resolve("symbols.csv")),
+				quoteService, "NASDAQ", Duration.ofHours(24));
+	}
+
+	@Test
+	void everyTickerIsLeftToTheQuoteLookupWithoutADirectory() {
+		assertTrue(symbolService.isListed("AAPL"));
+		verify(quoteService, never()).getQuote(anyString());
+	}
+
+	@Test
+	void listedTickersAreAcceptedWithoutALookup() {
+		symbolService.sync();
+
+		assertTrue(symbolService.isListed("AAPL"));
+		assertTrue(symbolService.isListed("QQQ"));
+		verify(quoteService, never()).getQuote(anyString());
+	}
+
+	@Test
+	void tickersOnOtherExchangesAreCheckedWithTheQuoteLookup() {
+		symbolService.sync();
+		when(quoteService.getQuote("RELIANCE")).thenReturn(new Quote("RELIANCE", "Reliance Industries Ltd", 2950.0, "INR", "NSE", "India"));
+		when(quoteService.getQuote("QQQQ")).thenThrow(new TwelveDataApiException(404, "**symbol** not found: QQQQ"));
+		when(quoteService.getQuote("MSFT")).thenThrow(new TwelveDataApiException(503, "unavailable"));
+
+		assertTrue(symbolService.isListed("RELIANCE")); // Not in the NASDAQ directory, but quoted
+		assertFalse(symbolService.isListed("QQQQ"));
+		assertThrows(TwelveDataApiException.class, () -> symbolService.isListed("MSFT")); // Not mistaken for an unknown ticker
+	}
+}
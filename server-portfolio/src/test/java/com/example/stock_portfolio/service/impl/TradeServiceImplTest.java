@@ -0,0 +1,95 @@
+package com.example.stock_portfolio.service.impl;
+
+import com.example.stock_portfolio.dto.Quote;
+import com.example.stock_portfolio.dto.TimestampedQuote;
+import com.example.stock_portfolio.dto.TradeDto;
+import com.example.stock_portfolio.dto.TradeImportReport;
+import com.example.stock_portfolio.entity.TradeSide;
+import com.example.stock_portfolio.exception.TwelveDataApiException;
+import com.example.stock_portfolio.repository.PortfolioRepository;
+import com.example.stock_portfolio.repository.PositionLotRepository;
+import com.example.stock_portfolio.repository.StockRepository;
+import com.example.stock_portfolio.repository.TradeRepository;
+import com.example.stock_portfolio.service.QuoteService;
+import com.example.stock_portfolio.util.TokenBucketRateLimiter;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class TradeServiceImplTest {
+
+	private final StockRepository stockRepository = mock(StockRepository.class);
+	private final PortfolioRepository portfolioRepository = mock(PortfolioRepository.class);
+	private final QuoteService quoteService = mock(QuoteService.class);
+	private final TransactionTemplate transactionTemplate = mock(TransactionTemplate.class);
+	private TradeServiceImpl tradeService;
+
+	@BeforeEach
+	void setUp() {
+		when(portfolioRepository.existsById(1L)).thenReturn(true);
+		when(stockRepository.findByPortfolioIdAndTickerIn(any(), any())).thenReturn(List.of());
+		when(transactionTemplate.execute(any())).thenAnswer(invocation ->
+				invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+		tradeService = new TradeServiceImpl(stockRepository, portfolioRepository, mock(TradeRepository.class),
+				mock(PositionLotRepository.class), quoteService, mock(ApplicationEventPublisher.class),
+				transactionTemplate, new TokenBucketRateLimiter(8, Duration.ofMinutes(1), 5), 50);
+	}
+
+	private static TradeDto buy(String ticker) {
+		return new TradeDto(null, null, ticker, TradeSide.BUY, 1L, 100.0, null);
+	}
+
+	private static Quote quote(String symbol) {
+		return new Quote(symbol, symbol + " Inc", 100.0, "USD", "NASDAQ", "United States");
+	}
+
+	@Test
+	void newTickersAreLookedUpInBatchesBeforeTheTransaction() {
+		when(quoteService.getLastKnownQuote("AAPL")).thenReturn(new TimestampedQuote(quote("AAPL"), Instant.now()));
+		when(quoteService.tryFetchQuotes(List.of("TSLA", "MSFT", "GOOG"))).thenReturn(Optional.of(
+				Map.of("TSLA", quote("TSLA"), "MSFT", quote("MSFT"), "GOOG", quote("GOOG"))));
+		when(quoteService.tryFetchQuotes(List.of("AMZN"))).thenReturn(Optional.of(Map.of("AMZN", quote("AMZN"))));
+
+		TradeImportReport report = tradeService.importTrades(1L,
+				List.of(buy("aapl"), buy("TSLA"), buy("MSFT"), buy("GOOG"), buy("AMZN")));
+
+		assertEquals(5, report.positions().size());
+		verify(quoteService, never()).fetchQuotes(anyList()); // Batches of three, the spare share of the bucket
+	}
+
+	@Test
+	void importsFailFastWithoutSpareCredits() {
+		when(quoteService.tryFetchQuotes(anyList())).thenReturn(Optional.empty());
+
+		TwelveDataApiException e = assertThrows(TwelveDataApiException.class,
+				() -> tradeService.importTrades(1L, List.of(buy("AAPL"), buy("TSLA"))));
+
+		assertEquals(429, e.getErrorResponse().getStatusCode());
+		verify(transactionTemplate, never()).execute(any());
+	}
+
+	@Test
+	void tickersUnknownToTheQuoteLookupAreRejectedBeforeTheTransactionWrites() {
+		when(quoteService.tryFetchQuotes(List.of("QQQQ"))).thenThrow(new TwelveDataApiException(404, "**symbol** not found: QQQQ"));
+
+		assertThrows(IllegalArgumentException.class, () -> tradeService.importTrades(1L, List.of(buy("qqqq"))));
+		verify(stockRepository, never()).saveAll(anyList());
+	}
+}
@@ -0,0 +1,92 @@
+package com.example.stock_portfolio.service.impl;
+
+import com.example.stock_portfolio.repository.PortfolioRepository;
+import com.example.stock_portfolio.repository.StockRepository;
+import com.example.stock_portfolio.store.CandleSeries;
+import com.example.stock_portfolio.store.ValuationStore;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class ValuationHistoryServiceImplTest {
+
+	private static final long HOUR = 3600;
+
+	@TempDir
+	Path directory;
+
+	private ValuationStore store() {
+		return new ValuationStore(directory, Duration.ofDays(1), Duration.ofDays(30));
+	}
+
+	@Test
+	void downsamplesIntoHourlyAndDailyBucketsAndReplaysOpenBucketsAfterRestart() throws IOException {
+		ValuationStore store = store();
+		long day = 20_000 * 24 * HOUR;
+		store.append("all", day + 10, 100);
+		store.append("all", day + 1800, 101);
+		store.append("all", day + HOUR + 60, 102); // Closes the first hourly bucket
+		store.append("all", day + 2 * HOUR + 60, 103);
+
+		CandleSeries hourly = store.read("all", ValuationStore.Tier.HOURLY);
+		assertArrayEquals(new long[]{day, day + HOUR, day + 2 * HOUR}, Arrays.copyOf(hourly.times(), hourly.size()));
+		assertArrayEquals(new double[]{101, 102, 103}, Arrays.copyOf(hourly.closes(), hourly.size()), 0);
+		assertEquals(4, store.read("all", ValuationStore.Tier.RAW).size());
+
+		ValuationStore restarted = store();
+		CandleSeries replayed = restarted.read("all", ValuationStore.Tier.HOURLY);
+		assertEquals(3, replayed.size()); // Two stored buckets plus the open one rebuilt from the raw tier
+		assertEquals(103, replayed.closes()[2], 0);
+		CandleSeries daily = restarted.read("all", ValuationStore.Tier.DAILY);
+		assertEquals(1, daily.size());
+		assertEquals(103, daily.closes()[0], 0);
+
+		restarted.compact(Instant.ofEpochSecond(day + 26 * HOUR + 30)); // Only the last raw point is within a day
+		assertEquals(1, restarted.read("all", ValuationStore.Tier.RAW).size());
+		assertEquals(1, store().read("all", ValuationStore.Tier.RAW).size());
+		assertEquals(3, store().read("all", ValuationStore.Tier.HOURLY).size());
+		assertEquals(2 * 16, Files.size(directory.resolve("hourly/all.bin"))); // The open bucket is not written yet
+	}
+
+	@Test
+	void emptiedPortfoliosRecordZero() {
+		StockRepository stockRepository = mock(StockRepository.class);
+		when(stockRepository.sumValueByPortfolio()).thenReturn(List.of(new Object[]{1L, 1500.0}, new Object[]{2L, 0.0}));
+		when(stockRepository.sumValue()).thenReturn(1750.0); // Includes positions outside any portfolio
+		ValuationStore store = store();
+		ValuationHistoryServiceImpl service = new ValuationHistoryServiceImpl(stockRepository,
+				mock(PortfolioRepository.class), store, new PortfolioVersion(), Duration.ofMinutes(1));
+
+		assertEquals(3, service.recordSnapshot());
+		assertEquals(0, store.read("portfolio-2", ValuationStore.Tier.RAW).closes()[0], 0);
+		assertEquals(1750, store.read("all", ValuationStore.Tier.RAW).closes()[0], 0);
+	}
+
+	@Test
+	void picksTheCoarsestTierThatResolvesTheRange() {
+		ValuationHistoryServiceImpl service = new ValuationHistoryServiceImpl(mock(StockRepository.class),
+				mock(PortfolioRepository.class), store(), new PortfolioVersion(), Duration.ofMinutes(1));
+
+		assertEquals(ValuationStore.Tier.RAW, service.selectTier(ValuationHistoryServiceImpl.parseRange("1d"), 500));
+		assertEquals(ValuationStore.Tier.HOURLY, service.selectTier(ValuationHistoryServiceImpl.parseRange("1d"), 24));
+		assertEquals(ValuationStore.Tier.HOURLY, service.selectTier(ValuationHistoryServiceImpl.parseRange("1w"), 500)); // Raw does not reach back a week
+		assertEquals(ValuationStore.Tier.DAILY, service.selectTier(ValuationHistoryServiceImpl.parseRange("3m"), 500));
+		assertEquals(ValuationStore.Tier.DAILY, service.selectTier(ValuationHistoryServiceImpl.parseRange("5y"), 5000));
+		assertEquals(ValuationStore.Tier.DAILY, service.selectTier(ValuationHistoryServiceImpl.parseRange("max"), 500));
+		assertEquals(Duration.ofHours(36), ValuationHistoryServiceImpl.parseRange("PT36H"));
+		assertThrows(IllegalArgumentException.class, () -> ValuationHistoryServiceImpl.parseRange("forever"));
+	}
+}
@@ -0,0 +1,41 @@
+package com.example.stock_portfolio.store;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class CandleStoreTest {
+
+	@TempDir
+	Path directory;
+
+	@Test
+	void tickersWithNothingStoredAreNotKeptInMemory() {
+		CandleStore store = new CandleStore(directory);
+
+		assertEquals(0, store.read("QQQQ", "1h").size());
+		assertEquals(Long.MAX_VALUE, store.historyStart("QQQQ", "1h"));
+		assertEquals(0, store.lastFetchedAt("QQQQ", "1h"));
+		assertEquals(0, store.version("QQQQ", "1h"));
+		assertEquals(0, store.loadedSeries());
+
+		store.fetchLock("QQQQ", "1h"); // Taken for a first fetch that then fails
+		store.discardIfEmpty("QQQQ", "1h");
+		assertEquals(0, store.loadedSeries());
+	}
+
+	@Test
+	void storedSeriesAreKeptAndLoadedFromDisk() {
+		CandleStore store = new CandleStore(directory);
+		store.append("aapl", "1h", new long[]{1_700_000_000L, 1_700_003_600L}, new double[]{1.5, 2.5}, 2);
+		store.discardIfEmpty("AAPL", "1h");
+
+		assertEquals(1, store.loadedSeries());
+		CandleStore restarted = new CandleStore(directory);
+		assertEquals(2.5, restarted.read("AAPL", "1h").closes()[1]);
+		assertEquals(1, restarted.loadedSeries());
+	}
+}
@@ -0,0 +1,60 @@
+package com.example.stock_portfolio.util;
+
+import com.example.stock_portfolio.entity.AlertState;
+import com.example.stock_portfolio.entity.AlertType;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class AlertBookTest {
+
+	private final AlertBook book = new AlertBook(0.01);
+	private final Instant now = Instant.parse("2026-10-16T15:00:00Z");
+
+	private static AlertBook.Rule rule(long id, AlertType type, double threshold, double reference) {
+		return new AlertBook.Rule(id, 1L, type, threshold, reference, AlertState.ARMED, null, null, null);
+	}
+
+	private List<Long> fired(double price) {
+		return book.onPrice(price, now).fired().stream().map(AlertBook.Rule::id).toList();
+	}
+
+	@Test
+	void firesOnlyCrossedThresholdsAndRearmsPastTheBand() {
+		book.add(rule(1, AlertType.ABOVE, 110, 0));
+		book.add(rule(2, AlertType.ABOVE, 120, 0));
+		book.add(rule(3, AlertType.BELOW, 90, 0));
+		book.add(rule(4, AlertType.PERCENT_MOVE, -20, 100)); // Fires at 80
+
+		assertEquals(List.of(), fired(100));
+		assertEquals(List.of(1L), fired(115));
+		assertEquals(List.of(), fired(109.5)); // Within the re-arm band of 110
+		assertEquals(AlertState.FIRED, book.get(1).state());
+		assertEquals(List.of(), fired(108)); // Back below 108.9, re-armed
+		assertEquals(AlertState.ARMED, book.get(1).state());
+		assertEquals(List.of(1L, 2L), fired(125));
+		assertEquals(List.of(3L, 4L), fired(75)); // Highest trigger price first
+		assertEquals(75.0, book.get(4).firedPrice());
+
+		book.rebase(1L, 50); // Percent move now fires at 40
+		assertEquals(40.0, book.get(4).triggerPrice(), 1e-9);
+	}
+
+	@Test
+	void trailingStopFollowsNewHighs() {
+		book.add(rule(1, AlertType.TRAILING_STOP, 10, 100)); // Stop at 90
+
+		assertEquals(List.of(), fired(95));
+		AlertBook.Transitions transitions = book.onPrice(120, now);
+		assertEquals(List.of(1L), transitions.changed().stream().map(AlertBook.Rule::id).toList()); // Ratcheted
+		assertEquals(108.0, book.get(1).triggerPrice(), 1e-9);
+		assertEquals(List.of(), fired(110));
+		assertEquals(List.of(1L), fired(105));
+		assertEquals(List.of(), fired(110)); // Recovered past 109.08, re-armed from the latest price
+		assertEquals(110.0, book.get(1).highWaterMark(), 1e-9);
+		assertEquals(AlertState.ARMED, book.get(1).state());
+	}
+}
@@ -0,0 +1,48 @@
+package com.example.stock_portfolio.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CircuitBreakerTest {
+
+	@Test
+	void opensAfterConsecutiveFailuresOnly() {
+		CircuitBreaker breaker = new CircuitBreaker(3, Duration.ofMinutes(1));
+
+		breaker.onFailure();
+		breaker.onFailure();
+		breaker.onSuccess(); // Resets the streak
+		breaker.onFailure();
+		breaker.onFailure();
+		assertTrue(breaker.tryAcquirePermission());
+
+		breaker.onFailure();
+		assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+		assertFalse(breaker.tryAcquirePermission());
+	}
+
+	@Test
+	void halfOpenLetsOneTrialCallThrough() throws InterruptedException {
+		CircuitBreaker breaker = new CircuitBreaker(1, Duration.ofMillis(10));
+		breaker.onFailure();
+		Thread.sleep(20);
+
+		assertTrue(breaker.tryAcquirePermission());
+		assertEquals(CircuitBreaker.State.HALF_OPEN, breaker.getState());
+		assertFalse(breaker.tryAcquirePermission()); // Trial still in flight
+
+		breaker.onFailure(); // Trial failed, open again
+		assertFalse(breaker.tryAcquirePermission());
+		Thread.sleep(20);
+
+		assertTrue(breaker.tryAcquirePermission());
+		breaker.onSuccess();
+		assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+		assertTrue(breaker.tryAcquirePermission());
+	}
+}
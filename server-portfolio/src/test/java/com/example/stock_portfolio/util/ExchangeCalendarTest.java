@@ -0,0 +1,50 @@
+package com.example.stock_portfolio.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ExchangeCalendarTest {
+
+	private final ExchangeCalendar calendar = ExchangeCalendar.parse("LSE:2026-12-28");
+
+	@Test
+	void followsLocalSessionHoursAcrossDaylightSaving() {
+		assertTrue(calendar.isOpen("NASDAQ", Instant.parse("2026-11-25T15:00:00Z"))); // 10:00 EST
+		assertFalse(calendar.isOpen("NASDAQ", Instant.parse("2026-11-25T21:30:00Z"))); // 16:30 EST
+		assertTrue(calendar.isOpen("nyse", Instant.parse("2026-07-01T13:45:00Z"))); // 09:45 EDT
+		assertFalse(calendar.isOpen("NYSE", Instant.parse("2026-11-28T15:00:00Z"))); // Saturday
+	}
+
+	@Test
+	void closesOnUsAndConfiguredHolidays() {
+		assertTrue(ExchangeCalendar.isUsMarketHoliday(LocalDate.parse("2026-11-26"))); // Thanksgiving
+		assertTrue(ExchangeCalendar.isUsMarketHoliday(LocalDate.parse("2026-04-03"))); // Good Friday
+		assertTrue(ExchangeCalendar.isUsMarketHoliday(LocalDate.parse("2026-07-03"))); // Independence Day on a Saturday
+		assertFalse(ExchangeCalendar.isUsMarketHoliday(LocalDate.parse("2026-11-27")));
+
+		assertFalse(calendar.isOpen("LSE", Instant.parse("2026-12-28T10:00:00Z")));
+		assertTrue(calendar.isOpen("LSE", Instant.parse("2026-12-29T10:00:00Z")));
+	}
+
+	@Test
+	void previousCloseAndNextOpenSkipNonTradingDays() {
+		assertEquals(Instant.parse("2026-11-25T21:00:00Z"), calendar.previousClose("NASDAQ", Instant.parse("2026-11-27T15:00:00Z")));
+		assertEquals(Instant.parse("2026-11-27T21:00:00Z"), calendar.previousClose("NASDAQ", Instant.parse("2026-11-30T12:00:00Z")));
+		assertEquals(Instant.parse("2026-11-27T14:30:00Z"), calendar.nextOpen("NASDAQ", Instant.parse("2026-11-25T22:00:00Z")));
+	}
+
+	@Test
+	void unknownExchangesCountAsAlwaysOpen() {
+		assertTrue(calendar.isOpen("MOON", Instant.parse("2026-11-28T15:00:00Z")));
+		assertNull(calendar.previousClose("MOON", Instant.parse("2026-11-28T15:00:00Z")));
+		assertThrows(IllegalArgumentException.class, () -> ExchangeCalendar.parse("LSE-2026-12-28"));
+	}
+}
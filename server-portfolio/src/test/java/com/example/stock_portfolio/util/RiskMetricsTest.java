@@ -0,0 +1,55 @@
+package com.example.stock_portfolio.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class RiskMetricsTest {
+
+	@Test
+	void computesSeriesStatistics() {
+		double[] prices = {100, 110, 99, 121, 108.9};
+		double[] returns = RiskMetrics.returns(prices, prices.length);
+
+		assertArrayEquals(new double[]{0.1, -0.1, 2.0 / 9, -0.1}, returns, 1e-12);
+		assertEquals(0.089, RiskMetrics.totalReturn(prices, prices.length), 1e-12);
+		assertEquals(0.1, RiskMetrics.maxDrawdown(prices, prices.length), 1e-12); // 110 -> 99 and 121 -> 108.9
+		assertEquals(0.1, RiskMetrics.valueAtRisk(returns, 0.95), 1e-12);
+		assertEquals(2.0, RiskMetrics.beta(new double[]{0.02, -0.04, 0.06}, new double[]{0.01, -0.02, 0.03}), 1e-12);
+	}
+
+	@Test
+	void parallelCorrelationMatrixMatchesPairwiseComputation() {
+		Random random = new Random(42);
+		int n = 120;
+		double[][] returns = new double[n][250];
+		for (int k = 0; k < n; k++) {
+			for (int t = 0; t < returns[k].length; t++) {
+				returns[k][t] = k % 10 == 0 ? 0 : random.nextGaussian() * 0.01 + (k > 0 ? returns[k - 1][t] * 0.5 : 0);
+			}
+		}
+
+		double[] matrix = RiskMetrics.correlationMatrix(returns);
+
+		for (int i = 0; i < n; i++) {
+			for (int j = 0; j < n; j++) {
+				double expected = i == j ? 1 : constant(returns[i]) || constant(returns[j]) ? 0 : pearson(returns[i], returns[j]);
+				assertEquals(expected, matrix[i * n + j], 1e-9, "correlation " + i + "," + j);
+			}
+		}
+	}
+
+	// Series without variation
+	private static boolean constant(double[] series) {
+		return RiskMetrics.standardDeviation(series, 0, series.length) == 0;
+	}
+
+	private static double pearson(double[] x, double[] y) {
+		double sx = RiskMetrics.standardDeviation(x, 0, x.length);
+		double sy = RiskMetrics.standardDeviation(y, 0, y.length);
+		return RiskMetrics.beta(x, y) * sy / sx;
+	}
+}
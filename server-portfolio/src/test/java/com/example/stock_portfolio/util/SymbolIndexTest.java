@@ -0,0 +1,39 @@
+package com.example.stock_portfolio.util;
+
+import com.example.stock_portfolio.dto.SymbolInfo;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SymbolIndexTest {
+
+	private final SymbolIndex index = SymbolIndex.of(List.of(
+			new SymbolInfo("AAPL", "Apple Inc", "NASDAQ", "USD"),
+			new SymbolInfo("APP", "AppLovin Corp", "NASDAQ", "USD"),
+			new SymbolInfo("AMZN", "Amazon.com Inc", "NASDAQ", "USD"),
+			new SymbolInfo("SHOP", "Shopify Inc", "NYSE", "USD"),
+			new SymbolInfo("SHOP", "Shopify Inc", "TSX", "CAD"),
+			new SymbolInfo("shop", "Shopify Inc", "NYSE", "USD"), // Repeated listing
+			new SymbolInfo("MSFT", "Microsoft Corp", "NASDAQ", "USD")));
+
+	@Test
+	void findsSymbolMatchesFirstThenNameMatches() {
+		assertEquals(List.of("APP", "AAPL"), index.search("ap", 10).stream().map(SymbolInfo::symbol).toList()); // APP by symbol, Apple by name
+		assertEquals(List.of("MSFT"), index.search("micro", 10).stream().map(SymbolInfo::symbol).toList());
+		assertEquals(List.of("AAPL", "AMZN"), index.search("A", 2).stream().map(SymbolInfo::symbol).toList());
+		assertEquals(List.of(), index.search(" ", 10));
+	}
+
+	@Test
+	void keepsOneEntryPerSymbolAndExchange() {
+		assertEquals(6, index.size());
+		assertEquals(List.of("NYSE", "TSX"), index.search("SHOP", 10).stream().map(SymbolInfo::exchange).toList());
+		assertTrue(index.contains(" msft "));
+		assertFalse(index.contains("MSF"));
+		assertFalse(SymbolIndex.EMPTY.contains("AAPL"));
+	}
+}
@@ -0,0 +1,43 @@
+package com.example.stock_portfolio.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TokenBucketRateLimiterTest {
+
+	@Test
+	void backgroundCallersLeaveTheReservedShare() {
+		TokenBucketRateLimiter limiter = new TokenBucketRateLimiter(8, Duration.ofHours(1), 2);
+
+		assertEquals(6, limiter.backgroundCapacity());
+		assertFalse(limiter.tryAcquire(7)); // Would eat into the reserve
+		assertTrue(limiter.tryAcquire(6));
+		assertFalse(limiter.tryAcquire(1));
+		assertEquals(0, limiter.reserve(2)); // Interactive calls still get the reserved credits without waiting
+	}
+
+	@Test
+	void backgroundCallersSkipWhileInteractiveCallersWait() {
+		TokenBucketRateLimiter limiter = new TokenBucketRateLimiter(8, Duration.ofHours(1), 2);
+
+		assertTrue(limiter.reserve(10) > 0); // Bucket driven negative by an interactive burst
+		assertFalse(limiter.tryAcquire(1)); // Background work neither waits nor pushes the bucket further down
+		assertEquals(0, limiter.availableCredits());
+	}
+
+	@Test
+	void refundedReservationsAreAvailableAgain() {
+		TokenBucketRateLimiter limiter = new TokenBucketRateLimiter(8, Duration.ofHours(1), 2);
+
+		assertTrue(limiter.reserve(10) > 0); // Queued behind the bucket, then cancelled before it was sent
+		limiter.refund(10);
+
+		assertEquals(8, limiter.availableCredits(), 0.01);
+		assertTrue(limiter.tryAcquire(6));
+	}
+}